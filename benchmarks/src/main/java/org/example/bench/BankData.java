@@ -0,0 +1,84 @@
+package org.example.bench;
+
+import org.example.dao.BankAccountDAO;
+import org.example.dao.BankAccountDaoJdbc;
+import org.example.dao.ClientDAO;
+import org.example.dao.ClientDaoJdbc;
+import org.example.db.DB;
+import org.example.db.EmbeddedDatabase;
+import org.example.db.PoolProfile;
+import org.example.model.AccountType;
+import org.example.model.BankAccount;
+import org.example.model.Client;
+import org.example.model.Currency;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Base embebida compartida por los benchmarks: clientes con cuentas CORRIENTE con saldo alto
+ * (los retiros nunca fallan por reglas, medimos sólo el camino feliz).
+ */
+@State(Scope.Benchmark)
+public class BankData {
+
+    @Param({"1000"})
+    public int accounts;
+
+    @Param({"5"})
+    public int accountsPerClient;
+
+    public ClientDAO clientDao;
+    public BankAccountDAO accDao;
+    public String[] accountNumbers;
+    public int[] clientIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        EmbeddedDatabase.start("bench" + System.nanoTime(), PoolProfile.OLTP);
+        clientDao = new ClientDaoJdbc();
+        accDao = new BankAccountDaoJdbc();
+
+        int clients = Math.max(1, accounts / accountsPerClient);
+        List<Client> list = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            list.add(new Client(String.valueOf(10_000_000 + i), "Nombre" + i, "Apellido" + i,
+                    "c" + i + "@mail.com", "9" + (10_000_000 + i), LocalDate.of(1990, 1, 1), "Av. " + i));
+        }
+        clientDao.saveAll(list.iterator());
+
+        clientIds = new int[clients];
+        accountNumbers = new String[accounts];
+        Iterator<Client> it = list.iterator();
+        for (int i = 0; i < clients; i++) clientIds[i] = it.next().getId();
+        for (int i = 0; i < accounts; i++) {
+            BankAccount a = newAccount(clientIds[i % clients]);
+            accountNumbers[i] = accDao.openAccount(a).getAccountNumber();
+        }
+    }
+
+    public static BankAccount newAccount(int clientId) {
+        BankAccount a = new BankAccount();
+        a.setAccountType(AccountType.CORRIENTE);
+        a.setCurrency(Currency.PEN);
+        a.setBalance(new BigDecimal("1000000000.00"));
+        a.setOverdraftLimit(new BigDecimal("500.00"));
+        a.setClientId(clientId);
+        return a;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.println(DB.stats());
+        DB.shutdown();
+    }
+}
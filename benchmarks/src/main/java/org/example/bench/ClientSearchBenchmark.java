@@ -0,0 +1,88 @@
+package org.example.bench;
+
+import org.example.cache.ClientSearchIndex;
+import org.example.model.Client;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Búsqueda por prefijo en ClientSearchIndex con clientes sintéticos (sin BD: se mide sólo el índice).
+ * Al armarlo imprime las entradas y la memoria estimada.
+ *     java -jar benchmarks.jar ClientSearchBenchmark -p clients=1000000
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ClientSearchBenchmark {
+
+    private static final String[] FIRST = {"María", "José", "Luis", "Ana", "Carlos", "Rosa", "Jorge", "Lucía",
+            "Pedro", "Carmen", "Miguel", "Elena", "Andrés", "Sofía", "Raúl", "Julia"};
+    private static final String[] LAST = {"Quispe", "Flores", "Sánchez", "Rodríguez", "García", "Huamán",
+            "Mamani", "Chávez", "Torres", "Ramírez", "Vargas", "Castillo", "Mendoza", "Rojas", "Díaz", "Pérez"};
+
+    @State(Scope.Benchmark)
+    public static class Index {
+        @Param({"1000000"})
+        public int clients;
+
+        ClientSearchIndex index;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            index = new ClientSearchIndex();
+            long t0 = System.nanoTime();
+            index.load(IntStream.range(1, clients + 1).mapToObj(Index::client));
+            System.out.printf("%n%s armado en %d ms%n", index, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0));
+        }
+
+        static Client client(int i) {
+            // nombres y apellidos repetidos (como en la realidad) más un email y teléfono únicos
+            String first = FIRST[i % FIRST.length], last = LAST[(i / FIRST.length) % LAST.length];
+            return new Client(i, String.valueOf(10_000_000 + i), first, last + " " + LAST[i % 7],
+                    "cliente" + i + "@mail.com", "9" + (10_000_000 + i), LocalDate.of(1990, 1, 1), null);
+        }
+    }
+
+    @Benchmark
+    public int[] uniqueEmail(Index ix) {
+        return ix.index.search("cliente" + ThreadLocalRandom.current().nextInt(1, ix.clients + 1) + "@", 0, 20);
+    }
+
+    @Benchmark
+    public int[] phonePrefix(Index ix) {
+        return ix.index.search("9" + (10_000_000 + ThreadLocalRandom.current().nextInt(1, ix.clients / 100)), 0, 20);
+    }
+
+    // prefijo común: cientos de miles de coincidencias, se devuelven las 20 primeras por id
+    @Benchmark
+    public int[] commonName(Index ix) {
+        return ix.index.search("mar", 0, 20);
+    }
+
+    @Benchmark
+    public int[] nameAndSurname(Index ix) {
+        return ix.index.search("luc quis", 0, 20);
+    }
+
+    @Benchmark
+    public void update(Index ix) {
+        ix.index.put(Index.client(ThreadLocalRandom.current().nextInt(1, ix.clients + 1)));
+    }
+}
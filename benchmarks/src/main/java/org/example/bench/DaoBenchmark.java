@@ -0,0 +1,83 @@
+package org.example.bench;
+
+import org.example.model.BankAccount;
+import org.example.model.Client;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caminos calientes de ClientDaoJdbc / BankAccountDaoJdbc.
+ * El número de hilos se elige al ejecutar: java -jar benchmarks.jar DaoBenchmark -t 1 (luego -t 4, -t 16...).
+ * El grupo "mixed" fija 3 lectores por cada escritor.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class DaoBenchmark {
+
+    private static final BigDecimal AMOUNT = new BigDecimal("1.00");
+
+    private static String anyAccount(BankData data) {
+        return data.accountNumbers[ThreadLocalRandom.current().nextInt(data.accountNumbers.length)];
+    }
+
+    @Benchmark
+    public Optional<BankAccount> findByAccountNumber(BankData data) {
+        return data.accDao.findByAccountNumber(anyAccount(data));
+    }
+
+    @Benchmark
+    public BigDecimal deposit(BankData data) {
+        return data.accDao.deposit(anyAccount(data), AMOUNT);
+    }
+
+    @Benchmark
+    public BigDecimal withdraw(BankData data) {
+        return data.accDao.withdraw(anyAccount(data), AMOUNT);
+    }
+
+    @Benchmark
+    public BankAccount openAccount(BankData data) {
+        int clientId = data.clientIds[ThreadLocalRandom.current().nextInt(data.clientIds.length)];
+        return data.accDao.openAccount(BankData.newAccount(clientId));
+    }
+
+    @Benchmark
+    public List<Client> findAll(BankData data) {
+        return data.clientDao.findAll();
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(3)
+    public BigDecimal mixedRead(BankData data) {
+        return data.accDao.getBalance(anyAccount(data));
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public BigDecimal mixedWrite(BankData data) {
+        ThreadLocalRandom r = ThreadLocalRandom.current();
+        String acc = anyAccount(data);
+        return r.nextBoolean() ? data.accDao.deposit(acc, AMOUNT) : data.accDao.withdraw(acc, AMOUNT);
+    }
+}
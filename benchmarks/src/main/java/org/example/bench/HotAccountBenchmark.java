@@ -0,0 +1,82 @@
+package org.example.bench;
+
+import org.example.dao.BankAccountDAO;
+import org.example.dao.BankAccountDaoCombining;
+import org.example.dao.BankAccountDaoJdbc;
+import org.example.dao.ClientDaoJdbc;
+import org.example.db.DB;
+import org.example.db.EmbeddedDatabase;
+import org.example.db.PoolProfile;
+import org.example.model.Client;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Depósitos concurrentes a UNA sola cuenta, uno por llamada contra combinados (BankAccountDaoCombining).
+ * En H2 en memoria el commit no cuesta casi nada y la diferencia es pequeña; la ganancia está en MySQL,
+ * donde cada depósito suelto paga su commit (flush del redo log) con la fila bloqueada:
+ *     java -Dbanco.db.url=jdbc:mysql://... -jar benchmarks.jar HotAccountBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class HotAccountBenchmark {
+
+    private static final BigDecimal AMOUNT = new BigDecimal("1.00");
+
+    @State(Scope.Benchmark)
+    public static class Hot {
+        // "off": un UPDATE por depósito; si no, ventana del líder en µs
+        @Param({"off", "0", "200"})
+        public String combineWindowMicros;
+
+        BankAccountDAO accDao;
+        String account;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            if (System.getProperty("banco.db.url") != null) DB.configure(PoolProfile.OLTP);   // BANCO real
+            else EmbeddedDatabase.start("hot" + System.nanoTime(), PoolProfile.OLTP);
+            BankAccountDaoJdbc jdbc = new BankAccountDaoJdbc();
+            accDao = "off".equals(combineWindowMicros) ? jdbc : new BankAccountDaoCombining(jdbc,
+                    Duration.ofNanos(Long.parseLong(combineWindowMicros) * 1000), BankAccountDaoCombining.DEFAULT_MAX_BATCH);
+            Client c = new ClientDaoJdbc().save(new Client(String.valueOf(80_000_000 + ThreadLocalRandom.current().nextInt(1_000_000)),
+                    "Bench", "Hot", null, null, LocalDate.of(1990, 1, 1), null));
+            account = jdbc.openAccount(BankData.newAccount(c.getId())).getAccountNumber();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            if (accDao instanceof BankAccountDaoCombining) {
+                System.out.printf("%n lote medio: %.1f depósitos%n", ((BankAccountDaoCombining) accDao).getAverageBatchSize());
+            }
+            DB.shutdown();
+        }
+    }
+
+    @Benchmark
+    public BigDecimal deposit(Hot h) {
+        return h.accDao.deposit(h.account, AMOUNT);
+    }
+}
@@ -0,0 +1,130 @@
+package org.example.bench;
+
+import com.zaxxer.hikari.HikariConfig;
+import org.example.dao.BankAccountDAO;
+import org.example.dao.BankAccountDaoJdbc;
+import org.example.dao.ClientDaoJdbc;
+import org.example.db.DB;
+import org.example.db.EmbeddedDatabase;
+import org.example.db.PoolProfile;
+import org.example.model.BankAccount;
+import org.example.model.Client;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo de volver a preparar la misma SQL con y sin cache de sentencias (DB.applyStatementCache).
+ * Por defecto corre sobre H2 (QUERY_CACHE_SIZE 0 vs 64); con -Dbanco.db.url=jdbc:mysql://... mide
+ * el driver MySQL (cachePrepStmts + useServerPrepStmts), que es donde se ahorra el parseo en el servidor.
+ *     java -jar benchmarks.jar StatementCacheBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StatementCacheBenchmark {
+
+    private static final String SELECT_BY_ACC_SQL =
+            "SELECT id, accountNumber, balance, accountType, currency, creationDate, overdraftLimit, client_id " +
+                    "FROM BankAccount WHERE accountNumber = ?";
+
+    @State(Scope.Benchmark)
+    public static class Db {
+        @Param({"false", "true"})
+        public boolean stmtCache;
+
+        @Param({"200"})
+        public int accounts;
+
+        BankAccountDAO accDao;
+        String[] accountNumbers;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            HikariConfig cfg;
+            String url = System.getProperty("banco.db.url");
+            if (url != null) {
+                cfg = DB.baseConfig(PoolProfile.OLTP);   // BANCO real: el esquema ya existe
+                DB.applyStatementCache(cfg, stmtCache);
+            } else {
+                cfg = EmbeddedDatabase.config("stmt" + System.nanoTime(), PoolProfile.OLTP, stmtCache);
+            }
+            DB.configure(cfg);
+
+            accDao = new BankAccountDaoJdbc();
+            Client c = new ClientDaoJdbc().save(new Client(String.valueOf(90_000_000 + ThreadLocalRandom.current().nextInt(1_000_000)),
+                    "Bench", "Stmt", null, null, LocalDate.of(1990, 1, 1), null));
+            accountNumbers = new String[accounts];
+            for (int i = 0; i < accounts; i++) {
+                accountNumbers[i] = accDao.openAccount(BankData.newAccount(c.getId())).getAccountNumber();
+            }
+        }
+
+        String anyAccount() {
+            return accountNumbers[ThreadLocalRandom.current().nextInt(accountNumbers.length)];
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            DB.shutdown();
+        }
+    }
+
+    // Una conexión fija: sólo prepare + execute, sin el costo de pedir la conexión al pool
+    @State(Scope.Thread)
+    public static class HeldConnection {
+        Connection con;
+
+        @Setup(Level.Trial)
+        public void open(Db db) throws SQLException {
+            con = DB.getConnection();
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws SQLException {
+            con.close();
+        }
+    }
+
+    @Benchmark
+    public boolean prepareAndQuery(Db db, HeldConnection h) throws SQLException {
+        try (PreparedStatement ps = h.con.prepareStatement(SELECT_BY_ACC_SQL)) {
+            ps.setString(1, db.anyAccount());
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    @Benchmark
+    public Optional<BankAccount> findByAccountNumber(Db db) {
+        return db.accDao.findByAccountNumber(db.anyAccount());
+    }
+
+    @Benchmark
+    public BigDecimal deposit(Db db) {
+        return db.accDao.deposit(db.anyAccount(), new BigDecimal("1.00"));
+    }
+}
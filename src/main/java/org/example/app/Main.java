@@ -4,6 +4,10 @@ import org.example.dao.ClientDAO;
 import org.example.dao.ClientDaoJdbc;
 import org.example.dao.BankAccountDAO;
 import org.example.dao.BankAccountDaoJdbc;
+import org.example.dao.BankAccountDaoMetered;
+import org.example.dao.ClientDaoMetered;
+import org.example.db.DB;
+import org.example.metrics.DaoMetrics;
 import org.example.model.*;
 
 import java.math.BigDecimal;
@@ -12,8 +16,9 @@ import java.util.List;
 
 public class Main {
     public static void main(String[] args) {
-        ClientDAO clientDao = new ClientDaoJdbc();
-        BankAccountDAO accDao = new BankAccountDaoJdbc();
+        // -Dbanco.metrics=true para medir; apagado, los decoradores casi no cuestan
+        ClientDAO clientDao = new ClientDaoMetered(new ClientDaoJdbc());
+        BankAccountDAO accDao = new BankAccountDaoMetered(new BankAccountDaoJdbc());
 
         // ---------------- CLIENTES ----------------
         // Crear o reutilizar cliente por DNI
@@ -82,5 +87,9 @@ public class Main {
         cuentas.forEach(a -> System.out.println(
                 a.getAccountNumber() + " | " + a.getCurrency() + " | " + a.getAccountType() + " | " + a.getBalance()
         ));
+
+        System.out.println("Pool: " + DB.stats());
+        if (DaoMetrics.isEnabled()) System.out.print(DaoMetrics.scrape());
+        DB.shutdown();
     }
 }
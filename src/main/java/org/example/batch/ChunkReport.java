@@ -0,0 +1,34 @@
+package org.example.batch;
+
+/**
+ * Resultado de un rango de ids (rangeStart < id <= rangeEnd) del cierre diario.
+ */
+public class ChunkReport {
+
+    private final int rangeStart;
+    private final int rangeEnd;
+    private final int accounts;      // cuentas actualizadas
+    private final long nanos;
+
+    ChunkReport(int rangeStart, int rangeEnd, int accounts, long nanos) {
+        this.rangeStart = rangeStart;
+        this.rangeEnd = rangeEnd;
+        this.accounts = accounts;
+        this.nanos = nanos;
+    }
+
+    public int getRangeStart() { return rangeStart; }
+    public int getRangeEnd() { return rangeEnd; }
+    public int getAccounts() { return accounts; }
+    public long getMillis() { return nanos / 1_000_000; }
+
+    public double getAccountsPerSecond() {
+        return nanos == 0 ? 0 : accounts * 1e9 / nanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ChunkReport{ids=(%d,%d], accounts=%d, ms=%d, accounts/s=%.0f}",
+                rangeStart, rangeEnd, accounts, getMillis(), getAccountsPerSecond());
+    }
+}
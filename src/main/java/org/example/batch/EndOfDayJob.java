@@ -0,0 +1,212 @@
+package org.example.batch;
+
+import org.example.db.DB;
+import org.example.model.AccountType;
+import org.example.model.Currency;
+import org.example.model.Money;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Cierre diario: abona intereses a las cuentas AHORRO con saldo positivo y cobra interés de
+ * sobregiro a las CORRIENTE en negativo (tasa anual / 365, redondeo bancario a céntimos).
+ *
+ * La tabla se parte en rangos fijos de ids (rangeStart < id <= rangeStart + rangeSize) que un pool
+ * de hilos procesa en paralelo. Cada rango es una transacción: bloquea sus filas, aplica un UPDATE
+ * por lotes e inserta su fila en EodCheckpoint. Si la corrida se cae, volver a ejecutarla con la
+ * misma fecha salta los rangos ya registrados; ninguna cuenta recibe el interés dos veces.
+ */
+public class EndOfDayJob {
+
+    public static final int DEFAULT_RANGE_SIZE = 5_000;
+
+    private static final BigDecimal DAYS_PER_YEAR = BigDecimal.valueOf(365);
+
+    private static final String ID_BOUNDS_SQL = "SELECT MIN(id), MAX(id) FROM BankAccount";
+
+    private static final String DONE_SQL = "SELECT rangeStart FROM EodCheckpoint WHERE runDate = ?";
+
+    // sólo las filas que generan movimiento; FOR UPDATE para no pisar depósitos concurrentes
+    private static final String SELECT_RANGE_SQL =
+            "SELECT id, balance, accountType, currency FROM BankAccount " +
+                    "WHERE id > ? AND id <= ? " +
+                    "AND ((accountType = 'AHORRO' AND balance > 0) OR (accountType = 'CORRIENTE' AND balance < 0)) " +
+                    "ORDER BY id FOR UPDATE";
+
+    private static final String ADD_BALANCE_SQL = "UPDATE BankAccount SET balance = balance + ?, version = version + 1 WHERE id = ?";
+
+    private static final String INSERT_CHECKPOINT_SQL =
+            "INSERT INTO EodCheckpoint(runDate, rangeStart, rangeEnd, accounts, finishedAt) VALUES (?,?,?,?,?)";
+
+    private final BigDecimal savingsRate;     // anual, p.ej. 0.0150 = 1.5%
+    private final BigDecimal overdraftRate;   // anual
+    private final int rangeSize;
+    private final int workers;
+
+    public EndOfDayJob(BigDecimal savingsRate, BigDecimal overdraftRate) {
+        this(savingsRate, overdraftRate, DEFAULT_RANGE_SIZE, Runtime.getRuntime().availableProcessors());
+    }
+
+    public EndOfDayJob(BigDecimal savingsRate, BigDecimal overdraftRate, int rangeSize, int workers) {
+        if (savingsRate == null || overdraftRate == null || savingsRate.signum() < 0 || overdraftRate.signum() < 0)
+            throw new IllegalArgumentException("tasas requeridas y no negativas");
+        if (rangeSize <= 0 || workers <= 0) throw new IllegalArgumentException("rangeSize/workers deben ser positivos");
+        this.savingsRate = savingsRate;
+        this.overdraftRate = overdraftRate;
+        this.rangeSize = rangeSize;
+        this.workers = workers;
+    }
+
+    public EndOfDayResult run(LocalDate runDate) {
+        return run(runDate, r -> { });
+    }
+
+    /** onChunk recibe cada rango terminado (desde los hilos del pool), p.ej. para imprimir avance. */
+    public EndOfDayResult run(LocalDate runDate, Consumer<ChunkReport> onChunk) {
+        long t0 = System.nanoTime();
+        EndOfDayResult result = new EndOfDayResult();
+        int[] bounds = idBounds();
+        if (bounds == null) return result;
+        Set<Integer> done = completedRanges(runDate);
+
+        ExecutorService pool = Executors.newFixedThreadPool(workers, r -> {
+            Thread t = new Thread(r, "eod-worker");
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            // rangos alineados a múltiplos de rangeSize: los mismos en cada corrida, aunque se abran cuentas
+            for (long start = (long) ((bounds[0] - 1) / rangeSize) * rangeSize; start < bounds[1]; start += rangeSize) {
+                int from = (int) start;
+                int to = (int) Math.min(start + rangeSize, Integer.MAX_VALUE);
+                if (done.contains(from)) {
+                    result.addSkipped();
+                    continue;
+                }
+                futures.add(pool.submit(() -> {
+                    try {
+                        ChunkReport report = processRange(runDate, from, to, result);
+                        if (report != null) onChunk.accept(report);
+                    } catch (SQLException | RuntimeException e) {
+                        result.addFailed();   // queda sin checkpoint: la próxima corrida lo reintenta
+                    }
+                }));
+            }
+            for (Future<?> f : futures) f.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Cierre interrumpido", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Error en cierre diario", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        result.setNanos(System.nanoTime() - t0);
+        return result;
+    }
+
+    // null si otro proceso ya registró el rango (PK de EodCheckpoint)
+    private ChunkReport processRange(LocalDate runDate, int from, int to, EndOfDayResult result) throws SQLException {
+        long t0 = System.nanoTime();
+        Map<Currency, Money> paid = new EnumMap<>(Currency.class);
+        Map<Currency, Money> charged = new EnumMap<>(Currency.class);
+        int accounts = 0;
+        try (Connection con = DB.getConnection()) {
+            con.setAutoCommit(false);
+            try (PreparedStatement sel = con.prepareStatement(SELECT_RANGE_SQL);
+                 PreparedStatement upd = con.prepareStatement(ADD_BALANCE_SQL)) {
+                sel.setInt(1, from);
+                sel.setInt(2, to);
+                try (ResultSet rs = sel.executeQuery()) {
+                    while (rs.next()) {
+                        Currency currency = Currency.fromDb(rs.getString(4));
+                        long balance = Money.toMinor(rs.getBigDecimal(2));
+                        boolean savings = AccountType.fromDb(rs.getString(3)) == AccountType.AHORRO;
+                        long delta = dailyInterest(balance, savings ? savingsRate : overdraftRate);
+                        if (delta == 0) continue;
+                        upd.setBigDecimal(1, BigDecimal.valueOf(delta, Money.SCALE));
+                        upd.setInt(2, rs.getInt(1));
+                        upd.addBatch();
+                        accounts++;
+                        (savings ? paid : charged).merge(currency, Money.ofMinor(Math.abs(delta), currency), Money::plus);
+                    }
+                }
+                if (accounts > 0) upd.executeBatch();
+                try (PreparedStatement cp = con.prepareStatement(INSERT_CHECKPOINT_SQL)) {
+                    cp.setDate(1, Date.valueOf(runDate));
+                    cp.setInt(2, from);
+                    cp.setInt(3, to);
+                    cp.setInt(4, accounts);
+                    cp.setTimestamp(5, Timestamp.valueOf(LocalDateTime.now()));
+                    cp.executeUpdate();
+                }
+                con.commit();
+            } catch (SQLIntegrityConstraintViolationException e) {
+                con.rollback();
+                result.addSkipped();
+                return null;
+            } catch (SQLException | RuntimeException e) {
+                con.rollback();
+                throw e;
+            } finally {
+                con.setAutoCommit(true);
+            }
+        }
+        ChunkReport report = new ChunkReport(from, to, accounts, System.nanoTime() - t0);
+        result.addChunk(report, paid, charged);
+        return report;
+    }
+
+    // interés de un día en céntimos, con el signo del saldo (abono si es positivo, cargo si es negativo)
+    static long dailyInterest(long balanceMinor, BigDecimal annualRate) {
+        return BigDecimal.valueOf(balanceMinor).multiply(annualRate)
+                .divide(DAYS_PER_YEAR, 0, RoundingMode.HALF_EVEN).longValueExact();
+    }
+
+    private static int[] idBounds() {
+        try (Connection con = DB.getConnection();
+             PreparedStatement ps = con.prepareStatement(ID_BOUNDS_SQL);
+             ResultSet rs = ps.executeQuery()) {
+            if (!rs.next() || rs.getObject(1) == null) return null;
+            return new int[]{rs.getInt(1), rs.getInt(2)};
+        } catch (SQLException e) {
+            throw new RuntimeException("Error leyendo rango de cuentas", e);
+        }
+    }
+
+    private static Set<Integer> completedRanges(LocalDate runDate) {
+        Set<Integer> done = new HashSet<>();
+        try (Connection con = DB.getConnection();
+             PreparedStatement ps = con.prepareStatement(DONE_SQL)) {
+            ps.setDate(1, Date.valueOf(runDate));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) done.add(rs.getInt(1));
+            }
+            return done;
+        } catch (SQLException e) {
+            throw new RuntimeException("Error leyendo checkpoints del cierre", e);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package org.example.batch;
+
+import org.example.model.Currency;
+import org.example.model.Money;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resumen de una corrida de EndOfDayJob. Los totales van por moneda (no se suman PEN con USD).
+ */
+public class EndOfDayResult {
+
+    private final List<ChunkReport> chunks = new ArrayList<>();
+    private final Map<Currency, Money> interestPaid = new EnumMap<>(Currency.class);
+    private final Map<Currency, Money> overdraftCharged = new EnumMap<>(Currency.class);
+    private int skipped;
+    private int failed;
+    private long nanos;
+
+    synchronized void addChunk(ChunkReport report, Map<Currency, Money> paid, Map<Currency, Money> charged) {
+        chunks.add(report);
+        paid.forEach((c, m) -> interestPaid.merge(c, m, Money::plus));
+        charged.forEach((c, m) -> overdraftCharged.merge(c, m, Money::plus));
+    }
+
+    synchronized void addSkipped() { skipped++; }
+    synchronized void addFailed() { failed++; }
+    void setNanos(long nanos) { this.nanos = nanos; }
+
+    public synchronized List<ChunkReport> getChunks() { return Collections.unmodifiableList(new ArrayList<>(chunks)); }
+    public synchronized int getSkipped() { return skipped; }
+    public synchronized int getFailed() { return failed; }
+
+    public synchronized long getAccounts() {
+        long n = 0;
+        for (ChunkReport c : chunks) n += c.getAccounts();
+        return n;
+    }
+
+    public synchronized Money getInterestPaid(Currency currency) {
+        return interestPaid.getOrDefault(currency, Money.zero(currency));
+    }
+
+    public synchronized Money getOverdraftCharged(Currency currency) {
+        return overdraftCharged.getOrDefault(currency, Money.zero(currency));
+    }
+
+    public double getAccountsPerSecond() {
+        return nanos == 0 ? 0 : getAccounts() * 1e9 / nanos;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "EndOfDayResult{" +
+                "chunks=" + chunks.size() +
+                ", skipped=" + skipped +
+                ", failed=" + failed +
+                ", accounts=" + getAccounts() +
+                ", interestPaid=" + interestPaid.values() +
+                ", overdraftCharged=" + overdraftCharged.values() +
+                ", accounts/s=" + String.format("%.0f", getAccountsPerSecond()) +
+                '}';
+    }
+}
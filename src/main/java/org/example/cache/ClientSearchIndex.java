@@ -0,0 +1,477 @@
+package org.example.cache;
+
+import org.example.model.Client;
+
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.IntConsumer;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Índice en memoria para buscar clientes por prefijo de nombre, apellido, email o teléfono.
+ * <p>
+ * Cada término (palabra del nombre/apellido, email completo, dígitos del teléfono) va sin
+ * tildes y en minúsculas, como una entrada (clave, id) de un arreglo ordenado: todas las claves
+ * seguidas en un byte[] más offsets e ids en int[], unos ~20 bytes por término en vez de un
+ * objeto por nodo. Un prefijo es un rango contiguo que se ubica con dos búsquedas binarias.
+ * <p>
+ * Los cambios van a un delta ordenado (y los ids modificados/borrados ocultan sus entradas
+ * del arreglo); cuando el delta crece se fusiona en un arreglo nuevo. Las lecturas no
+ * toman candados; las escrituras se serializan entre sí.
+ */
+public class ClientSearchIndex {
+
+    // tamaño mínimo del delta antes de fusionarlo; si no, 1/8 del arreglo
+    static final int MIN_PENDING = 4096;
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}");
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+    private static final Pattern PHONE_LIKE = Pattern.compile("[0-9+()\\-.]+");
+    private static final Pattern NON_DIGIT = Pattern.compile("[^0-9]");
+
+    private final Object writeLock = new Object();
+    private volatile State state = new State(Segment.EMPTY);
+
+    /** Reemplaza el índice con los clientes del stream (al arrancar, o para resincronizar). */
+    public void load(Stream<Client> clients) {
+        synchronized (writeLock) {
+            Segment.Builder b = new Segment.Builder();
+            clients.forEach(c -> {
+                if (c != null && c.getId() != null) for (byte[] t : terms(c)) b.add(t, c.getId());
+            });
+            state = new State(b.build(true));
+        }
+    }
+
+    /** Alta o modificación: los términos anteriores del cliente dejan de valer. */
+    public void put(Client c) {
+        if (c == null || c.getId() == null) throw new IllegalArgumentException("cliente sin id");
+        int id = c.getId();
+        synchronized (writeLock) {
+            State s = state;
+            List<Term> fresh = new ArrayList<>();
+            for (byte[] t : terms(c)) fresh.add(new Term(t, id));
+            // primero lo nuevo y después se oculta lo viejo: un lector nunca deja de ver al cliente
+            s.added.addAll(fresh);
+            List<Term> old = s.addedById.put(id, fresh);
+            if (old != null) for (Term t : old) if (!fresh.contains(t)) s.added.remove(t);
+            s.hidden.add(id);
+            s.pending++;
+            compactIfNeeded(s);
+        }
+    }
+
+    public void remove(int id) {
+        synchronized (writeLock) {
+            State s = state;
+            s.hidden.add(id);
+            List<Term> old = s.addedById.remove(id);
+            if (old != null) old.forEach(s.added::remove);
+            s.pending++;
+            compactIfNeeded(s);
+        }
+    }
+
+    /**
+     * Ids de los clientes con id > afterId en los que cada palabra de 'query' es prefijo de
+     * alguno de sus términos, en orden de id (paginación por keyset, como ClientDAO.findPage).
+     */
+    public int[] search(String query, int afterId, int limit) {
+        if (limit <= 0) throw new IllegalArgumentException("limit debe ser positivo");
+        List<byte[]> words = queryWords(query);
+        if (words.isEmpty()) return new int[0];
+        State s = state;
+
+        if (words.size() == 1) {
+            TopIds top = new TopIds(afterId, limit);
+            forEachMatch(s, words.get(0), top);
+            return top.toArray();
+        }
+
+        // se parte de la palabra más selectiva y se filtra con las demás
+        words.sort((a, b) -> Integer.compare(estimate(s, a), estimate(s, b)));
+        int[] candidates = distinctIdsAfter(s, words.get(0), afterId);
+        for (int w = 1; w < words.size() && candidates.length > 0; w++) {
+            boolean[] hit = new boolean[candidates.length];
+            int[] current = candidates;
+            IdPositions positions = new IdPositions(current);
+            forEachMatch(s, words.get(w), id -> {
+                int i = positions.get(id);
+                if (i >= 0) hit[i] = true;
+            });
+            int n = 0;
+            for (int i = 0; i < current.length; i++) if (hit[i]) current[n++] = current[i];
+            candidates = Arrays.copyOf(current, n);
+        }
+        return candidates.length > limit ? Arrays.copyOf(candidates, limit) : candidates;
+    }
+
+    /** Términos indexados (arreglo + delta). */
+    public long getEntries() {
+        State s = state;
+        return s.base.size() + s.added.size();
+    }
+
+    /** Cambios aún sin fusionar en el arreglo. */
+    public int getPending() {
+        return state.pending;
+    }
+
+    /** Memoria aproximada del índice en bytes. */
+    public long estimatedBytes() {
+        State s = state;
+        long bytes = s.base.bytes();
+        // nodo del skip list + Term + byte[]; y la entrada de addedById / hidden
+        for (Term t : s.added) bytes += 16 + t.key.length + 24 + 40;
+        bytes += 64L * (s.addedById.size() + s.hidden.size());
+        return bytes;
+    }
+
+    @Override
+    public String toString() {
+        return "ClientSearchIndex{" +
+                "entries=" + getEntries() +
+                ", pending=" + getPending() +
+                ", bytes=" + estimatedBytes() +
+                '}';
+    }
+
+    private void compactIfNeeded(State s) {
+        if (s.pending <= Math.max(MIN_PENDING, s.base.size() / 8)) return;
+        // arreglo sin los ids ocultos + delta, ambos ya ordenados: una sola pasada
+        Segment base = s.base;
+        Segment.Builder b = new Segment.Builder();
+        Iterator<Term> delta = s.added.iterator();
+        Term t = delta.hasNext() ? delta.next() : null;
+        for (int i = 0; i < base.size(); i++) {
+            if (s.hidden.contains(base.ids[i])) continue;
+            while (t != null && base.compareTo(i, t) > 0) {
+                b.add(t.key, t.id);
+                t = delta.hasNext() ? delta.next() : null;
+            }
+            b.add(base.keys, base.offsets[i], base.offsets[i + 1], base.ids[i]);
+        }
+        while (t != null) {
+            b.add(t.key, t.id);
+            t = delta.hasNext() ? delta.next() : null;
+        }
+        state = new State(b.build(false));
+    }
+
+    private static void forEachMatch(State s, byte[] prefix, IntConsumer action) {
+        Segment base = s.base;
+        boolean anyHidden = !s.hidden.isEmpty();
+        for (int i = base.lowerBound(prefix), end = base.upperBound(prefix); i < end; i++) {
+            int id = base.ids[i];
+            if (!anyHidden || !s.hidden.contains(id)) action.accept(id);
+        }
+        for (Term t : s.added.tailSet(new Term(prefix, Integer.MIN_VALUE))) {
+            if (!t.startsWith(prefix)) break;
+            action.accept(t.id);
+        }
+    }
+
+    private static int estimate(State s, byte[] prefix) {
+        return s.base.upperBound(prefix) - s.base.lowerBound(prefix);
+    }
+
+    private static int[] distinctIdsAfter(State s, byte[] prefix, int afterId) {
+        int[][] buf = {new int[64]};
+        int[] n = {0};
+        forEachMatch(s, prefix, id -> {
+            if (id <= afterId) return;
+            if (n[0] == buf[0].length) buf[0] = Arrays.copyOf(buf[0], n[0] * 2);
+            buf[0][n[0]++] = id;
+        });
+        int[] ids = buf[0];
+        Arrays.sort(ids, 0, n[0]);
+        int m = 0;
+        for (int i = 0; i < n[0]; i++) if (m == 0 || ids[m - 1] != ids[i]) ids[m++] = ids[i];
+        return Arrays.copyOf(ids, m);
+    }
+
+    // ---- términos ----
+
+    static List<byte[]> terms(Client c) {
+        Set<String> words = new LinkedHashSet<>();
+        addWords(words, c.getFirstName());
+        addWords(words, c.getLastName());
+        if (c.getEmail() != null && !c.getEmail().isBlank()) words.add(normalize(c.getEmail().trim()));
+        String phone = digits(c.getPhoneNumber());
+        if (!phone.isEmpty()) words.add(phone);
+
+        List<byte[]> terms = new ArrayList<>(words.size());
+        for (String w : words) terms.add(w.getBytes(StandardCharsets.UTF_8));
+        return terms;
+    }
+
+    // palabras separadas por espacios; en cada una se ignoran guiones, puntos y paréntesis si son de un teléfono
+    static List<byte[]> queryWords(String query) {
+        List<byte[]> words = new ArrayList<>();
+        if (query == null) return words;
+        for (String w : SPACES.split(normalize(query).trim())) {
+            if (w.isEmpty()) continue;
+            if (PHONE_LIKE.matcher(w).matches()) w = digits(w);
+            if (!w.isEmpty()) words.add(w.getBytes(StandardCharsets.UTF_8));
+        }
+        return words;
+    }
+
+    private static void addWords(Set<String> words, String text) {
+        if (text == null) return;
+        for (String w : WORD_SEPARATOR.split(normalize(text))) if (!w.isEmpty()) words.add(w);
+    }
+
+    private static String normalize(String s) {
+        return MARKS.matcher(Normalizer.normalize(s, Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    private static String digits(String s) {
+        return s == null ? "" : NON_DIGIT.matcher(s).replaceAll("");
+    }
+
+    // ---- estructuras ----
+
+    private static final class State {
+        final Segment base;
+        final ConcurrentSkipListSet<Term> added = new ConcurrentSkipListSet<>();
+        final Map<Integer, List<Term>> addedById = new ConcurrentHashMap<>();
+        final Set<Integer> hidden = ConcurrentHashMap.newKeySet();   // ids cuyas entradas de base ya no valen
+        int pending;   // sólo bajo writeLock
+
+        State(Segment base) {
+            this.base = base;
+        }
+    }
+
+    private static final class Term implements Comparable<Term> {
+        final byte[] key;
+        final int id;
+
+        Term(byte[] key, int id) {
+            this.key = key;
+            this.id = id;
+        }
+
+        boolean startsWith(byte[] prefix) {
+            return key.length >= prefix.length && Arrays.equals(key, 0, prefix.length, prefix, 0, prefix.length);
+        }
+
+        @Override
+        public int compareTo(Term o) {
+            int c = Arrays.compareUnsigned(key, o.key);
+            return c != 0 ? c : Integer.compare(id, o.id);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Term && id == ((Term) o).id && Arrays.equals(key, ((Term) o).key);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Arrays.hashCode(key) + id;
+        }
+    }
+
+    /** Entradas (clave, id) ordenadas; la clave i es keys[offsets[i], offsets[i+1]). */
+    private static final class Segment {
+        static final Segment EMPTY = new Segment(new byte[0], new int[1], new int[0]);
+
+        final byte[] keys;
+        final int[] offsets;
+        final int[] ids;
+
+        Segment(byte[] keys, int[] offsets, int[] ids) {
+            this.keys = keys;
+            this.offsets = offsets;
+            this.ids = ids;
+        }
+
+        int size() {
+            return ids.length;
+        }
+
+        long bytes() {
+            return 3 * 16L + keys.length + 4L * offsets.length + 4L * ids.length;
+        }
+
+        // <0, 0 o >0 según la clave i (truncada al largo del prefijo) quede antes, empiece con, o después
+        int comparePrefix(int i, byte[] prefix) {
+            int from = offsets[i], len = offsets[i + 1] - from;
+            int n = Math.min(len, prefix.length);
+            int c = Arrays.compareUnsigned(keys, from, from + n, prefix, 0, n);
+            if (c != 0) return c;
+            return len >= prefix.length ? 0 : -1;
+        }
+
+        int compareTo(int i, Term t) {
+            int c = Arrays.compareUnsigned(keys, offsets[i], offsets[i + 1], t.key, 0, t.key.length);
+            return c != 0 ? c : Integer.compare(ids[i], t.id);
+        }
+
+        int lowerBound(byte[] prefix) {
+            int lo = 0, hi = size();
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (comparePrefix(mid, prefix) < 0) lo = mid + 1;
+                else hi = mid;
+            }
+            return lo;
+        }
+
+        int upperBound(byte[] prefix) {
+            int lo = 0, hi = size();
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (comparePrefix(mid, prefix) <= 0) lo = mid + 1;
+                else hi = mid;
+            }
+            return lo;
+        }
+
+        /** Acumula entradas en arreglos que crecen; build ordena (si hace falta) y compacta. */
+        static final class Builder {
+            private byte[] keys = new byte[1024];
+            private int[] offsets = new int[129];
+            private int[] ids = new int[128];
+            private int size;
+
+            void add(byte[] key, int id) {
+                add(key, 0, key.length, id);
+            }
+
+            void add(byte[] src, int from, int to, int id) {
+                int len = to - from, end = offsets[size];
+                if (end + len > keys.length) keys = Arrays.copyOf(keys, Math.max(keys.length * 2, end + len));
+                if (size == ids.length) {
+                    ids = Arrays.copyOf(ids, size * 2);
+                    offsets = Arrays.copyOf(offsets, size * 2 + 1);
+                }
+                System.arraycopy(src, from, keys, end, len);
+                ids[size] = id;
+                offsets[++size] = end + len;
+            }
+
+            Segment build(boolean sort) {
+                if (!sort) {
+                    return new Segment(Arrays.copyOf(keys, offsets[size]), Arrays.copyOf(offsets, size + 1),
+                            Arrays.copyOf(ids, size));
+                }
+                int[] order = new int[size];
+                for (int i = 0; i < size; i++) order[i] = i;
+                mergeSort(order);
+
+                byte[] k = new byte[offsets[size]];
+                int[] o = new int[size + 1];
+                int[] d = new int[size];
+                int n = 0;
+                for (int i : order) {
+                    // el mismo término repetido para el mismo id se guarda una vez
+                    if (n > 0 && d[n - 1] == ids[i] && Arrays.equals(keys, offsets[i], offsets[i + 1],
+                            k, o[n - 1], o[n])) continue;
+                    int len = offsets[i + 1] - offsets[i];
+                    System.arraycopy(keys, offsets[i], k, o[n], len);
+                    d[n] = ids[i];
+                    o[n + 1] = o[n] + len;
+                    n++;
+                }
+                return new Segment(Arrays.copyOf(k, o[n]), Arrays.copyOf(o, n + 1), Arrays.copyOf(d, n));
+            }
+
+            private int compare(int a, int b) {
+                int c = Arrays.compareUnsigned(keys, offsets[a], offsets[a + 1], keys, offsets[b], offsets[b + 1]);
+                return c != 0 ? c : Integer.compare(ids[a], ids[b]);
+            }
+
+            // merge sort de abajo hacia arriba sobre índices: sin objetos por entrada
+            private void mergeSort(int[] a) {
+                int[] src = a, dst = new int[a.length];
+                for (int width = 1; width < a.length; width *= 2) {
+                    for (int lo = 0; lo < a.length; lo += 2 * width) {
+                        int mid = Math.min(lo + width, a.length), hi = Math.min(lo + 2 * width, a.length);
+                        int i = lo, j = mid, k = lo;
+                        while (i < mid && j < hi) dst[k++] = compare(src[i], src[j]) <= 0 ? src[i++] : src[j++];
+                        while (i < mid) dst[k++] = src[i++];
+                        while (j < hi) dst[k++] = src[j++];
+                    }
+                    int[] tmp = src;
+                    src = dst;
+                    dst = tmp;
+                }
+                if (src != a) System.arraycopy(src, 0, a, 0, a.length);
+            }
+        }
+    }
+
+    // id -> posición en un arreglo de ids distintos; direccionamiento abierto sin objetos por entrada
+    private static final class IdPositions {
+        private final int[] ids;
+        private final int[] slots;   // posición + 1; 0 = libre
+        private final int mask;
+
+        IdPositions(int[] ids) {
+            this.ids = ids;
+            int capacity = Integer.highestOneBit(Math.max(2, ids.length) * 2 - 1) << 1;
+            this.slots = new int[capacity];
+            this.mask = capacity - 1;
+            for (int i = 0; i < ids.length; i++) {
+                int h = hash(ids[i]);
+                while (slots[h] != 0) h = (h + 1) & mask;
+                slots[h] = i + 1;
+            }
+        }
+
+        int get(int id) {
+            for (int h = hash(id); slots[h] != 0; h = (h + 1) & mask) {
+                if (ids[slots[h] - 1] == id) return slots[h] - 1;
+            }
+            return -1;
+        }
+
+        private int hash(int id) {
+            return (id * 0x9E3779B9 >>> 7) & mask;
+        }
+    }
+
+    // los 'limit' ids más chicos (> afterId) sin repetir, en un arreglo ordenado
+    private static final class TopIds implements IntConsumer {
+        private final int afterId;
+        private final int[] ids;
+        private int size;
+
+        TopIds(int afterId, int limit) {
+            this.afterId = afterId;
+            this.ids = new int[limit];
+        }
+
+        @Override
+        public void accept(int id) {
+            if (id <= afterId) return;
+            if (size == ids.length && id >= ids[size - 1]) return;
+            int i = Arrays.binarySearch(ids, 0, size, id);
+            if (i >= 0) return;
+            i = -i - 1;
+            int move = Math.min(size, ids.length - 1) - i;
+            if (move > 0) System.arraycopy(ids, i, ids, i + 1, move);
+            ids[i] = id;
+            if (size < ids.length) size++;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(ids, size);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package org.example.cache;
+
+import org.example.dao.FxRateDAO;
+import org.example.model.Currency;
+import org.example.model.FxRates;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tipos de cambio en memoria, releídos de FxRate cada 'refresh'.
+ * Las lecturas no tocan la BD ni toman candados (la tabla entera se reemplaza de una vez).
+ * Si un refresco falla se sigue con los tipos anteriores; ver getLastRefresh.
+ */
+public class FxRateCache implements FxRates, AutoCloseable {
+
+    private final FxRateDAO dao;
+    private final ScheduledExecutorService refresher;
+    private volatile Map<Currency, Map<Currency, BigDecimal>> rates;
+    private volatile Instant lastRefresh;
+
+    public FxRateCache(FxRateDAO dao) {
+        this(dao, Duration.ofMinutes(1));
+    }
+
+    public FxRateCache(FxRateDAO dao, Duration refresh) {
+        this.dao = dao;
+        refresh();   // sin tipos de cambio no arranca
+        this.refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "fx-rate-refresh");
+            t.setDaemon(true);
+            return t;
+        });
+        long ms = refresh.toMillis();
+        refresher.scheduleWithFixedDelay(this::refreshQuietly, ms, ms, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public BigDecimal rate(Currency from, Currency to) {
+        if (from == to) return BigDecimal.ONE;
+        Map<Currency, Map<Currency, BigDecimal>> snapshot = rates;
+        BigDecimal direct = lookup(snapshot, from, to);
+        if (direct != null) return direct;
+        BigDecimal inverse = lookup(snapshot, to, from);
+        if (inverse != null) return BigDecimal.ONE.divide(inverse, MathContext.DECIMAL64);
+        throw new IllegalStateException("Sin tipo de cambio " + from + " -> " + to);
+    }
+
+    /** Relee la tabla ahora. */
+    public void refresh() {
+        Map<Currency, Map<Currency, BigDecimal>> fresh = new EnumMap<>(Currency.class);
+        dao.findAll().forEach((from, row) -> fresh.put(from, new EnumMap<>(row)));
+        rates = fresh;
+        lastRefresh = Instant.now();
+    }
+
+    public Instant getLastRefresh() {
+        return lastRefresh;
+    }
+
+    @Override
+    public void close() {
+        refresher.shutdownNow();
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            // BD caída: se siguen usando los tipos anteriores hasta el próximo intento
+        }
+    }
+
+    private static BigDecimal lookup(Map<Currency, Map<Currency, BigDecimal>> snapshot, Currency from, Currency to) {
+        Map<Currency, BigDecimal> row = snapshot.get(from);
+        return row == null ? null : row.get(to);
+    }
+}
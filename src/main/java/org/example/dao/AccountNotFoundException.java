@@ -0,0 +1,15 @@
+package org.example.dao;
+
+/**
+ * La cuenta solicitada no existe.
+ */
+public class AccountNotFoundException extends RuntimeException {
+    private final String accountNumber;
+
+    public AccountNotFoundException(String accountNumber) {
+        super("Cuenta no existe: " + accountNumber);
+        this.accountNumber = accountNumber;
+    }
+
+    public String getAccountNumber() { return accountNumber; }
+}
@@ -0,0 +1,68 @@
+package org.example.dao;
+
+import org.example.model.AccountType;
+import org.example.model.BankAccount;
+import org.example.model.CurrencyMismatchException;
+import org.example.model.Money;
+
+import java.math.BigDecimal;
+
+/**
+ * Reglas de saldo compartidas por todas las implementaciones de BankAccountDAO:
+ * AHORRO nunca queda negativo, CORRIENTE puede bajar hasta -overdraftLimit (500.00 si no tiene).
+ */
+public final class AccountRules {
+
+    public static final String DEFAULT_OVERDRAFT = "500.00";
+    private static final BigDecimal DEFAULT_OVERDRAFT_LIMIT = new BigDecimal(DEFAULT_OVERDRAFT);
+    private static final BigDecimal DEFAULT_OVERDRAFT_FLOOR = DEFAULT_OVERDRAFT_LIMIT.negate();
+    public static final long DEFAULT_OVERDRAFT_MINOR = Money.toMinor(DEFAULT_OVERDRAFT_LIMIT);
+    // en las versiones en céntimos, "sin sobregiro definido" se pasa como NO_OVERDRAFT
+    public static final long NO_OVERDRAFT = Long.MIN_VALUE;
+
+    private AccountRules() { }
+
+    // saldo mínimo permitido: 0 en AHORRO, -sobregiro en CORRIENTE
+    public static BigDecimal balanceFloor(BankAccount a) {
+        return balanceFloor(a.getAccountType(), a.getOverdraftLimit());
+    }
+
+    public static BigDecimal balanceFloor(AccountType type, BigDecimal overdraftLimit) {
+        if (type == AccountType.AHORRO) return BigDecimal.ZERO;
+        return overdraftLimit == null ? DEFAULT_OVERDRAFT_FLOOR : overdraftLimit.negate();
+    }
+
+    // Lo mismo en céntimos, sin crear objetos: para los caminos calientes en memoria
+    public static long balanceFloorMinor(AccountType type, long overdraftMinor) {
+        if (type == AccountType.AHORRO) return 0;
+        return overdraftMinor == NO_OVERDRAFT ? -DEFAULT_OVERDRAFT_MINOR : -overdraftMinor;
+    }
+
+    public static long overdraftMinor(BankAccount a) {
+        return a.getOverdraftLimit() == null ? NO_OVERDRAFT : Money.toMinor(a.getOverdraftLimit());
+    }
+
+    public static InsufficientFundsException insufficientFunds(String accountNumber, AccountType type,
+                                                               BigDecimal overdraftLimit) {
+        if (type == AccountType.AHORRO) {
+            return new InsufficientFundsException(accountNumber, "Saldo en AHORRO no puede ser negativo");
+        }
+        BigDecimal limit = overdraftLimit == null ? DEFAULT_OVERDRAFT_LIMIT : overdraftLimit;
+        return new InsufficientFundsException(accountNumber, "Excede el sobregiro permitido (" + limit + ")");
+    }
+
+    // Reglas (en BD ya tienes CHECK, pero validamos también aquí)
+    public static void checkWithdraw(BankAccount a, BigDecimal newBalance) {
+        if (newBalance.compareTo(balanceFloor(a)) < 0) {
+            throw insufficientFunds(a.getAccountNumber(), a.getAccountType(), a.getOverdraftLimit());
+        }
+    }
+
+    public static void checkWithdraw(BankAccount a, Money newBalance) {
+        if (newBalance.getCurrency() != a.getCurrency())
+            throw new CurrencyMismatchException(a.getCurrency(), newBalance.getCurrency());
+        if (newBalance.getMinorUnits() < balanceFloorMinor(a.getAccountType(), overdraftMinor(a))) {
+            throw insufficientFunds(a.getAccountNumber(), a.getAccountType(), a.getOverdraftLimit());
+        }
+    }
+}
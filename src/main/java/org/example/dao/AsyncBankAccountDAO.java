@@ -0,0 +1,76 @@
+package org.example.dao;
+
+import org.example.model.BankAccount;
+import org.example.model.Movement;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Fachada asíncrona de BankAccountDAO: cada llamada corre en un DaoExecutor y devuelve un CompletableFuture.
+ * cancel(true) o vencer el timeout interrumpe la llamada (o la descarta si aún estaba en cola).
+ * streamByClient no tiene versión asíncrona: el Stream retiene su conexión en el hilo que lo recorre.
+ */
+public class AsyncBankAccountDAO {
+
+    private final BankAccountDAO delegate;
+    private final DaoExecutor executor;
+    private final Duration timeout;
+
+    public AsyncBankAccountDAO(BankAccountDAO delegate, DaoExecutor executor) {
+        this(delegate, executor, DaoExecutor.DEFAULT_TIMEOUT);
+    }
+
+    public AsyncBankAccountDAO(BankAccountDAO delegate, DaoExecutor executor, Duration timeout) {
+        this.delegate = delegate;
+        this.executor = executor;
+        this.timeout = timeout;
+    }
+
+    /** Misma fachada (mismo executor) con otro timeout por llamada. */
+    public AsyncBankAccountDAO withTimeout(Duration timeout) {
+        return new AsyncBankAccountDAO(delegate, executor, timeout);
+    }
+
+    public CompletableFuture<BankAccount> openAccount(BankAccount account) {
+        return executor.submit(() -> delegate.openAccount(account), timeout);
+    }
+
+    public CompletableFuture<Optional<BankAccount>> findByAccountNumber(String accountNumber) {
+        return executor.submit(() -> delegate.findByAccountNumber(accountNumber), timeout);
+    }
+
+    public CompletableFuture<List<BankAccount>> findByClient(int clientId) {
+        return executor.submit(() -> delegate.findByClient(clientId), timeout);
+    }
+
+    public CompletableFuture<List<BankAccount>> findByClientPage(int clientId, int afterId, int limit) {
+        return executor.submit(() -> delegate.findByClientPage(clientId, afterId, limit), timeout);
+    }
+
+    public CompletableFuture<BigDecimal> deposit(String accountNumber, BigDecimal amount) {
+        return executor.submit(() -> delegate.deposit(accountNumber, amount), timeout);
+    }
+
+    public CompletableFuture<BigDecimal> withdraw(String accountNumber, BigDecimal amount) {
+        return executor.submit(() -> delegate.withdraw(accountNumber, amount), timeout);
+    }
+
+    public CompletableFuture<BigDecimal> getBalance(String accountNumber) {
+        return executor.submit(() -> delegate.getBalance(accountNumber), timeout);
+    }
+
+    public CompletableFuture<Void> transfer(String fromAccount, String toAccount, BigDecimal amount) {
+        return executor.submit(() -> {
+            delegate.transfer(fromAccount, toAccount, amount);
+            return null;
+        }, timeout);
+    }
+
+    public CompletableFuture<List<PostingResult>> post(List<Movement> movements) {
+        return executor.submit(() -> delegate.post(movements), timeout);
+    }
+}
@@ -0,0 +1,61 @@
+package org.example.dao;
+
+import org.example.model.Client;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Fachada asíncrona de ClientDAO sobre un DaoExecutor (ver AsyncBankAccountDAO).
+ * saveAll y streamAll no se exponen: son cargas largas que no deben competir por cupo con las peticiones.
+ */
+public class AsyncClientDAO {
+
+    private final ClientDAO delegate;
+    private final DaoExecutor executor;
+    private final Duration timeout;
+
+    public AsyncClientDAO(ClientDAO delegate, DaoExecutor executor) {
+        this(delegate, executor, DaoExecutor.DEFAULT_TIMEOUT);
+    }
+
+    public AsyncClientDAO(ClientDAO delegate, DaoExecutor executor, Duration timeout) {
+        this.delegate = delegate;
+        this.executor = executor;
+        this.timeout = timeout;
+    }
+
+    public AsyncClientDAO withTimeout(Duration timeout) {
+        return new AsyncClientDAO(delegate, executor, timeout);
+    }
+
+    public CompletableFuture<Client> save(Client client) {
+        return executor.submit(() -> delegate.save(client), timeout);
+    }
+
+    public CompletableFuture<Optional<Client>> findById(int id) {
+        return executor.submit(() -> delegate.findById(id), timeout);
+    }
+
+    public CompletableFuture<Optional<Client>> findByDni(String dni) {
+        return executor.submit(() -> delegate.findByDni(dni), timeout);
+    }
+
+    public CompletableFuture<List<Client>> findAll() {
+        return executor.submit(delegate::findAll, timeout);
+    }
+
+    public CompletableFuture<List<Client>> findPage(int afterId, int limit) {
+        return executor.submit(() -> delegate.findPage(afterId, limit), timeout);
+    }
+
+    public CompletableFuture<Client> update(Client client) {
+        return executor.submit(() -> delegate.update(client), timeout);
+    }
+
+    public CompletableFuture<Boolean> deleteById(int id) {
+        return executor.submit(() -> delegate.deleteById(id), timeout);
+    }
+}
@@ -0,0 +1,29 @@
+package org.example.dao;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores de updateBalance: confirmadas, choques de versión, reintentos y
+ * actualizaciones abandonadas por agotar los reintentos.
+ */
+public class BalanceUpdateStats {
+    final LongAdder updated = new LongAdder();
+    final LongAdder conflicts = new LongAdder();
+    final LongAdder retried = new LongAdder();
+    final LongAdder exhausted = new LongAdder();
+
+    public long getUpdated() { return updated.sum(); }
+    public long getConflicts() { return conflicts.sum(); }
+    public long getRetried() { return retried.sum(); }
+    public long getExhausted() { return exhausted.sum(); }
+
+    @Override
+    public String toString() {
+        return "BalanceUpdateStats{" +
+                "updated=" + getUpdated() +
+                ", conflicts=" + getConflicts() +
+                ", retried=" + getRetried() +
+                ", exhausted=" + getExhausted() +
+                '}';
+    }
+}
@@ -1,17 +1,28 @@
 package org.example.dao;
 
 import org.example.model.BankAccount;
+import org.example.model.Movement;
 
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface BankAccountDAO {
     BankAccount openAccount(BankAccount account);
     Optional<BankAccount> findByAccountNumber(String accountNumber);
     List<BankAccount> findByClient(int clientId);
+    List<BankAccount> findByClientPage(int clientId, int afterId, int limit); // keyset: id > afterId
+    Stream<BankAccount> streamByClient(int clientId);   // cerrar el Stream libera la conexión
 
-    void deposit(String accountNumber, BigDecimal amount);
-    void withdraw(String accountNumber, BigDecimal amount);
+    BigDecimal deposit(String accountNumber, BigDecimal amount);   // devuelve el nuevo saldo
+    BigDecimal withdraw(String accountNumber, BigDecimal amount);  // devuelve el nuevo saldo
     BigDecimal getBalance(String accountNumber);
+
+    // Mueve el monto entre dos cuentas de la misma moneda en una sola transacción
+    // (BankAccountDaoJdbc: lee sin bloquear y escribe las dos patas con CAS por versión, reintentando)
+    void transfer(String fromAccount, String toAccount, BigDecimal amount);
+
+    // Contabiliza un lote de movimientos; un resultado por movimiento, en el mismo orden
+    List<PostingResult> post(List<Movement> movements);
 }
@@ -0,0 +1,232 @@
+package org.example.dao;
+
+import org.example.cache.CacheStats;
+import org.example.cache.LruCache;
+import org.example.model.BankAccount;
+import org.example.model.Movement;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Cache de lectura delante de otro BankAccountDAO.
+ * Los datos de la cuenta (tipo, moneda, sobregiro...) cambian poco y se guardan aparte
+ * del saldo, que tiene un TTL corto y se refresca con el resultado de cada escritura local.
+ * El saldo se cachea junto con la versión de la fila; tras una escritura local la versión no se
+ * conoce, así que findByAccountNumber vuelve a la BD para no devolver una versión vieja (que haría
+ * fallar compareAndSetBalance) y getBalance sigue sirviendo el saldo desde la cache.
+ *
+ * Cada saldo lleva una generación (por franja de claves): toda escritura la avanza al empezar y al
+ * terminar. Una lectura sólo cachea lo que leyó si la generación no cambió mientras leía, y una
+ * escritura sólo cachea su resultado si nadie más escribió la misma franja entre medias; si no, se
+ * invalida y la siguiente lectura va a la BD.
+ */
+public class BankAccountDaoCached implements BankAccountDAO {
+
+    private final BankAccountDAO delegate;
+    private final LruCache<String, BankAccount> accounts;   // metadatos, sin saldo
+    private final LruCache<String, Balance> balances;
+    private final Guard[] guards = new Guard[GUARDS];
+
+    private static final int GUARDS = 1024;
+
+    // version == null: saldo escrito por este nodo, versión de la fila desconocida
+    private static final class Balance {
+        final BigDecimal amount;
+        final Long version;
+
+        Balance(BigDecimal amount, Long version) {
+            this.amount = amount;
+            this.version = version;
+        }
+    }
+
+    // protegido por sí mismo; 'writers' > 0 mientras hay escrituras en curso en la franja
+    private static final class Guard {
+        long gen;
+        int writers;
+    }
+
+    public BankAccountDaoCached(BankAccountDAO delegate) {
+        this(delegate, 100_000, Duration.ofMinutes(10), Duration.ofSeconds(5));
+    }
+
+    public BankAccountDaoCached(BankAccountDAO delegate, int maxAccounts, Duration accountTtl, Duration balanceTtl) {
+        this.delegate = delegate;
+        this.accounts = new LruCache<>(maxAccounts, accountTtl);
+        this.balances = new LruCache<>(maxAccounts, balanceTtl);
+        for (int i = 0; i < GUARDS; i++) guards[i] = new Guard();
+    }
+
+    @Override
+    public BankAccount openAccount(BankAccount account) {
+        BankAccount opened = delegate.openAccount(account);
+        if (opened != null) remember(opened, readStamp(opened.getAccountNumber()));
+        return opened;
+    }
+
+    @Override
+    public Optional<BankAccount> findByAccountNumber(String accountNumber) {
+        BankAccount meta = accounts.get(accountNumber);
+        if (meta != null) {
+            Balance balance = balances.get(accountNumber);
+            if (balance != null && balance.version != null) {
+                BankAccount a = meta.copy();
+                a.setBalance(balance.amount);
+                a.setVersion(balance.version);
+                return Optional.of(a);
+            }
+        }
+        long stamp = readStamp(accountNumber);
+        Optional<BankAccount> found = delegate.findByAccountNumber(accountNumber);
+        found.ifPresent(a -> remember(a, stamp));
+        return found;
+    }
+
+    @Override
+    public List<BankAccount> findByClient(int clientId) {
+        return delegate.findByClient(clientId);
+    }
+
+    @Override
+    public List<BankAccount> findByClientPage(int clientId, int afterId, int limit) {
+        return delegate.findByClientPage(clientId, afterId, limit);
+    }
+
+    @Override
+    public Stream<BankAccount> streamByClient(int clientId) {
+        return delegate.streamByClient(clientId);
+    }
+
+    @Override
+    public BigDecimal deposit(String accountNumber, BigDecimal amount) {
+        return writeThrough(accountNumber, () -> delegate.deposit(accountNumber, amount));
+    }
+
+    @Override
+    public BigDecimal withdraw(String accountNumber, BigDecimal amount) {
+        return writeThrough(accountNumber, () -> delegate.withdraw(accountNumber, amount));
+    }
+
+    @Override
+    public BigDecimal getBalance(String accountNumber) {
+        Balance cached = balances.get(accountNumber);
+        if (cached != null) return cached.amount;
+        long stamp = readStamp(accountNumber);
+        BigDecimal balance = delegate.getBalance(accountNumber);
+        putIfUnchanged(accountNumber, stamp, new Balance(balance, null));
+        return balance;
+    }
+
+    @Override
+    public void transfer(String fromAccount, String toAccount, BigDecimal amount) {
+        long fromGen = beginWrite(fromAccount);
+        long toGen = beginWrite(toAccount);
+        try {
+            delegate.transfer(fromAccount, toAccount, amount);
+        } finally {
+            endWrite(fromAccount, fromGen, null);
+            endWrite(toAccount, toGen, null);
+        }
+    }
+
+    @Override
+    public List<PostingResult> post(List<Movement> movements) {
+        Set<String> touched = new LinkedHashSet<>();
+        for (Movement m : movements) if (m != null && m.getAccountNumber() != null) touched.add(m.getAccountNumber());
+        Map<String, Long> gens = new HashMap<>();
+        for (String acc : touched) gens.put(acc, beginWrite(acc));
+        // el último saldo aceptado de cada cuenta es el vigente; las demás se invalidan
+        Map<String, BigDecimal> last = new HashMap<>();
+        try {
+            List<PostingResult> results = delegate.post(movements);
+            for (PostingResult r : results) {
+                Movement m = r.getMovement();
+                if (m == null || m.getAccountNumber() == null) continue;
+                if (r.isAccepted()) last.put(m.getAccountNumber(), r.getBalanceAfter());
+                else last.putIfAbsent(m.getAccountNumber(), null);
+            }
+            return results;
+        } finally {
+            gens.forEach((acc, gen) -> endWrite(acc, gen, last.get(acc)));
+        }
+    }
+
+    public CacheStats getAccountStats() { return accounts.stats(); }
+    public CacheStats getBalanceStats() { return balances.stats(); }
+
+    private void remember(BankAccount a, long stamp) {
+        if (a.getAccountNumber() == null) return;
+        BankAccount meta = a.copy();
+        meta.setBalance(null);
+        meta.setVersion(null);   // la versión va con el saldo
+        accounts.put(a.getAccountNumber(), meta);
+        if (a.getBalance() != null) putIfUnchanged(a.getAccountNumber(), stamp, new Balance(a.getBalance(), a.getVersion()));
+    }
+
+    private BigDecimal writeThrough(String accountNumber, Supplier<BigDecimal> write) {
+        long gen = beginWrite(accountNumber);
+        BigDecimal newBalance = null;
+        try {
+            newBalance = write.get();
+            return newBalance;
+        } catch (AccountNotFoundException e) {
+            accounts.invalidate(accountNumber);
+            throw e;
+        } finally {
+            endWrite(accountNumber, gen, newBalance);
+        }
+    }
+
+    private Guard guardOf(String accountNumber) {
+        return guards[(accountNumber.hashCode() & 0x7fffffff) % GUARDS];
+    }
+
+    // -1 si hay una escritura en curso: lo que se lea ahora no se cachea
+    private long readStamp(String accountNumber) {
+        Guard g = guardOf(accountNumber);
+        synchronized (g) {
+            return g.writers == 0 ? g.gen : -1;
+        }
+    }
+
+    // Además nunca reemplaza un saldo por otro de versión menor
+    private void putIfUnchanged(String accountNumber, long stamp, Balance balance) {
+        Guard g = guardOf(accountNumber);
+        synchronized (g) {
+            if (stamp < 0 || g.gen != stamp || g.writers != 0) return;
+            Balance current = balances.get(accountNumber);
+            if (current != null && current.version != null && balance.version != null
+                    && balance.version < current.version) return;
+            balances.put(accountNumber, balance);
+        }
+    }
+
+    private long beginWrite(String accountNumber) {
+        Guard g = guardOf(accountNumber);
+        synchronized (g) {
+            g.writers++;
+            return ++g.gen;
+        }
+    }
+
+    // Cachea el saldo sólo si fue la única escritura de la franja desde beginWrite; null invalida
+    private void endWrite(String accountNumber, long gen, BigDecimal balance) {
+        Guard g = guardOf(accountNumber);
+        synchronized (g) {
+            boolean alone = g.gen == gen && g.writers == 1;
+            g.writers--;
+            g.gen++;
+            if (alone && balance != null) balances.put(accountNumber, new Balance(balance, null));
+            else balances.invalidate(accountNumber);
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package org.example.dao;
+
+import org.example.model.BankAccount;
+import org.example.model.Money;
+import org.example.model.Movement;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+/**
+ * Depósitos combinados por cuenta para cuentas muy concurridas (comercios).
+ * Los depósitos simultáneos a una misma cuenta hacen cola; el primero que llega es el líder y los aplica
+ * todos con un solo post() (un UPDATE de la fila en vez de uno por llamada, ver BankAccountDaoJdbc.post).
+ * Cada llamador recibe su propio saldo, el que dejó su depósito en el orden de la cola.
+ * El líder no espera a nadie salvo 'window'; al terminar con su depósito cede el puesto al siguiente en cola.
+ * Los retiros van directo al delegado con sus reglas de sobregiro de siempre.
+ */
+public class BankAccountDaoCombining implements BankAccountDAO {
+
+    public static final int DEFAULT_MAX_BATCH = 256;
+
+    private final BankAccountDAO delegate;
+    private final long windowNanos;
+    private final int maxBatch;
+    private final ConcurrentHashMap<String, Slot> slots = new ConcurrentHashMap<>();   // cuentas con depósitos en curso
+
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder deposits = new LongAdder();
+
+    public BankAccountDaoCombining(BankAccountDAO delegate) {
+        this(delegate, Duration.ZERO, DEFAULT_MAX_BATCH);
+    }
+
+    /** window: cuánto espera el líder a más depósitos antes de aplicar (cero: sólo los que ya están en cola). */
+    public BankAccountDaoCombining(BankAccountDAO delegate, Duration window, int maxBatch) {
+        if (maxBatch <= 0) throw new IllegalArgumentException("maxBatch debe ser positivo");
+        this.delegate = delegate;
+        this.windowNanos = window.toNanos();
+        this.maxBatch = maxBatch;
+    }
+
+    private static final class Slot {
+        final Queue<Pending> queue = new ConcurrentLinkedQueue<>();
+        final AtomicBoolean leader = new AtomicBoolean();
+    }
+
+    private static final class Pending {
+        final Movement movement;
+        final Thread caller = Thread.currentThread();
+        volatile boolean lead;     // le pasaron el puesto de líder
+        volatile boolean done;
+        BigDecimal balance;        // escritos antes de done = true
+        RuntimeException error;
+
+        Pending(Movement movement) {
+            this.movement = movement;
+        }
+    }
+
+    @Override
+    public BigDecimal deposit(String accountNumber, BigDecimal amount) {
+        if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0)
+            throw new IllegalArgumentException("monto debe ser positivo");
+        // igual que post(): así un depósito suelto y uno combinado aceptan lo mismo
+        if (amount.stripTrailingZeros().scale() > Money.SCALE)
+            throw new IllegalArgumentException("monto con más de 2 decimales");
+        if (accountNumber == null) throw new IllegalArgumentException("accountNumber requerido");
+
+        Slot slot = slots.computeIfAbsent(accountNumber, k -> new Slot());
+        Pending me = new Pending(Movement.deposit(accountNumber, amount));
+        slot.queue.add(me);
+        if (slot.leader.compareAndSet(false, true)) me.lead = true;
+
+        boolean interrupted = false;
+        while (!me.done && !me.lead) {
+            LockSupport.park(this);
+            // no se puede abandonar la cola (el líder puede estar aplicándolo): se recuerda y se sigue
+            if (Thread.interrupted()) interrupted = true;
+        }
+        if (!me.done) lead(slot, me);
+        if (interrupted) Thread.currentThread().interrupt();
+
+        if (me.error != null) throw me.error;
+        return me.balance;
+    }
+
+    @Override
+    public BigDecimal withdraw(String accountNumber, BigDecimal amount) {
+        return delegate.withdraw(accountNumber, amount);
+    }
+
+    // Aplica lotes hasta que sale el propio depósito y luego pasa el puesto al primero en cola
+    private void lead(Slot slot, Pending me) {
+        while (!me.done) {
+            if (windowNanos > 0) LockSupport.parkNanos(windowNanos);
+            List<Pending> batch = new ArrayList<>(Math.min(maxBatch, 64));
+            for (Pending p; batch.size() < maxBatch && (p = slot.queue.poll()) != null; ) batch.add(p);
+            apply(batch);
+        }
+        Pending next = slot.queue.peek();
+        if (next == null) {
+            slot.leader.set(false);
+            // cuenta sin cola: fuera del mapa. Quien ya tenga este Slot lo sigue usando con su propio líder
+            slots.remove(me.movement.getAccountNumber(), slot);
+            // alguien pudo encolarse justo después del peek y antes de soltar el puesto
+            next = slot.queue.peek();
+            if (next == null || !slot.leader.compareAndSet(false, true)) return;
+        }
+        next.lead = true;
+        LockSupport.unpark(next.caller);
+    }
+
+    private void apply(List<Pending> batch) {
+        if (batch.size() == 1) {
+            // sin concurrencia: el depósito de siempre, que es más barato que post()
+            Pending p = batch.get(0);
+            try {
+                p.balance = delegate.deposit(p.movement.getAccountNumber(), p.movement.getAmount());
+            } catch (RuntimeException e) {
+                p.error = e;
+            }
+            batches.increment();
+            deposits.increment();
+            finish(p);
+            return;
+        }
+        List<Movement> movements = new ArrayList<>(batch.size());
+        for (Pending p : batch) movements.add(p.movement);
+        try {
+            List<PostingResult> results = delegate.post(movements);
+            batches.increment();
+            deposits.add(batch.size());
+            for (int i = 0; i < batch.size(); i++) settle(batch.get(i), results.get(i));
+        } catch (RuntimeException e) {
+            for (Pending p : batch) {
+                p.error = e;
+                finish(p);
+            }
+        }
+    }
+
+    private static void settle(Pending p, PostingResult r) {
+        String acc = p.movement.getAccountNumber();
+        switch (r.getStatus()) {
+            case ACCEPTED:
+                p.balance = r.getBalanceAfter();
+                break;
+            case NOT_FOUND:
+                p.error = new AccountNotFoundException(acc);
+                break;
+            case INVALID:
+                p.error = new IllegalArgumentException(r.getReason());
+                break;
+            default:
+                p.error = new RuntimeException("Error actualizando saldo: " + r.getReason());
+        }
+        finish(p);
+    }
+
+    private static void finish(Pending p) {
+        p.done = true;
+        if (p.caller != Thread.currentThread()) LockSupport.unpark(p.caller);
+    }
+
+    @Override
+    public BankAccount openAccount(BankAccount account) {
+        return delegate.openAccount(account);
+    }
+
+    @Override
+    public Optional<BankAccount> findByAccountNumber(String accountNumber) {
+        return delegate.findByAccountNumber(accountNumber);
+    }
+
+    @Override
+    public List<BankAccount> findByClient(int clientId) {
+        return delegate.findByClient(clientId);
+    }
+
+    @Override
+    public List<BankAccount> findByClientPage(int clientId, int afterId, int limit) {
+        return delegate.findByClientPage(clientId, afterId, limit);
+    }
+
+    @Override
+    public Stream<BankAccount> streamByClient(int clientId) {
+        return delegate.streamByClient(clientId);
+    }
+
+    @Override
+    public BigDecimal getBalance(String accountNumber) {
+        return delegate.getBalance(accountNumber);
+    }
+
+    @Override
+    public void transfer(String fromAccount, String toAccount, BigDecimal amount) {
+        delegate.transfer(fromAccount, toAccount, amount);
+    }
+
+    @Override
+    public List<PostingResult> post(List<Movement> movements) {
+        return delegate.post(movements);
+    }
+
+    public long getBatches() { return batches.sum(); }
+    public long getDeposits() { return deposits.sum(); }
+
+    public double getAverageBatchSize() {
+        long b = batches.sum();
+        return b == 0 ? 0.0 : (double) deposits.sum() / b;
+    }
+}
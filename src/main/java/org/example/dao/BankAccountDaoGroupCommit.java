@@ -0,0 +1,205 @@
+package org.example.dao;
+
+import org.example.model.BankAccount;
+import org.example.model.Movement;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * deposit/withdraw con commit en grupo sobre un BankAccountDaoJdbc con diario.
+ * Los movimientos que llegan dentro de la misma ventana (o hasta maxGroup) se contabilizan
+ * juntos con post(): una sola transacción (saldos + filas de AccountMovement) y un solo commit.
+ * Cada llamador recibe su respuesta recién cuando el commit de su grupo terminó.
+ */
+public class BankAccountDaoGroupCommit implements BankAccountDAO, AutoCloseable {
+
+    private final BankAccountDaoJdbc delegate;
+    private final long windowNanos;
+    private final int maxGroup;
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final Thread committer;
+    private final Object lifecycle = new Object();   // submit y close: nada entra a la cola tras cerrar
+    private volatile boolean running = true;
+
+    private final LongAdder groups = new LongAdder();
+    private final LongAdder movements = new LongAdder();
+
+    private static final class Pending {
+        final Movement movement;
+        final CompletableFuture<PostingResult> result = new CompletableFuture<>();
+
+        Pending(Movement movement) {
+            this.movement = movement;
+        }
+    }
+
+    public BankAccountDaoGroupCommit() {
+        this(new BankAccountDaoJdbc(true), Duration.ofMillis(2), 256);
+    }
+
+    public BankAccountDaoGroupCommit(BankAccountDaoJdbc journaled, Duration window, int maxGroup) {
+        if (maxGroup <= 0) throw new IllegalArgumentException("maxGroup debe ser positivo");
+        this.delegate = journaled;
+        this.windowNanos = window.toNanos();
+        this.maxGroup = maxGroup;
+        this.committer = new Thread(this::run, "group-commit");
+        this.committer.setDaemon(true);
+        this.committer.start();
+    }
+
+    @Override
+    public BigDecimal deposit(String accountNumber, BigDecimal amount) {
+        return unwrap(accountNumber, submit(Movement.deposit(accountNumber, amount)));
+    }
+
+    @Override
+    public BigDecimal withdraw(String accountNumber, BigDecimal amount) {
+        return unwrap(accountNumber, submit(Movement.withdraw(accountNumber, amount)));
+    }
+
+    /** Encola el movimiento; el futuro se completa cuando su grupo quedó confirmado. */
+    public CompletableFuture<PostingResult> submit(Movement movement) {
+        Pending p = new Pending(movement);
+        synchronized (lifecycle) {
+            if (!running) throw new IllegalStateException("group commit cerrado");
+            queue.add(p);
+        }
+        return p.result;
+    }
+
+    @Override
+    public BankAccount openAccount(BankAccount account) {
+        return delegate.openAccount(account);
+    }
+
+    @Override
+    public Optional<BankAccount> findByAccountNumber(String accountNumber) {
+        return delegate.findByAccountNumber(accountNumber);
+    }
+
+    @Override
+    public List<BankAccount> findByClient(int clientId) {
+        return delegate.findByClient(clientId);
+    }
+
+    @Override
+    public List<BankAccount> findByClientPage(int clientId, int afterId, int limit) {
+        return delegate.findByClientPage(clientId, afterId, limit);
+    }
+
+    @Override
+    public Stream<BankAccount> streamByClient(int clientId) {
+        return delegate.streamByClient(clientId);
+    }
+
+    @Override
+    public BigDecimal getBalance(String accountNumber) {
+        return delegate.getBalance(accountNumber);
+    }
+
+    @Override
+    public void transfer(String fromAccount, String toAccount, BigDecimal amount) {
+        delegate.transfer(fromAccount, toAccount, amount);
+    }
+
+    @Override
+    public List<PostingResult> post(List<Movement> movements) {
+        return delegate.post(movements);
+    }
+
+    public long getGroups() { return groups.sum(); }
+    public long getMovements() { return movements.sum(); }
+
+    public double getAverageGroupSize() {
+        long g = groups.sum();
+        return g == 0 ? 0.0 : (double) movements.sum() / g;
+    }
+
+    @Override
+    public void close() {
+        synchronized (lifecycle) {
+            running = false;
+        }
+        committer.interrupt();
+        try {
+            committer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<Pending> left = new ArrayList<>();
+        queue.drainTo(left);
+        if (!left.isEmpty()) commit(left);
+    }
+
+    private void run() {
+        List<Pending> group = new ArrayList<>(maxGroup);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                group.add(first);
+                long deadline = System.nanoTime() + windowNanos;
+                while (group.size() < maxGroup) {
+                    long left = deadline - System.nanoTime();
+                    Pending next = left <= 0 ? queue.poll() : queue.poll(left, TimeUnit.NANOSECONDS);
+                    if (next == null) break;
+                    group.add(next);
+                }
+            } catch (InterruptedException e) {
+                if (running) continue;
+                queue.drainTo(group);
+            }
+            if (!group.isEmpty()) {
+                commit(group);
+                group.clear();
+            }
+        }
+    }
+
+    private void commit(List<Pending> group) {
+        List<Movement> batch = new ArrayList<>(group.size());
+        for (Pending p : group) batch.add(p.movement);
+        try {
+            // todo el grupo en un solo bloque = una sola transacción
+            List<PostingResult> results = delegate.post(batch, Math.max(1, batch.size()));
+            // contadores antes de despertar a los llamadores: quien vuelve ya ve su grupo contado
+            groups.increment();
+            movements.add(group.size());
+            for (int i = 0; i < group.size(); i++) group.get(i).result.complete(results.get(i));
+        } catch (RuntimeException e) {
+            for (Pending p : group) p.result.completeExceptionally(e);
+        }
+    }
+
+    private static BigDecimal unwrap(String accountNumber, CompletableFuture<PostingResult> future) {
+        PostingResult r;
+        try {
+            r = future.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+        switch (r.getStatus()) {
+            case ACCEPTED:
+                return r.getBalanceAfter();
+            case NOT_FOUND:
+                throw new AccountNotFoundException(accountNumber);
+            case INSUFFICIENT_FUNDS:
+                throw new InsufficientFundsException(accountNumber, r.getReason());
+            case INVALID:
+                throw new IllegalArgumentException(r.getReason());
+            default:
+                throw new RuntimeException("Error actualizando saldo: " + r.getReason());
+        }
+    }
+}
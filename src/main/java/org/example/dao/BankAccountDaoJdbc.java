@@ -1,45 +1,170 @@
 package org.example.dao;
 
-import org.example.db.DB;
+import org.example.metrics.DaoMetrics;
 import org.example.model.*;
 
+import javax.sql.DataSource;
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.sql.*;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
 
-public class BankAccountDaoJdbc implements BankAccountDAO {
+public class BankAccountDaoJdbc implements BankAccountDAO, IdempotentPostingDAO {
 
     // SQL (Java 11: strings simples)
     private static final String INSERT_SQL =
             "INSERT INTO BankAccount(balance, accountType, currency, creationDate, overdraftLimit, client_id) " +
                     "VALUES (?,?,?,?,?,?)";
 
+    // número de cuenta dado por quien llama (ver BankAccountDaoSharded) en vez del trigger
+    private static final String INSERT_WITH_NUMBER_SQL =
+            "INSERT INTO BankAccount(balance, accountType, currency, creationDate, overdraftLimit, client_id, accountNumber) " +
+                    "VALUES (?,?,?,?,?,?,?)";
+
     private static final String SELECT_BY_ACC_SQL =
-            "SELECT id, accountNumber, balance, accountType, currency, creationDate, overdraftLimit, client_id " +
+            "SELECT id, accountNumber, balance, accountType, currency, creationDate, overdraftLimit, client_id, version " +
                     "FROM BankAccount WHERE accountNumber = ?";
 
+    private static final String SELECT_BY_ID_SQL =
+            "SELECT id, accountNumber, balance, accountType, currency, creationDate, overdraftLimit, client_id, version " +
+                    "FROM BankAccount WHERE id = ?";
+
     private static final String SELECT_BY_CLIENT_SQL =
-            "SELECT id, accountNumber, balance, accountType, currency, creationDate, overdraftLimit, client_id " +
+            "SELECT id, accountNumber, balance, accountType, currency, creationDate, overdraftLimit, client_id, version " +
                     "FROM BankAccount WHERE client_id = ? ORDER BY id";
 
-    private static final String UPDATE_BALANCE_SQL =
-            "UPDATE BankAccount SET balance = ? WHERE accountNumber = ?";
-
-    private BankAccount map(ResultSet rs) throws SQLException {
-        BankAccount a = new BankAccount();
-        a.setId(rs.getInt("id"));
-        a.setAccountNumber(rs.getString("accountNumber"));
-        a.setBalance(rs.getBigDecimal("balance"));
-        a.setAccountType(AccountType.valueOf(rs.getString("accountType")));
-        a.setCurrency(Currency.valueOf(rs.getString("currency")));
-        Date cd = rs.getDate("creationDate");
-        a.setCreationDate(cd == null ? null : cd.toLocalDate());
-        a.setOverdraftLimit(rs.getBigDecimal("overdraftLimit"));
-        a.setClientId(rs.getInt("client_id"));
-        return a;
+    private static final String SELECT_BY_CLIENT_PAGE_SQL =
+            "SELECT id, accountNumber, balance, accountType, currency, creationDate, overdraftLimit, client_id, version " +
+                    "FROM BankAccount WHERE client_id = ? AND id > ? ORDER BY id LIMIT ?";
+
+    // Un solo UPDATE atómico: el saldo se incrementa en la propia fila (sin leer antes)
+    private static final String DEPOSIT_SQL =
+            "UPDATE BankAccount SET balance = balance + ?, version = version + 1 WHERE accountNumber = ?";
+
+    // Las reglas de AHORRO (>= 0) y CORRIENTE (>= -sobregiro) van en el WHERE
+    private static final String WITHDRAW_SQL =
+            "UPDATE BankAccount SET balance = balance - ?, version = version + 1 " +
+                    "WHERE accountNumber = ? " +
+                    "AND balance - ? >= CASE WHEN accountType = 'AHORRO' THEN 0 " +
+                    "ELSE -COALESCE(overdraftLimit, " + AccountRules.DEFAULT_OVERDRAFT + ") END";
+
+    /*
+     * Variantes que devuelven el saldo nuevo en la misma sentencia, para el camino sin transacción.
+     * H2 lee la fila ya actualizada con FINAL TABLE; MySQL no tiene UPDATE ... RETURNING, así que el
+     * UPDATE deja el saldo en una variable de sesión que se lee sin tocar la tabla.
+     *
+     * Ojo: asignar variables de usuario dentro de una expresión (@v := ...) está obsoleto desde
+     * MySQL 8.0.13 (aviso 1287) y se quitará en alguna versión futura. Aun así son dos idas a la BD
+     * (UPDATE en autocommit + SELECT @newBalance) y ninguna es un commit explícito, que es lo que se
+     * quería ahorrar. Cuando la versión de MySQL en uso deje de aceptarlo, applyAutocommit debe pasar a
+     * applyGuarded(sql, cuenta, monto, retiro, null) en MySQL: UPDATE + SELECT balance en una
+     * transacción, igual que con diario (una ida más, el commit). H2 sigue con FINAL TABLE.
+     */
+    private static final String DEPOSIT_RETURNING_H2_SQL =
+            "SELECT balance FROM FINAL TABLE (" + DEPOSIT_SQL + ")";
+
+    private static final String WITHDRAW_RETURNING_H2_SQL =
+            "SELECT balance FROM FINAL TABLE (" + WITHDRAW_SQL + ")";
+
+    private static final String DEPOSIT_RETURNING_MYSQL_SQL =
+            "UPDATE BankAccount SET balance = (@newBalance := balance + ?), version = version + 1 WHERE accountNumber = ?";
+
+    private static final String WITHDRAW_RETURNING_MYSQL_SQL =
+            "UPDATE BankAccount SET balance = (@newBalance := balance - ?), version = version + 1 " +
+                    "WHERE accountNumber = ? " +
+                    "AND balance - ? >= CASE WHEN accountType = 'AHORRO' THEN 0 " +
+                    "ELSE -COALESCE(overdraftLimit, " + AccountRules.DEFAULT_OVERDRAFT + ") END";
+
+    private static final String SELECT_NEW_BALANCE_MYSQL_SQL = "SELECT @newBalance";
+
+    private static final String SELECT_BALANCE_SQL =
+            "SELECT balance, accountType, overdraftLimit FROM BankAccount WHERE accountNumber = ?";
+
+    // una sola vuelta a la BD; idx_account_client_currency da las cuentas del cliente ya agrupadas por moneda
+    private static final String SELECT_POSITION_SQL =
+            "SELECT currency, SUM(balance), COUNT(*) FROM BankAccount WHERE client_id = ? GROUP BY currency";
+
+    private static final String SET_BALANCE_BY_ID_SQL =
+            "UPDATE BankAccount SET balance = ?, version = version + 1 WHERE id = ?";
+
+    private static final String SET_BALANCE_BY_ACC_SQL =
+            "UPDATE BankAccount SET balance = ?, version = version + 1 WHERE accountNumber = ?";
+
+    // Escritura optimista: sólo aplica si nadie cambió la fila desde que se leyó
+    private static final String CAS_BALANCE_SQL =
+            "UPDATE BankAccount SET balance = ?, version = version + 1 WHERE id = ? AND version = ?";
+
+    private static final String SELECT_VERSION_SQL =
+            "SELECT version FROM BankAccount WHERE accountNumber = ?";
+
+    private static final String ADD_BALANCE_BY_ID_SQL =
+            "UPDATE BankAccount SET balance = balance + ?, version = version + 1 WHERE id = ?";
+
+    // Diario append-only: una fila por movimiento, en la misma transacción que el saldo
+    private static final String INSERT_MOVEMENT_SQL =
+            "INSERT INTO AccountMovement(accountNumber, movementType, amount, balanceAfter, createdAt) " +
+                    "VALUES (?,?,?,?,?)";
+
+    private static final String SELECT_MOVEMENTS_SQL =
+            "SELECT id, accountNumber, movementType, amount, balanceAfter, createdAt " +
+                    "FROM AccountMovement WHERE accountNumber = ? AND id > ? ORDER BY id LIMIT ?";
+
+    // Claves de idempotencia: se insertan junto con el saldo (ver db/mysql/003-posting-key.sql)
+    private static final String INSERT_POSTING_KEY_SQL =
+            "INSERT INTO PostingKey(idempotencyKey, accountNumber, movementType, amount, balanceAfter, createdAt) " +
+                    "VALUES (?,?,?,?,?,?)";
+
+    private static final String SELECT_POSTING_KEY_SQL =
+            "SELECT accountNumber, movementType, amount, balanceAfter FROM PostingKey WHERE idempotencyKey = ?";
+
+    private static final String PURGE_POSTING_KEYS_SQL =
+            "DELETE FROM PostingKey WHERE createdAt < ?";
+
+    private static final int MAX_KEY_LENGTH = 64;
+
+    // mayor monto representable en céntimos (long); uno mayor haría fallar Money.toMinor dentro del bloque
+    private static final BigDecimal MAX_AMOUNT = BigDecimal.valueOf(Long.MAX_VALUE, Money.SCALE);
+
+    // cuentas por transacción al contabilizar lotes
+    public static final int DEFAULT_POST_CHUNK = 500;
+
+    private final TransferStats transferStats = new TransferStats();
+    private final BalanceUpdateStats updateStats = new BalanceUpdateStats();
+    private final boolean journal;
+    private final DataSource dataSource;   // null: el pool de DB
+    private final RetryPolicy retryPolicy;
+    private volatile Boolean mysql;   // se averigua con la primera conexión
+
+    public BankAccountDaoJdbc() {
+        this(false);
+    }
+
+    /** journal = true: cada movimiento también se registra en AccountMovement (requiere la tabla). */
+    public BankAccountDaoJdbc(boolean journal) {
+        this(journal, null);
+    }
+
+    /** Sobre otra base (p. ej. un shard, ver BankAccountDaoSharded). */
+    public BankAccountDaoJdbc(boolean journal, DataSource dataSource) {
+        this(journal, dataSource, RetryPolicy.DEFAULT);
+    }
+
+    /** retryPolicy: reintentos de transfer/updateBalance ante choque de versión o deadlock. */
+    public BankAccountDaoJdbc(boolean journal, DataSource dataSource, RetryPolicy retryPolicy) {
+        this.journal = journal;
+        this.dataSource = dataSource;
+        this.retryPolicy = retryPolicy;
     }
 
     @Override
@@ -55,8 +180,10 @@ public class BankAccountDaoJdbc implements BankAccountDAO {
         if (account.getBalance() == null) account.setBalance(new BigDecimal("0.00"));
         if (account.getOverdraftLimit() == null) account.setOverdraftLimit(new BigDecimal("0.00"));
 
-        try (Connection con = DB.getConnection();
-             PreparedStatement ps = con.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+        boolean givenNumber = account.getAccountNumber() != null;
+        try (Connection con = TimedJdbc.connect(dataSource);
+             PreparedStatement ps = TimedJdbc.prepare(con, givenNumber ? INSERT_WITH_NUMBER_SQL : INSERT_SQL,
+                     Statement.RETURN_GENERATED_KEYS)) {
 
             ps.setBigDecimal(1, account.getBalance());
             ps.setString(2, account.getAccountType().name());
@@ -64,46 +191,39 @@ public class BankAccountDaoJdbc implements BankAccountDAO {
             ps.setDate(4, Date.valueOf(account.getCreationDate()));
             ps.setBigDecimal(5, account.getOverdraftLimit());
             ps.setInt(6, account.getClientId());
+            if (givenNumber) ps.setString(7, account.getAccountNumber());
 
-            ps.executeUpdate();
+            TimedJdbc.update(ps);
 
             // id autogen
             try (ResultSet keys = ps.getGeneratedKeys()) {
-                if (keys.next()) account.setId(keys.getInt(1));
+                if (!keys.next()) throw new RuntimeException("No se obtuvo el id de la cuenta");
+                account.setId(keys.getInt(1));
             }
 
-            // recuperar accountNumber generado por trigger
-            return findByClient(account.getClientId()).stream()
-                    .filter(a -> a.getId().equals(account.getId()))
-                    .findFirst()
-                    .orElseGet(() -> findLatestOfClient(con, account.getClientId())); // respaldo
+            // recuperar accountNumber generado por trigger: por PK y en la misma conexión
+            try (PreparedStatement sel = TimedJdbc.prepare(con, SELECT_BY_ID_SQL)) {
+                sel.setInt(1, account.getId());
+                try (ResultSet rs = TimedJdbc.query(sel)) {
+                    if (!rs.next()) throw new RuntimeException("Cuenta recién creada no encontrada");
+                    return new BankAccountRowMapper().map(rs);
+                }
+            }
 
+        } catch (SQLIntegrityConstraintViolationException e) {
+            throw new RuntimeException("Número de cuenta ya registrado u otra restricción: " + e.getMessage(), e);
         } catch (SQLException e) {
             throw new RuntimeException("Error abriendo cuenta", e);
         }
     }
 
-    // rescate si fuese necesario: última cuenta del cliente (id máx)
-    private BankAccount findLatestOfClient(Connection con, int clientId) {
-        String sql = "SELECT id, accountNumber, balance, accountType, currency, creationDate, overdraftLimit, client_id " +
-                "FROM BankAccount WHERE client_id = ? ORDER BY id DESC LIMIT 1";
-        try (PreparedStatement ps = con.prepareStatement(sql)) {
-            ps.setInt(1, clientId);
-            try (ResultSet rs = ps.executeQuery()) {
-                return rs.next() ? map(rs) : null;
-            }
-        } catch (SQLException e) {
-            throw new RuntimeException(e);
-        }
-    }
-
     @Override
     public Optional<BankAccount> findByAccountNumber(String accountNumber) {
-        try (Connection con = DB.getConnection();
-             PreparedStatement ps = con.prepareStatement(SELECT_BY_ACC_SQL)) {
+        try (Connection con = TimedJdbc.connect(dataSource);
+             PreparedStatement ps = TimedJdbc.prepare(con, SELECT_BY_ACC_SQL)) {
             ps.setString(1, accountNumber);
-            try (ResultSet rs = ps.executeQuery()) {
-                return rs.next() ? Optional.of(map(rs)) : Optional.empty();
+            try (ResultSet rs = TimedJdbc.query(ps)) {
+                return rs.next() ? Optional.of(new BankAccountRowMapper().map(rs)) : Optional.empty();
             }
         } catch (SQLException e) {
             throw new RuntimeException("Error buscando cuenta", e);
@@ -113,69 +233,706 @@ public class BankAccountDaoJdbc implements BankAccountDAO {
     @Override
     public List<BankAccount> findByClient(int clientId) {
         List<BankAccount> list = new ArrayList<>();
-        try (Connection con = DB.getConnection();
-             PreparedStatement ps = con.prepareStatement(SELECT_BY_CLIENT_SQL)) {
+        try (Connection con = TimedJdbc.connect(dataSource);
+             PreparedStatement ps = TimedJdbc.prepare(con, SELECT_BY_CLIENT_SQL)) {
+            ps.setInt(1, clientId);
+            try (ResultSet rs = TimedJdbc.query(ps)) {
+                RowMapper<BankAccount> mapper = new BankAccountRowMapper();
+                long t0 = DaoMetrics.start();
+                while (rs.next()) list.add(mapper.map(rs));
+                DaoMetrics.MAP.record(t0);
+            }
+            return list;
+        } catch (SQLException e) {
+            throw new RuntimeException("Error listando cuentas", e);
+        }
+    }
+
+    /** Saldo total por moneda de todas las cuentas del cliente. */
+    public ClientPosition findPosition(int clientId) {
+        Map<Currency, Money> totals = new EnumMap<>(Currency.class);
+        int accounts = 0;
+        try (Connection con = TimedJdbc.connect(dataSource);
+             PreparedStatement ps = TimedJdbc.prepare(con, SELECT_POSITION_SQL)) {
+            ps.setInt(1, clientId);
+            try (ResultSet rs = TimedJdbc.query(ps)) {
+                while (rs.next()) {
+                    Currency currency = Currency.fromDb(rs.getString(1));
+                    totals.put(currency, Money.of(rs.getBigDecimal(2), currency));
+                    accounts += rs.getInt(3);
+                }
+            }
+            return new ClientPosition(clientId, totals, accounts);
+        } catch (SQLException e) {
+            throw new RuntimeException("Error calculando posición del cliente", e);
+        }
+    }
+
+    @Override
+    public List<BankAccount> findByClientPage(int clientId, int afterId, int limit) {
+        if (limit <= 0) throw new IllegalArgumentException("limit debe ser positivo");
+        List<BankAccount> list = new ArrayList<>(Math.min(limit, 1000));
+        try (Connection con = TimedJdbc.connect(dataSource);
+             PreparedStatement ps = TimedJdbc.prepare(con, SELECT_BY_CLIENT_PAGE_SQL)) {
             ps.setInt(1, clientId);
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) list.add(map(rs));
+            ps.setInt(2, afterId);
+            ps.setInt(3, limit);
+            try (ResultSet rs = TimedJdbc.query(ps)) {
+                RowMapper<BankAccount> mapper = new BankAccountRowMapper();
+                long t0 = DaoMetrics.start();
+                while (rs.next()) list.add(mapper.map(rs));
+                DaoMetrics.MAP.record(t0);
             }
             return list;
         } catch (SQLException e) {
+            throw new RuntimeException("Error paginando cuentas", e);
+        }
+    }
+
+    @Override
+    public Stream<BankAccount> streamByClient(int clientId) {
+        Connection con = null;
+        try {
+            con = TimedJdbc.connect(dataSource);
+            PreparedStatement ps = TimedJdbc.prepare(con, SELECT_BY_CLIENT_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setInt(1, clientId);
+            return JdbcStreams.stream(con, ps, new BankAccountRowMapper());
+        } catch (SQLException e) {
+            if (con != null) try { con.close(); } catch (SQLException ignored) { }
             throw new RuntimeException("Error listando cuentas", e);
         }
     }
 
     @Override
-    public void deposit(String accountNumber, BigDecimal amount) {
+    public BigDecimal deposit(String accountNumber, BigDecimal amount) {
+        if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0)
+            throw new IllegalArgumentException("monto debe ser positivo");
+        return applyGuarded(DEPOSIT_SQL, accountNumber, amount, false);
+    }
+
+    @Override
+    public BigDecimal withdraw(String accountNumber, BigDecimal amount) {
+        if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0)
+            throw new IllegalArgumentException("monto debe ser positivo");
+        return applyGuarded(WITHDRAW_SQL, accountNumber, amount, true);
+    }
+
+    @Override
+    public BigDecimal deposit(String idempotencyKey, String accountNumber, BigDecimal amount) {
+        checkKey(idempotencyKey);
         if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0)
             throw new IllegalArgumentException("monto debe ser positivo");
+        return applyGuarded(DEPOSIT_SQL, accountNumber, amount, false, idempotencyKey);
+    }
+
+    @Override
+    public BigDecimal withdraw(String idempotencyKey, String accountNumber, BigDecimal amount) {
+        checkKey(idempotencyKey);
+        if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0)
+            throw new IllegalArgumentException("monto debe ser positivo");
+        return applyGuarded(WITHDRAW_SQL, accountNumber, amount, true, idempotencyKey);
+    }
 
-        BankAccount a = findByAccountNumber(accountNumber)
-                .orElseThrow(() -> new RuntimeException("Cuenta no existe"));
+    /** Borra las claves de idempotencia anteriores a 'before' (ventana de reintentos ya vencida). */
+    public int purgePostingKeys(LocalDateTime before) {
+        try (Connection con = TimedJdbc.connect(dataSource);
+             PreparedStatement ps = TimedJdbc.prepare(con, PURGE_POSTING_KEYS_SQL)) {
+            ps.setTimestamp(1, Timestamp.valueOf(before));
+            return TimedJdbc.update(ps);
+        } catch (SQLException e) {
+            throw new RuntimeException("Error purgando claves de idempotencia", e);
+        }
+    }
 
-        BigDecimal newBalance = a.getBalance().add(amount);
-        updateBalance(accountNumber, newBalance);
+    @Override
+    public BigDecimal getBalance(String accountNumber) {
+        return findByAccountNumber(accountNumber)
+                .map(BankAccount::getBalance)
+                .orElseThrow(() -> new AccountNotFoundException(accountNumber));
     }
 
     @Override
-    public void withdraw(String accountNumber, BigDecimal amount) {
+    public void transfer(String fromAccount, String toAccount, BigDecimal amount) {
         if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0)
             throw new IllegalArgumentException("monto debe ser positivo");
+        if (fromAccount == null || toAccount == null || fromAccount.equals(toAccount))
+            throw new IllegalArgumentException("cuentas de origen y destino deben ser distintas");
 
-        BankAccount a = findByAccountNumber(accountNumber)
-                .orElseThrow(() -> new RuntimeException("Cuenta no existe"));
+        for (int attempt = 1; ; attempt++) {
+            boolean applied;
+            try {
+                applied = doTransfer(fromAccount, toAccount, amount);
+            } catch (SQLException e) {
+                if (isRetryable(e) && retryPolicy.canRetry(attempt)) {
+                    transferStats.retried.increment();
+                    retryPolicy.backoff(attempt);
+                    continue;
+                }
+                transferStats.aborted.increment();
+                throw new RuntimeException("Error en transferencia: " + e.getMessage(), e);
+            } catch (RuntimeException e) {
+                transferStats.rejected.increment();
+                throw e;
+            }
+            if (applied) {
+                transferStats.committed.increment();
+                return;
+            }
+            transferStats.conflicts.increment();
+            if (!retryPolicy.canRetry(attempt)) {
+                transferStats.aborted.increment();
+                throw new OptimisticLockException(fromAccount, attempt);
+            }
+            transferStats.retried.increment();
+            retryPolicy.backoff(attempt);
+        }
+    }
 
-        BigDecimal newBalance = a.getBalance().subtract(amount);
+    /**
+     * Lee la cuenta, calcula el nuevo saldo con 'change' y lo escribe sólo si la versión no cambió;
+     * si otro la cambió entre medio, vuelve a leer y recalcular (con la pausa de RetryPolicy).
+     * Las reglas de saldo mínimo se validan cuando el saldo baja. Devuelve la cuenta ya actualizada.
+     */
+    public BankAccount updateBalance(String accountNumber, UnaryOperator<Money> change) {
+        for (int attempt = 1; ; attempt++) {
+            BankAccount current = findByAccountNumber(accountNumber)
+                    .orElseThrow(() -> new AccountNotFoundException(accountNumber));
+            Money newBalance = change.apply(current.getBalanceMoney());
+            if (newBalance.isLessThan(current.getBalanceMoney())) AccountRules.checkWithdraw(current, newBalance);
 
-        // Reglas (en BD ya tienes CHECK, pero validamos también aquí)
-        if (a.getAccountType() == AccountType.AHORRO) {
-            if (newBalance.compareTo(BigDecimal.ZERO) < 0) {
-                throw new RuntimeException("Saldo en AHORRO no puede ser negativo");
+            if (writeIfCurrent(current, newBalance)) {
+                updateStats.updated.increment();
+                return updated(current, newBalance);
             }
-        } else { // CORRIENTE
-            BigDecimal limit = a.getOverdraftLimit() == null ? new BigDecimal("500.00") : a.getOverdraftLimit();
-            if (newBalance.compareTo(limit.negate()) < 0) {
-                throw new RuntimeException("Excede el sobregiro permitido (" + limit + ")");
+            updateStats.conflicts.increment();
+            if (!retryPolicy.canRetry(attempt)) {
+                updateStats.exhausted.increment();
+                throw new OptimisticLockException(accountNumber, attempt);
             }
+            updateStats.retried.increment();
+            retryPolicy.backoff(attempt);
         }
+    }
+
+    /**
+     * Escribe newBalance sólo si la cuenta sigue en la versión de 'expected' (leída de este DAO).
+     * false: otro la cambió; hay que volver a leerla.
+     */
+    public boolean compareAndSetBalance(BankAccount expected, BigDecimal newBalance) {
+        if (expected.getVersion() == null || expected.getId() == null)
+            throw new IllegalArgumentException("la cuenta no trae id/versión de la BD: " + expected.getAccountNumber());
+        Money target = Money.of(newBalance, expected.getCurrency());
+        if (target.isLessThan(expected.getBalanceMoney())) AccountRules.checkWithdraw(expected, target);
+        boolean applied = writeIfCurrent(expected, target);
+        if (applied) updateStats.updated.increment();
+        else updateStats.conflicts.increment();
+        return applied;
+    }
 
-        updateBalance(accountNumber, newBalance);
+    /** ¿Sigue la cuenta en la BD con la misma versión que esta copia? */
+    public boolean isCurrent(BankAccount account) {
+        try (Connection con = TimedJdbc.connect(dataSource);
+             PreparedStatement ps = TimedJdbc.prepare(con, SELECT_VERSION_SQL)) {
+            ps.setString(1, account.getAccountNumber());
+            try (ResultSet rs = TimedJdbc.query(ps)) {
+                if (!rs.next()) throw new AccountNotFoundException(account.getAccountNumber());
+                return account.getVersion() != null && account.getVersion() == rs.getLong(1);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error leyendo versión de cuenta", e);
+        }
+    }
+
+    public BalanceUpdateStats getBalanceUpdateStats() {
+        return updateStats;
     }
 
     @Override
-    public BigDecimal getBalance(String accountNumber) {
-        return findByAccountNumber(accountNumber)
-                .map(BankAccount::getBalance)
-                .orElseThrow(() -> new RuntimeException("Cuenta no existe"));
+    public List<PostingResult> post(List<Movement> movements) {
+        return post(movements, DEFAULT_POST_CHUNK);
+    }
+
+    /*
+     * Agrupa los movimientos por cuenta (conservando su orden), aplica las reglas de withdraw
+     * uno a uno en memoria y escribe un solo UPDATE por cuenta con el saldo neto.
+     * Las cuentas se procesan ordenadas y en bloques de chunkSize, cada bloque en su propia
+     * transacción: si un bloque falla, sólo sus movimientos quedan rechazados.
+     */
+    public List<PostingResult> post(List<Movement> movements, int chunkSize) {
+        if (movements == null) throw new IllegalArgumentException("movements is null");
+        if (chunkSize <= 0) throw new IllegalArgumentException("chunkSize debe ser positivo");
+
+        PostingResult[] results = new PostingResult[movements.size()];
+        Map<String, List<Integer>> byAccount = new TreeMap<>();   // orden fijo de bloqueo
+        for (int i = 0; i < movements.size(); i++) {
+            Movement m = movements.get(i);
+            if (m == null || m.getAccountNumber() == null || m.getType() == null) {
+                results[i] = PostingResult.rejected(i, m, PostingResult.Status.INVALID, "movimiento incompleto");
+            } else if (m.getAmount() == null || m.getAmount().compareTo(BigDecimal.ZERO) <= 0) {
+                results[i] = PostingResult.rejected(i, m, PostingResult.Status.INVALID, "monto debe ser positivo");
+            } else if (m.getAmount().stripTrailingZeros().scale() > Money.SCALE) {
+                results[i] = PostingResult.rejected(i, m, PostingResult.Status.INVALID, "monto con más de 2 decimales");
+            } else if (m.getAmount().compareTo(MAX_AMOUNT) > 0) {
+                results[i] = PostingResult.rejected(i, m, PostingResult.Status.INVALID, "monto fuera de rango");
+            } else {
+                byAccount.computeIfAbsent(m.getAccountNumber(), k -> new ArrayList<>()).add(i);
+            }
+        }
+
+        List<String> accounts = new ArrayList<>(byAccount.keySet());
+        for (int from = 0; from < accounts.size(); from += chunkSize) {
+            List<String> chunk = accounts.subList(from, Math.min(from + chunkSize, accounts.size()));
+            // ningún error sale de aquí: los bloques anteriores ya están confirmados
+            try {
+                postChunk(chunk, byAccount, movements, results);
+            } catch (SQLException | RuntimeException e) {
+                String msg = (e instanceof SQLException ? "Error de BD: " : "Error: ") + e.getMessage();
+                for (String acc : chunk) {
+                    for (int i : byAccount.get(acc)) {
+                        results[i] = PostingResult.rejected(i, movements.get(i), PostingResult.Status.ERROR, msg);
+                    }
+                }
+            }
+        }
+        return Collections.unmodifiableList(Arrays.asList(results));
+    }
+
+    private void postChunk(List<String> chunk, Map<String, List<Integer>> byAccount,
+                           List<Movement> movements, PostingResult[] results) throws SQLException {
+        // resultados del bloque en el orden en que se recorre (cuenta por cuenta), no indexados por
+        // posición en el lote: así cada bloque cuesta lo que sus movimientos y no el lote entero
+        List<PostingResult> pending = new ArrayList<>();
+        try (Connection con = TimedJdbc.connect(dataSource)) {
+            con.setAutoCommit(false);
+            try {
+                Map<String, BankAccount> locked = lockAccounts(con, chunk);
+                try (PreparedStatement ps = TimedJdbc.prepare(con, SET_BALANCE_BY_ID_SQL)) {
+                    for (String acc : chunk) {
+                        BankAccount a = locked.get(acc);
+                        List<Integer> idx = byAccount.get(acc);
+                        if (a == null) {
+                            for (int i : idx) {
+                                pending.add(PostingResult.rejected(i, movements.get(i),
+                                        PostingResult.Status.NOT_FOUND, "Cuenta no existe"));
+                            }
+                            continue;
+                        }
+                        // en céntimos: las reglas se evalúan sin crear BigDecimal por movimiento
+                        long floor = AccountRules.balanceFloorMinor(a.getAccountType(), AccountRules.overdraftMinor(a));
+                        long balance = Money.toMinor(a.getBalance());
+                        boolean changed = false;
+                        for (int i : idx) {
+                            Movement m = movements.get(i);
+                            long cents = Money.toMinor(m.getAmount());
+                            boolean withdrawal = m.getType() == MovementType.RETIRO;
+                            long next;
+                            try {
+                                next = Math.addExact(balance, withdrawal ? -cents : cents);
+                            } catch (ArithmeticException e) {
+                                pending.add(PostingResult.rejected(i, m, PostingResult.Status.INVALID,
+                                        "saldo resultante fuera de rango"));
+                                continue;
+                            }
+                            if (withdrawal && next < floor) {
+                                pending.add(PostingResult.rejected(i, m, PostingResult.Status.INSUFFICIENT_FUNDS,
+                                        AccountRules.insufficientFunds(acc, a.getAccountType(), a.getOverdraftLimit()).getMessage()));
+                            } else {
+                                balance = next;
+                                changed = true;
+                                pending.add(PostingResult.accepted(i, m, BigDecimal.valueOf(balance, Money.SCALE)));
+                            }
+                        }
+                        if (changed) {
+                            ps.setBigDecimal(1, BigDecimal.valueOf(balance, Money.SCALE));
+                            ps.setInt(2, a.getId());
+                            ps.addBatch();
+                        }
+                    }
+                    TimedJdbc.batch(ps);
+                }
+                if (journal) {
+                    List<AccountMovement> rows = new ArrayList<>();
+                    LocalDateTime now = LocalDateTime.now();
+                    for (PostingResult r : pending) {
+                        if (r.isAccepted()) rows.add(new AccountMovement(r.getMovement().getAccountNumber(),
+                                r.getMovement().getType(), r.getMovement().getAmount(), r.getBalanceAfter(), now));
+                    }
+                    writeJournal(con, rows);
+                }
+                con.commit();
+            } catch (SQLException | RuntimeException e) {
+                con.rollback();
+                throw e;
+            } finally {
+                con.setAutoCommit(true);
+            }
+        }
+        // sólo se publican los resultados de un bloque confirmado
+        for (PostingResult r : pending) results[r.getIndex()] = r;
+    }
+
+    // SELECT ... IN (...) ORDER BY accountNumber FOR UPDATE: bloquea el bloque completo en orden fijo
+    private Map<String, BankAccount> lockAccounts(Connection con, List<String> accountNumbers) throws SQLException {
+        StringBuilder sql = new StringBuilder(
+                "SELECT id, accountNumber, balance, accountType, currency, creationDate, overdraftLimit, client_id, version " +
+                        "FROM BankAccount WHERE accountNumber IN (");
+        sql.append(InList.placeholders(accountNumbers.size())).append(") ORDER BY accountNumber FOR UPDATE");
+
+        Map<String, BankAccount> found = new TreeMap<>();
+        try (PreparedStatement ps = TimedJdbc.prepare(con, sql.toString())) {
+            InList.bind(ps, 1, accountNumbers);
+            try (ResultSet rs = TimedJdbc.query(ps)) {
+                RowMapper<BankAccount> mapper = new BankAccountRowMapper();
+                while (rs.next()) {
+                    BankAccount a = mapper.map(rs);
+                    found.put(a.getAccountNumber(), a);
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Escribe saldos ya calculados fuera de la BD (write-behind del ledger), todos en una transacción.
+     * No valida reglas: quien los calculó ya lo hizo.
+     */
+    public void setBalances(Map<String, BigDecimal> balances) {
+        if (balances.isEmpty()) return;
+        try (Connection con = TimedJdbc.connect(dataSource)) {
+            con.setAutoCommit(false);
+            try (PreparedStatement ps = TimedJdbc.prepare(con, SET_BALANCE_BY_ACC_SQL)) {
+                for (Map.Entry<String, BigDecimal> e : balances.entrySet()) {
+                    ps.setBigDecimal(1, e.getValue());
+                    ps.setString(2, e.getKey());
+                    ps.addBatch();
+                }
+                TimedJdbc.batch(ps);
+                con.commit();
+            } catch (SQLException | RuntimeException e) {
+                con.rollback();
+                throw e;
+            } finally {
+                con.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error escribiendo saldos", e);
+        }
+    }
+
+    /** Historial de la cuenta por keyset (id > afterId), del más antiguo al más nuevo. */
+    public List<AccountMovement> findMovements(String accountNumber, long afterId, int limit) {
+        if (limit <= 0) throw new IllegalArgumentException("limit debe ser positivo");
+        List<AccountMovement> list = new ArrayList<>(Math.min(limit, 1000));
+        try (Connection con = TimedJdbc.connect(dataSource);
+             PreparedStatement ps = TimedJdbc.prepare(con, SELECT_MOVEMENTS_SQL)) {
+            ps.setString(1, accountNumber);
+            ps.setLong(2, afterId);
+            ps.setInt(3, limit);
+            try (ResultSet rs = TimedJdbc.query(ps)) {
+                while (rs.next()) {
+                    AccountMovement m = new AccountMovement(rs.getString(2), MovementType.valueOf(rs.getString(3)),
+                            rs.getBigDecimal(4), rs.getBigDecimal(5), rs.getTimestamp(6).toLocalDateTime());
+                    m.setId(rs.getLong(1));
+                    list.add(m);
+                }
+            }
+            return list;
+        } catch (SQLException e) {
+            throw new RuntimeException("Error listando movimientos", e);
+        }
+    }
+
+    private static void writeJournal(Connection con, List<AccountMovement> rows) throws SQLException {
+        if (rows.isEmpty()) return;
+        try (PreparedStatement ps = TimedJdbc.prepare(con, INSERT_MOVEMENT_SQL)) {
+            for (AccountMovement m : rows) {
+                ps.setString(1, m.getAccountNumber());
+                ps.setString(2, m.getType().name());
+                ps.setBigDecimal(3, m.getAmount());
+                ps.setBigDecimal(4, m.getBalanceAfter());
+                ps.setTimestamp(5, Timestamp.valueOf(m.getCreatedAt()));
+                ps.addBatch();
+            }
+            TimedJdbc.batch(ps);
+        }
+    }
+
+    public TransferStats getTransferStats() {
+        return transferStats;
+    }
+
+    /*
+     * Optimista: lee ambas cuentas sin bloquearlas, valida y escribe los dos saldos con
+     * "WHERE version = ?". Si alguna cambió entre medio, deshace y devuelve false (transfer reintenta).
+     * Los UPDATE van en orden de número de cuenta (único), así que dos transferencias en sentidos
+     * opuestos toman los bloqueos de fila en el mismo orden y no pueden hacer deadlock.
+     */
+    private boolean doTransfer(String fromAccount, String toAccount, BigDecimal amount) throws SQLException {
+        try (Connection con = TimedJdbc.connect(dataSource)) {
+            BankAccount from = readAccount(con, fromAccount);
+            BankAccount to = readAccount(con, toAccount);
+
+            // misma moneda: Money rechaza PEN + USD (CurrencyMismatchException)
+            Money amt = Money.of(amount, from.getCurrency());
+            Money newFrom = from.getBalanceMoney().minus(amt);
+            Money newTo = to.getBalanceMoney().plus(amt);
+            AccountRules.checkWithdraw(from, newFrom);
+
+            con.setAutoCommit(false);
+            try {
+                boolean fromFirst = fromAccount.compareTo(toAccount) < 0;
+                int[] counts;
+                try (PreparedStatement ps = TimedJdbc.prepare(con, CAS_BALANCE_SQL)) {
+                    addCas(ps, fromFirst ? from : to, fromFirst ? newFrom : newTo);
+                    addCas(ps, fromFirst ? to : from, fromFirst ? newTo : newFrom);
+                    counts = TimedJdbc.batch(ps);
+                }
+                if (counts[0] == 0 || counts[1] == 0) {
+                    con.rollback();
+                    return false;
+                }
+                if (journal) {
+                    LocalDateTime now = LocalDateTime.now();
+                    writeJournal(con, List.of(
+                            new AccountMovement(fromAccount, MovementType.RETIRO, amount, newFrom.toBigDecimal(), now),
+                            new AccountMovement(toAccount, MovementType.DEPOSITO, amount, newTo.toBigDecimal(), now)));
+                }
+                con.commit();
+                return true;
+            } catch (SQLException | RuntimeException e) {
+                con.rollback();
+                throw e;
+            } finally {
+                con.setAutoCommit(true);
+            }
+        }
+    }
+
+    private static void addCas(PreparedStatement ps, BankAccount a, Money newBalance) throws SQLException {
+        ps.setBigDecimal(1, newBalance.toBigDecimal());
+        ps.setInt(2, a.getId());
+        ps.setLong(3, a.getVersion());
+        ps.addBatch();
     }
 
-    private void updateBalance(String accountNumber, BigDecimal newBalance) {
-        try (Connection con = DB.getConnection();
-             PreparedStatement ps = con.prepareStatement(UPDATE_BALANCE_SQL)) {
-            ps.setBigDecimal(1, newBalance);
+    // CAS de una cuenta, con su fila de diario en la misma transacción
+    private boolean writeIfCurrent(BankAccount current, Money newBalance) {
+        try (Connection con = TimedJdbc.connect(dataSource)) {
+            con.setAutoCommit(false);
+            try (PreparedStatement ps = TimedJdbc.prepare(con, CAS_BALANCE_SQL)) {
+                ps.setBigDecimal(1, newBalance.toBigDecimal());
+                ps.setInt(2, current.getId());
+                ps.setLong(3, current.getVersion());
+                if (TimedJdbc.update(ps) == 0) {
+                    con.rollback();
+                    return false;
+                }
+                Money delta = newBalance.minus(current.getBalanceMoney());
+                if (journal && delta.signum() != 0) {
+                    writeJournal(con, List.of(new AccountMovement(current.getAccountNumber(),
+                            delta.signum() > 0 ? MovementType.DEPOSITO : MovementType.RETIRO,
+                            delta.toBigDecimal().abs(), newBalance.toBigDecimal(), LocalDateTime.now())));
+                }
+                con.commit();
+                return true;
+            } catch (SQLException | RuntimeException e) {
+                con.rollback();
+                throw e;
+            } finally {
+                con.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error actualizando saldo: " + e.getMessage(), e);
+        }
+    }
+
+    private static BankAccount updated(BankAccount current, Money newBalance) {
+        BankAccount a = current.copy();
+        a.setBalance(newBalance.toBigDecimal());
+        a.setVersion(current.getVersion() + 1);
+        return a;
+    }
+
+    private BankAccount readAccount(Connection con, String accountNumber) throws SQLException {
+        try (PreparedStatement ps = TimedJdbc.prepare(con, SELECT_BY_ACC_SQL)) {
+            ps.setString(1, accountNumber);
+            try (ResultSet rs = TimedJdbc.query(ps)) {
+                if (!rs.next()) throw new AccountNotFoundException(accountNumber);
+                return new BankAccountRowMapper().map(rs);
+            }
+        }
+    }
+
+    // false si la clave ya estaba registrada
+    private static boolean recordPostingKey(Connection con, String key, String accountNumber, MovementType type,
+                                            BigDecimal amount, BigDecimal balanceAfter) throws SQLException {
+        try (PreparedStatement ps = TimedJdbc.prepare(con, INSERT_POSTING_KEY_SQL)) {
+            ps.setString(1, key);
             ps.setString(2, accountNumber);
-            if (ps.executeUpdate() == 0) {
-                throw new RuntimeException("No se pudo actualizar el saldo");
+            ps.setString(3, type.name());
+            ps.setBigDecimal(4, amount);
+            ps.setBigDecimal(5, balanceAfter);
+            ps.setTimestamp(6, Timestamp.valueOf(LocalDateTime.now()));
+            TimedJdbc.update(ps);
+            return true;
+        } catch (SQLIntegrityConstraintViolationException dup) {
+            return false;
+        }
+    }
+
+    // saldo que dejó el movimiento original de la clave, o null si la clave no existe
+    private static BigDecimal previousPosting(Connection con, String key, String accountNumber, MovementType type,
+                                              BigDecimal amount) throws SQLException {
+        try (PreparedStatement ps = TimedJdbc.prepare(con, SELECT_POSTING_KEY_SQL)) {
+            ps.setString(1, key);
+            try (ResultSet rs = TimedJdbc.query(ps)) {
+                if (!rs.next()) return null;
+                if (!rs.getString(1).equals(accountNumber) || !rs.getString(2).equals(type.name())
+                        || rs.getBigDecimal(3).compareTo(amount) != 0) {
+                    throw new IllegalArgumentException("clave de idempotencia ya usada para otro movimiento: " + key);
+                }
+                return rs.getBigDecimal(4);
+            }
+        }
+    }
+
+    private static void checkKey(String key) {
+        if (key == null || key.isBlank() || key.length() > MAX_KEY_LENGTH)
+            throw new IllegalArgumentException("idempotencyKey requerida (máx. " + MAX_KEY_LENGTH + " caracteres)");
+    }
+
+    // 40001 = deadlock (MySQL 1213); 1205 = lock wait timeout
+    private static boolean isRetryable(SQLException e) {
+        return e instanceof SQLTransactionRollbackException
+                || "40001".equals(e.getSQLState())
+                || e.getErrorCode() == 1205;
+    }
+
+    /*
+     * Con diario o clave de idempotencia: aplica el UPDATE con guardas y lee el saldo resultante en la misma conexión/transacción
+     * (MySQL no tiene UPDATE ... RETURNING). La fila queda bloqueada por el UPDATE, así que
+     * el saldo leído es exactamente el nuestro. Si no se actualizó nada, esa misma lectura
+     * distingue "cuenta no existe" de "fondos insuficientes".
+     */
+    private BigDecimal applyGuarded(String sql, String accountNumber, BigDecimal amount, boolean withdrawal) {
+        if (journal) return applyGuarded(sql, accountNumber, amount, withdrawal, null);
+        return applyAutocommit(accountNumber, amount, withdrawal);
+    }
+
+    /*
+     * Sin diario ni clave de idempotencia no hace falta transacción: un solo UPDATE en autocommit
+     * que devuelve el saldo resultante (ver *_RETURNING_*). Sólo si no actualizó nada se lee la
+     * cuenta, para distinguir "cuenta no existe" de "fondos insuficientes".
+     */
+    private BigDecimal applyAutocommit(String accountNumber, BigDecimal amount, boolean withdrawal) {
+        try (Connection con = TimedJdbc.connect(dataSource)) {
+            BigDecimal newBalance = isMySql(con)
+                    ? updateReturningMySql(con, accountNumber, amount, withdrawal)
+                    : updateReturningH2(con, accountNumber, amount, withdrawal);
+            if (newBalance != null) return newBalance;
+            try (PreparedStatement sel = TimedJdbc.prepare(con, SELECT_BALANCE_SQL)) {
+                sel.setString(1, accountNumber);
+                try (ResultSet rs = TimedJdbc.query(sel)) {
+                    if (!rs.next()) throw new AccountNotFoundException(accountNumber);
+                    throw AccountRules.insufficientFunds(accountNumber, AccountType.fromDb(rs.getString("accountType")),
+                            rs.getBigDecimal("overdraftLimit"));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error actualizando saldo: " + e.getMessage(), e);
+        }
+    }
+
+    // null: no se actualizó ninguna fila
+    private static BigDecimal updateReturningH2(Connection con, String accountNumber, BigDecimal amount,
+                                                boolean withdrawal) throws SQLException {
+        try (PreparedStatement ps = TimedJdbc.prepare(con, withdrawal ? WITHDRAW_RETURNING_H2_SQL : DEPOSIT_RETURNING_H2_SQL)) {
+            bindGuarded(ps, accountNumber, amount, withdrawal);
+            try (ResultSet rs = TimedJdbc.query(ps)) {
+                return rs.next() ? rs.getBigDecimal(1) : null;
+            }
+        }
+    }
+
+    // usa la asignación @newBalance := ..., obsoleta en MySQL 8 (ver DEPOSIT_RETURNING_MYSQL_SQL)
+    private static BigDecimal updateReturningMySql(Connection con, String accountNumber, BigDecimal amount,
+                                                   boolean withdrawal) throws SQLException {
+        try (PreparedStatement ps = TimedJdbc.prepare(con, withdrawal ? WITHDRAW_RETURNING_MYSQL_SQL : DEPOSIT_RETURNING_MYSQL_SQL)) {
+            bindGuarded(ps, accountNumber, amount, withdrawal);
+            if (TimedJdbc.update(ps) == 0) return null;
+        }
+        try (PreparedStatement ps = TimedJdbc.prepare(con, SELECT_NEW_BALANCE_MYSQL_SQL);
+             ResultSet rs = TimedJdbc.query(ps)) {
+            rs.next();
+            return rs.getBigDecimal(1).setScale(Money.SCALE, RoundingMode.HALF_UP);   // la columna redondea igual
+        }
+    }
+
+    private static void bindGuarded(PreparedStatement ps, String accountNumber, BigDecimal amount,
+                                    boolean withdrawal) throws SQLException {
+        ps.setBigDecimal(1, amount);
+        ps.setString(2, accountNumber);
+        if (withdrawal) ps.setBigDecimal(3, amount);
+    }
+
+    private boolean isMySql(Connection con) throws SQLException {
+        Boolean m = mysql;
+        if (m == null) {
+            String product = con.getMetaData().getDatabaseProductName();
+            mysql = m = product != null && product.contains("MySQL");
+        }
+        return m;
+    }
+
+    /*
+     * Con idempotencyKey, la clave se inserta al final de la misma transacción. Si ya existía
+     * (reintento, o dos intentos a la vez: el segundo espera el bloqueo de la fila del primero),
+     * se deshace lo aplicado y se devuelve el saldo guardado con la clave. Si el UPDATE no aplicó,
+     * también se mira la clave antes de informar fondos insuficientes: el retiro original pudo
+     * haber dejado la cuenta sin saldo para repetirlo.
+     */
+    private BigDecimal applyGuarded(String sql, String accountNumber, BigDecimal amount, boolean withdrawal,
+                                    String idempotencyKey) {
+        MovementType type = withdrawal ? MovementType.RETIRO : MovementType.DEPOSITO;
+        try (Connection con = TimedJdbc.connect(dataSource)) {
+            con.setAutoCommit(false);
+            try (PreparedStatement upd = TimedJdbc.prepare(con, sql);
+                 PreparedStatement sel = TimedJdbc.prepare(con, SELECT_BALANCE_SQL)) {
+                upd.setBigDecimal(1, amount);
+                upd.setString(2, accountNumber);
+                if (withdrawal) upd.setBigDecimal(3, amount);
+                int updated = TimedJdbc.update(upd);
+
+                sel.setString(1, accountNumber);
+                try (ResultSet rs = TimedJdbc.query(sel)) {
+                    if (!rs.next()) throw new AccountNotFoundException(accountNumber);
+                    if (updated == 0) {
+                        if (idempotencyKey != null) {
+                            BigDecimal previous = previousPosting(con, idempotencyKey, accountNumber, type, amount);
+                            if (previous != null) return previous;
+                        }
+                        throw AccountRules.insufficientFunds(accountNumber, AccountType.fromDb(rs.getString("accountType")),
+                                rs.getBigDecimal("overdraftLimit"));
+                    }
+                    BigDecimal newBalance = rs.getBigDecimal("balance");
+                    if (journal) {
+                        writeJournal(con, List.of(new AccountMovement(accountNumber, type,
+                                amount, newBalance, LocalDateTime.now())));
+                    }
+                    if (idempotencyKey != null
+                            && !recordPostingKey(con, idempotencyKey, accountNumber, type, amount, newBalance)) {
+                        con.rollback();
+                        return previousPosting(con, idempotencyKey, accountNumber, type, amount);
+                    }
+                    con.commit();
+                    return newBalance;
+                }
+            } catch (SQLException | RuntimeException e) {
+                con.rollback();
+                throw e;
+            } finally {
+                con.setAutoCommit(true);
             }
         } catch (SQLException e) {
             // si la BD rechaza (CHECK), cae aquí
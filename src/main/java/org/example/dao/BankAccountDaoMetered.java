@@ -0,0 +1,173 @@
+package org.example.dao;
+
+import org.example.metrics.DaoMetrics;
+import org.example.metrics.OpMetrics;
+import org.example.model.BankAccount;
+import org.example.model.Movement;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Mide cada operación de otro BankAccountDAO: latencia, errores, rechazos por reglas
+ * (sobregiro, AHORRO negativo) y violaciones de restricciones. Ver DaoMetrics.
+ * Sin lambdas ni objetos por llamada: con las métricas apagadas sólo se lee un volatile.
+ */
+public class BankAccountDaoMetered implements BankAccountDAO {
+
+    private final BankAccountDAO delegate;
+
+    private final OpMetrics openAccount = DaoMetrics.op("account.openAccount");
+    private final OpMetrics findByAccountNumber = DaoMetrics.op("account.findByAccountNumber");
+    private final OpMetrics findByClient = DaoMetrics.op("account.findByClient");
+    private final OpMetrics findByClientPage = DaoMetrics.op("account.findByClientPage");
+    private final OpMetrics streamByClient = DaoMetrics.op("account.streamByClient");
+    private final OpMetrics deposit = DaoMetrics.op("account.deposit");
+    private final OpMetrics withdraw = DaoMetrics.op("account.withdraw");
+    private final OpMetrics getBalance = DaoMetrics.op("account.getBalance");
+    private final OpMetrics transfer = DaoMetrics.op("account.transfer");
+    private final OpMetrics post = DaoMetrics.op("account.post");
+
+    public BankAccountDaoMetered(BankAccountDAO delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public BankAccount openAccount(BankAccount account) {
+        long t0 = DaoMetrics.start();
+        try {
+            return delegate.openAccount(account);
+        } catch (RuntimeException e) {
+            openAccount.failed(e);
+            throw e;
+        } finally {
+            openAccount.record(t0);
+        }
+    }
+
+    @Override
+    public Optional<BankAccount> findByAccountNumber(String accountNumber) {
+        long t0 = DaoMetrics.start();
+        try {
+            return delegate.findByAccountNumber(accountNumber);
+        } catch (RuntimeException e) {
+            findByAccountNumber.failed(e);
+            throw e;
+        } finally {
+            findByAccountNumber.record(t0);
+        }
+    }
+
+    @Override
+    public List<BankAccount> findByClient(int clientId) {
+        long t0 = DaoMetrics.start();
+        try {
+            return delegate.findByClient(clientId);
+        } catch (RuntimeException e) {
+            findByClient.failed(e);
+            throw e;
+        } finally {
+            findByClient.record(t0);
+        }
+    }
+
+    @Override
+    public List<BankAccount> findByClientPage(int clientId, int afterId, int limit) {
+        long t0 = DaoMetrics.start();
+        try {
+            return delegate.findByClientPage(clientId, afterId, limit);
+        } catch (RuntimeException e) {
+            findByClientPage.failed(e);
+            throw e;
+        } finally {
+            findByClientPage.record(t0);
+        }
+    }
+
+    // mide hasta abrir el Stream (consulta ejecutada); el recorrido corre por cuenta del llamador
+    @Override
+    public Stream<BankAccount> streamByClient(int clientId) {
+        long t0 = DaoMetrics.start();
+        try {
+            return delegate.streamByClient(clientId);
+        } catch (RuntimeException e) {
+            streamByClient.failed(e);
+            throw e;
+        } finally {
+            streamByClient.record(t0);
+        }
+    }
+
+    @Override
+    public BigDecimal deposit(String accountNumber, BigDecimal amount) {
+        long t0 = DaoMetrics.start();
+        try {
+            return delegate.deposit(accountNumber, amount);
+        } catch (RuntimeException e) {
+            deposit.failed(e);
+            throw e;
+        } finally {
+            deposit.record(t0);
+        }
+    }
+
+    @Override
+    public BigDecimal withdraw(String accountNumber, BigDecimal amount) {
+        long t0 = DaoMetrics.start();
+        try {
+            return delegate.withdraw(accountNumber, amount);
+        } catch (RuntimeException e) {
+            withdraw.failed(e);
+            throw e;
+        } finally {
+            withdraw.record(t0);
+        }
+    }
+
+    @Override
+    public BigDecimal getBalance(String accountNumber) {
+        long t0 = DaoMetrics.start();
+        try {
+            return delegate.getBalance(accountNumber);
+        } catch (RuntimeException e) {
+            getBalance.failed(e);
+            throw e;
+        } finally {
+            getBalance.record(t0);
+        }
+    }
+
+    @Override
+    public void transfer(String fromAccount, String toAccount, BigDecimal amount) {
+        long t0 = DaoMetrics.start();
+        try {
+            delegate.transfer(fromAccount, toAccount, amount);
+        } catch (RuntimeException e) {
+            transfer.failed(e);
+            throw e;
+        } finally {
+            transfer.record(t0);
+        }
+    }
+
+    @Override
+    public List<PostingResult> post(List<Movement> movements) {
+        long t0 = DaoMetrics.start();
+        try {
+            List<PostingResult> results = delegate.post(movements);
+            if (t0 != 0) {
+                for (int i = 0; i < results.size(); i++) {
+                    if (results.get(i).getStatus() == PostingResult.Status.INSUFFICIENT_FUNDS) post.ruleRejected();
+                }
+            }
+            return results;
+        } catch (RuntimeException e) {
+            post.failed(e);
+            throw e;
+        } finally {
+            post.record(t0);
+        }
+    }
+}
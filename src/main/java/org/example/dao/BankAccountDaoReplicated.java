@@ -0,0 +1,133 @@
+package org.example.dao;
+
+import org.example.db.ReplicaSession;
+import org.example.db.ReplicaSet;
+import org.example.model.BankAccount;
+import org.example.model.ClientPosition;
+import org.example.model.Movement;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * BankAccountDAO con los movimientos en el primario y las consultas (cuentas, saldos, posición) en las réplicas.
+ * Sin sesión getBalance puede devolver el saldo de antes del último depósito; withSession(s) lo evita para s
+ * (la lectura espera a una réplica al día o va al primario, ver ReplicaSet).
+ */
+public class BankAccountDaoReplicated implements BankAccountDAO, IdempotentPostingDAO {
+
+    private final ReplicaSet replicas;
+    private final BankAccountDaoJdbc primary;
+    private final List<BankAccountDaoJdbc> readers;
+    private final ReplicaSession session;   // null: sin lectura tras escritura
+
+    public BankAccountDaoReplicated(ReplicaSet replicas) {
+        this(replicas, false);
+    }
+
+    /** journal: ver BankAccountDaoJdbc(boolean). */
+    public BankAccountDaoReplicated(ReplicaSet replicas, boolean journal) {
+        this.replicas = replicas;
+        this.primary = new BankAccountDaoJdbc(journal, replicas.primary());
+        this.readers = new ArrayList<>(replicas.replicaCount());
+        for (int i = 0; i < replicas.replicaCount(); i++) readers.add(new BankAccountDaoJdbc(journal, replicas.replica(i)));
+        this.session = null;
+    }
+
+    private BankAccountDaoReplicated(BankAccountDaoReplicated base, ReplicaSession session) {
+        this.replicas = base.replicas;
+        this.primary = base.primary;
+        this.readers = base.readers;
+        this.session = session;
+    }
+
+    /** Vista que lee lo que 'session' ya escribió. */
+    public BankAccountDaoReplicated withSession(ReplicaSession session) {
+        return new BankAccountDaoReplicated(this, session);
+    }
+
+    @Override
+    public BankAccount openAccount(BankAccount account) {
+        return write(() -> primary.openAccount(account));
+    }
+
+    @Override
+    public Optional<BankAccount> findByAccountNumber(String accountNumber) {
+        return reader().findByAccountNumber(accountNumber);
+    }
+
+    @Override
+    public List<BankAccount> findByClient(int clientId) {
+        return reader().findByClient(clientId);
+    }
+
+    @Override
+    public List<BankAccount> findByClientPage(int clientId, int afterId, int limit) {
+        return reader().findByClientPage(clientId, afterId, limit);
+    }
+
+    @Override
+    public Stream<BankAccount> streamByClient(int clientId) {
+        return reader().streamByClient(clientId);
+    }
+
+    public ClientPosition findPosition(int clientId) {
+        return reader().findPosition(clientId);
+    }
+
+    @Override
+    public BigDecimal deposit(String accountNumber, BigDecimal amount) {
+        return write(() -> primary.deposit(accountNumber, amount));
+    }
+
+    @Override
+    public BigDecimal withdraw(String accountNumber, BigDecimal amount) {
+        return write(() -> primary.withdraw(accountNumber, amount));
+    }
+
+    @Override
+    public BigDecimal deposit(String idempotencyKey, String accountNumber, BigDecimal amount) {
+        return write(() -> primary.deposit(idempotencyKey, accountNumber, amount));
+    }
+
+    @Override
+    public BigDecimal withdraw(String idempotencyKey, String accountNumber, BigDecimal amount) {
+        return write(() -> primary.withdraw(idempotencyKey, accountNumber, amount));
+    }
+
+    @Override
+    public BigDecimal getBalance(String accountNumber) {
+        return reader().getBalance(accountNumber);
+    }
+
+    @Override
+    public void transfer(String fromAccount, String toAccount, BigDecimal amount) {
+        write(() -> {
+            primary.transfer(fromAccount, toAccount, amount);
+            return null;
+        });
+    }
+
+    @Override
+    public List<PostingResult> post(List<Movement> movements) {
+        return write(() -> primary.post(movements));
+    }
+
+    private BankAccountDaoJdbc reader() {
+        int r = replicas.route(session == null ? 0 : session.getToken());
+        return r == ReplicaSet.PRIMARY ? primary : readers.get(r);
+    }
+
+    private <T> T write(Supplier<T> call) {
+        try {
+            return call.get();
+        } finally {
+            // aun si falló, pudo haber confirmado algo (p. ej. parte de un lote)
+            if (session != null) session.wrote(replicas.writeToken());
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package org.example.dao;
+
+import org.example.model.BankAccount;
+import org.example.model.ClientPosition;
+import org.example.model.Movement;
+import org.example.shard.ShardMap;
+import org.example.shard.Shards;
+
+import java.math.BigDecimal;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * BankAccountDAO repartido por cliente (ver ShardMap). Las cuentas nuevas llevan el id del cliente en el número,
+ * así cada operación va directo al shard; sólo las cuentas con número anterior al particionado se buscan en todos.
+ * Si Resharder mueve al cliente mientras tanto, la operación se repite una vez en el shard nuevo.
+ * Las transferencias entre cuentas de shards distintos no se admiten (no hay transacción entre bases).
+ */
+public class BankAccountDaoSharded implements BankAccountDAO, IdempotentPostingDAO {
+
+    private static final int MAX_OPEN_ATTEMPTS = 3;
+
+    private final Shards shards;
+    private final ShardMap map;
+    private final List<BankAccountDaoJdbc> daos = new ArrayList<>();
+
+    public BankAccountDaoSharded(Shards shards) {
+        this(shards, false);
+    }
+
+    /** journal: ver BankAccountDaoJdbc(boolean). */
+    public BankAccountDaoSharded(Shards shards, boolean journal) {
+        this.shards = shards;
+        this.map = shards.getMap();
+        for (int s = 0; s < shards.size(); s++) daos.add(new BankAccountDaoJdbc(journal, shards.node(s)));
+    }
+
+    /*
+     * El número es "19" + id del cliente + correlativo del cliente (ShardMap.accountNumber).
+     * Si dos aperturas del mismo cliente toman el mismo correlativo, la segunda choca con el UNIQUE y reintenta.
+     */
+    @Override
+    public BankAccount openAccount(BankAccount account) {
+        if (account == null) throw new IllegalArgumentException("account is null");
+        int s = map.shardOf(account.getClientId());
+        if (s < 0) throw new IllegalArgumentException("cliente fuera de los shards: " + account.getClientId());
+        BankAccountDaoJdbc dao = daos.get(s);
+        for (int attempt = 1; ; attempt++) {
+            int seq = 0;
+            for (BankAccount a : dao.findByClient(account.getClientId())) {
+                seq = Math.max(seq, ShardMap.seqOfAccount(a.getAccountNumber()));
+            }
+            BankAccount numbered = account.copy();
+            numbered.setAccountNumber(ShardMap.accountNumber(account.getClientId(), seq + 1));
+            try {
+                return dao.openAccount(numbered);
+            } catch (RuntimeException e) {
+                if (!(e.getCause() instanceof SQLIntegrityConstraintViolationException) || attempt == MAX_OPEN_ATTEMPTS)
+                    throw e;
+            }
+        }
+    }
+
+    @Override
+    public Optional<BankAccount> findByAccountNumber(String accountNumber) {
+        int s = map.shardOfAccount(accountNumber);
+        if (s >= 0) return daos.get(s).findByAccountNumber(accountNumber);
+        for (Optional<BankAccount> found : shards.scatter(i -> daos.get(i).findByAccountNumber(accountNumber))) {
+            if (found.isPresent()) return found;
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public List<BankAccount> findByClient(int clientId) {
+        int s = map.shardOf(clientId);
+        return s < 0 ? Collections.emptyList() : daos.get(s).findByClient(clientId);
+    }
+
+    @Override
+    public List<BankAccount> findByClientPage(int clientId, int afterId, int limit) {
+        int s = map.shardOf(clientId);
+        return s < 0 ? Collections.emptyList() : daos.get(s).findByClientPage(clientId, afterId, limit);
+    }
+
+    @Override
+    public Stream<BankAccount> streamByClient(int clientId) {
+        int s = map.shardOf(clientId);
+        return s < 0 ? Stream.empty() : daos.get(s).streamByClient(clientId);
+    }
+
+    public ClientPosition findPosition(int clientId) {
+        int s = map.shardOf(clientId);
+        return s < 0 ? new ClientPosition(clientId, Collections.emptyMap(), 0) : daos.get(s).findPosition(clientId);
+    }
+
+    @Override
+    public BigDecimal deposit(String accountNumber, BigDecimal amount) {
+        return onAccount(accountNumber, dao -> dao.deposit(accountNumber, amount));
+    }
+
+    @Override
+    public BigDecimal withdraw(String accountNumber, BigDecimal amount) {
+        return onAccount(accountNumber, dao -> dao.withdraw(accountNumber, amount));
+    }
+
+    @Override
+    public BigDecimal deposit(String idempotencyKey, String accountNumber, BigDecimal amount) {
+        return onAccount(accountNumber, dao -> dao.deposit(idempotencyKey, accountNumber, amount));
+    }
+
+    @Override
+    public BigDecimal withdraw(String idempotencyKey, String accountNumber, BigDecimal amount) {
+        return onAccount(accountNumber, dao -> dao.withdraw(idempotencyKey, accountNumber, amount));
+    }
+
+    @Override
+    public BigDecimal getBalance(String accountNumber) {
+        return onAccount(accountNumber, dao -> dao.getBalance(accountNumber));
+    }
+
+    @Override
+    public void transfer(String fromAccount, String toAccount, BigDecimal amount) {
+        int from = locate(fromAccount);
+        int to = locate(toAccount);
+        if (from != to) throw new IllegalArgumentException("transferencia entre shards distintos no soportada");
+        daos.get(from).transfer(fromAccount, toAccount, amount);
+    }
+
+    /** Cada shard contabiliza su parte del lote (en paralelo); los resultados vuelven en el orden de entrada. */
+    @Override
+    public List<PostingResult> post(List<Movement> movements) {
+        if (movements == null) throw new IllegalArgumentException("movements is null");
+        PostingResult[] results = new PostingResult[movements.size()];
+        List<List<Integer>> indexes = new ArrayList<>();
+        for (int s = 0; s < daos.size(); s++) indexes.add(new ArrayList<>());
+        for (int i = 0; i < movements.size(); i++) {
+            Movement m = movements.get(i);
+            int s = m == null ? -1 : shardForPosting(m.getAccountNumber());
+            // sin shard (inválido o inexistente): el shard 0 lo rechaza con el motivo de siempre
+            indexes.get(Math.max(s, 0)).add(i);
+        }
+        List<List<PostingResult>> perShard = shards.scatter(s -> {
+            List<Integer> idx = indexes.get(s);
+            if (idx.isEmpty()) return Collections.<PostingResult>emptyList();
+            List<Movement> part = new ArrayList<>(idx.size());
+            for (int i : idx) part.add(movements.get(i));
+            return daos.get(s).post(part);
+        });
+        for (int s = 0; s < perShard.size(); s++) {
+            List<Integer> idx = indexes.get(s);
+            for (PostingResult r : perShard.get(s)) {
+                int i = idx.get(r.getIndex());
+                results[i] = r.isAccepted()
+                        ? PostingResult.accepted(i, r.getMovement(), r.getBalanceAfter())
+                        : PostingResult.rejected(i, r.getMovement(), r.getStatus(), r.getReason());
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    // ---------- helpers ----------
+
+    private <T> T onAccount(String accountNumber, Function<BankAccountDaoJdbc, T> call) {
+        int s = locate(accountNumber);
+        try {
+            return call.apply(daos.get(s));
+        } catch (AccountNotFoundException e) {
+            int now = map.shardOfAccount(accountNumber);
+            if (now < 0 || now == s) throw e;
+            return call.apply(daos.get(now));   // el cliente se movió durante la llamada
+        }
+    }
+
+    private int locate(String accountNumber) {
+        int s = map.shardOfAccount(accountNumber);
+        if (s >= 0) return s;
+        List<Boolean> found = shards.scatter(i -> daos.get(i).findByAccountNumber(accountNumber).isPresent());
+        int i = found.indexOf(Boolean.TRUE);
+        if (i < 0) throw new AccountNotFoundException(accountNumber);
+        return i;
+    }
+
+    private int shardForPosting(String accountNumber) {
+        if (accountNumber == null) return -1;
+        int s = map.shardOfAccount(accountNumber);
+        if (s >= 0) return s;
+        try {
+            return locate(accountNumber);
+        } catch (AccountNotFoundException e) {
+            return -1;
+        }
+    }
+}
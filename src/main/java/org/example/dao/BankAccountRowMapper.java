@@ -0,0 +1,49 @@
+package org.example.dao;
+
+import org.example.model.AccountType;
+import org.example.model.BankAccount;
+import org.example.model.Currency;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Mapea filas de BankAccount. Los índices de columna se resuelven una sola vez, en la primera fila,
+ * así que se debe crear un mapper nuevo por cada ResultSet.
+ */
+public class BankAccountRowMapper implements RowMapper<BankAccount> {
+
+    private int id, accountNumber, balance, accountType, currency, creationDate, overdraftLimit, clientId, version;
+    private boolean resolved;
+
+    @Override
+    public BankAccount map(ResultSet rs) throws SQLException {
+        if (!resolved) resolve(rs);
+        BankAccount a = new BankAccount();
+        a.setId(rs.getInt(id));
+        a.setAccountNumber(rs.getString(accountNumber));
+        a.setBalance(rs.getBigDecimal(balance));
+        a.setAccountType(AccountType.fromDb(rs.getString(accountType)));
+        a.setCurrency(Currency.fromDb(rs.getString(currency)));
+        Date cd = rs.getDate(creationDate);
+        a.setCreationDate(cd == null ? null : cd.toLocalDate());
+        a.setOverdraftLimit(rs.getBigDecimal(overdraftLimit));
+        a.setClientId(rs.getInt(clientId));
+        a.setVersion(rs.getLong(version));
+        return a;
+    }
+
+    private void resolve(ResultSet rs) throws SQLException {
+        id = rs.findColumn("id");
+        accountNumber = rs.findColumn("accountNumber");
+        balance = rs.findColumn("balance");
+        accountType = rs.findColumn("accountType");
+        currency = rs.findColumn("currency");
+        creationDate = rs.findColumn("creationDate");
+        overdraftLimit = rs.findColumn("overdraftLimit");
+        clientId = rs.findColumn("client_id");
+        version = rs.findColumn("version");
+        resolved = true;
+    }
+}
@@ -0,0 +1,69 @@
+package org.example.dao;
+
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+
+/**
+ * Plazo de la llamada de DaoExecutor que corre en este hilo. Interrumpir el hilo no corta una
+ * sentencia que espera a la BD, así que TimedJdbc le pasa el tiempo que queda como query timeout
+ * y deja registrada la sentencia en curso para que cancel() la corte con Statement.cancel().
+ */
+final class CallDeadline {
+
+    private static final ThreadLocal<CallDeadline> CURRENT = new ThreadLocal<>();
+
+    private final long deadlineNanos;   // Long.MAX_VALUE: sin plazo, sólo cancelación
+    private Statement running;
+    private boolean cancelled;
+
+    CallDeadline(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    static CallDeadline current() {
+        return CURRENT.get();
+    }
+
+    void enter() {
+        CURRENT.set(this);
+    }
+
+    void exit() {
+        CURRENT.remove();
+    }
+
+    /** Antes de ejecutar: fija el query timeout con lo que queda del plazo y registra la sentencia. */
+    synchronized void start(Statement st) throws SQLException {
+        if (cancelled) throw new SQLTimeoutException("llamada cancelada o vencida");
+        if (deadlineNanos != Long.MAX_VALUE) {
+            long left = deadlineNanos - System.nanoTime();
+            if (left <= 0) throw new SQLTimeoutException("plazo de la llamada vencido");
+            st.setQueryTimeout((int) Math.max(1, (left + 999_999_999L) / 1_000_000_000L));
+        }
+        running = st;
+    }
+
+    /** Después de ejecutar; deja el timeout en 0 porque la sentencia puede volver a la cache del driver. */
+    synchronized void end() {
+        Statement st = running;
+        running = null;
+        if (st != null && deadlineNanos != Long.MAX_VALUE) {
+            try {
+                st.setQueryTimeout(0);
+            } catch (SQLException ignored) {
+                // sentencia ya cerrada
+            }
+        }
+    }
+
+    synchronized void cancel() {
+        cancelled = true;
+        if (running == null) return;
+        try {
+            running.cancel();
+        } catch (SQLException ignored) {
+            // la sentencia ya terminó o el driver no sabe cancelar: queda el query timeout
+        }
+    }
+}
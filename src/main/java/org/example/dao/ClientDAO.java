@@ -2,14 +2,20 @@ package org.example.dao;
 
 import org.example.model.Client;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ClientDAO {
     Client save(Client client);                 // Crea, asigna id
+    ImportResult saveAll(Iterator<Client> clients); // Carga masiva por lotes (streaming)
     Optional<Client> findById(int id);         // Lee por id
+    List<Client> findByIds(int[] ids);         // Lee varios por id en una consulta; en orden de id, omite los que no existen
     Optional<Client> findByDni(String dni);    // Lee por DNI
     List<Client> findAll();                    // Lista
+    List<Client> findPage(int afterId, int limit); // Página por keyset (id > afterId)
+    Stream<Client> streamAll();                // Recorrido perezoso; cerrar el Stream libera la conexión
     Client update(Client client);              // Actualiza (DNI NO cambia)
     boolean deleteById(int id);                // Elimina
 }
@@ -0,0 +1,199 @@
+package org.example.dao;
+
+import org.example.cache.CacheStats;
+import org.example.cache.LruCache;
+import org.example.model.Client;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Cache de lectura delante de otro ClientDAO: clientes por id y el índice dni -> id.
+ * update y deleteById invalidan la entrada (y el DNI anterior) después de escribir y no cachean
+ * el objeto del llamador; las listas no se cachean.
+ *
+ * Como en BankAccountDaoCached, cada id lleva una generación por franja: una lectura sólo cachea
+ * lo que leyó si ninguna escritura empezó o terminó mientras leía.
+ */
+public class ClientDaoCached implements ClientDAO {
+
+    private final ClientDAO delegate;
+    private final LruCache<Integer, Client> byId;
+    private final LruCache<String, Integer> idByDni;   // se comprueba contra el DNI del cliente cacheado
+    private final Guard[] guards = new Guard[GUARDS];
+
+    private static final int GUARDS = 1024;
+
+    // protegido por sí mismo; 'writers' > 0 mientras hay escrituras en curso en la franja
+    private static final class Guard {
+        long gen;
+        int writers;
+    }
+
+    public ClientDaoCached(ClientDAO delegate) {
+        this(delegate, 100_000, Duration.ofMinutes(10));
+    }
+
+    public ClientDaoCached(ClientDAO delegate, int maxClients, Duration ttl) {
+        this.delegate = delegate;
+        this.byId = new LruCache<>(maxClients, ttl);
+        this.idByDni = new LruCache<>(maxClients, ttl);
+        for (int i = 0; i < GUARDS; i++) guards[i] = new Guard();
+    }
+
+    @Override
+    public Client save(Client client) {
+        Client saved = delegate.save(client);
+        if (saved != null && saved.getId() != null) remember(saved, readStamp(saved.getId()));
+        return saved;
+    }
+
+    @Override
+    public ImportResult saveAll(Iterator<Client> clients) {
+        return delegate.saveAll(clients);
+    }
+
+    @Override
+    public Optional<Client> findById(int id) {
+        Client cached = byId.get(id);
+        if (cached != null) return Optional.of(cached.copy());
+        long stamp = readStamp(id);
+        Optional<Client> found = delegate.findById(id);
+        found.ifPresent(c -> remember(c, stamp));
+        return found;
+    }
+
+    // los que están en cache salen de ahí; el resto, en un solo findByIds del delegado
+    @Override
+    public List<Client> findByIds(int[] ids) {
+        if (ids == null) throw new IllegalArgumentException("ids is null");
+        List<Client> found = new ArrayList<>(ids.length);
+        int[] missing = new int[ids.length];
+        Map<Integer, Long> stamps = new HashMap<>();
+        int m = 0;
+        for (int id : ids) {
+            Client cached = byId.get(id);
+            if (cached != null) found.add(cached.copy());
+            else {
+                missing[m++] = id;
+                stamps.put(id, readStamp(id));
+            }
+        }
+        if (m > 0) {
+            for (Client c : delegate.findByIds(Arrays.copyOf(missing, m))) {
+                remember(c, stamps.getOrDefault(c.getId(), -1L));
+                found.add(c);
+            }
+        }
+        found.sort(Comparator.comparing(Client::getId));
+        return found;
+    }
+
+    @Override
+    public Optional<Client> findByDni(String dni) {
+        Integer id = idByDni.get(dni);
+        long stamp = -1;
+        if (id != null) {
+            Client cached = byId.get(id);
+            if (cached != null && dni.equals(cached.getDni())) return Optional.of(cached.copy());
+            stamp = readStamp(id);
+        }
+        Optional<Client> found = delegate.findByDni(dni);
+        if (found.isEmpty()) idByDni.invalidate(dni);
+        else if (found.get().getId().equals(id)) remember(found.get(), stamp);
+        // sin id conocido no había generación que tomar: sólo el índice; la próxima lectura cachea la fila
+        else idByDni.put(dni, found.get().getId());
+        return found;
+    }
+
+    @Override
+    public List<Client> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public List<Client> findPage(int afterId, int limit) {
+        return delegate.findPage(afterId, limit);
+    }
+
+    @Override
+    public Stream<Client> streamAll() {
+        return delegate.streamAll();
+    }
+
+    @Override
+    public Client update(Client client) {
+        if (client == null || client.getId() == null) return delegate.update(client);
+        int id = client.getId();
+        beginWrite(id);
+        try {
+            return delegate.update(client);
+        } finally {
+            endWrite(id);
+            if (client.getDni() != null) idByDni.invalidate(client.getDni());
+        }
+    }
+
+    @Override
+    public boolean deleteById(int id) {
+        beginWrite(id);
+        try {
+            return delegate.deleteById(id);
+        } finally {
+            endWrite(id);
+        }
+    }
+
+    public CacheStats getClientStats() { return byId.stats(); }
+    public CacheStats getDniStats() { return idByDni.stats(); }
+
+    private Guard guardOf(int id) {
+        return guards[Math.floorMod(id, GUARDS)];
+    }
+
+    // -1 si hay una escritura en curso: lo que se lea ahora no se cachea
+    private long readStamp(int id) {
+        Guard g = guardOf(id);
+        synchronized (g) {
+            return g.writers == 0 ? g.gen : -1;
+        }
+    }
+
+    private void remember(Client c, long stamp) {
+        if (c == null || c.getId() == null) return;
+        Guard g = guardOf(c.getId());
+        synchronized (g) {
+            if (stamp < 0 || g.gen != stamp || g.writers != 0) return;
+            byId.put(c.getId(), c.copy());
+            if (c.getDni() != null) idByDni.put(c.getDni(), c.getId());
+        }
+    }
+
+    private void beginWrite(int id) {
+        Guard g = guardOf(id);
+        synchronized (g) {
+            g.writers++;
+            g.gen++;
+        }
+    }
+
+    // Tras escribir se invalida siempre, con el DNI que había en cache: la próxima lectura va al delegado
+    private void endWrite(int id) {
+        Guard g = guardOf(id);
+        synchronized (g) {
+            g.writers--;
+            g.gen++;
+            Client previous = byId.get(id);
+            byId.invalidate(id);
+            if (previous != null && previous.getDni() != null) idByDni.invalidate(previous.getDni());
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package org.example.dao;
+
+import org.example.cache.ClientSearchIndex;
+import org.example.model.Client;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * ClientDAO con búsqueda por prefijo de nombre, apellido, email o teléfono (ClientSearchIndex).
+ * El índice se arma al crear el DAO recorriendo la tabla con streamAll y se mantiene con las
+ * escrituras que pasan por aquí; lo escrito por otro proceso sólo aparece tras reload().
+ */
+public class ClientDaoIndexed implements ClientDAO {
+
+    private final ClientDAO delegate;
+    private final ClientSearchIndex index = new ClientSearchIndex();
+
+    public ClientDaoIndexed(ClientDAO delegate) {
+        this.delegate = delegate;
+        reload();
+    }
+
+    /** Vuelve a armar el índice desde la tabla. */
+    public void reload() {
+        try (Stream<Client> all = delegate.streamAll()) {
+            index.load(all);
+        }
+    }
+
+    /**
+     * Clientes con id > afterId en los que cada palabra de 'query' empieza alguno de sus datos
+     * ("ros san", "rosa@", "98765"), en orden de id. La página se lee con un solo findByIds
+     * (un cliente borrado entre medio se omite).
+     */
+    public List<Client> search(String query, int afterId, int limit) {
+        return delegate.findByIds(index.search(query, afterId, limit));
+    }
+
+    public ClientSearchIndex getIndex() {
+        return index;
+    }
+
+    @Override
+    public Client save(Client client) {
+        Client saved = delegate.save(client);
+        index.put(saved);
+        return saved;
+    }
+
+    // por bloques, para indexar cada uno apenas el delegado le asigna ids
+    @Override
+    public ImportResult saveAll(Iterator<Client> clients) {
+        if (clients == null) throw new IllegalArgumentException("clients is null");
+        ImportResult result = new ImportResult();
+        List<Client> chunk = new ArrayList<>(ClientDaoJdbc.DEFAULT_IMPORT_CHUNK);
+        while (clients.hasNext()) {
+            chunk.add(clients.next());
+            if (chunk.size() == ClientDaoJdbc.DEFAULT_IMPORT_CHUNK) {
+                result.add(saveChunk(chunk));
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) result.add(saveChunk(chunk));
+        return result;
+    }
+
+    private ImportResult saveChunk(List<Client> chunk) {
+        List<Client> fresh = new ArrayList<>(chunk.size());
+        for (Client c : chunk) if (c != null && c.getId() == null) fresh.add(c);
+        ImportResult r = delegate.saveAll(chunk.iterator());
+        for (Client c : fresh) if (c.getId() != null) index.put(c);   // los duplicados quedan sin id
+        return r;
+    }
+
+    @Override
+    public Optional<Client> findById(int id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public List<Client> findByIds(int[] ids) {
+        return delegate.findByIds(ids);
+    }
+
+    @Override
+    public Optional<Client> findByDni(String dni) {
+        return delegate.findByDni(dni);
+    }
+
+    @Override
+    public List<Client> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public List<Client> findPage(int afterId, int limit) {
+        return delegate.findPage(afterId, limit);
+    }
+
+    @Override
+    public Stream<Client> streamAll() {
+        return delegate.streamAll();
+    }
+
+    @Override
+    public Client update(Client client) {
+        Client updated = delegate.update(client);
+        index.put(updated);
+        return updated;
+    }
+
+    @Override
+    public boolean deleteById(int id) {
+        boolean deleted = delegate.deleteById(id);
+        if (deleted) index.remove(id);
+        return deleted;
+    }
+}
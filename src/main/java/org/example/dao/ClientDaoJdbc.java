@@ -1,20 +1,35 @@
 package org.example.dao;
 
-import org.example.db.DB;
+import org.example.metrics.DaoMetrics;
 import org.example.model.Client;
 
+import javax.sql.DataSource;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 public class ClientDaoJdbc implements ClientDAO {
 
+    // filas por INSERT en lote al importar
+    public static final int DEFAULT_IMPORT_CHUNK = 1000;
+
+    private final DataSource dataSource;   // null: el pool de DB
+    private final ClientIdSequence ids;     // null: id por AUTO_INCREMENT
+
     // ---------- SQL (Java 11, sin text blocks) ----------
     private static final String INSERT_SQL =
             "INSERT INTO Client(firstName,lastName,dni,email,phoneNumber,birthDate,address) " +
                     "VALUES (?,?,?,?,?,?,?)";
 
+    private static final String INSERT_WITH_ID_SQL =
+            "INSERT INTO Client(firstName,lastName,dni,email,phoneNumber,birthDate,address,id) " +
+                    "VALUES (?,?,?,?,?,?,?,?)";
+
     private static final String SELECT_BY_ID_SQL =
             "SELECT id, firstName, lastName, dni, email, phoneNumber, birthDate, address " +
                     "FROM Client WHERE id = ?";
@@ -27,6 +42,10 @@ public class ClientDaoJdbc implements ClientDAO {
             "SELECT id, firstName, lastName, dni, email, phoneNumber, birthDate, address " +
                     "FROM Client ORDER BY id";
 
+    private static final String SELECT_PAGE_SQL =
+            "SELECT id, firstName, lastName, dni, email, phoneNumber, birthDate, address " +
+                    "FROM Client WHERE id > ? ORDER BY id LIMIT ?";
+
     // OJO: el DNI es único y NO se actualiza
     private static final String UPDATE_SQL =
             "UPDATE Client " +
@@ -36,30 +55,22 @@ public class ClientDaoJdbc implements ClientDAO {
     private static final String DELETE_SQL =
             "DELETE FROM Client WHERE id = ?";
 
-    // ---------- helpers ----------
-    private Client map(ResultSet rs) throws SQLException {
-        Client c = new Client();
-        c.setId(rs.getInt("id"));
-        c.setFirstName(rs.getString("firstName"));
-        c.setLastName(rs.getString("lastName"));
-
-        // Si no tienes setDni en Client, hacemos un set por reflexión solo para mapear
-        try {
-            java.lang.reflect.Field f = Client.class.getDeclaredField("dni");
-            f.setAccessible(true);
-            f.set(c, rs.getString("dni"));
-        } catch (ReflectiveOperationException ignored) { }
-
-        c.setEmail(rs.getString("email"));
-        c.setPhoneNumber(rs.getString("phoneNumber"));
+    public ClientDaoJdbc() {
+        this(null);
+    }
 
-        Date bd = rs.getDate("birthDate");
-        c.setBirthDate(bd == null ? null : bd.toLocalDate());
+    /** Sobre otra base (p. ej. un shard, ver ClientDaoSharded). */
+    public ClientDaoJdbc(DataSource dataSource) {
+        this(dataSource, null);
+    }
 
-        c.setAddress(rs.getString("address"));
-        return c;
+    /** Con ids tomados de 'ids' en vez del AUTO_INCREMENT (shards, ver ClientIdSequence). */
+    ClientDaoJdbc(DataSource dataSource, ClientIdSequence ids) {
+        this.dataSource = dataSource;
+        this.ids = ids;
     }
 
+    // ---------- helpers ----------
     private void fill(PreparedStatement ps, Client c) throws SQLException {
         ps.setString(1, c.getFirstName());
         ps.setString(2, c.getLastName());
@@ -69,6 +80,12 @@ public class ClientDaoJdbc implements ClientDAO {
         if (c.getBirthDate() == null) ps.setNull(6, Types.DATE);
         else ps.setDate(6, Date.valueOf(c.getBirthDate()));
         ps.setString(7, c.getAddress());
+        if (ids != null) ps.setInt(8, c.getId());
+    }
+
+    private PreparedStatement prepareInsert(Connection con) throws SQLException {
+        return ids != null ? TimedJdbc.prepare(con, INSERT_WITH_ID_SQL)
+                : TimedJdbc.prepare(con, INSERT_SQL, Statement.RETURN_GENERATED_KEYS);
     }
 
     // ---------- CRUD ----------
@@ -78,31 +95,183 @@ public class ClientDaoJdbc implements ClientDAO {
         if (client.getDni() == null || client.getDni().isBlank())
             throw new IllegalArgumentException("dni required");
 
-        try (Connection con = DB.getConnection();
-             PreparedStatement ps = con.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+        if (ids != null) client.setId(ids.reserve(1));
+        try (Connection con = TimedJdbc.connect(dataSource);
+             PreparedStatement ps = prepareInsert(con)) {
 
             fill(ps, client);
-            ps.executeUpdate();
+            TimedJdbc.update(ps);
 
-            try (ResultSet keys = ps.getGeneratedKeys()) {
-                if (keys.next()) client.setId(keys.getInt(1));
+            if (ids == null) {
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    if (keys.next()) client.setId(keys.getInt(1));
+                }
             }
             return client;
 
         } catch (SQLIntegrityConstraintViolationException e) {
+            if (ids != null) client.setId(null);
             throw new RuntimeException("DNI ya registrado u otra restricción: " + e.getMessage(), e);
         } catch (SQLException e) {
+            if (ids != null) client.setId(null);
             throw new RuntimeException("Error guardando cliente", e);
         }
     }
 
+    @Override
+    public ImportResult saveAll(Iterator<Client> clients) {
+        return saveAll(clients, DEFAULT_IMPORT_CHUNK);
+    }
+
+    /*
+     * Consume el iterador por bloques de chunkSize (la memoria no depende del total).
+     * En cada bloque se descartan antes los DNIs repetidos o ya registrados, y el resto
+     * va en un solo INSERT por lotes; los ids generados se asignan a cada Client.
+     */
+    public ImportResult saveAll(Iterator<Client> clients, int chunkSize) {
+        if (clients == null) throw new IllegalArgumentException("clients is null");
+        if (chunkSize <= 0) throw new IllegalArgumentException("chunkSize debe ser positivo");
+
+        ImportResult result = new ImportResult();
+        List<Client> chunk = new ArrayList<>(chunkSize);
+        while (clients.hasNext()) {
+            chunk.add(clients.next());
+            if (chunk.size() == chunkSize) {
+                importChunk(chunk, result);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) importChunk(chunk, result);
+        return result;
+    }
+
+    private void importChunk(List<Client> chunk, ImportResult result) {
+        result.addRead(chunk.size());
+        List<Client> valid = new ArrayList<>(chunk.size());
+        Set<String> seen = new HashSet<>();
+        for (Client c : chunk) {
+            if (c == null || c.getDni() == null || c.getDni().isBlank()) result.addInvalid(1);
+            else if (!seen.add(c.getDni())) result.addDuplicate(c.getDni());
+            else valid.add(c);
+        }
+        if (valid.isEmpty()) return;
+
+        try (Connection con = TimedJdbc.connect(dataSource)) {
+            Set<String> existing = existingDnis(con, valid);
+            List<Client> toInsert = new ArrayList<>(valid.size());
+            for (Client c : valid) {
+                if (existing.contains(c.getDni())) result.addDuplicate(c.getDni());
+                else toInsert.add(c);
+            }
+            if (toInsert.isEmpty()) return;
+
+            con.setAutoCommit(false);
+            try {
+                insertBatch(con, toInsert);
+                con.commit();
+                result.addInserted(toInsert.size());
+            } catch (BatchUpdateException e) {
+                con.rollback();
+                if (!isConstraintViolation(e)) {
+                    clearIds(toInsert, 0);
+                    throw e;
+                }
+                // otro proceso registró algún DNI entre la consulta y el INSERT: se reintenta fila a fila
+                con.setAutoCommit(true);
+                insertOneByOne(con, toInsert, result);
+            } catch (SQLException | RuntimeException e) {
+                con.rollback();
+                clearIds(toInsert, 0);
+                throw e;
+            } finally {
+                con.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error importando clientes", e);
+        }
+    }
+
+    private Set<String> existingDnis(Connection con, List<Client> clients) throws SQLException {
+        String sql = "SELECT dni FROM Client WHERE dni IN (" + InList.placeholders(clients.size()) + ")";
+        List<String> dnis = new ArrayList<>(clients.size());
+        for (Client c : clients) dnis.add(c.getDni());
+
+        Set<String> found = new HashSet<>();
+        try (PreparedStatement ps = TimedJdbc.prepare(con, sql)) {
+            InList.bind(ps, 1, dnis);
+            try (ResultSet rs = TimedJdbc.query(ps)) {
+                while (rs.next()) found.add(rs.getString(1));
+            }
+        }
+        return found;
+    }
+
+    private void insertBatch(Connection con, List<Client> clients) throws SQLException {
+        if (ids != null) {
+            int id = ids.reserve(clients.size());
+            for (Client c : clients) c.setId(id++);
+        }
+        try (PreparedStatement ps = prepareInsert(con)) {
+            for (Client c : clients) {
+                fill(ps, c);
+                ps.addBatch();
+            }
+            TimedJdbc.batch(ps);
+            if (ids != null) return;
+            try (ResultSet keys = ps.getGeneratedKeys()) {
+                for (int i = 0; i < clients.size() && keys.next(); i++) clients.get(i).setId(keys.getInt(1));
+            }
+        }
+    }
+
+    // 23xxx: clave duplicada u otra restricción; el resto (conexión, timeout, datos) no se arregla fila a fila
+    private static boolean isConstraintViolation(SQLException e) {
+        for (SQLException x = e; x != null; x = x.getNextException()) {
+            if (x instanceof SQLIntegrityConstraintViolationException) return true;
+            if (x.getSQLState() != null && x.getSQLState().startsWith("23")) return true;
+            if (x.getCause() instanceof SQLIntegrityConstraintViolationException) return true;
+        }
+        return false;
+    }
+
+    // ids (de ClientIdSequence o de las claves generadas) de filas que al final no quedaron en la BD
+    private static void clearIds(List<Client> clients, int from) {
+        for (int i = from; i < clients.size(); i++) clients.get(i).setId(null);
+    }
+
+    private void insertOneByOne(Connection con, List<Client> clients, ImportResult result) throws SQLException {
+        // con ClientIdSequence los ids ya vienen asignados por insertBatch
+        try (PreparedStatement ps = prepareInsert(con)) {
+            for (int i = 0; i < clients.size(); i++) {
+                Client c = clients.get(i);
+                fill(ps, c);
+                try {
+                    TimedJdbc.update(ps);
+                } catch (SQLIntegrityConstraintViolationException dup) {
+                    result.addDuplicate(c.getDni());
+                    if (ids != null) c.setId(null);
+                    continue;
+                } catch (SQLException e) {
+                    clearIds(clients, i);   // las anteriores ya quedaron confirmadas (autocommit)
+                    throw e;
+                }
+                if (ids == null) {
+                    try (ResultSet keys = ps.getGeneratedKeys()) {
+                        if (keys.next()) c.setId(keys.getInt(1));
+                    }
+                }
+                result.addInserted(1);
+            }
+        }
+    }
+
     @Override
     public Optional<Client> findById(int id) {
-        try (Connection con = DB.getConnection();
-             PreparedStatement ps = con.prepareStatement(SELECT_BY_ID_SQL)) {
+        try (Connection con = TimedJdbc.connect(dataSource);
+             PreparedStatement ps = TimedJdbc.prepare(con, SELECT_BY_ID_SQL)) {
             ps.setInt(1, id);
-            try (ResultSet rs = ps.executeQuery()) {
-                return rs.next() ? Optional.of(map(rs)) : Optional.empty();
+            try (ResultSet rs = TimedJdbc.query(ps)) {
+                return rs.next() ? Optional.of(new ClientRowMapper().map(rs)) : Optional.empty();
             }
         } catch (SQLException e) {
             throw new RuntimeException("Error buscando por id", e);
@@ -111,11 +280,11 @@ public class ClientDaoJdbc implements ClientDAO {
 
     @Override
     public Optional<Client> findByDni(String dni) {
-        try (Connection con = DB.getConnection();
-             PreparedStatement ps = con.prepareStatement(SELECT_BY_DNI_SQL)) {
+        try (Connection con = TimedJdbc.connect(dataSource);
+             PreparedStatement ps = TimedJdbc.prepare(con, SELECT_BY_DNI_SQL)) {
             ps.setString(1, dni);
-            try (ResultSet rs = ps.executeQuery()) {
-                return rs.next() ? Optional.of(map(rs)) : Optional.empty();
+            try (ResultSet rs = TimedJdbc.query(ps)) {
+                return rs.next() ? Optional.of(new ClientRowMapper().map(rs)) : Optional.empty();
             }
         } catch (SQLException e) {
             throw new RuntimeException("Error buscando por dni", e);
@@ -125,23 +294,83 @@ public class ClientDaoJdbc implements ClientDAO {
     @Override
     public List<Client> findAll() {
         List<Client> list = new ArrayList<>();
-        try (Connection con = DB.getConnection();
-             PreparedStatement ps = con.prepareStatement(SELECT_ALL_SQL);
-             ResultSet rs = ps.executeQuery()) {
-            while (rs.next()) list.add(map(rs));
+        try (Connection con = TimedJdbc.connect(dataSource);
+             PreparedStatement ps = TimedJdbc.prepare(con, SELECT_ALL_SQL);
+             ResultSet rs = TimedJdbc.query(ps)) {
+            RowMapper<Client> mapper = new ClientRowMapper();
+            long t0 = DaoMetrics.start();
+            while (rs.next()) list.add(mapper.map(rs));
+            DaoMetrics.MAP.record(t0);
             return list;
         } catch (SQLException e) {
             throw new RuntimeException("Error listando clientes", e);
         }
     }
 
+    @Override
+    public List<Client> findByIds(int[] ids) {
+        if (ids == null) throw new IllegalArgumentException("ids is null");
+        if (ids.length == 0) return new ArrayList<>();
+        String sql = "SELECT id, firstName, lastName, dni, email, phoneNumber, birthDate, address " +
+                "FROM Client WHERE id IN (" + InList.placeholders(ids.length) + ") ORDER BY id";
+
+        List<Client> list = new ArrayList<>(ids.length);
+        try (Connection con = TimedJdbc.connect(dataSource);
+             PreparedStatement ps = TimedJdbc.prepare(con, sql)) {
+            InList.bind(ps, 1, ids);
+            try (ResultSet rs = TimedJdbc.query(ps)) {
+                RowMapper<Client> mapper = new ClientRowMapper();
+                long t0 = DaoMetrics.start();
+                while (rs.next()) list.add(mapper.map(rs));
+                DaoMetrics.MAP.record(t0);
+            }
+            return list;
+        } catch (SQLException e) {
+            throw new RuntimeException("Error leyendo clientes por id", e);
+        }
+    }
+
+    @Override
+    public List<Client> findPage(int afterId, int limit) {
+        if (limit <= 0) throw new IllegalArgumentException("limit debe ser positivo");
+        List<Client> list = new ArrayList<>(Math.min(limit, 1000));
+        try (Connection con = TimedJdbc.connect(dataSource);
+             PreparedStatement ps = TimedJdbc.prepare(con, SELECT_PAGE_SQL)) {
+            ps.setInt(1, afterId);
+            ps.setInt(2, limit);
+            try (ResultSet rs = TimedJdbc.query(ps)) {
+                RowMapper<Client> mapper = new ClientRowMapper();
+                long t0 = DaoMetrics.start();
+                while (rs.next()) list.add(mapper.map(rs));
+                DaoMetrics.MAP.record(t0);
+            }
+            return list;
+        } catch (SQLException e) {
+            throw new RuntimeException("Error paginando clientes", e);
+        }
+    }
+
+    @Override
+    public Stream<Client> streamAll() {
+        Connection con = null;
+        try {
+            con = TimedJdbc.connect(dataSource);
+            PreparedStatement ps = TimedJdbc.prepare(con, SELECT_ALL_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            return JdbcStreams.stream(con, ps, new ClientRowMapper());
+        } catch (SQLException e) {
+            if (con != null) try { con.close(); } catch (SQLException ignored) { }
+            throw new RuntimeException("Error listando clientes", e);
+        }
+    }
+
     @Override
     public Client update(Client client) {
         if (client == null || client.getId() == null)
             throw new IllegalArgumentException("id requerido para actualizar");
 
-        try (Connection con = DB.getConnection();
-             PreparedStatement ps = con.prepareStatement(UPDATE_SQL)) {
+        try (Connection con = TimedJdbc.connect(dataSource);
+             PreparedStatement ps = TimedJdbc.prepare(con, UPDATE_SQL)) {
 
             // no tocamos DNI
             ps.setString(1, client.getFirstName());
@@ -153,7 +382,7 @@ public class ClientDaoJdbc implements ClientDAO {
             ps.setString(6, client.getAddress());
             ps.setInt(7, client.getId());
 
-            if (ps.executeUpdate() == 0)
+            if (TimedJdbc.update(ps) == 0)
                 throw new RuntimeException("Cliente no encontrado para actualizar");
 
             return client;
@@ -165,10 +394,10 @@ public class ClientDaoJdbc implements ClientDAO {
 
     @Override
     public boolean deleteById(int id) {
-        try (Connection con = DB.getConnection();
-             PreparedStatement ps = con.prepareStatement(DELETE_SQL)) {
+        try (Connection con = TimedJdbc.connect(dataSource);
+             PreparedStatement ps = TimedJdbc.prepare(con, DELETE_SQL)) {
             ps.setInt(1, id);
-            return ps.executeUpdate() > 0;
+            return TimedJdbc.update(ps) > 0;
         } catch (SQLException e) {
             throw new RuntimeException("Error eliminando cliente", e);
         }
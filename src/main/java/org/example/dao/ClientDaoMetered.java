@@ -0,0 +1,164 @@
+package org.example.dao;
+
+import org.example.metrics.DaoMetrics;
+import org.example.metrics.OpMetrics;
+import org.example.model.Client;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Mide cada operación de otro ClientDAO (latencia, errores, DNI duplicado y otras restricciones).
+ * Ver BankAccountDaoMetered.
+ */
+public class ClientDaoMetered implements ClientDAO {
+
+    private final ClientDAO delegate;
+
+    private final OpMetrics save = DaoMetrics.op("client.save");
+    private final OpMetrics saveAll = DaoMetrics.op("client.saveAll");
+    private final OpMetrics findById = DaoMetrics.op("client.findById");
+    private final OpMetrics findByIds = DaoMetrics.op("client.findByIds");
+    private final OpMetrics findByDni = DaoMetrics.op("client.findByDni");
+    private final OpMetrics findAll = DaoMetrics.op("client.findAll");
+    private final OpMetrics findPage = DaoMetrics.op("client.findPage");
+    private final OpMetrics streamAll = DaoMetrics.op("client.streamAll");
+    private final OpMetrics update = DaoMetrics.op("client.update");
+    private final OpMetrics deleteById = DaoMetrics.op("client.deleteById");
+
+    public ClientDaoMetered(ClientDAO delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Client save(Client client) {
+        long t0 = DaoMetrics.start();
+        try {
+            return delegate.save(client);
+        } catch (RuntimeException e) {
+            save.failed(e);
+            throw e;
+        } finally {
+            save.record(t0);
+        }
+    }
+
+    @Override
+    public ImportResult saveAll(Iterator<Client> clients) {
+        long t0 = DaoMetrics.start();
+        try {
+            return delegate.saveAll(clients);
+        } catch (RuntimeException e) {
+            saveAll.failed(e);
+            throw e;
+        } finally {
+            saveAll.record(t0);
+        }
+    }
+
+    @Override
+    public Optional<Client> findById(int id) {
+        long t0 = DaoMetrics.start();
+        try {
+            return delegate.findById(id);
+        } catch (RuntimeException e) {
+            findById.failed(e);
+            throw e;
+        } finally {
+            findById.record(t0);
+        }
+    }
+
+    @Override
+    public List<Client> findByIds(int[] ids) {
+        long t0 = DaoMetrics.start();
+        try {
+            return delegate.findByIds(ids);
+        } catch (RuntimeException e) {
+            findByIds.failed(e);
+            throw e;
+        } finally {
+            findByIds.record(t0);
+        }
+    }
+
+    @Override
+    public Optional<Client> findByDni(String dni) {
+        long t0 = DaoMetrics.start();
+        try {
+            return delegate.findByDni(dni);
+        } catch (RuntimeException e) {
+            findByDni.failed(e);
+            throw e;
+        } finally {
+            findByDni.record(t0);
+        }
+    }
+
+    @Override
+    public List<Client> findAll() {
+        long t0 = DaoMetrics.start();
+        try {
+            return delegate.findAll();
+        } catch (RuntimeException e) {
+            findAll.failed(e);
+            throw e;
+        } finally {
+            findAll.record(t0);
+        }
+    }
+
+    @Override
+    public List<Client> findPage(int afterId, int limit) {
+        long t0 = DaoMetrics.start();
+        try {
+            return delegate.findPage(afterId, limit);
+        } catch (RuntimeException e) {
+            findPage.failed(e);
+            throw e;
+        } finally {
+            findPage.record(t0);
+        }
+    }
+
+    @Override
+    public Stream<Client> streamAll() {
+        long t0 = DaoMetrics.start();
+        try {
+            return delegate.streamAll();
+        } catch (RuntimeException e) {
+            streamAll.failed(e);
+            throw e;
+        } finally {
+            streamAll.record(t0);
+        }
+    }
+
+    @Override
+    public Client update(Client client) {
+        long t0 = DaoMetrics.start();
+        try {
+            return delegate.update(client);
+        } catch (RuntimeException e) {
+            update.failed(e);
+            throw e;
+        } finally {
+            update.record(t0);
+        }
+    }
+
+    @Override
+    public boolean deleteById(int id) {
+        long t0 = DaoMetrics.start();
+        try {
+            return delegate.deleteById(id);
+        } catch (RuntimeException e) {
+            deleteById.failed(e);
+            throw e;
+        } finally {
+            deleteById.record(t0);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package org.example.dao;
+
+import org.example.db.ReplicaSession;
+import org.example.db.ReplicaSet;
+import org.example.model.Client;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * ClientDAO con las escrituras en el primario y las lecturas en las réplicas del ReplicaSet.
+ * Sin sesión las lecturas pueden no ver aún lo recién escrito; withSession(s) lo garantiza para s.
+ */
+public class ClientDaoReplicated implements ClientDAO {
+
+    private final ReplicaSet replicas;
+    private final ClientDaoJdbc primary;
+    private final List<ClientDaoJdbc> readers;
+    private final ReplicaSession session;   // null: sin lectura tras escritura
+
+    public ClientDaoReplicated(ReplicaSet replicas) {
+        this.replicas = replicas;
+        this.primary = new ClientDaoJdbc(replicas.primary());
+        this.readers = new ArrayList<>(replicas.replicaCount());
+        for (int i = 0; i < replicas.replicaCount(); i++) readers.add(new ClientDaoJdbc(replicas.replica(i)));
+        this.session = null;
+    }
+
+    private ClientDaoReplicated(ClientDaoReplicated base, ReplicaSession session) {
+        this.replicas = base.replicas;
+        this.primary = base.primary;
+        this.readers = base.readers;
+        this.session = session;
+    }
+
+    /** Vista que lee lo que 'session' ya escribió. */
+    public ClientDaoReplicated withSession(ReplicaSession session) {
+        return new ClientDaoReplicated(this, session);
+    }
+
+    @Override
+    public Client save(Client client) {
+        return write(() -> primary.save(client));
+    }
+
+    @Override
+    public ImportResult saveAll(Iterator<Client> clients) {
+        return write(() -> primary.saveAll(clients));
+    }
+
+    @Override
+    public Optional<Client> findById(int id) {
+        return reader().findById(id);
+    }
+
+    @Override
+    public List<Client> findByIds(int[] ids) {
+        return reader().findByIds(ids);
+    }
+
+    @Override
+    public Optional<Client> findByDni(String dni) {
+        return reader().findByDni(dni);
+    }
+
+    @Override
+    public List<Client> findAll() {
+        return reader().findAll();
+    }
+
+    @Override
+    public List<Client> findPage(int afterId, int limit) {
+        return reader().findPage(afterId, limit);
+    }
+
+    @Override
+    public Stream<Client> streamAll() {
+        return reader().streamAll();
+    }
+
+    @Override
+    public Client update(Client client) {
+        return write(() -> primary.update(client));
+    }
+
+    @Override
+    public boolean deleteById(int id) {
+        return write(() -> primary.deleteById(id));
+    }
+
+    private ClientDaoJdbc reader() {
+        int r = replicas.route(session == null ? 0 : session.getToken());
+        return r == ReplicaSet.PRIMARY ? primary : readers.get(r);
+    }
+
+    private <T> T write(Supplier<T> call) {
+        try {
+            return call.get();
+        } finally {
+            // aun si falló, pudo haber confirmado algo (p. ej. parte de saveAll)
+            if (session != null) session.wrote(replicas.writeToken());
+        }
+    }
+}
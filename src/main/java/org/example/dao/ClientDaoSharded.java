@@ -0,0 +1,161 @@
+package org.example.dao;
+
+import org.example.model.Client;
+import org.example.shard.ShardMap;
+import org.example.shard.Shards;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * ClientDAO repartido en varios shards (ver ShardMap). Lo que lleva id va directo a su shard;
+ * findAll/findPage/streamAll consultan todos a la vez y mezclan por id.
+ * Los ids nuevos salen del rango de cada shard vía ClientIdSequence, no del AUTO_INCREMENT.
+ * Los DNIs son únicos por shard; como un DNI nuevo siempre cae en el mismo shard, sólo hace falta
+ * buscarlo en los demás cuando hay clientes movidos.
+ */
+public class ClientDaoSharded implements ClientDAO {
+
+    private static final Comparator<Client> BY_ID = Comparator.comparing(Client::getId);
+
+    private final Shards shards;
+    private final ShardMap map;
+    private final List<ClientDaoJdbc> daos = new ArrayList<>();
+
+    public ClientDaoSharded(Shards shards) {
+        this.shards = shards;
+        this.map = shards.getMap();
+        for (int s = 0; s < shards.size(); s++) {
+            int first = ShardMap.firstClientId(s);
+            ClientIdSequence ids = new ClientIdSequence(shards.node(s), first, first + ShardMap.ID_RANGE - 1);
+            daos.add(new ClientDaoJdbc(shards.node(s), ids));
+        }
+    }
+
+    @Override
+    public Client save(Client client) {
+        if (client == null) throw new IllegalArgumentException("client is null");
+        if (client.getDni() == null || client.getDni().isBlank())
+            throw new IllegalArgumentException("dni required");
+        if (map.hasMoves() && findByDni(client.getDni()).isPresent())
+            throw new RuntimeException("DNI ya registrado u otra restricción: " + client.getDni());
+        return daos.get(map.shardForDni(client.getDni())).save(client);
+    }
+
+    @Override
+    public ImportResult saveAll(Iterator<Client> clients) {
+        return saveAll(clients, ClientDaoJdbc.DEFAULT_IMPORT_CHUNK);
+    }
+
+    /** Reparte por DNI y cada shard importa sus bloques de chunkSize (ClientDaoJdbc.saveAll). */
+    public ImportResult saveAll(Iterator<Client> clients, int chunkSize) {
+        if (clients == null) throw new IllegalArgumentException("clients is null");
+        if (chunkSize <= 0) throw new IllegalArgumentException("chunkSize debe ser positivo");
+
+        ImportResult result = new ImportResult();
+        List<List<Client>> pending = new ArrayList<>();
+        for (int s = 0; s < daos.size(); s++) pending.add(new ArrayList<>(chunkSize));
+        while (clients.hasNext()) {
+            Client c = clients.next();
+            if (c == null || c.getDni() == null || c.getDni().isBlank()) {
+                result.addRead(1);
+                result.addInvalid(1);
+                continue;
+            }
+            int s = map.shardForDni(c.getDni());
+            List<Client> chunk = pending.get(s);
+            chunk.add(c);
+            if (chunk.size() == chunkSize) {
+                result.add(daos.get(s).saveAll(chunk.iterator(), chunkSize));
+                chunk.clear();
+            }
+        }
+        for (int s = 0; s < daos.size(); s++) {
+            List<Client> chunk = pending.get(s);
+            if (!chunk.isEmpty()) result.add(daos.get(s).saveAll(chunk.iterator(), chunkSize));
+        }
+        return result;
+    }
+
+    @Override
+    public Optional<Client> findById(int id) {
+        int s = map.shardOf(id);
+        return s < 0 ? Optional.empty() : daos.get(s).findById(id);
+    }
+
+    // una consulta por shard que tenga alguno de los ids, todas a la vez
+    @Override
+    public List<Client> findByIds(int[] ids) {
+        if (ids == null) throw new IllegalArgumentException("ids is null");
+        int[][] byShard = new int[daos.size()][];
+        int[] counts = new int[daos.size()];
+        int[] shardOf = new int[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            shardOf[i] = map.shardOf(ids[i]);
+            if (shardOf[i] >= 0) counts[shardOf[i]]++;
+        }
+        for (int s = 0; s < byShard.length; s++) byShard[s] = new int[counts[s]];
+        Arrays.fill(counts, 0);
+        for (int i = 0; i < ids.length; i++) {
+            if (shardOf[i] >= 0) byShard[shardOf[i]][counts[shardOf[i]]++] = ids[i];
+        }
+        return Shards.merge(shards.scatter(s -> byShard[s].length == 0
+                ? Collections.<Client>emptyList() : daos.get(s).findByIds(byShard[s])), BY_ID, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public Optional<Client> findByDni(String dni) {
+        if (dni == null) return Optional.empty();
+        int home = map.shardForDni(dni);
+        Optional<Client> found = daos.get(home).findByDni(dni);
+        if (found.isPresent() || !map.hasMoves()) return found;
+        for (Optional<Client> other : shards.scatter(s -> s == home ? Optional.<Client>empty() : daos.get(s).findByDni(dni))) {
+            if (other.isPresent()) return other;
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public List<Client> findAll() {
+        return Shards.merge(shards.scatter(s -> daos.get(s).findAll()), BY_ID, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Client> findPage(int afterId, int limit) {
+        if (limit <= 0) throw new IllegalArgumentException("limit debe ser positivo");
+        return Shards.merge(shards.scatter(s -> daos.get(s).findPage(afterId, limit)), BY_ID, limit);
+    }
+
+    @Override
+    public Stream<Client> streamAll() {
+        List<Stream<Client>> streams = new ArrayList<>(daos.size());
+        try {
+            for (ClientDaoJdbc dao : daos) streams.add(dao.streamAll());
+        } catch (RuntimeException e) {
+            streams.forEach(Stream::close);
+            throw e;
+        }
+        return Shards.merge(streams, BY_ID);
+    }
+
+    @Override
+    public Client update(Client client) {
+        if (client == null || client.getId() == null)
+            throw new IllegalArgumentException("id requerido para actualizar");
+        int s = map.shardOf(client.getId());
+        if (s < 0) throw new RuntimeException("Cliente no encontrado para actualizar");
+        return daos.get(s).update(client);
+    }
+
+    @Override
+    public boolean deleteById(int id) {
+        int s = map.shardOf(id);
+        return s >= 0 && daos.get(s).deleteById(id);
+    }
+}
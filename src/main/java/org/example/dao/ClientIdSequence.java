@@ -0,0 +1,96 @@
+package org.example.dao;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+
+/**
+ * Ids de Client de un shard, dentro de su rango [first, last], tomados por bloques de la tabla ClientIdSeq.
+ * No se usa el AUTO_INCREMENT porque un cliente movido desde otro shard llega con su id (de otro rango)
+ * y en MySQL eso empuja el contador fuera del rango del shard. Los ids de un bloque que no se usan se pierden.
+ */
+final class ClientIdSequence {
+
+    private static final int BLOCK = 100;
+
+    private static final String ADVANCE_SQL = "UPDATE ClientIdSeq SET nextId = nextId + ? WHERE id = 1";
+    private static final String SELECT_SQL = "SELECT nextId FROM ClientIdSeq WHERE id = 1";
+    private static final String SEED_SQL =
+            "INSERT INTO ClientIdSeq(id, nextId) SELECT 1, COALESCE(MAX(id), ?) + 1 FROM Client WHERE id BETWEEN ? AND ?";
+
+    private final DataSource dataSource;
+    private final int first;
+    private final int last;
+
+    // bloque en memoria [next, end); protegidos por this
+    private int next;
+    private int end;
+
+    ClientIdSequence(DataSource dataSource, int first, int last) {
+        this.dataSource = dataSource;
+        this.first = first;
+        this.last = last;
+    }
+
+    /** Primer id de n ids consecutivos reservados. */
+    synchronized int reserve(int n) {
+        if (end - next < n) {
+            int size = Math.max(n, BLOCK);
+            next = fetch(size);
+            end = next + size;
+        }
+        int id = next;
+        next += n;
+        return id;
+    }
+
+    private int fetch(int size) {
+        try (Connection con = TimedJdbc.connect(dataSource)) {
+            con.setAutoCommit(false);
+            try {
+                if (advance(con, size) == 0) {
+                    seed(con);
+                    advance(con, size);
+                }
+                int upTo;
+                try (PreparedStatement ps = TimedJdbc.prepare(con, SELECT_SQL);
+                     ResultSet rs = TimedJdbc.query(ps)) {
+                    rs.next();
+                    upTo = rs.getInt(1);
+                }
+                if (upTo - 1 > last) throw new IllegalStateException("Rango de ids de Client agotado: " + first + "-" + last);
+                con.commit();
+                return upTo - size;
+            } catch (SQLException | RuntimeException e) {
+                con.rollback();
+                throw e;
+            } finally {
+                con.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error reservando ids de Client", e);
+        }
+    }
+
+    private static int advance(Connection con, int size) throws SQLException {
+        try (PreparedStatement ps = TimedJdbc.prepare(con, ADVANCE_SQL)) {
+            ps.setInt(1, size);
+            return TimedJdbc.update(ps);
+        }
+    }
+
+    // primera vez: continúa después del mayor id del rango (los de otros rangos son clientes movidos)
+    private void seed(Connection con) throws SQLException {
+        try (PreparedStatement ps = TimedJdbc.prepare(con, SEED_SQL)) {
+            ps.setInt(1, first - 1);
+            ps.setInt(2, first);
+            ps.setInt(3, last);
+            TimedJdbc.update(ps);
+        } catch (SQLIntegrityConstraintViolationException concurrent) {
+            // otro proceso la creó primero
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package org.example.dao;
+
+import org.example.model.Client;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Mapea filas de Client. Los índices de columna se resuelven una sola vez, en la primera fila,
+ * así que se debe crear un mapper nuevo por cada ResultSet.
+ */
+public class ClientRowMapper implements RowMapper<Client> {
+
+    private int id, firstName, lastName, dni, email, phoneNumber, birthDate, address;
+    private boolean resolved;
+
+    @Override
+    public Client map(ResultSet rs) throws SQLException {
+        if (!resolved) resolve(rs);
+        Date bd = rs.getDate(birthDate);
+        return new Client(rs.getInt(id), rs.getString(dni), rs.getString(firstName), rs.getString(lastName),
+                rs.getString(email), rs.getString(phoneNumber),
+                bd == null ? null : bd.toLocalDate(), rs.getString(address));
+    }
+
+    private void resolve(ResultSet rs) throws SQLException {
+        id = rs.findColumn("id");
+        firstName = rs.findColumn("firstName");
+        lastName = rs.findColumn("lastName");
+        dni = rs.findColumn("dni");
+        email = rs.findColumn("email");
+        phoneNumber = rs.findColumn("phoneNumber");
+        birthDate = rs.findColumn("birthDate");
+        address = rs.findColumn("address");
+        resolved = true;
+    }
+}
@@ -0,0 +1,198 @@
+package org.example.dao;
+
+import org.example.db.DB;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Corre llamadas JDBC bloqueantes fuera del hilo que atiende la petición.
+ *
+ * - Como mucho maxConcurrent llamadas corren a la vez (por defecto, el tamaño del pool): las demás
+ *   esperan en una cola sin ocupar ningún hilo. Pasado maxQueued se rechaza en vez de crecer sin límite.
+ * - Hilos virtuales si la JVM los tiene (21+); si no, hilos de plataforma, que nunca pasan de maxConcurrent.
+ * - Timeout por llamada y cancelación: si el futuro termina antes (cancel, timeout), la llamada que sigue
+ *   en cola no se ejecuta y la que está corriendo se interrumpe. Como la interrupción no corta una espera
+ *   en el socket JDBC, el plazo también llega a cada sentencia (query timeout) y la sentencia en curso
+ *   se cancela con Statement.cancel() (ver CallDeadline).
+ */
+public class DaoExecutor implements AutoCloseable {
+
+    public static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(30);
+    public static final int DEFAULT_MAX_QUEUED = 100_000;
+
+    private final ExecutorService threads;
+    private final boolean virtual;
+    private final int maxConcurrent;
+    private final int maxQueued;
+    private final Duration defaultTimeout;
+    private final Queue<Task<?>> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger running = new AtomicInteger();
+    private volatile boolean closed;
+
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder cancelled = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public DaoExecutor() {
+        this(DB.maxPoolSize(), DEFAULT_MAX_QUEUED, DEFAULT_TIMEOUT);
+    }
+
+    public DaoExecutor(int maxConcurrent, int maxQueued, Duration defaultTimeout) {
+        if (maxConcurrent <= 0 || maxQueued <= 0) throw new IllegalArgumentException("límites deben ser positivos");
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueued = maxQueued;
+        this.defaultTimeout = defaultTimeout;
+        ExecutorService vt = virtualThreads();
+        this.virtual = vt != null;
+        this.threads = vt != null ? vt : Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "dao-async");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public <T> CompletableFuture<T> submit(Callable<T> call) {
+        return submit(call, defaultTimeout);
+    }
+
+    public <T> CompletableFuture<T> submit(Callable<T> call, Duration timeout) {
+        Task<T> task = new Task<>(call, timeout == null ? Long.MAX_VALUE : System.nanoTime() + timeout.toNanos());
+        if (closed) {
+            rejected.increment();
+            task.result.completeExceptionally(new RejectedExecutionException("DaoExecutor cerrado"));
+            return task.result;
+        }
+        if (queued.incrementAndGet() > maxQueued) {
+            queued.decrementAndGet();
+            rejected.increment();
+            task.result.completeExceptionally(
+                    new RejectedExecutionException("demasiadas llamadas en espera (" + maxQueued + ")"));
+            return task.result;
+        }
+        if (timeout != null) task.result.orTimeout(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        task.result.whenComplete((v, e) -> task.finished(e));
+        pending.add(task);
+        drain();
+        return task.result;
+    }
+
+    // Arranca tareas en cola mientras haya cupo
+    private void drain() {
+        while (!pending.isEmpty()) {
+            int r = running.get();
+            if (r >= maxConcurrent) return;
+            if (!running.compareAndSet(r, r + 1)) continue;
+            Task<?> t = pending.poll();
+            if (t == null) {
+                running.decrementAndGet();
+                continue;
+            }
+            queued.decrementAndGet();
+            if (t.result.isDone()) {          // cancelada o vencida mientras esperaba
+                running.decrementAndGet();
+                continue;
+            }
+            try {
+                threads.execute(t);
+            } catch (RejectedExecutionException e) {
+                running.decrementAndGet();
+                t.result.completeExceptionally(e);
+            }
+        }
+    }
+
+    private final class Task<T> implements Runnable {
+        final Callable<T> call;
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        final CallDeadline deadline;
+        private Thread worker;
+
+        Task(Callable<T> call, long deadlineNanos) {
+            this.call = call;
+            this.deadline = new CallDeadline(deadlineNanos);
+        }
+
+        @Override
+        public void run() {
+            synchronized (this) {
+                worker = Thread.currentThread();
+            }
+            deadline.enter();
+            try {
+                if (!result.isDone()) result.complete(call.call());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            } finally {
+                deadline.exit();
+                synchronized (this) {
+                    worker = null;
+                }
+                Thread.interrupted();   // que una interrupción tardía no afecte a la siguiente tarea del hilo
+                running.decrementAndGet();
+                drain();
+            }
+        }
+
+        void finished(Throwable e) {
+            if (e == null) {
+                completed.increment();
+                return;
+            }
+            if (e instanceof TimeoutException) timedOut.increment();
+            else if (e instanceof CancellationException) cancelled.increment();
+            else {
+                failed.increment();
+                return;
+            }
+            deadline.cancel();
+            synchronized (this) {
+                if (worker != null) worker.interrupt();
+            }
+        }
+    }
+
+    public boolean isVirtual() { return virtual; }
+    public int getMaxConcurrent() { return maxConcurrent; }
+    public int getRunning() { return running.get(); }
+    public int getQueued() { return queued.get(); }
+    public long getCompleted() { return completed.sum(); }
+    public long getFailed() { return failed.sum(); }
+    public long getTimedOut() { return timedOut.sum(); }
+    public long getCancelled() { return cancelled.sum(); }
+    public long getRejected() { return rejected.sum(); }
+
+    /** Deja de aceptar llamadas; las que seguían en cola terminan con RejectedExecutionException. */
+    @Override
+    public void close() {
+        closed = true;
+        for (Task<?> t; (t = pending.poll()) != null; ) {
+            queued.decrementAndGet();
+            t.result.completeExceptionally(new RejectedExecutionException("DaoExecutor cerrado"));
+        }
+        threads.shutdown();
+    }
+
+    // Executors.newVirtualThreadPerTaskExecutor() existe desde Java 21; el proyecto compila para 17
+    private static ExecutorService virtualThreads() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package org.example.dao;
+
+import org.example.model.Currency;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+public interface FxRateDAO {
+    // fromCurrency -> (toCurrency -> rate)
+    Map<Currency, Map<Currency, BigDecimal>> findAll();
+    void save(Currency from, Currency to, BigDecimal rate);   // inserta o reemplaza el par
+}
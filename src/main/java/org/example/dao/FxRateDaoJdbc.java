@@ -0,0 +1,62 @@
+package org.example.dao;
+
+import org.example.model.Currency;
+
+import java.math.BigDecimal;
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+
+public class FxRateDaoJdbc implements FxRateDAO {
+
+    private static final String SELECT_ALL_SQL =
+            "SELECT fromCurrency, toCurrency, rate FROM FxRate";
+
+    private static final String UPDATE_SQL =
+            "UPDATE FxRate SET rate = ?, updatedAt = ? WHERE fromCurrency = ? AND toCurrency = ?";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO FxRate(fromCurrency, toCurrency, rate, updatedAt) VALUES (?,?,?,?)";
+
+    @Override
+    public Map<Currency, Map<Currency, BigDecimal>> findAll() {
+        Map<Currency, Map<Currency, BigDecimal>> rates = new EnumMap<>(Currency.class);
+        try (Connection con = TimedJdbc.connect();
+             PreparedStatement ps = TimedJdbc.prepare(con, SELECT_ALL_SQL);
+             ResultSet rs = TimedJdbc.query(ps)) {
+            while (rs.next()) {
+                rates.computeIfAbsent(Currency.fromDb(rs.getString(1)), c -> new EnumMap<>(Currency.class))
+                        .put(Currency.fromDb(rs.getString(2)), rs.getBigDecimal(3));
+            }
+            return rates;
+        } catch (SQLException e) {
+            throw new RuntimeException("Error leyendo tipos de cambio", e);
+        }
+    }
+
+    @Override
+    public void save(Currency from, Currency to, BigDecimal rate) {
+        if (from == null || to == null || from == to) throw new IllegalArgumentException("par de monedas inválido");
+        if (rate == null || rate.signum() <= 0) throw new IllegalArgumentException("rate debe ser positivo");
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        try (Connection con = TimedJdbc.connect()) {
+            try (PreparedStatement upd = TimedJdbc.prepare(con, UPDATE_SQL)) {
+                upd.setBigDecimal(1, rate);
+                upd.setTimestamp(2, now);
+                upd.setString(3, from.name());
+                upd.setString(4, to.name());
+                if (TimedJdbc.update(upd) > 0) return;
+            }
+            try (PreparedStatement ins = TimedJdbc.prepare(con, INSERT_SQL)) {
+                ins.setString(1, from.name());
+                ins.setString(2, to.name());
+                ins.setBigDecimal(3, rate);
+                ins.setTimestamp(4, now);
+                TimedJdbc.update(ins);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error guardando tipo de cambio", e);
+        }
+    }
+}
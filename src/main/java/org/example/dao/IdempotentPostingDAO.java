@@ -0,0 +1,13 @@
+package org.example.dao;
+
+import java.math.BigDecimal;
+
+/**
+ * deposit/withdraw con clave de idempotencia (la genera el cliente, máx. 64 caracteres).
+ * Repetir la llamada con la misma clave no mueve dinero: devuelve el saldo que dejó la primera.
+ * Reusar una clave para otro movimiento (otra cuenta, tipo o monto) es un error.
+ */
+public interface IdempotentPostingDAO {
+    BigDecimal deposit(String idempotencyKey, String accountNumber, BigDecimal amount);
+    BigDecimal withdraw(String idempotencyKey, String accountNumber, BigDecimal amount);
+}
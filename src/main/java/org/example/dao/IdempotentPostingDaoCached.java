@@ -0,0 +1,61 @@
+package org.example.dao;
+
+import org.example.cache.CacheStats;
+import org.example.cache.LruCache;
+import org.example.model.AccountMovement;
+import org.example.model.MovementType;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+/**
+ * Cache de claves ya aplicadas delante de otro IdempotentPostingDAO: un reintento cuya clave
+ * sigue en memoria se responde sin ir a la BD. Si la clave salió de la cache (LRU/TTL) el
+ * delegado la encuentra igual en PostingKey, sólo que a costo de una transacción.
+ */
+public class IdempotentPostingDaoCached implements IdempotentPostingDAO {
+
+    private final IdempotentPostingDAO delegate;
+    private final LruCache<String, AccountMovement> applied;
+
+    public IdempotentPostingDaoCached(IdempotentPostingDAO delegate) {
+        this(delegate, 200_000, Duration.ofHours(1));
+    }
+
+    public IdempotentPostingDaoCached(IdempotentPostingDAO delegate, int maxKeys, Duration ttl) {
+        this.delegate = delegate;
+        this.applied = new LruCache<>(maxKeys, ttl);
+    }
+
+    @Override
+    public BigDecimal deposit(String idempotencyKey, String accountNumber, BigDecimal amount) {
+        BigDecimal previous = previous(idempotencyKey, accountNumber, MovementType.DEPOSITO, amount);
+        if (previous != null) return previous;
+        BigDecimal balance = delegate.deposit(idempotencyKey, accountNumber, amount);
+        applied.put(idempotencyKey, new AccountMovement(accountNumber, MovementType.DEPOSITO, amount, balance, null));
+        return balance;
+    }
+
+    @Override
+    public BigDecimal withdraw(String idempotencyKey, String accountNumber, BigDecimal amount) {
+        BigDecimal previous = previous(idempotencyKey, accountNumber, MovementType.RETIRO, amount);
+        if (previous != null) return previous;
+        BigDecimal balance = delegate.withdraw(idempotencyKey, accountNumber, amount);
+        applied.put(idempotencyKey, new AccountMovement(accountNumber, MovementType.RETIRO, amount, balance, null));
+        return balance;
+    }
+
+    /** hits = reintentos absorbidos sin tocar la BD. */
+    public CacheStats getStats() {
+        return applied.stats();
+    }
+
+    private BigDecimal previous(String key, String accountNumber, MovementType type, BigDecimal amount) {
+        if (key == null || amount == null) return null;   // el delegado valida
+        AccountMovement m = applied.get(key);
+        if (m == null) return null;
+        if (!m.getAccountNumber().equals(accountNumber) || m.getType() != type || m.getAmount().compareTo(amount) != 0)
+            throw new IllegalArgumentException("clave de idempotencia ya usada para otro movimiento: " + key);
+        return m.getBalanceAfter();
+    }
+}
@@ -0,0 +1,56 @@
+package org.example.dao;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Resumen de una importación masiva de clientes.
+ * Sólo se guardan los primeros MAX_REPORTED DNIs duplicados para que la memoria no crezca con el archivo.
+ */
+public class ImportResult {
+    public static final int MAX_REPORTED = 1000;
+
+    private long read;
+    private long inserted;
+    private long duplicates;
+    private long invalid;
+    private final List<String> duplicateDnis = new ArrayList<>();
+
+    void addRead(long n) { read += n; }
+    void addInserted(long n) { inserted += n; }
+    public void addInvalid(long n) { invalid += n; }
+
+    void addDuplicate(String dni) {
+        duplicates++;
+        if (duplicateDnis.size() < MAX_REPORTED) duplicateDnis.add(dni);
+    }
+
+    // suma el resultado de otra importación (p. ej. la de cada shard)
+    void add(ImportResult other) {
+        read += other.read;
+        inserted += other.inserted;
+        duplicates += other.duplicates;
+        invalid += other.invalid;
+        for (String dni : other.duplicateDnis) {
+            if (duplicateDnis.size() >= MAX_REPORTED) break;
+            duplicateDnis.add(dni);
+        }
+    }
+
+    public long getRead() { return read; }
+    public long getInserted() { return inserted; }
+    public long getDuplicates() { return duplicates; }
+    public long getInvalid() { return invalid; }
+    public List<String> getDuplicateDnis() { return Collections.unmodifiableList(duplicateDnis); }
+
+    @Override
+    public String toString() {
+        return "ImportResult{" +
+                "read=" + read +
+                ", inserted=" + inserted +
+                ", duplicates=" + duplicates +
+                ", invalid=" + invalid +
+                '}';
+    }
+}
@@ -0,0 +1,43 @@
+package org.example.dao;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Marcadores de un IN (?,?,...) con tamaños fijos: n se redondea a la siguiente potencia de 2
+ * (mínimo MIN) y los huecos repiten el último valor, que no cambia el resultado del IN.
+ * Así un lote de cualquier tamaño usa una de unas pocas SQL y la cache de sentencias las reutiliza.
+ */
+final class InList {
+
+    static final int MIN = 8;
+
+    private InList() { }
+
+    static int size(int n) {
+        if (n <= MIN) return MIN;
+        return Integer.highestOneBit(n - 1) << 1;
+    }
+
+    /** "?,?,...,?" con size(n) marcadores. */
+    static String placeholders(int n) {
+        int size = size(n);
+        StringBuilder sb = new StringBuilder(size * 2);
+        for (int i = 0; i < size; i++) sb.append(i == 0 ? "?" : ",?");
+        return sb.toString();
+    }
+
+    /** Fija los parámetros first .. first+size(n)-1; devuelve el siguiente índice libre. */
+    static int bind(PreparedStatement ps, int first, List<String> values) throws SQLException {
+        int size = size(values.size());
+        for (int i = 0; i < size; i++) ps.setString(first + i, values.get(Math.min(i, values.size() - 1)));
+        return first + size;
+    }
+
+    static int bind(PreparedStatement ps, int first, int[] values) throws SQLException {
+        int size = size(values.length);
+        for (int i = 0; i < size; i++) ps.setInt(first + i, values[Math.min(i, values.length - 1)]);
+        return first + size;
+    }
+}
@@ -0,0 +1,16 @@
+package org.example.dao;
+
+/**
+ * El retiro rompe las reglas de saldo: AHORRO no puede quedar negativo
+ * y CORRIENTE no puede pasar su límite de sobregiro.
+ */
+public class InsufficientFundsException extends RuntimeException {
+    private final String accountNumber;
+
+    public InsufficientFundsException(String accountNumber, String message) {
+        super(message);
+        this.accountNumber = accountNumber;
+    }
+
+    public String getAccountNumber() { return accountNumber; }
+}
@@ -0,0 +1,73 @@
+package org.example.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Streams perezosos sobre un ResultSet: las filas se mapean a medida que se consumen
+ * y la conexión vuelve al pool al cerrar el Stream (usar try-with-resources)
+ * o al llegar a la última fila.
+ */
+final class JdbcStreams {
+
+    // filas por viaje cuando el driver usa cursor (no MySQL)
+    static final int STREAM_FETCH_SIZE = 500;
+
+    private JdbcStreams() { }
+
+    /** Ejecuta ps (ya con sus parámetros) y devuelve un Stream dueño de con/ps/rs. */
+    static <T> Stream<T> stream(Connection con, PreparedStatement ps, RowMapper<T> mapper) {
+        ResultSet rs;
+        try {
+            ps.setFetchSize(streamingFetchSize(con));
+            rs = TimedJdbc.query(ps);
+        } catch (SQLException e) {
+            closeQuietly(null, ps, con);
+            throw new RuntimeException("Error abriendo stream", e);
+        }
+        Runnable close = () -> closeQuietly(rs, ps, con);
+
+        Spliterator<T> split = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            private boolean done;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                if (done) return false;
+                try {
+                    if (!rs.next()) {
+                        done = true;
+                        close.run();
+                        return false;
+                    }
+                    action.accept(mapper.map(rs));
+                    return true;
+                } catch (SQLException e) {
+                    done = true;
+                    close.run();
+                    throw new RuntimeException("Error leyendo filas", e);
+                }
+            }
+        };
+        return StreamSupport.stream(split, false).onClose(close);
+    }
+
+    // Connector/J sólo hace streaming fila a fila con fetchSize = Integer.MIN_VALUE
+    static int streamingFetchSize(Connection con) throws SQLException {
+        String product = con.getMetaData().getDatabaseProductName();
+        return product != null && product.contains("MySQL") ? Integer.MIN_VALUE : STREAM_FETCH_SIZE;
+    }
+
+    private static void closeQuietly(ResultSet rs, PreparedStatement ps, Connection con) {
+        try { if (rs != null) rs.close(); } catch (SQLException ignored) { }
+        try { if (ps != null) ps.close(); } catch (SQLException ignored) { }
+        try { if (con != null) con.close(); } catch (SQLException ignored) { }
+    }
+}
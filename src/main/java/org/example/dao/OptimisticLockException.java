@@ -0,0 +1,15 @@
+package org.example.dao;
+
+/**
+ * La cuenta cambió (otra versión) en cada intento de actualizarla y se agotaron los reintentos.
+ */
+public class OptimisticLockException extends RuntimeException {
+    private final String accountNumber;
+
+    public OptimisticLockException(String accountNumber, int attempts) {
+        super("Cuenta modificada concurrentemente: " + accountNumber + " (" + attempts + " intentos)");
+        this.accountNumber = accountNumber;
+    }
+
+    public String getAccountNumber() { return accountNumber; }
+}
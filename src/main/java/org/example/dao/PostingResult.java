@@ -0,0 +1,60 @@
+package org.example.dao;
+
+import org.example.model.Movement;
+
+import java.math.BigDecimal;
+
+/**
+ * Resultado de contabilizar un movimiento dentro de un lote.
+ * index es la posición del movimiento en la lista de entrada.
+ */
+public class PostingResult {
+
+    public enum Status {
+        ACCEPTED,
+        NOT_FOUND,            // la cuenta no existe
+        INSUFFICIENT_FUNDS,   // rompe la regla de AHORRO o el sobregiro de CORRIENTE
+        INVALID,              // movimiento incompleto o monto no positivo
+        ERROR                 // falló la BD
+    }
+
+    private final int index;
+    private final Movement movement;
+    private final Status status;
+    private final BigDecimal balanceAfter;   // saldo tras el movimiento (null si se rechazó)
+    private final String reason;             // motivo del rechazo (null si se aceptó)
+
+    private PostingResult(int index, Movement movement, Status status, BigDecimal balanceAfter, String reason) {
+        this.index = index;
+        this.movement = movement;
+        this.status = status;
+        this.balanceAfter = balanceAfter;
+        this.reason = reason;
+    }
+
+    public static PostingResult accepted(int index, Movement movement, BigDecimal balanceAfter) {
+        return new PostingResult(index, movement, Status.ACCEPTED, balanceAfter, null);
+    }
+
+    public static PostingResult rejected(int index, Movement movement, Status status, String reason) {
+        return new PostingResult(index, movement, status, null, reason);
+    }
+
+    public int getIndex() { return index; }
+    public Movement getMovement() { return movement; }
+    public Status getStatus() { return status; }
+    public boolean isAccepted() { return status == Status.ACCEPTED; }
+    public BigDecimal getBalanceAfter() { return balanceAfter; }
+    public String getReason() { return reason; }
+
+    @Override
+    public String toString() {
+        return "PostingResult{" +
+                "index=" + index +
+                ", movement=" + movement +
+                ", status=" + status +
+                ", balanceAfter=" + balanceAfter +
+                ", reason='" + reason + '\'' +
+                '}';
+    }
+}
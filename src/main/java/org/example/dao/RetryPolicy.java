@@ -0,0 +1,50 @@
+package org.example.dao;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Cuántas veces reintentar una escritura que chocó con otra (versión cambiada, deadlock) y cuánto esperar.
+ * La pausa es al azar entre 0 y min(maxDelay, baseDelay * 2^(intento-1)): con jitter completo los que
+ * chocaron no vuelven a chocar en el mismo instante.
+ */
+public final class RetryPolicy {
+
+    public static final RetryPolicy DEFAULT = new RetryPolicy(5, Duration.ofMillis(1), Duration.ofMillis(50));
+
+    private final int maxAttempts;
+    private final long baseNanos;
+    private final long maxNanos;
+
+    public RetryPolicy(int maxAttempts, Duration baseDelay, Duration maxDelay) {
+        if (maxAttempts <= 0) throw new IllegalArgumentException("maxAttempts debe ser positivo");
+        if (baseDelay.isNegative() || maxDelay.compareTo(baseDelay) < 0)
+            throw new IllegalArgumentException("se requiere 0 <= baseDelay <= maxDelay");
+        this.maxAttempts = maxAttempts;
+        this.baseNanos = baseDelay.toNanos();
+        this.maxNanos = maxDelay.toNanos();
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /** ¿Queda otro intento después del intento número 'attempt' (desde 1)? */
+    public boolean canRetry(int attempt) {
+        return attempt < maxAttempts;
+    }
+
+    /** Pausa antes del intento attempt + 1. */
+    public void backoff(int attempt) {
+        long ceiling = baseNanos << Math.min(attempt - 1, 30);
+        if (ceiling <= 0 || ceiling > maxNanos) ceiling = maxNanos;
+        if (ceiling == 0) return;
+        long nanos = ThreadLocalRandom.current().nextLong(ceiling + 1);
+        try {
+            Thread.sleep(nanos / 1_000_000, (int) (nanos % 1_000_000));
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Reintento interrumpido", ie);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package org.example.dao;
+
+import org.example.db.DB;
+import org.example.metrics.DaoMetrics;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Llamadas JDBC con la fase medida (jdbc.acquire / prepare / execute); el mapeo de filas
+ * se mide en cada DAO alrededor de su bucle (jdbc.map). Con las métricas apagadas no se mide nada.
+ * Dentro de una llamada de DaoExecutor cada sentencia respeta su plazo (ver CallDeadline).
+ */
+final class TimedJdbc {
+
+    private TimedJdbc() { }
+
+    static Connection connect() throws SQLException {
+        return connect(null);
+    }
+
+    /** dataSource null: el pool de DB. */
+    static Connection connect(DataSource dataSource) throws SQLException {
+        long t0 = DaoMetrics.start();
+        Connection con = dataSource == null ? DB.getConnection() : dataSource.getConnection();
+        DaoMetrics.ACQUIRE.record(t0);
+        return con;
+    }
+
+    static PreparedStatement prepare(Connection con, String sql) throws SQLException {
+        long t0 = DaoMetrics.start();
+        PreparedStatement ps = con.prepareStatement(sql);
+        DaoMetrics.PREPARE.record(t0);
+        return ps;
+    }
+
+    static PreparedStatement prepare(Connection con, String sql, int autoGeneratedKeys) throws SQLException {
+        long t0 = DaoMetrics.start();
+        PreparedStatement ps = con.prepareStatement(sql, autoGeneratedKeys);
+        DaoMetrics.PREPARE.record(t0);
+        return ps;
+    }
+
+    static PreparedStatement prepare(Connection con, String sql, int type, int concurrency) throws SQLException {
+        long t0 = DaoMetrics.start();
+        PreparedStatement ps = con.prepareStatement(sql, type, concurrency);
+        DaoMetrics.PREPARE.record(t0);
+        return ps;
+    }
+
+    static ResultSet query(PreparedStatement ps) throws SQLException {
+        CallDeadline deadline = CallDeadline.current();
+        if (deadline != null) deadline.start(ps);
+        long t0 = DaoMetrics.start();
+        try {
+            ResultSet rs = ps.executeQuery();
+            DaoMetrics.EXECUTE.record(t0);
+            return rs;
+        } finally {
+            if (deadline != null) deadline.end();
+        }
+    }
+
+    static int update(PreparedStatement ps) throws SQLException {
+        CallDeadline deadline = CallDeadline.current();
+        if (deadline != null) deadline.start(ps);
+        long t0 = DaoMetrics.start();
+        try {
+            int n = ps.executeUpdate();
+            DaoMetrics.EXECUTE.record(t0);
+            return n;
+        } finally {
+            if (deadline != null) deadline.end();
+        }
+    }
+
+    static int[] batch(PreparedStatement ps) throws SQLException {
+        CallDeadline deadline = CallDeadline.current();
+        if (deadline != null) deadline.start(ps);
+        long t0 = DaoMetrics.start();
+        try {
+            int[] n = ps.executeBatch();
+            DaoMetrics.EXECUTE.record(t0);
+            return n;
+        } finally {
+            if (deadline != null) deadline.end();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package org.example.dao;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores de transferencias de un DAO: confirmadas, reintentos (por choque de versión o
+ * deadlock/lock timeout), choques de versión, abortadas (error de BD o reintentos agotados)
+ * y rechazadas por reglas de negocio.
+ */
+public class TransferStats {
+    final LongAdder committed = new LongAdder();
+    final LongAdder retried = new LongAdder();
+    final LongAdder conflicts = new LongAdder();
+    final LongAdder aborted = new LongAdder();
+    final LongAdder rejected = new LongAdder();
+
+    public long getCommitted() { return committed.sum(); }
+    public long getRetried() { return retried.sum(); }
+    public long getConflicts() { return conflicts.sum(); }
+    public long getAborted() { return aborted.sum(); }
+    public long getRejected() { return rejected.sum(); }
+
+    @Override
+    public String toString() {
+        return "TransferStats{" +
+                "committed=" + getCommitted() +
+                ", retried=" + getRetried() +
+                ", conflicts=" + getConflicts() +
+                ", aborted=" + getAborted() +
+                ", rejected=" + getRejected() +
+                '}';
+    }
+}
@@ -1,16 +1,115 @@
 package org.example.db;
 
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+import javax.sql.DataSource;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 
+/**
+ * Punto único de acceso a conexiones. Las conexiones salen de un pool HikariCP
+ * (crear una conexión MySQL cuesta más que la consulta misma).
+ * Se puede sobreescribir con -Dbanco.db.url / -Dbanco.db.user / -Dbanco.db.password / -Dbanco.db.profile
+ * y -Dbanco.db.stmtCache=false (ver applyStatementCache).
+ */
 public class DB {
     private static final String URL  = "jdbc:mysql://localhost:3306/BANCO?serverTimezone=UTC";
     private static final String USER = "root";          // <-- tu usuario
     private static final String PASS = "Mancora#1";   // <-- tu password
 
+    // sentencias preparadas cacheadas por conexión; los DAO usan unas 25 SQL fijas
+    public static final int STMT_CACHE_SIZE = 250;
+    // entran también los IN (?,?,...) de los lotes: se rellenan a unos pocos tamaños fijos
+    // (potencias de 2, ver dao.InList), el de 1024 marcadores ocupa unos 2.2 KB
+    public static final int STMT_CACHE_SQL_LIMIT = 4096;
+    private static final int H2_QUERY_CACHE_SIZE = 64;
+
+    private static volatile HikariDataSource pool;
+    private static volatile PoolMetrics metrics;
+
+    private DB() { }
+
     public static Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(URL, USER, PASS);
+        return dataSource().getConnection();
+    }
+
+    public static DataSource dataSource() {
+        HikariDataSource p = pool;
+        if (p != null) return p;
+        synchronized (DB.class) {
+            if (pool == null) {
+                configure(PoolProfile.valueOf(System.getProperty("banco.db.profile", PoolProfile.OLTP.name())));
+            }
+            return pool;
+        }
+    }
+
+    /** Config base (url/usuario/clave) con el perfil aplicado; útil para afinarla antes de configure(cfg). */
+    public static HikariConfig baseConfig(PoolProfile profile) {
+        HikariConfig cfg = new HikariConfig();
+        cfg.setJdbcUrl(System.getProperty("banco.db.url", URL));
+        cfg.setUsername(System.getProperty("banco.db.user", USER));
+        cfg.setPassword(System.getProperty("banco.db.password", PASS));
+        profile.applyTo(cfg);
+        applyStatementCache(cfg, Boolean.parseBoolean(System.getProperty("banco.db.stmtCache", "true")));
+        return cfg;
+    }
+
+    /*
+     * Los DAO preparan la misma SQL en cada llamada. Con la cache, prepareStatement sobre una conexión
+     * del pool devuelve la sentencia ya preparada de esa conexión:
+     * - MySQL: cache del driver (cachePrepStmts) + sentencias preparadas en el servidor (useServerPrepStmts),
+     *   así el servidor no vuelve a parsear ni planificar la SQL.
+     * - H2 (tests/benchmarks): cache de consultas parseadas por sesión (QUERY_CACHE_SIZE).
+     * Debe llamarse con la url ya puesta en cfg. Se puede llamar más de una vez sobre el mismo cfg:
+     * la última llamada manda.
+     */
+    public static void applyStatementCache(HikariConfig cfg, boolean enabled) {
+        String url = cfg.getJdbcUrl();
+        if (url == null) throw new IllegalArgumentException("jdbcUrl requerido");
+        if (url.startsWith("jdbc:mysql:")) {
+            cfg.addDataSourceProperty("cachePrepStmts", String.valueOf(enabled));
+            cfg.addDataSourceProperty("useServerPrepStmts", String.valueOf(enabled));
+            cfg.addDataSourceProperty("prepStmtCacheSize", String.valueOf(STMT_CACHE_SIZE));
+            cfg.addDataSourceProperty("prepStmtCacheSqlLimit", String.valueOf(STMT_CACHE_SQL_LIMIT));
+        } else if (url.startsWith("jdbc:h2:")) {
+            cfg.setJdbcUrl(url.replaceAll("(?i);QUERY_CACHE_SIZE=[^;]*", "")
+                    + ";QUERY_CACHE_SIZE=" + (enabled ? H2_QUERY_CACHE_SIZE : 0));
+        }
     }
-}
 
+    public static void configure(PoolProfile profile) {
+        configure(baseConfig(profile));
+    }
+
+    /** Reemplaza el pool actual (se cierra el anterior). */
+    public static synchronized void configure(HikariConfig cfg) {
+        PoolMetrics m = new PoolMetrics();
+        cfg.setMetricsTrackerFactory(m);
+        HikariDataSource nuevo = new HikariDataSource(cfg);
+        HikariDataSource viejo = pool;
+        pool = nuevo;
+        metrics = m;
+        if (viejo != null) viejo.close();
+    }
+
+    /** Tamaño máximo del pool actual (cuántas llamadas JDBC pueden correr a la vez). */
+    public static int maxPoolSize() {
+        return ((HikariDataSource) dataSource()).getMaximumPoolSize();
+    }
+
+    public static PoolStats stats() {
+        PoolMetrics metrics = DB.metrics;
+        if (metrics == null) return new PoolStats(0, 0, 0, 0, 0, 0, 0, 0);
+        return metrics.snapshot();
+    }
+
+    public static synchronized void shutdown() {
+        if (pool != null) {
+            pool.close();
+            pool = null;
+            metrics = null;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package org.example.db;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.example.shard.ShardMap;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Base BANCO en memoria (H2 en modo MySQL) para tests y benchmarks.
+ * H2 debe estar en el classpath (en este proyecto, scope test; en benchmarks, compile).
+ */
+public final class EmbeddedDatabase {
+
+    private static final String SCHEMA = "classpath:db/schema-h2.sql";
+
+    private EmbeddedDatabase() { }
+
+    public static String url(String name) {
+        return "jdbc:h2:mem:" + name + ";MODE=MySQL;DATABASE_TO_LOWER=FALSE;CASE_INSENSITIVE_IDENTIFIERS=TRUE"
+                + ";DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=5000;INIT=RUNSCRIPT FROM '" + SCHEMA + "'";
+    }
+
+    public static HikariConfig config(String name, PoolProfile profile) {
+        return config(name, profile, true);
+    }
+
+    public static HikariConfig config(String name, PoolProfile profile, boolean statementCache) {
+        HikariConfig cfg = new HikariConfig();
+        cfg.setJdbcUrl(url(name));
+        DB.applyStatementCache(cfg, statementCache);
+        cfg.setUsername("sa");
+        cfg.setPassword("");
+        profile.applyTo(cfg);
+        cfg.setPoolName("banco-embedded-" + name);
+        return cfg;
+    }
+
+    /**
+     * Una base embebida por shard (name-0, name-1, ...), cada una generando ids de Client en su rango
+     * (ShardMap.firstClientId). Cerrarlas es cosa de quien llama.
+     */
+    public static List<HikariDataSource> shards(String name, int count, PoolProfile profile) {
+        List<HikariDataSource> nodes = new ArrayList<>(count);
+        for (int s = 0; s < count; s++) {
+            HikariDataSource ds = new HikariDataSource(config(name + "-" + s, profile));
+            nodes.add(ds);
+            try (Connection con = ds.getConnection(); Statement st = con.createStatement()) {
+                st.execute("ALTER TABLE Client ALTER COLUMN id RESTART WITH " + ShardMap.firstClientId(s));
+            } catch (SQLException e) {
+                nodes.forEach(HikariDataSource::close);
+                throw new RuntimeException("Error preparando shard " + s, e);
+            }
+        }
+        return nodes;
+    }
+
+    /** Apunta DB a una base embebida nueva con el esquema BANCO. */
+    public static void start(String name, PoolProfile profile) {
+        DB.configure(config(name, profile));
+    }
+}
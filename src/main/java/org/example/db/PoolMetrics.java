@@ -0,0 +1,47 @@
+package org.example.db;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Recolecta tiempos de espera y timeouts del pool (Hikari nos llama en cada getConnection).
+ */
+class PoolMetrics implements MetricsTrackerFactory {
+
+    private final LongAdder acquired = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0);
+    private final LongAdder timeouts = new LongAdder();
+    private volatile com.zaxxer.hikari.metrics.PoolStats hikariStats;
+
+    @Override
+    public IMetricsTracker create(String poolName, com.zaxxer.hikari.metrics.PoolStats poolStats) {
+        this.hikariStats = poolStats;
+        return new IMetricsTracker() {
+            @Override
+            public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                acquired.increment();
+                waitNanos.add(elapsedAcquiredNanos);
+                maxWaitNanos.accumulate(elapsedAcquiredNanos);
+            }
+
+            @Override
+            public void recordConnectionTimeout() {
+                timeouts.increment();
+            }
+        };
+    }
+
+    PoolStats snapshot() {
+        com.zaxxer.hikari.metrics.PoolStats s = hikariStats;
+        long n = acquired.sum();
+        double avg = n == 0 ? 0.0 : waitNanos.sum() / (double) n / 1_000_000.0;
+        double max = maxWaitNanos.get() / 1_000_000.0;
+        if (s == null) return new PoolStats(0, 0, 0, 0, n, timeouts.sum(), avg, max);
+        return new PoolStats(s.getActiveConnections(), s.getIdleConnections(), s.getTotalConnections(),
+                s.getPendingThreads(), n, timeouts.sum(), avg, max);
+    }
+}
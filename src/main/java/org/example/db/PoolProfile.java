@@ -0,0 +1,43 @@
+package org.example.db;
+
+import com.zaxxer.hikari.HikariConfig;
+
+/**
+ * Perfiles de ajuste del pool de conexiones.
+ * OLTP: muchas operaciones cortas (deposit/withdraw), priorizamos latencia.
+ * BATCH: pocas conexiones largas (importaciones, cierres), priorizamos throughput.
+ */
+public enum PoolProfile {
+    OLTP(20, 10, 250, 60_000, 1_800_000),
+    BATCH(4, 1, 30_000, 300_000, 1_800_000);
+
+    private final int maxPoolSize;
+    private final int minIdle;
+    private final long connectionTimeoutMs;
+    private final long idleTimeoutMs;
+    private final long maxLifetimeMs;
+
+    PoolProfile(int maxPoolSize, int minIdle, long connectionTimeoutMs,
+                long idleTimeoutMs, long maxLifetimeMs) {
+        this.maxPoolSize = maxPoolSize;
+        this.minIdle = minIdle;
+        this.connectionTimeoutMs = connectionTimeoutMs;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.maxLifetimeMs = maxLifetimeMs;
+    }
+
+    public void applyTo(HikariConfig cfg) {
+        cfg.setPoolName("banco-" + name().toLowerCase());
+        cfg.setMaximumPoolSize(maxPoolSize);
+        cfg.setMinimumIdle(minIdle);
+        cfg.setConnectionTimeout(connectionTimeoutMs);
+        cfg.setIdleTimeout(idleTimeoutMs);
+        cfg.setMaxLifetime(maxLifetimeMs);
+        // BATCH agrupa los INSERT/UPDATE en un solo paquete hacia MySQL
+        if (this == BATCH) {
+            cfg.addDataSourceProperty("rewriteBatchedStatements", "true");
+        }
+    }
+
+    public int getMaxPoolSize() { return maxPoolSize; }
+}
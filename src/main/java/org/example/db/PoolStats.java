@@ -0,0 +1,50 @@
+package org.example.db;
+
+/**
+ * Foto (inmutable) del estado del pool en un instante.
+ */
+public class PoolStats {
+    private final int active;
+    private final int idle;
+    private final int total;
+    private final int waiting;
+    private final long acquired;
+    private final long timeouts;
+    private final double avgWaitMillis;
+    private final double maxWaitMillis;
+
+    public PoolStats(int active, int idle, int total, int waiting,
+                     long acquired, long timeouts, double avgWaitMillis, double maxWaitMillis) {
+        this.active = active;
+        this.idle = idle;
+        this.total = total;
+        this.waiting = waiting;
+        this.acquired = acquired;
+        this.timeouts = timeouts;
+        this.avgWaitMillis = avgWaitMillis;
+        this.maxWaitMillis = maxWaitMillis;
+    }
+
+    public int getActive() { return active; }
+    public int getIdle() { return idle; }
+    public int getTotal() { return total; }
+    public int getWaiting() { return waiting; }
+    public long getAcquired() { return acquired; }
+    public long getTimeouts() { return timeouts; }
+    public double getAvgWaitMillis() { return avgWaitMillis; }
+    public double getMaxWaitMillis() { return maxWaitMillis; }
+
+    @Override
+    public String toString() {
+        return "PoolStats{" +
+                "active=" + active +
+                ", idle=" + idle +
+                ", total=" + total +
+                ", waiting=" + waiting +
+                ", acquired=" + acquired +
+                ", timeouts=" + timeouts +
+                ", avgWaitMillis=" + String.format("%.3f", avgWaitMillis) +
+                ", maxWaitMillis=" + String.format("%.3f", maxWaitMillis) +
+                '}';
+    }
+}
@@ -0,0 +1,19 @@
+package org.example.db;
+
+/**
+ * Lo que ya escribió una sesión (un cliente, una petición...): sus lecturas sólo van a réplicas
+ * que hayan aplicado esas escrituras (ver ReplicaSet.writeToken).
+ */
+public final class ReplicaSession {
+
+    private volatile long token;
+
+    public long getToken() {
+        return token;
+    }
+
+    /** Guarda el token de una escritura recién confirmada; nunca retrocede. */
+    public synchronized void wrote(long writeToken) {
+        if (writeToken > token) token = writeToken;
+    }
+}
@@ -0,0 +1,314 @@
+package org.example.db;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Primario + réplicas de lectura. Cada 'interval' escribe un latido numerado (ReplicaHeartbeat) en el primario
+ * y lo lee en todas las réplicas a la vez: el retraso es cuánto le falta a la réplica para ver el último latido.
+ * Una réplica que pasa de maxLag (o no responde dentro de maxLag) sale del reparto de lecturas y vuelve
+ * cuando baja de maxLag/2.
+ *
+ * Lectura tras escritura: writeToken() tomado después de confirmar una escritura es un número de latido
+ * posterior a ella; una réplica que ya vio ese latido ya tiene la escritura (la replicación aplica en orden).
+ * El número de latido lo incrementa el propio primario, así que varios procesos pueden escribir latidos.
+ */
+public class ReplicaSet implements AutoCloseable {
+
+    /** route() para el primario. */
+    public static final int PRIMARY = -1;
+
+    private static final String ADVANCE_BEAT_SQL = "UPDATE ReplicaHeartbeat SET seq = seq + 1, beatMillis = ? WHERE id = 1";
+    private static final String INSERT_BEAT_SQL = "INSERT INTO ReplicaHeartbeat(id, seq, beatMillis) VALUES (1,1,?)";
+    private static final String SELECT_SEQ_SQL = "SELECT seq FROM ReplicaHeartbeat WHERE id = 1";
+    private static final String SELECT_BEAT_SQL = "SELECT seq, beatMillis FROM ReplicaHeartbeat WHERE id = 1";
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final long maxLagMillis;
+    private final long catchUpWaitMillis;
+    private final long probeTimeoutMillis;   // conexión + consulta del latido; igual a maxLag
+    private final int queryTimeoutSeconds;
+    private final ScheduledExecutorService beats;
+    private final ExecutorService probes;
+
+    private final AtomicLong seq = new AtomicLong();   // último latido escrito o leído en el primario
+    private volatile long lastBeatMillis;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Object caughtUp = new Object();
+
+    private final LongAdder primaryReads = new LongAdder();
+    private final LongAdder replicaReads = new LongAdder();
+    private final LongAdder staleFallbacks = new LongAdder();   // lecturas de sesión que terminaron en el primario
+
+    public ReplicaSet(DataSource primary, List<? extends DataSource> replicas) {
+        this(primary, replicas, Duration.ofMillis(250), Duration.ofSeconds(5), Duration.ZERO);
+    }
+
+    /**
+     * catchUpWait: cuánto puede esperar una lectura de sesión a que alguna réplica la alcance
+     * antes de ir al primario (cero: va directo al primario).
+     */
+    public ReplicaSet(DataSource primary, List<? extends DataSource> replicas,
+                      Duration interval, Duration maxLag, Duration catchUpWait) {
+        this.primary = primary;
+        for (DataSource ds : replicas) this.replicas.add(new Replica(ds));
+        this.maxLagMillis = maxLag.toMillis();
+        this.catchUpWaitMillis = catchUpWait.toMillis();
+        this.probeTimeoutMillis = Math.max(1, maxLagMillis);
+        this.queryTimeoutSeconds = (int) Math.max(1, (maxLagMillis + 999) / 1000);
+        this.probes = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "replica-check");
+            t.setDaemon(true);
+            return t;
+        });
+        heartbeat();
+        this.beats = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "replica-heartbeat");
+            t.setDaemon(true);
+            return t;
+        });
+        long ms = interval.toMillis();
+        beats.scheduleWithFixedDelay(this::heartbeatQuietly, ms, ms, TimeUnit.MILLISECONDS);
+    }
+
+    public DataSource primary() { return primary; }
+    public DataSource replica(int index) { return replicas.get(index).dataSource; }
+    public int replicaCount() { return replicas.size(); }
+
+    /**
+     * Token de lectura tras escritura; pedirlo DESPUÉS de confirmar la escritura.
+     * Lee el latido actual del primario: otro proceso pudo haber escrito latidos que este no vio.
+     * Si el primario no responde se usa el último latido conocido.
+     */
+    public long writeToken() {
+        try (Connection con = primary.getConnection();
+             PreparedStatement ps = con.prepareStatement(SELECT_SEQ_SQL)) {
+            ps.setQueryTimeout(queryTimeoutSeconds);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) seq.accumulateAndGet(rs.getLong(1), Math::max);
+            }
+        } catch (SQLException e) {
+            // sin primario tampoco hay escrituras nuevas que esperar
+        }
+        return seq.get() + 1;
+    }
+
+    /**
+     * Dónde leer: índice de una réplica en reparto que ya vio el latido 'token' (0 = cualquiera), o PRIMARY.
+     * Con catchUpWait espera a la réplica antes de rendirse al primario.
+     */
+    public int route(long token) {
+        int r = pick(token);
+        if (r == PRIMARY && token > 0 && catchUpWaitMillis > 0 && anyRouted()) {
+            long deadline = System.currentTimeMillis() + catchUpWaitMillis;
+            synchronized (caughtUp) {
+                for (long left = catchUpWaitMillis; r == PRIMARY && left > 0; left = deadline - System.currentTimeMillis()) {
+                    try {
+                        caughtUp.wait(left);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        break;
+                    }
+                    r = pick(token);
+                }
+            }
+        }
+        if (r == PRIMARY) {
+            primaryReads.increment();
+            if (token > 0 && anyRouted()) staleFallbacks.increment();
+        } else {
+            replicaReads.increment();
+        }
+        return r;
+    }
+
+    /** Un ciclo: latido en el primario y lectura de cada réplica. El hilo de fondo lo llama cada 'interval'. */
+    public void heartbeat() {
+        long now = System.currentTimeMillis();
+        try (Connection con = primary.getConnection()) {
+            con.setAutoCommit(false);
+            try {
+                long s = advanceBeat(con, now);
+                con.commit();
+                seq.accumulateAndGet(s, Math::max);
+                lastBeatMillis = now;
+            } catch (SQLException | RuntimeException e) {
+                con.rollback();
+                throw e;
+            } finally {
+                con.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error escribiendo latido en el primario", e);
+        } finally {
+            checkReplicas();
+            synchronized (caughtUp) {
+                caughtUp.notifyAll();
+            }
+        }
+    }
+
+    /** Retraso medido de la réplica en ms (Long.MAX_VALUE si no responde o aún no vio ningún latido). */
+    public long getLagMillis(int replica) { return replicas.get(replica).lagMillis; }
+    public boolean isRouted(int replica) { return replicas.get(replica).routed; }
+    public long getPrimaryReads() { return primaryReads.sum(); }
+    public long getReplicaReads() { return replicaReads.sum(); }
+    public long getStaleFallbacks() { return staleFallbacks.sum(); }
+
+    public List<String> describe() {
+        List<String> out = new ArrayList<>(replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica r = replicas.get(i);
+            out.add("replica " + i + ": " + (r.routed ? "en reparto" : "fuera") + ", lag="
+                    + (r.lagMillis == Long.MAX_VALUE ? "?" : r.lagMillis + "ms") + ", seq=" + r.seenSeq);
+        }
+        return Collections.unmodifiableList(out);
+    }
+
+    @Override
+    public void close() {
+        beats.shutdownNow();
+        probes.shutdownNow();
+    }
+
+    // seq = seq + 1 en el primario y se lee en la misma transacción (ve su propia escritura)
+    private long advanceBeat(Connection con, long now) throws SQLException {
+        try (PreparedStatement upd = con.prepareStatement(ADVANCE_BEAT_SQL)) {
+            upd.setQueryTimeout(queryTimeoutSeconds);
+            upd.setLong(1, now);
+            if (upd.executeUpdate() == 0) {
+                try (PreparedStatement ins = con.prepareStatement(INSERT_BEAT_SQL)) {
+                    ins.setQueryTimeout(queryTimeoutSeconds);
+                    ins.setLong(1, now);
+                    ins.executeUpdate();
+                } catch (SQLIntegrityConstraintViolationException e) {
+                    upd.executeUpdate();   // otro proceso creó la fila a la vez
+                }
+            }
+        }
+        try (PreparedStatement sel = con.prepareStatement(SELECT_SEQ_SQL)) {
+            sel.setQueryTimeout(queryTimeoutSeconds);
+            try (ResultSet rs = sel.executeQuery()) {
+                if (!rs.next()) throw new SQLException("ReplicaHeartbeat sin fila");
+                return rs.getLong(1);
+            }
+        }
+    }
+
+    /*
+     * Mide todas las réplicas en paralelo y espera como mucho probeTimeout en total: una réplica
+     * que no da conexión o no contesta a tiempo queda como no disponible. Si su medición anterior
+     * sigue colgada no se lanza otra (no se acumulan hilos por una réplica caída).
+     */
+    private void checkReplicas() {
+        List<Future<?>> pending = new ArrayList<>(replicas.size());
+        for (Replica r : replicas) {
+            if (!r.checking.compareAndSet(false, true)) {
+                r.record(Long.MAX_VALUE);
+                pending.add(null);
+                continue;
+            }
+            try {
+                pending.add(probes.submit(r::check));
+            } catch (RuntimeException e) {   // cerrado
+                r.checking.set(false);
+                pending.add(null);
+            }
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(probeTimeoutMillis);
+        for (int i = 0; i < pending.size(); i++) {
+            Future<?> f = pending.get(i);
+            if (f == null) continue;
+            try {
+                f.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException | ExecutionException e) {
+                replicas.get(i).record(Long.MAX_VALUE);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private int pick(long token) {
+        int n = replicas.size();
+        if (n == 0) return PRIMARY;
+        int start = Math.floorMod(next.getAndIncrement(), n);
+        for (int k = 0; k < n; k++) {
+            int i = (start + k) % n;
+            Replica r = replicas.get(i);
+            if (r.routed && r.seenSeq >= token) return i;
+        }
+        return PRIMARY;
+    }
+
+    private boolean anyRouted() {
+        for (Replica r : replicas) if (r.routed) return true;
+        return false;
+    }
+
+    private void heartbeatQuietly() {
+        try {
+            heartbeat();
+        } catch (RuntimeException e) {
+            // primario caído: las réplicas siguen midiéndose contra el último latido escrito
+        }
+    }
+
+    private final class Replica {
+        final DataSource dataSource;
+        volatile long seenSeq;
+        volatile long lagMillis = Long.MAX_VALUE;
+        volatile boolean routed;
+        final AtomicBoolean checking = new AtomicBoolean();
+
+        Replica(DataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        void check() {
+            long lag = Long.MAX_VALUE;
+            try (Connection con = dataSource.getConnection();
+                 PreparedStatement ps = con.prepareStatement(SELECT_BEAT_SQL)) {
+                ps.setQueryTimeout(queryTimeoutSeconds);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (rs.next()) {
+                        seenSeq = rs.getLong(1);
+                        lag = Math.max(0, lastBeatMillis - rs.getLong(2));
+                    }
+                }
+            } catch (SQLException e) {
+                // no disponible
+            } finally {
+                checking.set(false);
+            }
+            record(lag);
+        }
+
+        void record(long lag) {
+            lagMillis = lag;
+            if (lag > maxLagMillis) routed = false;
+            else if (lag <= maxLagMillis / 2) routed = true;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package org.example.importer;
+
+import org.example.dao.ClientDAO;
+import org.example.dao.ImportResult;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+
+/**
+ * Importa un CSV de clientes en streaming usando ClientDAO.saveAll.
+ */
+public class ClientCsvImporter {
+
+    private final ClientDAO clientDao;
+
+    public ClientCsvImporter(ClientDAO clientDao) {
+        this.clientDao = clientDao;
+    }
+
+    public ImportResult importFile(Path csv) {
+        try (ClientCsvReader reader = new ClientCsvReader(csv)) {
+            ImportResult result = clientDao.saveAll(reader);
+            result.addInvalid(reader.getSkipped());
+            return result;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error leyendo " + csv, e);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package org.example.importer;
+
+import org.example.model.Client;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Lee clientes de un CSV línea por línea (nunca carga el archivo completo).
+ * Formato (con cabecera): dni,firstName,lastName,email,phoneNumber,birthDate,address
+ * birthDate en ISO (yyyy-MM-dd) o vacío; los campos pueden ir entre comillas dobles.
+ */
+public class ClientCsvReader implements Iterator<Client>, Closeable {
+
+    private final BufferedReader in;
+    private Client next;
+    private long lineNumber;
+    private long skipped;
+
+    public ClientCsvReader(Path csv) throws IOException {
+        this.in = Files.newBufferedReader(csv, StandardCharsets.UTF_8);
+        readLine(); // cabecera
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (next == null) {
+            String line = readLine();
+            if (line == null) return false;
+            if (line.isBlank()) continue;
+            try {
+                next = parse(split(line));
+            } catch (RuntimeException e) {
+                skipped++;   // línea mal formada o sin DNI
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Client next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        Client c = next;
+        next = null;
+        return c;
+    }
+
+    public long getSkipped() { return skipped; }
+    public long getLineNumber() { return lineNumber; }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private String readLine() {
+        try {
+            String line = in.readLine();
+            if (line != null) lineNumber++;
+            return line;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Client parse(List<String> f) {
+        if (f.size() < 7) throw new IllegalArgumentException("se esperaban 7 columnas");
+        LocalDate birth = f.get(5).isEmpty() ? null : LocalDate.parse(f.get(5));
+        return new Client(f.get(0), f.get(1), f.get(2), emptyToNull(f.get(3)), emptyToNull(f.get(4)),
+                birth, emptyToNull(f.get(6)));
+    }
+
+    private static String emptyToNull(String s) {
+        return s.isEmpty() ? null : s;
+    }
+
+    // separa por comas respetando comillas dobles ("" dentro de comillas = una comilla)
+    static List<String> split(String line) {
+        List<String> out = new ArrayList<>(7);
+        StringBuilder cur = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char ch = line.charAt(i);
+            if (quoted) {
+                if (ch == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    cur.append('"');
+                    i++;
+                } else if (ch == '"') {
+                    quoted = false;
+                } else {
+                    cur.append(ch);
+                }
+            } else if (ch == '"') {
+                quoted = true;
+            } else if (ch == ',') {
+                out.add(cur.toString().trim());
+                cur.setLength(0);
+            } else {
+                cur.append(ch);
+            }
+        }
+        out.add(cur.toString().trim());
+        return out;
+    }
+}
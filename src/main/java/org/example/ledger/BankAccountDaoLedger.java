@@ -0,0 +1,376 @@
+package org.example.ledger;
+
+import org.example.dao.AccountNotFoundException;
+import org.example.dao.AccountRules;
+import org.example.dao.BankAccountDAO;
+import org.example.dao.BankAccountDaoJdbc;
+import org.example.dao.InsufficientFundsException;
+import org.example.dao.PostingResult;
+import org.example.model.BankAccount;
+import org.example.model.Money;
+import org.example.model.Movement;
+import org.example.model.MovementType;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * BankAccountDAO con los saldos en memoria.
+ *
+ * - Cada cuenta se carga de la BD la primera vez que se usa y desde entonces su saldo vive aquí;
+ *   este DAO debe ser el único que escribe saldos de esas cuentas.
+ * - Los cambios se serializan con candados por franjas (STRIPES): cuentas distintas casi nunca
+ *   comparten candado, así que el throughput escala con los núcleos.
+ * - Un movimiento se confirma al llamador sólo cuando su saldo resultante está en el LedgerLog (fsync en grupo).
+ * - Un hilo de fondo copia los saldos modificados a la BD por lotes y marca checkpoint en el log.
+ *   Al arrancar se reaplica en la BD lo que el log tenga después del último checkpoint.
+ */
+public class BankAccountDaoLedger implements BankAccountDAO, AutoCloseable {
+
+    private static final int STRIPES = 256;
+    private static final long MAX_SEGMENT_BYTES = 64L * 1024 * 1024;
+
+    private final BankAccountDaoJdbc delegate;   // cuentas nuevas, metadatos y saldos persistidos (su DataSource)
+    private final LedgerLog log;
+    private final ConcurrentHashMap<String, LedgerAccount> accounts = new ConcurrentHashMap<>();
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+    private final ScheduledExecutorService flusher;
+
+    // Saldo y regla en céntimos: el camino caliente no crea BigDecimal
+    private static final class LedgerAccount {
+        final BankAccount meta;     // sin saldo
+        final long floor;           // saldo mínimo (AccountRules), en céntimos
+        volatile long balance;      // céntimos; se escribe con el candado de su franja
+
+        LedgerAccount(BankAccount row) {
+            this.meta = row.copy();
+            this.meta.setBalance(null);
+            this.floor = AccountRules.balanceFloorMinor(row.getAccountType(), AccountRules.overdraftMinor(row));
+            this.balance = Money.toMinor(row.getBalance());
+        }
+
+        BigDecimal balanceDecimal() {
+            return BigDecimal.valueOf(balance, Money.SCALE);
+        }
+
+        BankAccount snapshot() {
+            BankAccount a = meta.copy();
+            a.setBalance(balanceDecimal());
+            return a;
+        }
+
+        InsufficientFundsException insufficientFunds() {
+            return AccountRules.insufficientFunds(meta.getAccountNumber(), meta.getAccountType(), meta.getOverdraftLimit());
+        }
+    }
+
+    public BankAccountDaoLedger(BankAccountDaoJdbc delegate, Path logDir) {
+        this(delegate, logDir, Duration.ofMillis(200));
+    }
+
+    public BankAccountDaoLedger(BankAccountDaoJdbc delegate, Path logDir, Duration flushInterval) {
+        this.delegate = delegate;
+        for (int i = 0; i < STRIPES; i++) stripes[i] = new ReentrantLock();
+        try {
+            this.log = new LedgerLog(logDir, MAX_SEGMENT_BYTES);
+            LedgerLog.Recovery rec = log.recover();
+            delegate.setBalances(rec.balances);
+            log.writeCheckpoint(rec.lastSeq);
+            log.compact(rec.lastSeq);
+        } catch (IOException e) {
+            throw new RuntimeException("Error recuperando ledger en " + logDir, e);
+        }
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "ledger-write-behind");
+            t.setDaemon(true);
+            return t;
+        });
+        long ms = flushInterval.toMillis();
+        flusher.scheduleWithFixedDelay(this::flushQuietly, ms, ms, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public BankAccount openAccount(BankAccount account) {
+        BankAccount opened = delegate.openAccount(account);
+        accounts.putIfAbsent(opened.getAccountNumber(), new LedgerAccount(opened));
+        return opened;
+    }
+
+    @Override
+    public Optional<BankAccount> findByAccountNumber(String accountNumber) {
+        LedgerAccount a = accounts.get(accountNumber);
+        if (a != null) return Optional.of(a.snapshot());
+        return delegate.findByAccountNumber(accountNumber).map(row -> register(row).snapshot());
+    }
+
+    @Override
+    public List<BankAccount> findByClient(int clientId) {
+        List<BankAccount> list = delegate.findByClient(clientId);
+        list.forEach(this::overlay);
+        return list;
+    }
+
+    @Override
+    public List<BankAccount> findByClientPage(int clientId, int afterId, int limit) {
+        List<BankAccount> list = delegate.findByClientPage(clientId, afterId, limit);
+        list.forEach(this::overlay);
+        return list;
+    }
+
+    @Override
+    public Stream<BankAccount> streamByClient(int clientId) {
+        return delegate.streamByClient(clientId).peek(this::overlay);
+    }
+
+    @Override
+    public BigDecimal deposit(String accountNumber, BigDecimal amount) {
+        return applyAndWait(accountNumber, checkAmount(amount), false);
+    }
+
+    @Override
+    public BigDecimal withdraw(String accountNumber, BigDecimal amount) {
+        return applyAndWait(accountNumber, -checkAmount(amount), true);
+    }
+
+    @Override
+    public BigDecimal getBalance(String accountNumber) {
+        return load(accountNumber).balanceDecimal();
+    }
+
+    @Override
+    public void transfer(String fromAccount, String toAccount, BigDecimal amount) {
+        long cents = checkAmount(amount);
+        if (fromAccount == null || toAccount == null || fromAccount.equals(toAccount))
+            throw new IllegalArgumentException("cuentas de origen y destino deben ser distintas");
+
+        LedgerAccount from = load(fromAccount);
+        LedgerAccount to = load(toAccount);
+        if (from.meta.getCurrency() != to.meta.getCurrency())
+            throw new IllegalArgumentException("transferencia entre monedas distintas no soportada");
+
+        // franjas en orden de índice: dos transferencias opuestas no pueden bloquearse mutuamente
+        int i = stripeIndex(fromAccount), j = stripeIndex(toAccount);
+        ReentrantLock first = stripes[Math.min(i, j)], second = stripes[Math.max(i, j)];
+        long seq;
+        first.lock();
+        try {
+            if (second != first) second.lock();
+            try {
+                long newFrom = Math.subtractExact(from.balance, cents);
+                long newTo = Math.addExact(to.balance, cents);
+                if (newFrom < from.floor) throw from.insufficientFunds();
+                // un solo registro: tras una caída se recuperan las dos patas o ninguna
+                dirty.add(fromAccount);
+                dirty.add(toAccount);
+                seq = log.append(new String[]{fromAccount, toAccount}, new long[]{newFrom, newTo}, Money.SCALE);
+                from.balance = newFrom;
+                to.balance = newTo;
+            } finally {
+                if (second != first) second.unlock();
+            }
+        } finally {
+            first.unlock();
+        }
+        awaitDurable(seq);
+    }
+
+    @Override
+    public List<PostingResult> post(List<Movement> movements) {
+        if (movements == null) throw new IllegalArgumentException("movements is null");
+        List<PostingResult> results = new ArrayList<>(movements.size());
+        long maxSeq = 0;
+        for (int i = 0; i < movements.size(); i++) {
+            Movement m = movements.get(i);
+            if (m == null || m.getAccountNumber() == null || m.getType() == null) {
+                results.add(PostingResult.rejected(i, m, PostingResult.Status.INVALID, "movimiento incompleto"));
+                continue;
+            }
+            if (m.getAmount() == null || m.getAmount().compareTo(BigDecimal.ZERO) <= 0) {
+                results.add(PostingResult.rejected(i, m, PostingResult.Status.INVALID, "monto debe ser positivo"));
+                continue;
+            }
+            LedgerAccount a = accounts.get(m.getAccountNumber());
+            if (a == null) {
+                Optional<BankAccount> row = delegate.findByAccountNumber(m.getAccountNumber());
+                if (row.isEmpty()) {
+                    results.add(PostingResult.rejected(i, m, PostingResult.Status.NOT_FOUND, "Cuenta no existe"));
+                    continue;
+                }
+                a = register(row.get());
+            }
+            long cents;
+            try {
+                cents = Money.toMinor(m.getAmount());
+            } catch (IllegalArgumentException e) {
+                results.add(PostingResult.rejected(i, m, PostingResult.Status.INVALID, e.getMessage()));
+                continue;
+            }
+            boolean withdrawal = m.getType() == MovementType.RETIRO;
+            ReentrantLock lock = stripe(m.getAccountNumber());
+            lock.lock();
+            try {
+                long next = Math.addExact(a.balance, withdrawal ? -cents : cents);
+                if (withdrawal && next < a.floor) {
+                    results.add(PostingResult.rejected(i, m, PostingResult.Status.INSUFFICIENT_FUNDS,
+                            a.insufficientFunds().getMessage()));
+                    continue;
+                }
+                maxSeq = applyLocked(a, next);
+                results.add(PostingResult.accepted(i, m, BigDecimal.valueOf(next, Money.SCALE)));
+            } finally {
+                lock.unlock();
+            }
+        }
+        if (maxSeq > 0) awaitDurable(maxSeq);
+        return results;
+    }
+
+    /** Copia a la BD los saldos pendientes y marca checkpoint (también lo hace el hilo de fondo). */
+    public synchronized void flush() {
+        try {
+            long durable = log.syncAll();
+            Map<String, BigDecimal> batch = new HashMap<>();
+            for (Iterator<String> it = dirty.iterator(); it.hasNext(); ) {
+                String n = it.next();
+                it.remove();
+                LedgerAccount a = accounts.get(n);
+                ReentrantLock lock = stripe(n);
+                lock.lock();
+                try {
+                    batch.put(n, a.balanceDecimal());
+                } finally {
+                    lock.unlock();
+                }
+            }
+            // lo leído puede incluir movimientos más nuevos que 'durable': que lleguen a disco antes que a la BD
+            log.syncAll();
+            try {
+                delegate.setBalances(batch);
+            } catch (RuntimeException e) {
+                dirty.addAll(batch.keySet());
+                throw e;
+            }
+            log.writeCheckpoint(durable);
+            log.compact(durable);
+        } catch (IOException e) {
+            throw new RuntimeException("Error persistiendo ledger", e);
+        }
+    }
+
+    public int getLoadedAccounts() {
+        return accounts.size();
+    }
+
+    public int getPendingAccounts() {
+        return dirty.size();
+    }
+
+    @Override
+    public void close() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        try {
+            log.close();
+        } catch (IOException e) {
+            throw new RuntimeException("Error cerrando ledger", e);
+        }
+    }
+
+    private BigDecimal applyAndWait(String accountNumber, long delta, boolean withdrawal) {
+        LedgerAccount a = load(accountNumber);
+        long next;
+        long seq;
+        ReentrantLock lock = stripe(accountNumber);
+        lock.lock();
+        try {
+            next = Math.addExact(a.balance, delta);
+            if (withdrawal && next < a.floor) throw a.insufficientFunds();
+            seq = applyLocked(a, next);
+        } finally {
+            lock.unlock();
+        }
+        awaitDurable(seq);
+        return BigDecimal.valueOf(next, Money.SCALE);
+    }
+
+    // con el candado de la franja tomado: marca la cuenta pendiente, escribe el log y publica el saldo
+    private long applyLocked(LedgerAccount a, long newBalance) {
+        String n = a.meta.getAccountNumber();
+        dirty.add(n);
+        long seq = log.append(n, newBalance, Money.SCALE);
+        a.balance = newBalance;
+        return seq;
+    }
+
+    private void awaitDurable(long seq) {
+        try {
+            log.awaitDurable(seq);
+        } catch (IOException e) {
+            throw new RuntimeException("Error escribiendo ledger", e);
+        }
+    }
+
+    private LedgerAccount load(String accountNumber) {
+        LedgerAccount a = accounts.get(accountNumber);
+        if (a != null) return a;
+        BankAccount row = delegate.findByAccountNumber(accountNumber)
+                .orElseThrow(() -> new AccountNotFoundException(accountNumber));
+        return register(row);
+    }
+
+    private LedgerAccount register(BankAccount row) {
+        LedgerAccount fresh = new LedgerAccount(row);
+        LedgerAccount prev = accounts.putIfAbsent(row.getAccountNumber(), fresh);
+        return prev != null ? prev : fresh;
+    }
+
+    private void overlay(BankAccount row) {
+        LedgerAccount a = accounts.get(row.getAccountNumber());
+        if (a != null) row.setBalance(a.balanceDecimal());
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            // se reintenta en la próxima vuelta; las cuentas siguen marcadas como pendientes
+        }
+    }
+
+    // monto positivo, en céntimos
+    private static long checkAmount(BigDecimal amount) {
+        if (amount == null || amount.signum() <= 0)
+            throw new IllegalArgumentException("monto debe ser positivo");
+        return Money.toMinor(amount);
+    }
+
+    private ReentrantLock stripe(String accountNumber) {
+        return stripes[stripeIndex(accountNumber)];
+    }
+
+    private static int stripeIndex(String accountNumber) {
+        int h = accountNumber.hashCode();
+        return (h ^ (h >>> 16)) & (STRIPES - 1);
+    }
+}
@@ -0,0 +1,458 @@
+package org.example.ledger;
+
+import org.example.dao.AccountNotFoundException;
+import org.example.dao.AccountRules;
+import org.example.dao.BankAccountDAO;
+import org.example.dao.InsufficientFundsException;
+import org.example.dao.PostingResult;
+import org.example.model.BankAccount;
+import org.example.model.Money;
+import org.example.model.Movement;
+import org.example.model.MovementType;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * BankAccountDAO local, sin MySQL (sucursales / modo offline).
+ *
+ * Todo el estado vive en memoria (getBalance es una lectura de un long) y se hace durable con:
+ * - un WAL mapeado en memoria (MappedWal) con registros de 64 bytes: apertura de cuenta, saldo resultante
+ *   o los dos saldos de una transferencia en un solo registro;
+ * - un snapshot compacto (snapshot.dat) que se escribe al llenarse el WAL, tras lo cual el WAL se rota.
+ * Al arrancar se carga el snapshot y se reaplica la cola del WAL.
+ *
+ * Los montos se guardan en céntimos (escala 2, igual que DECIMAL(15,2)); los números de cuenta
+ * los asigna este DAO ("1910" + id con ceros, como el esquema embebido).
+ */
+public class BankAccountDaoMapped implements BankAccountDAO, AutoCloseable {
+
+    public static final int DEFAULT_WAL_SLOTS = 1 << 20;   // 64 MB
+
+    private static final int STRIPES = 256;
+    private static final String SNAPSHOT = "snapshot.dat";
+    private static final int SNAPSHOT_MAGIC = 0x42414E43;   // "BANC"
+    private static final int SNAPSHOT_HEADER = 32;
+
+    private final Path dir;
+    private final int walSlots;
+    private final ConcurrentHashMap<String, MappedAccount> byNumber = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, List<MappedAccount>> byClient = new ConcurrentHashMap<>();
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+    private final ReentrantReadWriteLock rotation = new ReentrantReadWriteLock();
+    private final AtomicInteger nextId = new AtomicInteger(1);
+    private volatile MappedWal wal;
+
+    public BankAccountDaoMapped(Path dir) {
+        this(dir, DEFAULT_WAL_SLOTS);
+    }
+
+    public BankAccountDaoMapped(Path dir, int walSlots) {
+        if (walSlots <= 0) throw new IllegalArgumentException("walSlots debe ser positivo");
+        this.dir = dir;
+        this.walSlots = walSlots;
+        for (int i = 0; i < STRIPES; i++) stripes[i] = new ReentrantLock();
+        try {
+            Files.createDirectories(dir);
+            long generation = recover();
+            snapshotAndRotate(generation + 1);
+        } catch (IOException e) {
+            throw new RuntimeException("Error recuperando cuentas en " + dir, e);
+        }
+    }
+
+    @Override
+    public BankAccount openAccount(BankAccount account) {
+        if (account == null) throw new IllegalArgumentException("account is null");
+        if (account.getAccountType() == null || account.getCurrency() == null)
+            throw new IllegalArgumentException("accountType/currency required");
+        if (account.getClientId() == null) throw new IllegalArgumentException("clientId required");
+
+        int id = nextId.getAndIncrement();
+        LocalDate created = account.getCreationDate() == null ? LocalDate.now() : account.getCreationDate();
+        MappedAccount a = new MappedAccount(id, accountNumberFor(id), account.getAccountType(), account.getCurrency(),
+                account.getOverdraftLimit() == null ? WalRecord.NO_LIMIT : toCents(account.getOverdraftLimit()),
+                account.getClientId(), (int) created.toEpochDay(),
+                account.getBalance() == null ? 0 : toCents(account.getBalance()));
+        if (a.balance < a.floor()) throw insufficientFunds(a);
+
+        Write w = write(() -> {
+            ByteBuffer buf = wal.buffer();
+            int at = wal.reserve();
+            if (at < 0) return -1;
+            WalRecord.writeOpen(buf, at, a);
+            index(a);
+            return wal.ticket();
+        });
+        w.await();
+        return a.toBankAccount();
+    }
+
+    @Override
+    public Optional<BankAccount> findByAccountNumber(String accountNumber) {
+        MappedAccount a = byNumber.get(accountNumber);
+        return a == null ? Optional.empty() : Optional.of(a.toBankAccount());
+    }
+
+    @Override
+    public List<BankAccount> findByClient(int clientId) {
+        return clientAccounts(clientId).stream().map(MappedAccount::toBankAccount).collect(Collectors.toList());
+    }
+
+    @Override
+    public List<BankAccount> findByClientPage(int clientId, int afterId, int limit) {
+        if (limit <= 0) throw new IllegalArgumentException("limit debe ser positivo");
+        return clientAccounts(clientId).stream().filter(a -> a.id > afterId).limit(limit)
+                .map(MappedAccount::toBankAccount).collect(Collectors.toList());
+    }
+
+    @Override
+    public Stream<BankAccount> streamByClient(int clientId) {
+        return clientAccounts(clientId).stream().map(MappedAccount::toBankAccount);
+    }
+
+    @Override
+    public BigDecimal deposit(String accountNumber, BigDecimal amount) {
+        long cents = positiveCents(amount);
+        return BigDecimal.valueOf(apply(account(accountNumber), cents, false), 2);
+    }
+
+    @Override
+    public BigDecimal withdraw(String accountNumber, BigDecimal amount) {
+        long cents = positiveCents(amount);
+        return BigDecimal.valueOf(apply(account(accountNumber), -cents, true), 2);
+    }
+
+    @Override
+    public BigDecimal getBalance(String accountNumber) {
+        return BigDecimal.valueOf(account(accountNumber).balance, 2);
+    }
+
+    /** Saldo en céntimos sin crear objetos. */
+    public long getBalanceCents(String accountNumber) {
+        return account(accountNumber).balance;
+    }
+
+    @Override
+    public void transfer(String fromAccount, String toAccount, BigDecimal amount) {
+        long cents = positiveCents(amount);
+        if (fromAccount == null || toAccount == null || fromAccount.equals(toAccount))
+            throw new IllegalArgumentException("cuentas de origen y destino deben ser distintas");
+        MappedAccount from = account(fromAccount);
+        MappedAccount to = account(toAccount);
+        if (from.currency != to.currency)
+            throw new IllegalArgumentException("transferencia entre monedas distintas no soportada");
+
+        int i = stripeIndex(fromAccount), j = stripeIndex(toAccount);
+        ReentrantLock first = stripes[Math.min(i, j)], second = stripes[Math.max(i, j)];
+        Write w = write(() -> {
+            first.lock();
+            if (second != first) second.lock();
+            try {
+                long newFrom = Math.subtractExact(from.balance, cents);
+                long newTo = Math.addExact(to.balance, cents);
+                if (newFrom < from.floor()) throw insufficientFunds(from);
+                int at = wal.reserve();
+                if (at < 0) return -1;
+                WalRecord.writeTransfer(wal.buffer(), at, from.id, newFrom, to.id, newTo);
+                from.balance = newFrom;
+                to.balance = newTo;
+                return wal.ticket();
+            } finally {
+                if (second != first) second.unlock();
+                first.unlock();
+            }
+        });
+        w.await();
+    }
+
+    @Override
+    public List<PostingResult> post(List<Movement> movements) {
+        if (movements == null) throw new IllegalArgumentException("movements is null");
+        List<PostingResult> results = new ArrayList<>(movements.size());
+        for (int i = 0; i < movements.size(); i++) {
+            Movement m = movements.get(i);
+            if (m == null || m.getAccountNumber() == null || m.getType() == null
+                    || m.getAmount() == null || m.getAmount().signum() <= 0) {
+                results.add(PostingResult.rejected(i, m, PostingResult.Status.INVALID, "movimiento inválido"));
+                continue;
+            }
+            MappedAccount a = byNumber.get(m.getAccountNumber());
+            if (a == null) {
+                results.add(PostingResult.rejected(i, m, PostingResult.Status.NOT_FOUND, "Cuenta no existe"));
+                continue;
+            }
+            try {
+                long cents = positiveCents(m.getAmount());
+                boolean withdrawal = m.getType() == MovementType.RETIRO;
+                long balance = apply(a, withdrawal ? -cents : cents, withdrawal);
+                results.add(PostingResult.accepted(i, m, BigDecimal.valueOf(balance, 2)));
+            } catch (IllegalArgumentException e) {
+                results.add(PostingResult.rejected(i, m, PostingResult.Status.INVALID, e.getMessage()));
+            } catch (InsufficientFundsException e) {
+                results.add(PostingResult.rejected(i, m, PostingResult.Status.INSUFFICIENT_FUNDS, e.getMessage()));
+            } catch (ArithmeticException e) {
+                results.add(PostingResult.rejected(i, m, PostingResult.Status.ERROR, "desbordamiento de saldo"));
+            }
+        }
+        return results;
+    }
+
+    public int getAccountCount() {
+        return byNumber.size();
+    }
+
+    /** Escribe un snapshot y empieza un WAL nuevo (también ocurre solo al llenarse el WAL). */
+    public void checkpoint() {
+        rotation.writeLock().lock();
+        try {
+            snapshotAndRotate(wal.generation + 1);
+        } catch (IOException e) {
+            throw new RuntimeException("Error escribiendo snapshot", e);
+        } finally {
+            rotation.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        rotation.writeLock().lock();
+        try {
+            wal.close();
+        } catch (IOException e) {
+            throw new RuntimeException("Error cerrando WAL", e);
+        } finally {
+            rotation.writeLock().unlock();
+        }
+    }
+
+    // ---------- escritura ----------
+
+    @FunctionalInterface
+    private interface WalAction {
+        long run();   // ticket de durabilidad, o -1 si el WAL se llenó antes de escribir
+    }
+
+    private final class Write {
+        final MappedWal target;
+        final long ticket;
+
+        Write(MappedWal target, long ticket) {
+            this.target = target;
+            this.ticket = ticket;
+        }
+
+        void await() {
+            target.awaitDurable(ticket);
+        }
+    }
+
+    // Ejecuta la acción con el candado de lectura de rotación; si el WAL está lleno, rota y reintenta
+    private Write write(WalAction action) {
+        while (true) {
+            rotation.readLock().lock();
+            try {
+                MappedWal current = wal;
+                long ticket = action.run();
+                if (ticket >= 0) return new Write(current, ticket);
+            } finally {
+                rotation.readLock().unlock();
+            }
+            rotateIfFull();
+        }
+    }
+
+    private long apply(MappedAccount a, long delta, boolean withdrawal) {
+        long[] result = new long[1];
+        ReentrantLock lock = stripes[stripeIndex(a.accountNumber)];
+        Write w = write(() -> {
+            lock.lock();
+            try {
+                long next = Math.addExact(a.balance, delta);
+                if (withdrawal && next < a.floor()) throw insufficientFunds(a);
+                int at = wal.reserve();
+                if (at < 0) return -1;
+                WalRecord.writeBalance(wal.buffer(), at, a.id, next);
+                a.balance = next;
+                result[0] = next;
+                return wal.ticket();
+            } finally {
+                lock.unlock();
+            }
+        });
+        w.await();
+        return result[0];
+    }
+
+    private void rotateIfFull() {
+        rotation.writeLock().lock();
+        try {
+            if (wal.isFull()) snapshotAndRotate(wal.generation + 1);
+        } catch (IOException e) {
+            throw new RuntimeException("Error rotando WAL", e);
+        } finally {
+            rotation.writeLock().unlock();
+        }
+    }
+
+    // ---------- snapshot / recuperación ----------
+
+    // Con el candado de escritura (o en el constructor): nadie escribe mientras se copia el estado
+    private void snapshotAndRotate(long generation) throws IOException {
+        MappedWal old = wal;
+        if (old != null) old.close();
+
+        Path tmp = dir.resolve(SNAPSHOT + ".tmp");
+        List<MappedAccount> all = new ArrayList<>(byNumber.values());
+        long size = SNAPSHOT_HEADER + (long) all.size() * WalRecord.SIZE;
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer out = ch.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            out.putInt(0, SNAPSHOT_MAGIC);
+            out.putInt(4, 1);
+            out.putLong(8, generation);
+            out.putInt(16, all.size());
+            out.putInt(20, nextId.get());
+            int at = SNAPSHOT_HEADER;
+            for (MappedAccount a : all) {
+                WalRecord.writeOpen(out, at, a);
+                at += WalRecord.SIZE;
+            }
+            out.force();
+        }
+        Files.move(tmp, dir.resolve(SNAPSHOT), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        // el snapshot ya contiene todo: los WAL anteriores sobran
+        for (Path p : walFiles().values()) {
+            if (generationOf(p) < generation) Files.deleteIfExists(p);
+        }
+        wal = new MappedWal(dir.resolve(walName(generation)), generation, walSlots);
+    }
+
+    // Devuelve la última generación vista
+    private long recover() throws IOException {
+        long generation = 0;
+        Path snap = dir.resolve(SNAPSHOT);
+        if (Files.exists(snap)) {
+            try (FileChannel ch = FileChannel.open(snap, StandardOpenOption.READ)) {
+                ByteBuffer in = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+                if (in.getInt(0) != SNAPSHOT_MAGIC) throw new IOException("snapshot inválido: " + snap);
+                generation = in.getLong(8);
+                int count = in.getInt(16);
+                nextId.set(in.getInt(20));
+                for (int i = 0, at = SNAPSHOT_HEADER; i < count; i++, at += WalRecord.SIZE) {
+                    if (WalRecord.validType(in, at) != WalRecord.OPEN) throw new IOException("snapshot corrupto: " + snap);
+                    index(WalRecord.readOpen(in, at));
+                }
+            }
+        }
+        ConcurrentHashMap<Integer, MappedAccount> byId = new ConcurrentHashMap<>();
+        byNumber.values().forEach(a -> byId.put(a.id, a));
+        for (Path p : walFiles().values()) {
+            long g = generationOf(p);
+            if (g < generation) continue;
+            generation = Math.max(generation, g);
+            MappedWal.replay(p, (buf, at, type) -> {
+                if (type == WalRecord.OPEN) {
+                    MappedAccount a = WalRecord.readOpen(buf, at);
+                    index(a);
+                    byId.put(a.id, a);
+                    if (a.id >= nextId.get()) nextId.set(a.id + 1);
+                } else {
+                    MappedAccount a = byId.get(WalRecord.id(buf, at));
+                    if (a != null) a.balance = WalRecord.balance(buf, at);
+                    if (type == WalRecord.TRANSFER) {
+                        MappedAccount b = byId.get(WalRecord.toId(buf, at));
+                        if (b != null) b.balance = WalRecord.toBalance(buf, at);
+                    }
+                }
+            });
+        }
+        return generation;
+    }
+
+    private TreeMap<Long, Path> walFiles() throws IOException {
+        TreeMap<Long, Path> files = new TreeMap<>();
+        try (Stream<Path> s = Files.list(dir)) {
+            s.filter(p -> p.getFileName().toString().startsWith("wal-")).forEach(p -> files.put(generationOf(p), p));
+        }
+        return files;
+    }
+
+    private static String walName(long generation) {
+        return String.format("wal-%020d.log", generation);
+    }
+
+    private static long generationOf(Path p) {
+        String name = p.getFileName().toString();
+        return Long.parseLong(name.substring(4, name.length() - 4));
+    }
+
+    // ---------- helpers ----------
+
+    private void index(MappedAccount a) {
+        byNumber.put(a.accountNumber, a);
+        List<MappedAccount> list = byClient.computeIfAbsent(a.clientId, k -> new ArrayList<>());
+        synchronized (list) {
+            list.add(a);
+        }
+    }
+
+    private List<MappedAccount> clientAccounts(int clientId) {
+        List<MappedAccount> list = byClient.get(clientId);
+        if (list == null) return List.of();
+        List<MappedAccount> copy;
+        synchronized (list) {
+            copy = new ArrayList<>(list);
+        }
+        copy.sort((x, y) -> Integer.compare(x.id, y.id));
+        return copy;
+    }
+
+    private MappedAccount account(String accountNumber) {
+        MappedAccount a = byNumber.get(accountNumber);
+        if (a == null) throw new AccountNotFoundException(accountNumber);
+        return a;
+    }
+
+    private static RuntimeException insufficientFunds(MappedAccount a) {
+        return AccountRules.insufficientFunds(a.accountNumber, a.type,
+                a.overdraft == WalRecord.NO_LIMIT ? null : BigDecimal.valueOf(a.overdraft, 2));
+    }
+
+    private static String accountNumberFor(int id) {
+        return "1910" + String.format("%010d", id);
+    }
+
+    private static long positiveCents(BigDecimal amount) {
+        if (amount == null || amount.signum() <= 0) throw new IllegalArgumentException("monto debe ser positivo");
+        return toCents(amount);
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return Money.toMinor(amount);
+    }
+
+    private static int stripeIndex(String accountNumber) {
+        int h = accountNumber.hashCode();
+        return (h ^ (h >>> 16)) & (STRIPES - 1);
+    }
+}
@@ -0,0 +1,298 @@
+package org.example.ledger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+import java.util.stream.Stream;
+
+/**
+ * Log local (write-ahead) de saldos para la persistencia write-behind del ledger.
+ * Cada registro guarda el saldo resultante de una o más cuentas, así que reaplicarlo es idempotente.
+ *
+ * Registro: [int largo][long seq][short n] n x ([short largoCuenta][cuenta UTF-8][long unscaled][byte scale]) [int crc32]
+ *
+ * Un registro se valida con un solo CRC: las dos patas de una transferencia se recuperan juntas o ninguna.
+ * append() sólo copia a uno de varios buffers en memoria (por franja, cada uno con su candado);
+ * el fsync se hace en grupo: el primer hilo que llama a awaitDurable() escribe y fuerza todo lo
+ * acumulado, los demás esperan y salen sin fsync. Antes de escribir se mezclan los registros de
+ * todas las franjas por seq en una sola escritura, así que el archivo queda en orden de seq y un
+ * corte a mitad de escritura deja siempre un prefijo: nunca un registro sin los anteriores.
+ * El archivo se parte en segmentos (ledger-<primerSeq>.log) que se borran tras el checkpoint.
+ */
+final class LedgerLog implements Closeable {
+
+    private static final String CHECKPOINT = "ledger.ckpt";
+    private static final String PREFIX = "ledger-";
+    private static final String SUFFIX = ".log";
+    private static final int STRIPES = 16;
+
+    private final Path dir;
+    private final long maxSegmentBytes;
+    private final Object syncLock = new Object();
+    private final TreeMap<Long, Path> segments = new TreeMap<>();   // primer seq -> archivo
+
+    // el seq se toma con el candado de la franja en la que se escribe (ver flushPending)
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final AtomicLong lastSeq = new AtomicLong();
+
+    // protegidos por syncLock
+    private FileChannel channel;
+    private long segmentBytes;
+    private final List<ByteBuffer> carry = new ArrayList<>();   // registros con seq > durableSeq ya vaciados
+    private volatile long durableSeq;
+
+    static final class Recovery {
+        final Map<String, BigDecimal> balances;   // último saldo por cuenta posterior al checkpoint
+        final long lastSeq;
+
+        Recovery(Map<String, BigDecimal> balances, long lastSeq) {
+            this.balances = balances;
+            this.lastSeq = lastSeq;
+        }
+    }
+
+    // buffer pendiente y CRC de una franja; protegidos por la propia franja
+    private static final class Stripe {
+        ByteBuffer pending = ByteBuffer.allocate(16 * 1024);
+        final CRC32 crc = new CRC32();
+    }
+
+    LedgerLog(Path dir, long maxSegmentBytes) throws IOException {
+        this.dir = dir;
+        this.maxSegmentBytes = maxSegmentBytes;
+        for (int i = 0; i < STRIPES; i++) stripes[i] = new Stripe();
+        Files.createDirectories(dir);
+    }
+
+    /** Lee checkpoint y segmentos existentes; luego abre un segmento nuevo para escribir. */
+    Recovery recover() throws IOException {
+        long checkpoint = readCheckpoint();
+        long maxSeq = checkpoint;
+        Map<String, BigDecimal> balances = new LinkedHashMap<>();
+        Map<String, Long> seqs = new HashMap<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            files.filter(p -> p.getFileName().toString().startsWith(PREFIX)
+                            && p.getFileName().toString().endsWith(SUFFIX))
+                    .forEach(p -> segments.put(firstSeqOf(p), p));
+        }
+        for (Path p : segments.values()) {
+            maxSeq = Math.max(maxSeq, readSegment(p, checkpoint, balances, seqs));
+        }
+        lastSeq.set(maxSeq);
+        durableSeq = maxSeq;
+        synchronized (syncLock) {
+            openSegment(maxSeq + 1);
+        }
+        return new Recovery(balances, maxSeq);
+    }
+
+    long append(String accountNumber, long unscaled, int scale) {
+        return append(new String[]{accountNumber}, new long[]{unscaled}, scale);
+    }
+
+    /** Un solo registro con el saldo de varias cuentas (p. ej. las dos patas de una transferencia). */
+    long append(String[] accountNumbers, long[] unscaled, int scale) {
+        byte[][] accs = new byte[accountNumbers.length][];
+        int payload = 8 + 2;
+        for (int k = 0; k < accs.length; k++) {
+            accs[k] = accountNumbers[k].getBytes(StandardCharsets.UTF_8);
+            payload += 2 + accs[k].length + 8 + 1;
+        }
+        Stripe stripe = stripes[(accountNumbers[0].hashCode() & 0x7fffffff) % STRIPES];
+        synchronized (stripe) {
+            ByteBuffer buf = ensureCapacity(stripe, 4 + payload + 4);
+            long seq = lastSeq.incrementAndGet();
+            int start = buf.position();
+            buf.putInt(payload);
+            buf.putLong(seq);
+            buf.putShort((short) accs.length);
+            for (int k = 0; k < accs.length; k++) {
+                buf.putShort((short) accs[k].length);
+                buf.put(accs[k]);
+                buf.putLong(unscaled[k]);
+                buf.put((byte) scale);
+            }
+            stripe.crc.reset();
+            stripe.crc.update(buf.array(), start + 4, payload);
+            buf.putInt((int) stripe.crc.getValue());
+            return seq;
+        }
+    }
+
+    /** Espera a que seq esté en disco (group commit). */
+    void awaitDurable(long seq) throws IOException {
+        if (durableSeq >= seq) return;
+        synchronized (syncLock) {
+            if (durableSeq >= seq) return;
+            flushPending();
+        }
+    }
+
+    /** Fuerza todo lo escrito hasta ahora y devuelve el último seq durable. */
+    long syncAll() throws IOException {
+        synchronized (syncLock) {
+            flushPending();
+            return durableSeq;
+        }
+    }
+
+    void writeCheckpoint(long seq) throws IOException {
+        Path tmp = dir.resolve(CHECKPOINT + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ch.write(ByteBuffer.allocate(8).putLong(0, seq));
+            ch.force(true);
+        }
+        Files.move(tmp, dir.resolve(CHECKPOINT), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /** Borra los segmentos cuyas entradas ya están todas en la BD; rota el actual si creció demasiado. */
+    void compact(long checkpoint) throws IOException {
+        synchronized (syncLock) {
+            if (segmentBytes >= maxSegmentBytes) {
+                flushPending();
+                channel.close();
+                openSegment(durableSeq + 1);
+            }
+            List<Long> firsts = new ArrayList<>(segments.keySet());
+            for (int i = 0; i + 1 < firsts.size(); i++) {
+                long lastOfSegment = firsts.get(i + 1) - 1;
+                if (lastOfSegment <= checkpoint) Files.deleteIfExists(segments.remove(firsts.get(i)));
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (syncLock) {
+            if (channel != null) {
+                flushPending();
+                if (!carry.isEmpty()) flushPending();
+                channel.close();
+                channel = null;
+            }
+        }
+    }
+
+    /*
+     * Llamar con syncLock tomado. 'upTo' se lee antes de vaciar las franjas: todo seq <= upTo ya
+     * se tomó, y como el seq se toma y se escribe dentro del candado de su franja, el registro
+     * ya está en el buffer cuando aquí se toma ese candado. Se escriben sólo los seq <= upTo,
+     * ordenados; los posteriores (tomados mientras se vaciaba) esperan en 'carry' al siguiente
+     * volcado para no dejar huecos en el archivo.
+     */
+    private void flushPending() throws IOException {
+        long upTo = lastSeq.get();
+        List<ByteBuffer> frames = new ArrayList<>(carry);
+        carry.clear();
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                if (stripe.pending.position() == 0) continue;
+                ByteBuffer full = stripe.pending;
+                full.flip();
+                while (full.hasRemaining()) {
+                    int len = 4 + full.getInt(full.position()) + 4;
+                    frames.add(full.slice(full.position(), len));
+                    full.position(full.position() + len);
+                }
+                stripe.pending = ByteBuffer.allocate(full.capacity());
+            }
+        }
+        if (!frames.isEmpty()) {
+            frames.sort(Comparator.comparingLong(f -> f.getLong(4)));
+            int bytes = 0;
+            for (ByteBuffer f : frames) {
+                if (f.getLong(4) <= upTo) bytes += f.remaining();
+                else carry.add(f);
+            }
+            ByteBuffer out = ByteBuffer.allocate(bytes);
+            for (ByteBuffer f : frames) {
+                if (f.getLong(4) <= upTo) out.put(f);
+            }
+            out.flip();
+            segmentBytes += out.remaining();
+            while (out.hasRemaining()) channel.write(out);
+            channel.force(false);
+        }
+        durableSeq = Math.max(durableSeq, upTo);
+    }
+
+    private static ByteBuffer ensureCapacity(Stripe stripe, int bytes) {
+        ByteBuffer pending = stripe.pending;
+        if (pending.remaining() >= bytes) return pending;
+        ByteBuffer bigger = ByteBuffer.allocate(Math.max(pending.capacity() * 2, pending.position() + bytes));
+        pending.flip();
+        bigger.put(pending);
+        stripe.pending = bigger;
+        return bigger;
+    }
+
+    private void openSegment(long firstSeq) throws IOException {
+        Path p = dir.resolve(PREFIX + String.format("%020d", firstSeq) + SUFFIX);
+        channel = FileChannel.open(p, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        segmentBytes = channel.size();
+        segments.put(firstSeq, p);
+    }
+
+    private static long firstSeqOf(Path p) {
+        String name = p.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    private long readCheckpoint() throws IOException {
+        Path p = dir.resolve(CHECKPOINT);
+        if (!Files.exists(p)) return 0;
+        byte[] b = Files.readAllBytes(p);
+        return b.length == 8 ? ByteBuffer.wrap(b).getLong() : 0;
+    }
+
+    // Devuelve el mayor seq válido; se detiene en el primer registro incompleto o corrupto (escritura cortada)
+    private static long readSegment(Path p, long checkpoint, Map<String, BigDecimal> out,
+                                    Map<String, Long> seqs) throws IOException {
+        ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(p));
+        long maxSeq = 0;
+        while (buf.remaining() >= 4) {
+            int start = buf.position();
+            int payload = buf.getInt();
+            if (payload < 10 || buf.remaining() < payload + 4) break;
+            CRC32 crc = new CRC32();
+            crc.update(buf.array(), start + 4, payload);
+            if (buf.getInt(start + 4 + payload) != (int) crc.getValue()) break;
+
+            long seq = buf.getLong();
+            int n = buf.getShort();
+            maxSeq = Math.max(maxSeq, seq);
+            for (int k = 0; k < n; k++) {
+                byte[] acc = new byte[buf.getShort()];
+                buf.get(acc);
+                long unscaled = buf.getLong();
+                int scale = buf.get();
+                if (seq <= checkpoint) continue;
+                String account = new String(acc, StandardCharsets.UTF_8);
+                Long seen = seqs.get(account);
+                if (seen != null && seen > seq) continue;
+                seqs.put(account, seq);
+                out.remove(account);   // conserva el orden de la última escritura
+                out.put(account, BigDecimal.valueOf(unscaled, scale));
+            }
+            buf.getInt();   // crc ya verificado
+        }
+        return maxSeq;
+    }
+}
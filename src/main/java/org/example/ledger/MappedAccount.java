@@ -0,0 +1,53 @@
+package org.example.ledger;
+
+import org.example.dao.AccountRules;
+import org.example.model.AccountType;
+import org.example.model.BankAccount;
+import org.example.model.Currency;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Cuenta en memoria del DAO mapeado: metadatos inmutables y saldo en céntimos.
+ */
+final class MappedAccount {
+    final int id;
+    final String accountNumber;
+    final AccountType type;
+    final Currency currency;
+    final long overdraft;     // céntimos, o WalRecord.NO_LIMIT
+    final int clientId;
+    final int creationDay;
+    volatile long balance;    // céntimos; se escribe con el candado de su franja
+
+    MappedAccount(int id, String accountNumber, AccountType type, Currency currency,
+                  long overdraft, int clientId, int creationDay, long balance) {
+        this.id = id;
+        this.accountNumber = accountNumber;
+        this.type = type;
+        this.currency = currency;
+        this.overdraft = overdraft;
+        this.clientId = clientId;
+        this.creationDay = creationDay;
+        this.balance = balance;
+    }
+
+    // saldo mínimo en céntimos: 0 en AHORRO, -sobregiro en CORRIENTE (500.00 si no tiene)
+    long floor() {
+        return AccountRules.balanceFloorMinor(type, overdraft);
+    }
+
+    BankAccount toBankAccount() {
+        BankAccount a = new BankAccount();
+        a.setId(id);
+        a.setAccountNumber(accountNumber);
+        a.setBalance(BigDecimal.valueOf(balance, 2));
+        a.setAccountType(type);
+        a.setCurrency(currency);
+        a.setCreationDate(LocalDate.ofEpochDay(creationDay));
+        a.setOverdraftLimit(overdraft == WalRecord.NO_LIMIT ? null : BigDecimal.valueOf(overdraft, 2));
+        a.setClientId(clientId);
+        return a;
+    }
+}
@@ -0,0 +1,94 @@
+package org.example.ledger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Un archivo de WAL mapeado en memoria con huecos fijos de WalRecord.SIZE bytes.
+ * Reservar un hueco es un getAndIncrement (sin candado); escribirlo es copiar a memoria.
+ *
+ * Durabilidad en grupo: quien escribió lee un "ticket" y espera a que termine un force()
+ * que haya empezado después de su escritura. El primero que llega hace el force() para todos.
+ */
+final class MappedWal implements Closeable {
+
+    final long generation;
+    private final FileChannel channel;
+    private final MappedByteBuffer buf;
+    private final int slots;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Object syncLock = new Object();
+    private volatile long startedEpoch;
+    private volatile long completedEpoch;
+    private volatile boolean closed;
+
+    MappedWal(Path file, long generation, int slots) throws IOException {
+        this.generation = generation;
+        this.slots = slots;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.buf = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) slots * WalRecord.SIZE);
+    }
+
+    /** Posición (en bytes) de un hueco libre, o -1 si el archivo está lleno. */
+    int reserve() {
+        int slot = next.getAndIncrement();
+        return slot < slots ? slot * WalRecord.SIZE : -1;
+    }
+
+    ByteBuffer buffer() {
+        return buf;
+    }
+
+    /** Llamar después de escribir el registro; el valor se pasa luego a awaitDurable. */
+    long ticket() {
+        return startedEpoch + 1;
+    }
+
+    void awaitDurable(long ticket) {
+        if (completedEpoch >= ticket || closed) return;
+        synchronized (syncLock) {
+            if (completedEpoch >= ticket || closed) return;
+            long epoch = startedEpoch + 1;
+            startedEpoch = epoch;
+            buf.force();
+            completedEpoch = epoch;
+        }
+    }
+
+    boolean isFull() {
+        return next.get() >= slots;
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (syncLock) {
+            if (closed) return;
+            buf.force();
+            closed = true;
+            channel.close();
+        }
+    }
+
+    /** Recorre los registros válidos en orden; los huecos vacíos o cortados se saltan. */
+    static void replay(Path file, RecordVisitor visitor) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = ch.size() - ch.size() % WalRecord.SIZE;
+            if (size == 0) return;
+            ByteBuffer in = ch.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            for (int at = 0; at < size; at += WalRecord.SIZE) {
+                byte type = WalRecord.validType(in, at);
+                if (type != 0) visitor.visit(in, at, type);
+            }
+        }
+    }
+
+    interface RecordVisitor {
+        void visit(ByteBuffer buf, int at, byte type);
+    }
+}
@@ -0,0 +1,117 @@
+package org.example.ledger;
+
+import org.example.dao.AccountRules;
+import org.example.model.AccountType;
+import org.example.model.Currency;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+/**
+ * Formato binario fijo (64 bytes) de las cuentas en el WAL y en el snapshot. Sin serialización Java.
+ *
+ * <pre>
+ *  0  byte  tipo (OPEN / BALANCE / TRANSFER; 0 = hueco vacío)
+ *  1  byte  accountType (ordinal)
+ *  2  byte  currency (ordinal)
+ *  4  int   id de la cuenta
+ *  8  long  saldo en céntimos
+ * 16  long  sobregiro en céntimos (NO_LIMIT = sin límite propio)
+ * 24  int   clientId
+ * 28  int   creationDate (epochDay)
+ * 32  20 B  accountNumber ASCII, relleno con ceros
+ * 60  int   crc32 de los bytes 0..59
+ * </pre>
+ * Un registro BALANCE sólo usa tipo, id y saldo. TRANSFER lleva las dos patas bajo el mismo CRC
+ * (4 id y 8 saldo de la cuenta de origen, 16 id y 24 saldo de la de destino): se recuperan juntas o ninguna.
+ */
+final class WalRecord {
+
+    static final int SIZE = 64;
+    static final byte OPEN = 1;
+    static final byte BALANCE = 2;
+    static final byte TRANSFER = 3;
+    static final long NO_LIMIT = AccountRules.NO_OVERDRAFT;
+    static final int ACCOUNT_NUMBER_BYTES = 20;
+
+    private static final AccountType[] TYPES = AccountType.values();
+    private static final Currency[] CURRENCIES = Currency.values();
+
+    private WalRecord() { }
+
+    static void writeOpen(ByteBuffer buf, int at, MappedAccount a) {
+        buf.put(at, OPEN);
+        buf.put(at + 1, (byte) a.type.ordinal());
+        buf.put(at + 2, (byte) a.currency.ordinal());
+        buf.put(at + 3, (byte) 0);
+        buf.putInt(at + 4, a.id);
+        buf.putLong(at + 8, a.balance);
+        buf.putLong(at + 16, a.overdraft);
+        buf.putInt(at + 24, a.clientId);
+        buf.putInt(at + 28, a.creationDay);
+        byte[] acc = a.accountNumber.getBytes(StandardCharsets.US_ASCII);
+        for (int i = 0; i < ACCOUNT_NUMBER_BYTES; i++) buf.put(at + 32 + i, i < acc.length ? acc[i] : 0);
+        seal(buf, at);
+    }
+
+    static void writeBalance(ByteBuffer buf, int at, int id, long balance) {
+        buf.put(at, BALANCE);
+        buf.put(at + 1, (byte) 0);
+        buf.put(at + 2, (byte) 0);
+        buf.put(at + 3, (byte) 0);
+        buf.putInt(at + 4, id);
+        buf.putLong(at + 8, balance);
+        for (int i = 16; i < 60; i += 4) buf.putInt(at + i, 0);
+        seal(buf, at);
+    }
+
+    static void writeTransfer(ByteBuffer buf, int at, int fromId, long fromBalance, int toId, long toBalance) {
+        buf.put(at, TRANSFER);
+        buf.put(at + 1, (byte) 0);
+        buf.put(at + 2, (byte) 0);
+        buf.put(at + 3, (byte) 0);
+        buf.putInt(at + 4, fromId);
+        buf.putLong(at + 8, fromBalance);
+        buf.putInt(at + 16, toId);
+        buf.putInt(at + 20, 0);
+        buf.putLong(at + 24, toBalance);
+        for (int i = 32; i < 60; i += 4) buf.putInt(at + i, 0);
+        seal(buf, at);
+    }
+
+    /** Tipo del registro en 'at', o 0 si está vacío o corrupto (escritura cortada). */
+    static byte validType(ByteBuffer buf, int at) {
+        byte type = buf.get(at);
+        if (type != OPEN && type != BALANCE && type != TRANSFER) return 0;
+        return buf.getInt(at + 60) == crc(buf, at) ? type : 0;
+    }
+
+    static int id(ByteBuffer buf, int at) { return buf.getInt(at + 4); }
+    static long balance(ByteBuffer buf, int at) { return buf.getLong(at + 8); }
+    static int toId(ByteBuffer buf, int at) { return buf.getInt(at + 16); }
+    static long toBalance(ByteBuffer buf, int at) { return buf.getLong(at + 24); }
+
+    static MappedAccount readOpen(ByteBuffer buf, int at) {
+        byte[] acc = new byte[ACCOUNT_NUMBER_BYTES];
+        int len = 0;
+        for (; len < ACCOUNT_NUMBER_BYTES; len++) {
+            byte b = buf.get(at + 32 + len);
+            if (b == 0) break;
+            acc[len] = b;
+        }
+        return new MappedAccount(buf.getInt(at + 4), new String(acc, 0, len, StandardCharsets.US_ASCII),
+                TYPES[buf.get(at + 1)], CURRENCIES[buf.get(at + 2)], buf.getLong(at + 16),
+                buf.getInt(at + 24), buf.getInt(at + 28), buf.getLong(at + 8));
+    }
+
+    private static void seal(ByteBuffer buf, int at) {
+        buf.putInt(at + 60, crc(buf, at));
+    }
+
+    private static int crc(ByteBuffer buf, int at) {
+        CRC32 crc = new CRC32();
+        for (int i = 0; i < 60; i++) crc.update(buf.get(at + i));
+        return (int) crc.getValue();
+    }
+}
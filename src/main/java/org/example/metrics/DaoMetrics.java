@@ -0,0 +1,96 @@
+package org.example.metrics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Registro de métricas de los DAO. Apagado por defecto (-Dbanco.metrics=true o setEnabled para activarlo):
+ * apagado, cada punto de medida cuesta una lectura volatile y ninguna llamada a System.nanoTime().
+ *
+ * Operaciones: "account.deposit", "client.save"... (ver los decoradores XxxDaoMetered).
+ * Fases JDBC: "jdbc.acquire", "jdbc.prepare", "jdbc.execute", "jdbc.map" (dentro de los XxxDaoJdbc).
+ * Cada una se publica por JMX y en texto plano con scrape().
+ */
+public final class DaoMetrics {
+
+    private static volatile boolean enabled = Boolean.getBoolean("banco.metrics");
+    private static final Map<String, OpMetrics> OPS = new ConcurrentSkipListMap<>();
+    private static final Map<String, Boolean> REGISTERED = new ConcurrentHashMap<>();
+
+    public static final OpMetrics ACQUIRE = op("jdbc.acquire");
+    public static final OpMetrics PREPARE = op("jdbc.prepare");
+    public static final OpMetrics EXECUTE = op("jdbc.execute");
+    public static final OpMetrics MAP = op("jdbc.map");
+
+    private DaoMetrics() { }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean on) {
+        enabled = on;
+    }
+
+    /** Marca de tiempo para OpMetrics.record; 0 si las métricas están apagadas. */
+    public static long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /** Métricas de la operación (se crean y se registran en JMX la primera vez). */
+    public static OpMetrics op(String name) {
+        return OPS.computeIfAbsent(name, n -> {
+            OpMetrics m = new OpMetrics(n);
+            registerMBean(m);
+            return m;
+        });
+    }
+
+    /** Formato de texto tipo Prometheus; latencias en segundos. */
+    public static String scrape() {
+        StringBuilder sb = new StringBuilder(4096);
+        sb.append("# TYPE dao_latency_seconds summary\n");
+        for (OpMetrics m : OPS.values()) {
+            LatencyHistogram h = m.getLatency();
+            quantile(sb, m, "0.5", h.percentile(0.5));
+            quantile(sb, m, "0.99", h.percentile(0.99));
+            quantile(sb, m, "0.999", h.percentile(0.999));
+            line(sb, "dao_latency_seconds_max", m, seconds(h.getMaxNanos()));
+            line(sb, "dao_calls_total", m, Long.toString(h.getCount()));
+            line(sb, "dao_errors_total", m, Long.toString(m.getErrors()));
+            line(sb, "dao_rule_rejections_total", m, Long.toString(m.getRuleRejections()));
+            line(sb, "dao_constraint_violations_total", m, Long.toString(m.getConstraintViolations()));
+        }
+        return sb.toString();
+    }
+
+    private static void quantile(StringBuilder sb, OpMetrics m, String q, long nanos) {
+        sb.append("dao_latency_seconds{op=\"").append(m.getName()).append("\",quantile=\"").append(q)
+                .append("\"} ").append(seconds(nanos)).append('\n');
+    }
+
+    private static void line(StringBuilder sb, String metric, OpMetrics m, String value) {
+        sb.append(metric).append("{op=\"").append(m.getName()).append("\"} ").append(value).append('\n');
+    }
+
+    private static String seconds(long nanos) {
+        return String.format(Locale.ROOT, "%.9f", nanos / 1e9);
+    }
+
+    private static void registerMBean(OpMetrics m) {
+        if (REGISTERED.putIfAbsent(m.getName(), Boolean.TRUE) != null) return;
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName("org.example:type=DaoMetrics,name=" + ObjectName.quote(m.getName()));
+            if (!server.isRegistered(name)) server.registerMBean(m, name);
+        } catch (JMException e) {
+            throw new RuntimeException("No se pudo registrar la métrica " + m.getName() + " en JMX", e);
+        }
+    }
+}
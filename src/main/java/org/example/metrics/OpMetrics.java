@@ -0,0 +1,72 @@
+package org.example.metrics;
+
+import org.example.dao.AccountNotFoundException;
+import org.example.dao.InsufficientFundsException;
+
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencias y contadores de una operación DAO (o de una fase JDBC).
+ * Uso: long t0 = DaoMetrics.start(); ... op.record(t0); con las métricas apagadas t0 es 0 y no se mide nada.
+ */
+public final class OpMetrics implements OpMetricsMBean {
+
+    private final String name;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder ruleRejections = new LongAdder();
+    private final LongAdder constraintViolations = new LongAdder();
+
+    OpMetrics(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /** Registra el tiempo desde t0 (de DaoMetrics.start()) y devuelve "ahora", para encadenar fases. */
+    public long record(long t0) {
+        if (t0 == 0) return 0;
+        long now = System.nanoTime();
+        latency.record(now - t0);
+        return now;
+    }
+
+    /** Clasifica el fallo: regla de negocio (sobregiro, AHORRO negativo), restricción de la BD u otro error. */
+    public void failed(Throwable e) {
+        if (!DaoMetrics.isEnabled()) return;
+        if (e instanceof InsufficientFundsException) ruleRejections.increment();
+        else if (isConstraintViolation(e)) constraintViolations.increment();
+        else if (!(e instanceof AccountNotFoundException) && !(e instanceof IllegalArgumentException)) errors.increment();
+    }
+
+    public void ruleRejected() {
+        if (DaoMetrics.isEnabled()) ruleRejections.increment();
+    }
+
+    private static boolean isConstraintViolation(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof SQLIntegrityConstraintViolationException) return true;
+            if (t instanceof SQLException) {
+                String state = ((SQLException) t).getSQLState();
+                if (state != null && state.startsWith("23")) return true;
+            }
+        }
+        return false;
+    }
+
+    public LatencyHistogram getLatency() { return latency; }
+
+    @Override public long getCount() { return latency.getCount(); }
+    @Override public long getErrors() { return errors.sum(); }
+    @Override public long getRuleRejections() { return ruleRejections.sum(); }
+    @Override public long getConstraintViolations() { return constraintViolations.sum(); }
+    @Override public long getMeanMicros() { return latency.getMeanNanos() / 1000; }
+    @Override public long getP50Micros() { return latency.percentile(0.5) / 1000; }
+    @Override public long getP99Micros() { return latency.percentile(0.99) / 1000; }
+    @Override public long getP999Micros() { return latency.percentile(0.999) / 1000; }
+    @Override public long getMaxMicros() { return latency.getMaxNanos() / 1000; }
+}
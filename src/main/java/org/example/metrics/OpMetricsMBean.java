@@ -0,0 +1,14 @@
+package org.example.metrics;
+
+/** Vista JMX de una operación (org.example:type=DaoMetrics,name=...). Tiempos en microsegundos. */
+public interface OpMetricsMBean {
+    long getCount();
+    long getErrors();
+    long getRuleRejections();
+    long getConstraintViolations();
+    long getMeanMicros();
+    long getP50Micros();
+    long getP99Micros();
+    long getP999Micros();
+    long getMaxMicros();
+}
@@ -0,0 +1,59 @@
+package org.example.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Fila del diario (append-only) de movimientos: qué pasó en la cuenta y con qué saldo quedó.
+ */
+public class AccountMovement {
+    private Long id;
+    private String accountNumber;
+    private MovementType type;
+    private BigDecimal amount;
+    private BigDecimal balanceAfter;
+    private LocalDateTime createdAt;
+
+    public AccountMovement() {
+        // necesario para mapear con setters
+    }
+
+    public AccountMovement(String accountNumber, MovementType type, BigDecimal amount,
+                           BigDecimal balanceAfter, LocalDateTime createdAt) {
+        this.accountNumber = accountNumber;
+        this.type = type;
+        this.amount = amount;
+        this.balanceAfter = balanceAfter;
+        this.createdAt = createdAt;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getAccountNumber() { return accountNumber; }
+    public void setAccountNumber(String accountNumber) { this.accountNumber = accountNumber; }
+
+    public MovementType getType() { return type; }
+    public void setType(MovementType type) { this.type = type; }
+
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+
+    public BigDecimal getBalanceAfter() { return balanceAfter; }
+    public void setBalanceAfter(BigDecimal balanceAfter) { this.balanceAfter = balanceAfter; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    @Override
+    public String toString() {
+        return "AccountMovement{" +
+                "id=" + id +
+                ", accountNumber='" + accountNumber + '\'' +
+                ", type=" + type +
+                ", amount=" + amount +
+                ", balanceAfter=" + balanceAfter +
+                ", createdAt=" + createdAt +
+                '}';
+    }
+}
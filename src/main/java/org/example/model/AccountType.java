@@ -2,5 +2,13 @@ package org.example.model;
 
 public enum AccountType {
     AHORRO,
-    CORRIENTE
+    CORRIENTE;
+
+    // Decodifica la columna accountType sin pasar por valueOf
+    public static AccountType fromDb(String value) {
+        if (value == null) return null;
+        if (value.equals("AHORRO")) return AHORRO;
+        if (value.equals("CORRIENTE")) return CORRIENTE;
+        throw new IllegalArgumentException("accountType desconocido: " + value);
+    }
 }
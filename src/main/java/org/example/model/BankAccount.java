@@ -12,6 +12,7 @@ public class BankAccount {
     private LocalDate creationDate;
     private BigDecimal overdraftLimit;
     private Integer clientId;
+    private Long version;              // sube con cada cambio de saldo (null: no leída de la BD)
 
     public Integer getId() {
         return id;
@@ -37,6 +38,15 @@ public class BankAccount {
         this.balance = balance;
     }
 
+    // saldo / sobregiro como Money (null si no hay monto o moneda)
+    public Money getBalanceMoney() {
+        return balance == null || currency == null ? null : Money.of(balance, currency);
+    }
+
+    public Money getOverdraftLimitMoney() {
+        return overdraftLimit == null || currency == null ? null : Money.of(overdraftLimit, currency);
+    }
+
     public AccountType getAccountType() {
         return accountType;
     }
@@ -77,6 +87,29 @@ public class BankAccount {
         this.clientId = clientId;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    // copia independiente (las caches nunca entregan su propia instancia)
+    public BankAccount copy() {
+        BankAccount a = new BankAccount();
+        a.id = id;
+        a.accountNumber = accountNumber;
+        a.balance = balance;
+        a.accountType = accountType;
+        a.currency = currency;
+        a.creationDate = creationDate;
+        a.overdraftLimit = overdraftLimit;
+        a.clientId = clientId;
+        a.version = version;
+        return a;
+    }
+
     @Override
     public String toString() {
         return "BankAccount{" +
@@ -88,6 +121,7 @@ public class BankAccount {
                 ", creationDate=" + creationDate +
                 ", overdraftLimit=" + overdraftLimit +
                 ", clientId=" + clientId +
+                ", version=" + version +
                 '}';
     }
 }
@@ -31,6 +31,14 @@ public class Client {
         this.address = address;
     }
 
+    // Para mapear filas de BD sin reflexión (el DNI ya viene validado por la tabla)
+    public Client(Integer id, String dni, String firstName, String lastName,
+                  String email, String phoneNumber,
+                  LocalDate birthDate, String address) {
+        this(dni, firstName, lastName, email, phoneNumber, birthDate, address);
+        this.id = id;
+    }
+
     // getters / setters (sin setDni)
     public Integer getId() { return id; }
     public void setId(Integer id) { this.id = id; }
@@ -55,6 +63,20 @@ public class Client {
     public String getAddress() { return address; }
     public void setAddress(String address) { this.address = address; }
 
+    // copia independiente (las caches nunca entregan su propia instancia)
+    public Client copy() {
+        Client c = new Client();
+        c.id = id;
+        c.dni = dni;
+        c.firstName = firstName;
+        c.lastName = lastName;
+        c.email = email;
+        c.phoneNumber = phoneNumber;
+        c.birthDate = birthDate;
+        c.address = address;
+        return c;
+    }
+
     @Override
     public String toString() {
         return "Client{" +
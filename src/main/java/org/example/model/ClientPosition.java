@@ -0,0 +1,49 @@
+package org.example.model;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Posición consolidada de un cliente: saldo total por moneda y número de cuentas.
+ */
+public class ClientPosition {
+
+    private final int clientId;
+    private final Map<Currency, Money> totals;
+    private final int accounts;
+
+    public ClientPosition(int clientId, Map<Currency, Money> totals, int accounts) {
+        this.clientId = clientId;
+        Map<Currency, Money> copy = new EnumMap<>(Currency.class);
+        copy.putAll(totals);
+        this.totals = Collections.unmodifiableMap(copy);
+        this.accounts = accounts;
+    }
+
+    public int getClientId() { return clientId; }
+    public Map<Currency, Money> getTotals() { return totals; }
+    public int getAccounts() { return accounts; }
+
+    public Money getTotal(Currency currency) {
+        return totals.getOrDefault(currency, Money.zero(currency));
+    }
+
+    /** Todo convertido a 'target' con los tipos de cambio dados (redondeo bancario por moneda). */
+    public Money totalIn(Currency target, FxRates rates) {
+        Money sum = Money.zero(target);
+        for (Money m : totals.values()) {
+            sum = sum.plus(m.getCurrency() == target ? m : m.convertTo(target, rates.rate(m.getCurrency(), target)));
+        }
+        return sum;
+    }
+
+    @Override
+    public String toString() {
+        return "ClientPosition{" +
+                "clientId=" + clientId +
+                ", totals=" + totals.values() +
+                ", accounts=" + accounts +
+                '}';
+    }
+}
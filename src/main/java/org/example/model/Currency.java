@@ -2,5 +2,13 @@ package org.example.model;
 
 public enum Currency {
     PEN,
-    USD
+    USD;
+
+    // Decodifica la columna currency sin pasar por valueOf
+    public static Currency fromDb(String value) {
+        if (value == null) return null;
+        if (value.equals("PEN")) return PEN;
+        if (value.equals("USD")) return USD;
+        throw new IllegalArgumentException("currency desconocida: " + value);
+    }
 }
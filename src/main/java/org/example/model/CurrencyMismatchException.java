@@ -0,0 +1,7 @@
+package org.example.model;
+
+public class CurrencyMismatchException extends IllegalArgumentException {
+    public CurrencyMismatchException(Currency expected, Currency actual) {
+        super("Monedas distintas: " + expected + " vs " + actual);
+    }
+}
@@ -0,0 +1,8 @@
+package org.example.model;
+
+import java.math.BigDecimal;
+
+/** Tipo de cambio: cuántas unidades de 'to' vale 1 unidad de 'from'. */
+public interface FxRates {
+    BigDecimal rate(Currency from, Currency to);
+}
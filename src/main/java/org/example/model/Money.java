@@ -0,0 +1,130 @@
+package org.example.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Monto inmutable en céntimos (escala 2, igual que las columnas DECIMAL(15,2)) con su moneda.
+ * La aritmética es exacta: un desborde lanza ArithmeticException y mezclar PEN con USD
+ * lanza CurrencyMismatchException, en lugar de sumar sin más.
+ */
+public final class Money implements Comparable<Money> {
+
+    public static final int SCALE = 2;
+
+    private static final Money[] ZEROS = new Money[Currency.values().length];
+    static {
+        for (Currency c : Currency.values()) ZEROS[c.ordinal()] = new Money(0, c);
+    }
+
+    private final long minor;
+    private final Currency currency;
+
+    private Money(long minor, Currency currency) {
+        this.minor = minor;
+        this.currency = currency;
+    }
+
+    public static Money zero(Currency currency) {
+        return ZEROS[requireCurrency(currency).ordinal()];
+    }
+
+    public static Money ofMinor(long minor, Currency currency) {
+        return minor == 0 ? zero(currency) : new Money(minor, requireCurrency(currency));
+    }
+
+    /** Desde una columna DECIMAL; más de 2 decimales significativos es un error, no se redondea. */
+    public static Money of(BigDecimal amount, Currency currency) {
+        if (amount == null) throw new IllegalArgumentException("monto requerido");
+        return ofMinor(toMinor(amount), currency);
+    }
+
+    public static Money parse(String amount, Currency currency) {
+        return of(new BigDecimal(amount), currency);
+    }
+
+    /** Céntimos exactos de un BigDecimal (para quien trabaja directamente con long). */
+    public static long toMinor(BigDecimal amount) {
+        try {
+            return amount.setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("monto inválido (máximo " + SCALE + " decimales): " + amount);
+        }
+    }
+
+    public Money plus(Money other) {
+        requireSame(other);
+        return other.minor == 0 ? this : ofMinor(Math.addExact(minor, other.minor), currency);
+    }
+
+    public Money minus(Money other) {
+        requireSame(other);
+        return other.minor == 0 ? this : ofMinor(Math.subtractExact(minor, other.minor), currency);
+    }
+
+    public Money negate() {
+        return ofMinor(Math.negateExact(minor), currency);
+    }
+
+    /** Convierte con 'rate' (unidades de target por unidad de esta moneda), redondeo bancario a céntimos. */
+    public Money convertTo(Currency target, BigDecimal rate) {
+        if (target == currency) return this;
+        long converted = BigDecimal.valueOf(minor).multiply(rate)
+                .setScale(0, RoundingMode.HALF_EVEN).longValueExact();
+        return ofMinor(converted, target);
+    }
+
+    public int signum() {
+        return Long.signum(minor);
+    }
+
+    public boolean isLessThan(Money other) {
+        return compareTo(other) < 0;
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        requireSame(other);
+        return Long.compare(minor, other.minor);
+    }
+
+    /** Para escribir en una columna DECIMAL (ps.setBigDecimal). */
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minor, SCALE);
+    }
+
+    public long getMinorUnits() {
+        return minor;
+    }
+
+    public Currency getCurrency() {
+        return currency;
+    }
+
+    private void requireSame(Money other) {
+        if (other.currency != currency) throw new CurrencyMismatchException(currency, other.currency);
+    }
+
+    private static Currency requireCurrency(Currency currency) {
+        if (currency == null) throw new IllegalArgumentException("currency required");
+        return currency;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Money)) return false;
+        Money m = (Money) o;
+        return minor == m.minor && currency == m.currency;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(minor) + currency.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return currency + " " + toBigDecimal().toPlainString();
+    }
+}
@@ -0,0 +1,44 @@
+package org.example.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Un movimiento a contabilizar (depósito o retiro) sobre una cuenta.
+ */
+public class Movement {
+    private final String accountNumber;
+    private final MovementType type;
+    private final BigDecimal amount;
+
+    public Movement(String accountNumber, MovementType type, BigDecimal amount) {
+        this.accountNumber = accountNumber;
+        this.type = type;
+        this.amount = amount;
+    }
+
+    public static Movement deposit(String accountNumber, BigDecimal amount) {
+        return new Movement(accountNumber, MovementType.DEPOSITO, amount);
+    }
+
+    public static Movement withdraw(String accountNumber, BigDecimal amount) {
+        return new Movement(accountNumber, MovementType.RETIRO, amount);
+    }
+
+    public String getAccountNumber() { return accountNumber; }
+    public MovementType getType() { return type; }
+    public BigDecimal getAmount() { return amount; }
+
+    // monto con signo: positivo para depósitos, negativo para retiros
+    public BigDecimal signedAmount() {
+        return type == MovementType.RETIRO ? amount.negate() : amount;
+    }
+
+    @Override
+    public String toString() {
+        return "Movement{" +
+                "accountNumber='" + accountNumber + '\'' +
+                ", type=" + type +
+                ", amount=" + amount +
+                '}';
+    }
+}
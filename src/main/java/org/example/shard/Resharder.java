@@ -0,0 +1,184 @@
+package org.example.shard;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Mueve clientes (con sus cuentas, movimientos y claves de idempotencia) de un shard a otro.
+ * Los números de cuenta no cambian. Mientras dura la copia las filas del origen quedan bloqueadas (FOR UPDATE),
+ * así que ningún movimiento se pierde; la excepción queda en ClientShard del destino y en el ShardMap.
+ * Sólo actualiza el ShardMap de este proceso: los demás procesos deben recargarlo (ShardMap.load).
+ * El cliente conserva su id en el destino; eso puede mover el AUTO_INCREMENT del destino, por eso
+ * ClientDaoSharded no lo usa y toma los ids de ClientIdSeq (ClientIdSequence).
+ */
+public class Resharder {
+
+    private static final String LOCK_CLIENT_SQL =
+            "SELECT id, firstName, lastName, dni, email, phoneNumber, birthDate, address FROM Client WHERE id = ? FOR UPDATE";
+    private static final String LOCK_ACCOUNTS_SQL =
+            "SELECT accountNumber, balance, accountType, currency, creationDate, overdraftLimit, version " +
+                    "FROM BankAccount WHERE client_id = ? ORDER BY id FOR UPDATE";
+    private static final String SELECT_MOVEMENTS_SQL =
+            "SELECT accountNumber, movementType, amount, balanceAfter, createdAt FROM AccountMovement " +
+                    "WHERE accountNumber = ? ORDER BY id";
+    private static final String SELECT_KEYS_SQL =
+            "SELECT idempotencyKey, accountNumber, movementType, amount, balanceAfter, createdAt FROM PostingKey " +
+                    "WHERE accountNumber = ?";
+
+    private static final String INSERT_CLIENT_SQL =
+            "INSERT INTO Client(id, firstName, lastName, dni, email, phoneNumber, birthDate, address) VALUES (?,?,?,?,?,?,?,?)";
+    private static final String INSERT_ACCOUNT_SQL =
+            "INSERT INTO BankAccount(accountNumber, balance, accountType, currency, creationDate, overdraftLimit, version, client_id) " +
+                    "VALUES (?,?,?,?,?,?,?,?)";
+    private static final String INSERT_MOVEMENT_SQL =
+            "INSERT INTO AccountMovement(accountNumber, movementType, amount, balanceAfter, createdAt) VALUES (?,?,?,?,?)";
+    private static final String INSERT_KEY_SQL =
+            "INSERT INTO PostingKey(idempotencyKey, accountNumber, movementType, amount, balanceAfter, createdAt) " +
+                    "VALUES (?,?,?,?,?,?)";
+    private static final String INSERT_MOVED_SQL = "INSERT INTO ClientShard(clientId, shard, movedAt) VALUES (?,?,?)";
+    private static final String DELETE_MOVED_SQL = "DELETE FROM ClientShard WHERE clientId = ?";
+
+    private static final String DELETE_MOVEMENTS_SQL = "DELETE FROM AccountMovement WHERE accountNumber = ?";
+    private static final String DELETE_KEYS_SQL = "DELETE FROM PostingKey WHERE accountNumber = ?";
+    private static final String DELETE_CLIENT_SQL = "DELETE FROM Client WHERE id = ?";   // cuentas por ON DELETE CASCADE
+
+    private final Shards shards;
+
+    public Resharder(Shards shards) {
+        this.shards = shards;
+    }
+
+    /** Mueve el cliente a 'target'; devuelve cuántas cuentas se movieron (0 si ya estaba ahí). */
+    public int move(int clientId, int target) {
+        ShardMap map = shards.getMap();
+        int source = map.shardOf(clientId);
+        if (source < 0) throw new IllegalArgumentException("clientId fuera de los shards: " + clientId);
+        if (target < 0 || target >= shards.size()) throw new IllegalArgumentException("shard inválido: " + target);
+        if (source == target) return 0;
+
+        try (Connection src = shards.node(source).getConnection();
+             Connection dst = shards.node(target).getConnection()) {
+            src.setAutoCommit(false);
+            dst.setAutoCommit(false);
+            List<String> accounts;
+            try {
+                accounts = copy(src, dst, clientId);
+                try (PreparedStatement del = dst.prepareStatement(DELETE_MOVED_SQL)) {
+                    del.setInt(1, clientId);
+                    del.executeUpdate();
+                }
+                if (target != map.homeOf(clientId)) {
+                    try (PreparedStatement ins = dst.prepareStatement(INSERT_MOVED_SQL)) {
+                        ins.setInt(1, clientId);
+                        ins.setInt(2, target);
+                        ins.setTimestamp(3, Timestamp.valueOf(LocalDateTime.now()));
+                        ins.executeUpdate();
+                    }
+                }
+                dst.commit();
+            } catch (SQLException | RuntimeException e) {
+                dst.rollback();
+                src.rollback();
+                throw e;
+            }
+
+            // desde aquí el cliente vive en target; quien espere el bloqueo del origen reintenta allá
+            map.moved(clientId, target);
+            try {
+                deleteSource(src, clientId, accounts);
+                src.commit();
+            } catch (SQLException | RuntimeException e) {
+                src.rollback();
+                throw new RuntimeException("Cliente " + clientId + " copiado al shard " + target
+                        + " pero no se pudo borrar del shard " + source, e);
+            } finally {
+                src.setAutoCommit(true);
+                dst.setAutoCommit(true);
+            }
+            return accounts.size();
+        } catch (SQLException e) {
+            throw new RuntimeException("Error moviendo cliente " + clientId, e);
+        }
+    }
+
+    // Copia (bloqueando el origen) y devuelve los números de cuenta copiados
+    private List<String> copy(Connection src, Connection dst, int clientId) throws SQLException {
+        try (PreparedStatement sel = src.prepareStatement(LOCK_CLIENT_SQL);
+             PreparedStatement ins = dst.prepareStatement(INSERT_CLIENT_SQL)) {
+            sel.setInt(1, clientId);
+            try (ResultSet rs = sel.executeQuery()) {
+                if (!rs.next()) throw new IllegalArgumentException("cliente no encontrado: " + clientId);
+                for (int c = 1; c <= 8; c++) ins.setObject(c, rs.getObject(c));
+            }
+            ins.executeUpdate();
+        }
+
+        List<String> accounts = new ArrayList<>();
+        try (PreparedStatement sel = src.prepareStatement(LOCK_ACCOUNTS_SQL);
+             PreparedStatement ins = dst.prepareStatement(INSERT_ACCOUNT_SQL)) {
+            sel.setInt(1, clientId);
+            try (ResultSet rs = sel.executeQuery()) {
+                while (rs.next()) {
+                    accounts.add(rs.getString(1));
+                    for (int c = 1; c <= 7; c++) ins.setObject(c, rs.getObject(c));
+                    ins.setInt(8, clientId);
+                    ins.addBatch();
+                }
+            }
+            if (!accounts.isEmpty()) ins.executeBatch();
+        }
+
+        copyRows(src, dst, SELECT_MOVEMENTS_SQL, INSERT_MOVEMENT_SQL, 5, accounts);
+        copyRows(src, dst, SELECT_KEYS_SQL, INSERT_KEY_SQL, 6, accounts);
+        return accounts;
+    }
+
+    private static void copyRows(Connection src, Connection dst, String selectSql, String insertSql,
+                                 int columns, List<String> accounts) throws SQLException {
+        try (PreparedStatement sel = src.prepareStatement(selectSql);
+             PreparedStatement ins = dst.prepareStatement(insertSql)) {
+            boolean any = false;
+            for (String acc : accounts) {
+                sel.setString(1, acc);
+                try (ResultSet rs = sel.executeQuery()) {
+                    while (rs.next()) {
+                        for (int c = 1; c <= columns; c++) ins.setObject(c, rs.getObject(c));
+                        ins.addBatch();
+                        any = true;
+                    }
+                }
+            }
+            if (any) ins.executeBatch();
+        }
+    }
+
+    private static void deleteSource(Connection src, int clientId, List<String> accounts) throws SQLException {
+        try (PreparedStatement movements = src.prepareStatement(DELETE_MOVEMENTS_SQL);
+             PreparedStatement keys = src.prepareStatement(DELETE_KEYS_SQL)) {
+            for (String acc : accounts) {
+                movements.setString(1, acc);
+                movements.addBatch();
+                keys.setString(1, acc);
+                keys.addBatch();
+            }
+            if (!accounts.isEmpty()) {
+                movements.executeBatch();
+                keys.executeBatch();
+            }
+        }
+        try (PreparedStatement del = src.prepareStatement(DELETE_MOVED_SQL)) {
+            del.setInt(1, clientId);
+            del.executeUpdate();
+        }
+        try (PreparedStatement del = src.prepareStatement(DELETE_CLIENT_SQL)) {
+            del.setInt(1, clientId);
+            del.executeUpdate();
+        }
+    }
+}
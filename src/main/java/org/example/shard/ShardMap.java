@@ -0,0 +1,134 @@
+package org.example.shard;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Qué shard tiene a cada cliente, sin consultar una base central:
+ * - cada shard genera los ids de Client en su propio rango (shard s: s*ID_RANGE+1 ...), así el id dice
+ *   dónde se creó el cliente;
+ * - los clientes que Resharder movió a otro shard quedan en 'moved' (tabla ClientShard del shard destino,
+ *   se lee una vez en load);
+ * - el número de cuenta lleva el id del cliente (accountNumber), así que una cuenta se ubica igual.
+ * Los clientes nuevos van al shard que toca a su DNI, para que la unicidad del DNI siga valiendo por shard.
+ */
+public final class ShardMap {
+
+    public static final int ID_RANGE = 100_000_000;
+    public static final int MAX_SHARDS = Integer.MAX_VALUE / ID_RANGE;   // 21 con ints
+
+    private static final String ACCOUNT_PREFIX = "19";
+    private static final int ACCOUNT_LENGTH = ACCOUNT_PREFIX.length() + 10 + 4;
+    public static final int MAX_ACCOUNTS_PER_CLIENT = 9_999;
+
+    private static final String SELECT_MOVED_SQL = "SELECT clientId, shard FROM ClientShard";
+
+    private final int shards;
+    private final Map<Integer, Integer> moved = new ConcurrentHashMap<>();
+
+    public ShardMap(int shards) {
+        if (shards <= 0 || shards > MAX_SHARDS)
+            throw new IllegalArgumentException("shards debe estar entre 1 y " + MAX_SHARDS);
+        this.shards = shards;
+    }
+
+    /** Mapa con los clientes movidos que registró Resharder en cada shard. */
+    public static ShardMap load(List<? extends DataSource> nodes) {
+        ShardMap map = new ShardMap(nodes.size());
+        for (DataSource ds : nodes) {
+            try (Connection con = ds.getConnection();
+                 PreparedStatement ps = con.prepareStatement(SELECT_MOVED_SQL);
+                 ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) map.moved(rs.getInt(1), rs.getInt(2));
+            } catch (SQLException e) {
+                throw new RuntimeException("Error leyendo ClientShard", e);
+            }
+        }
+        return map;
+    }
+
+    public int size() {
+        return shards;
+    }
+
+    /** Primer id de Client que genera el shard (AUTO_INCREMENT inicial). */
+    public static int firstClientId(int shard) {
+        return shard * ID_RANGE + 1;
+    }
+
+    /** Shard donde se creó el cliente, o -1 si el id no cae en ningún shard. */
+    public int homeOf(int clientId) {
+        if (clientId <= 0) return -1;
+        int home = (clientId - 1) / ID_RANGE;
+        return home < shards ? home : -1;
+    }
+
+    /** Shard actual del cliente, o -1 si el id no cae en ningún shard. */
+    public int shardOf(int clientId) {
+        Integer s = moved.get(clientId);
+        return s != null ? s : homeOf(clientId);
+    }
+
+    /** Shard de la cuenta, o -1 si el número no es de este esquema (cuentas anteriores al particionado) u otro inválido. */
+    public int shardOfAccount(String accountNumber) {
+        int clientId = clientOfAccount(accountNumber);
+        return clientId < 0 ? -1 : shardOf(clientId);
+    }
+
+    /** Shard para un cliente nuevo. */
+    public int shardForDni(String dni) {
+        return Math.floorMod(dni.hashCode(), shards);
+    }
+
+    public boolean hasMoves() {
+        return !moved.isEmpty();
+    }
+
+    public Map<Integer, Integer> getMoved() {
+        return Collections.unmodifiableMap(moved);
+    }
+
+    /** Lo llama Resharder al mover un cliente; volver a su shard de origen borra la excepción. */
+    void moved(int clientId, int shard) {
+        if (shard < 0 || shard >= shards) throw new IllegalArgumentException("shard inválido: " + shard);
+        if (homeOf(clientId) < 0) throw new IllegalArgumentException("clientId fuera de los shards: " + clientId);
+        if (shard == homeOf(clientId)) moved.remove(clientId);
+        else moved.put(clientId, shard);
+    }
+
+    // ---------- números de cuenta: "19" + clientId (10 dígitos) + correlativo del cliente (4) ----------
+
+    public static String accountNumber(int clientId, int seq) {
+        if (seq <= 0 || seq > MAX_ACCOUNTS_PER_CLIENT) throw new IllegalArgumentException("correlativo inválido: " + seq);
+        return ACCOUNT_PREFIX + String.format("%010d%04d", clientId, seq);
+    }
+
+    public static int clientOfAccount(String accountNumber) {
+        if (accountNumber == null || accountNumber.length() != ACCOUNT_LENGTH || !accountNumber.startsWith(ACCOUNT_PREFIX))
+            return -1;
+        long id = 0;
+        for (int i = ACCOUNT_PREFIX.length(); i < ACCOUNT_PREFIX.length() + 10; i++) {
+            char c = accountNumber.charAt(i);
+            if (c < '0' || c > '9') return -1;
+            id = id * 10 + (c - '0');
+        }
+        return id == 0 || id > Integer.MAX_VALUE ? -1 : (int) id;
+    }
+
+    /** Correlativo de una cuenta de este esquema, 0 si no lo es. */
+    public static int seqOfAccount(String accountNumber) {
+        if (clientOfAccount(accountNumber) < 0) return 0;
+        try {
+            return Integer.parseInt(accountNumber.substring(ACCOUNT_LENGTH - 4));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
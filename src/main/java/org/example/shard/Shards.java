@@ -0,0 +1,148 @@
+package org.example.shard;
+
+import org.example.dao.DaoExecutor;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Los nodos (un DataSource por shard, en orden), su ShardMap y el ejecutor de las consultas a todos los shards.
+ */
+public class Shards implements AutoCloseable {
+
+    private final List<DataSource> nodes;
+    private final ShardMap map;
+    private final DaoExecutor executor;
+
+    /** Lee el mapa de los propios nodos (ShardMap.load). */
+    public Shards(List<? extends DataSource> nodes) {
+        this(nodes, ShardMap.load(nodes));
+    }
+
+    public Shards(List<? extends DataSource> nodes, ShardMap map) {
+        this(nodes, map, new DaoExecutor(nodes.size() * 4, DaoExecutor.DEFAULT_MAX_QUEUED, Duration.ofSeconds(30)));
+    }
+
+    public Shards(List<? extends DataSource> nodes, ShardMap map, DaoExecutor executor) {
+        if (nodes.isEmpty() || nodes.size() != map.size())
+            throw new IllegalArgumentException("el mapa debe tener un shard por nodo");
+        this.nodes = Collections.unmodifiableList(new ArrayList<>(nodes));
+        this.map = map;
+        this.executor = executor;
+    }
+
+    public int size() { return nodes.size(); }
+    public DataSource node(int shard) { return nodes.get(shard); }
+    public List<DataSource> getNodes() { return nodes; }
+    public ShardMap getMap() { return map; }
+
+    /** call(s) en todos los shards a la vez; resultados por número de shard. Si uno falla, se relanza su error. */
+    public <T> List<T> scatter(IntFunction<T> call) {
+        if (nodes.size() == 1) return Collections.singletonList(call.apply(0));
+        List<CompletableFuture<T>> futures = new ArrayList<>(nodes.size());
+        for (int s = 0; s < nodes.size(); s++) {
+            int shard = s;
+            futures.add(executor.submit(() -> call.apply(shard)));
+        }
+        List<T> results = new ArrayList<>(futures.size());
+        for (CompletableFuture<T> f : futures) {
+            try {
+                results.add(f.join());
+            } catch (CompletionException e) {
+                futures.forEach(other -> other.cancel(true));
+                if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+                throw e;
+            }
+        }
+        return results;
+    }
+
+    /** Une listas ya ordenadas por 'order' en una sola, con a lo más 'limit' elementos. */
+    public static <T> List<T> merge(List<List<T>> sorted, Comparator<? super T> order, int limit) {
+        List<Iterator<T>> its = new ArrayList<>(sorted.size());
+        int total = 0;
+        for (List<T> l : sorted) {
+            its.add(l.iterator());
+            total += l.size();
+        }
+        List<T> out = new ArrayList<>(Math.min(total, limit));
+        Iterator<T> merged = new MergeIterator<>(its, order);
+        while (out.size() < limit && merged.hasNext()) out.add(merged.next());
+        return out;
+    }
+
+    /** Une Streams ya ordenados; cerrar el resultado cierra todos (y sus conexiones). */
+    public static <T> Stream<T> merge(List<Stream<T>> sorted, Comparator<? super T> order) {
+        List<Iterator<T>> its = new ArrayList<>(sorted.size());
+        for (Stream<T> s : sorted) its.add(s.iterator());
+        Stream<T> merged = StreamSupport.stream(Spliterators.spliteratorUnknownSize(
+                new MergeIterator<>(its, order), Spliterator.ORDERED | Spliterator.NONNULL), false);
+        return merged.onClose(() -> {
+            RuntimeException first = null;
+            for (Stream<T> s : sorted) {
+                try {
+                    s.close();
+                } catch (RuntimeException e) {
+                    if (first == null) first = e;
+                }
+            }
+            if (first != null) throw first;
+        });
+    }
+
+    @Override
+    public void close() {
+        executor.close();
+    }
+
+    // Mezcla k-way: un montículo con la cabeza de cada fuente
+    private static final class MergeIterator<T> implements Iterator<T> {
+        private final PriorityQueue<Head<T>> heads;
+
+        MergeIterator(List<Iterator<T>> sources, Comparator<? super T> order) {
+            this.heads = new PriorityQueue<>(Math.max(1, sources.size()), (a, b) -> order.compare(a.value, b.value));
+            for (Iterator<T> it : sources) if (it.hasNext()) heads.add(new Head<>(it.next(), it));
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !heads.isEmpty();
+        }
+
+        @Override
+        public T next() {
+            Head<T> h = heads.poll();
+            if (h == null) throw new NoSuchElementException();
+            T value = h.value;
+            if (h.source.hasNext()) {
+                h.value = h.source.next();
+                heads.add(h);
+            }
+            return value;
+        }
+    }
+
+    private static final class Head<T> {
+        T value;
+        final Iterator<T> source;
+
+        Head(T value, Iterator<T> source) {
+            this.value = value;
+            this.source = source;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+-- Diario append-only de movimientos (BankAccountDaoJdbc(true) / BankAccountDaoGroupCommit).
+-- Ejecutar una vez sobre la BD BANCO.
+CREATE TABLE IF NOT EXISTS AccountMovement (
+    id            BIGINT AUTO_INCREMENT PRIMARY KEY,
+    accountNumber VARCHAR(20)   NOT NULL,
+    movementType  ENUM('DEPOSITO', 'RETIRO') NOT NULL,
+    amount        DECIMAL(15,2) NOT NULL,
+    balanceAfter  DECIMAL(15,2) NOT NULL,
+    createdAt     TIMESTAMP(6)  NOT NULL,
+    INDEX idx_movement_account (accountNumber, id)
+) ENGINE = InnoDB;
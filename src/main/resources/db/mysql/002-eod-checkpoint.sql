@@ -0,0 +1,12 @@
+-- Avance del cierre diario de intereses (EndOfDayJob).
+-- Cada fila es un rango de ids (rangeStart < id <= rangeEnd) ya aplicado en la fecha runDate;
+-- se inserta en la misma transacción que los saldos, así un cierre caído se retoma sin duplicar.
+-- Ejecutar una vez sobre la BD BANCO.
+CREATE TABLE IF NOT EXISTS EodCheckpoint (
+    runDate    DATE         NOT NULL,
+    rangeStart INT          NOT NULL,
+    rangeEnd   INT          NOT NULL,
+    accounts   INT          NOT NULL,
+    finishedAt TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (runDate, rangeStart)
+) ENGINE = InnoDB;
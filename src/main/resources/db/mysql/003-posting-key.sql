@@ -0,0 +1,13 @@
+-- Claves de idempotencia de deposit/withdraw (IdempotentPostingDAO).
+-- La fila se inserta en la misma transacción que el saldo: un reintento con la misma clave choca
+-- con la PK y recibe el saldo original en vez de aplicar el movimiento otra vez.
+-- Ejecutar una vez sobre la BD BANCO; purgar las viejas con BankAccountDaoJdbc.purgePostingKeys.
+CREATE TABLE IF NOT EXISTS PostingKey (
+    idempotencyKey VARCHAR(64)   NOT NULL PRIMARY KEY,
+    accountNumber  VARCHAR(20)   NOT NULL,
+    movementType   ENUM('DEPOSITO', 'RETIRO') NOT NULL,
+    amount         DECIMAL(15,2) NOT NULL,
+    balanceAfter   DECIMAL(15,2) NOT NULL,
+    createdAt      TIMESTAMP(6)  NOT NULL,
+    INDEX idx_posting_key_created (createdAt)
+) ENGINE = InnoDB;
@@ -0,0 +1,15 @@
+-- Tipos de cambio: 1 fromCurrency = rate toCurrency. La aplicación los lee con FxRateCache
+-- (en memoria, refresco periódico); basta con un par por moneda, el inverso se calcula.
+-- Ejecutar una vez sobre la BD BANCO.
+CREATE TABLE IF NOT EXISTS FxRate (
+    fromCurrency ENUM('PEN', 'USD') NOT NULL,
+    toCurrency   ENUM('PEN', 'USD') NOT NULL,
+    rate         DECIMAL(18,8) NOT NULL,
+    updatedAt    TIMESTAMP(6)  NOT NULL,
+    PRIMARY KEY (fromCurrency, toCurrency)
+) ENGINE = InnoDB;
+
+-- Posición consolidada: SUM(balance) ... WHERE client_id = ? GROUP BY currency
+-- Sin balance en el índice: cada depósito/retiro tendría que mover también la entrada del índice,
+-- y las pocas cuentas de un cliente se leen igual de rápido desde la fila.
+CREATE INDEX idx_account_client_currency ON BankAccount(client_id, currency);
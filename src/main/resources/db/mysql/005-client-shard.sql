@@ -0,0 +1,10 @@
+-- Particionado por cliente (org.example.shard). Ejecutar una vez en CADA shard, con s = número del shard (0, 1, ...).
+-- Cada shard genera los ids de Client en su propio rango (ShardMap.ID_RANGE = 100000000); ClientDaoSharded
+-- los toma de ClientIdSeq (008-client-id-seq.sql). Para altas que no pasen por él:
+--   ALTER TABLE Client AUTO_INCREMENT = s * 100000000 + 1;
+-- Clientes que Resharder trajo a este shard desde otro (ShardMap.load las lee al arrancar).
+CREATE TABLE IF NOT EXISTS ClientShard (
+    clientId INT          NOT NULL PRIMARY KEY,
+    shard    INT          NOT NULL,
+    movedAt  TIMESTAMP(6) NOT NULL
+) ENGINE = InnoDB;
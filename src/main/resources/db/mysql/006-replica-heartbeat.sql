@@ -0,0 +1,7 @@
+-- Latido de replicación: ReplicaSet escribe (id = 1, seq, beatMillis) en el primario cada pocos ms y lo lee
+-- en cada réplica; la diferencia es el retraso. Ejecutar una vez en el primario (llega a las réplicas solo).
+CREATE TABLE IF NOT EXISTS ReplicaHeartbeat (
+    id         INT    NOT NULL PRIMARY KEY,
+    seq        BIGINT NOT NULL,
+    beatMillis BIGINT NOT NULL
+) ENGINE = InnoDB;
@@ -0,0 +1,4 @@
+-- Versión de la fila de BankAccount: todo UPDATE de saldo hace version = version + 1.
+-- BankAccountDaoJdbc.updateBalance / transfer actualizan con WHERE ... AND version = ? (sin SELECT ... FOR UPDATE).
+-- Ejecutar una vez sobre la BD BANCO.
+ALTER TABLE BankAccount ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,8 @@
+-- Particionado por cliente: ejecutar en CADA shard.
+-- Los ids de Client de un shard salen de aquí y no del AUTO_INCREMENT: Resharder inserta clientes
+-- movidos con su id original (de otro rango) y en InnoDB eso sube el AUTO_INCREMENT sin vuelta atrás.
+-- La fila se crea sola (MAX(id) del rango del shard + 1) la primera vez que ClientDaoSharded pide ids.
+CREATE TABLE IF NOT EXISTS ClientIdSeq (
+    id     INT NOT NULL PRIMARY KEY,
+    nextId INT NOT NULL
+) ENGINE = InnoDB;
@@ -0,0 +1,97 @@
+-- Esquema BANCO para la base embebida (H2 en modo MySQL): tests y benchmarks.
+-- Idempotente: H2 lo ejecuta en cada conexión (INIT=RUNSCRIPT).
+-- En MySQL el accountNumber lo genera un trigger; aquí lo emula el DEFAULT con una secuencia.
+
+CREATE TABLE IF NOT EXISTS Client (
+    id          INT AUTO_INCREMENT PRIMARY KEY,
+    firstName   VARCHAR(60),
+    lastName    VARCHAR(60),
+    dni         VARCHAR(15)  NOT NULL UNIQUE,
+    email       VARCHAR(120),
+    phoneNumber VARCHAR(20),
+    birthDate   DATE,
+    address     VARCHAR(200)
+);
+
+CREATE SEQUENCE IF NOT EXISTS account_number_seq START WITH 1;
+
+CREATE TABLE IF NOT EXISTS BankAccount (
+    id             INT AUTO_INCREMENT PRIMARY KEY,
+    accountNumber  VARCHAR(20)
+                   DEFAULT ('1910' || LPAD(CAST(NEXT VALUE FOR account_number_seq AS VARCHAR), 10, '0'))
+                   NOT NULL UNIQUE,
+    balance        DECIMAL(15,2) NOT NULL DEFAULT 0,
+    accountType    VARCHAR(10)   NOT NULL CHECK (accountType IN ('AHORRO', 'CORRIENTE')),
+    currency       VARCHAR(3)    NOT NULL CHECK (currency IN ('PEN', 'USD')),
+    creationDate   DATE          NOT NULL,
+    overdraftLimit DECIMAL(15,2) DEFAULT 0,
+    client_id      INT           NOT NULL,
+    version        BIGINT        NOT NULL DEFAULT 0,
+    CONSTRAINT fk_account_client FOREIGN KEY (client_id) REFERENCES Client(id) ON DELETE CASCADE,
+    CONSTRAINT chk_ahorro_no_negativo CHECK (accountType <> 'AHORRO' OR balance >= 0)
+);
+
+CREATE INDEX IF NOT EXISTS idx_account_client ON BankAccount(client_id);
+
+-- Diario append-only de movimientos (ver db/mysql/001-account-movement.sql)
+CREATE TABLE IF NOT EXISTS AccountMovement (
+    id            BIGINT AUTO_INCREMENT PRIMARY KEY,
+    accountNumber VARCHAR(20)   NOT NULL,
+    movementType  VARCHAR(10)   NOT NULL,
+    amount        DECIMAL(15,2) NOT NULL,
+    balanceAfter  DECIMAL(15,2) NOT NULL,
+    createdAt     TIMESTAMP(6)  NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_movement_account ON AccountMovement(accountNumber, id);
+
+-- Avance del cierre diario (EndOfDayJob): un rango de ids terminado por fila (ver db/mysql/002-eod-checkpoint.sql)
+CREATE TABLE IF NOT EXISTS EodCheckpoint (
+    runDate    DATE         NOT NULL,
+    rangeStart INT          NOT NULL,
+    rangeEnd   INT          NOT NULL,
+    accounts   INT          NOT NULL,
+    finishedAt TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (runDate, rangeStart)
+);
+
+-- Claves de idempotencia de deposit/withdraw (ver db/mysql/003-posting-key.sql)
+CREATE TABLE IF NOT EXISTS PostingKey (
+    idempotencyKey VARCHAR(64)   NOT NULL PRIMARY KEY,
+    accountNumber  VARCHAR(20)   NOT NULL,
+    movementType   VARCHAR(10)   NOT NULL,
+    amount         DECIMAL(15,2) NOT NULL,
+    balanceAfter   DECIMAL(15,2) NOT NULL,
+    createdAt      TIMESTAMP(6)  NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_posting_key_created ON PostingKey(createdAt);
+
+-- Tipos de cambio (ver db/mysql/004-fx-rate.sql): 1 fromCurrency = rate toCurrency
+CREATE TABLE IF NOT EXISTS FxRate (
+    fromCurrency VARCHAR(3)    NOT NULL,
+    toCurrency   VARCHAR(3)    NOT NULL,
+    rate         DECIMAL(18,8) NOT NULL,
+    updatedAt    TIMESTAMP(6)  NOT NULL,
+    PRIMARY KEY (fromCurrency, toCurrency)
+);
+
+-- Clientes movidos de su shard de origen por Resharder (ver db/mysql/005-client-shard.sql)
+CREATE TABLE IF NOT EXISTS ClientShard (
+    clientId INT          NOT NULL PRIMARY KEY,
+    shard    INT          NOT NULL,
+    movedAt  TIMESTAMP(6) NOT NULL
+);
+
+-- Próximo id de Client del shard (ClientIdSequence; ver db/mysql/008-client-id-seq.sql)
+CREATE TABLE IF NOT EXISTS ClientIdSeq (
+    id     INT NOT NULL PRIMARY KEY,
+    nextId INT NOT NULL
+);
+
+-- Latido que ReplicaSet escribe en el primario para medir el retraso de las réplicas (ver db/mysql/006-replica-heartbeat.sql)
+CREATE TABLE IF NOT EXISTS ReplicaHeartbeat (
+    id         INT    NOT NULL PRIMARY KEY,
+    seq        BIGINT NOT NULL,
+    beatMillis BIGINT NOT NULL
+);
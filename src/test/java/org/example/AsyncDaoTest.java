@@ -0,0 +1,157 @@
+package org.example;
+
+import org.example.dao.AccountNotFoundException;
+import org.example.dao.AsyncBankAccountDAO;
+import org.example.dao.AsyncClientDAO;
+import org.example.dao.BankAccountDaoJdbc;
+import org.example.dao.ClientDaoJdbc;
+import org.example.dao.DaoExecutor;
+import org.example.db.DB;
+import org.example.db.EmbeddedDatabase;
+import org.example.db.PoolProfile;
+import org.example.model.AccountType;
+import org.example.model.BankAccount;
+import org.example.model.Client;
+import org.example.model.Currency;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncDaoTest {
+
+    @BeforeAll
+    static void startDb() {
+        EmbeddedDatabase.start("async", PoolProfile.OLTP);
+    }
+
+    @AfterAll
+    static void stopDb() {
+        DB.shutdown();
+    }
+
+    @Test
+    void testConcurrencyNeverExceedsLimit() throws Exception {
+        AtomicInteger inside = new AtomicInteger();
+        AtomicInteger max = new AtomicInteger();
+        try (DaoExecutor executor = new DaoExecutor(4, 10_000, Duration.ofSeconds(10))) {
+            List<CompletableFuture<Integer>> calls = new ArrayList<>();
+            for (int i = 0; i < 2_000; i++) {
+                calls.add(executor.submit(() -> {
+                    max.accumulateAndGet(inside.incrementAndGet(), Math::max);
+                    Thread.sleep(0, 100_000);
+                    return inside.decrementAndGet();
+                }));
+            }
+            CompletableFuture.allOf(calls.toArray(new CompletableFuture[0])).get(30, TimeUnit.SECONDS);
+            assertTrue(max.get() <= 4, "max concurrente = " + max.get());
+            // las estadísticas se cuentan en un callback que puede correr justo después de allOf
+            for (int i = 0; i < 100 && executor.getCompleted() < 2_000; i++) Thread.sleep(10);
+            assertEquals(2_000, executor.getCompleted());
+        }
+    }
+
+    @Test
+    void testTimeoutInterruptsRunningCall() throws Exception {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        try (DaoExecutor executor = new DaoExecutor(1, 10, Duration.ofSeconds(10))) {
+            CompletableFuture<Object> slow = executor.submit(() -> {
+                try {
+                    Thread.sleep(60_000);
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+                return null;
+            }, Duration.ofMillis(50));
+            CompletableFuture<String> queued = executor.submit(() -> "nunca");
+            queued.cancel(true);
+
+            ExecutionException e = assertThrows(ExecutionException.class, () -> slow.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(TimeoutException.class, e.getCause());
+            assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+            assertEquals(1, executor.getTimedOut());
+            assertEquals(1, executor.getCancelled());
+            assertEquals("ok", executor.submit(() -> "ok").get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void testTimeoutCancelsStatementWaitingOnDb() throws Exception {
+        Client c = new ClientDaoJdbc().save(new Client("5" + System.nanoTime() % 10_000_000, "Sol", "Vega",
+                null, null, LocalDate.of(1989, 9, 9), null));
+        BankAccount a = new BankAccount();
+        a.setAccountType(AccountType.AHORRO);
+        a.setCurrency(Currency.PEN);
+        a.setClientId(c.getId());
+        String acc = new BankAccountDaoJdbc().openAccount(a).getAccountNumber();
+
+        try (DaoExecutor executor = new DaoExecutor(1, 10, Duration.ofSeconds(10));
+             Connection holder = DB.getConnection()) {
+            // otra transacción tiene la fila bloqueada: el UPDATE espera hasta LOCK_TIMEOUT (5 s)
+            holder.setAutoCommit(false);
+            try (PreparedStatement ps = holder.prepareStatement(
+                    "UPDATE BankAccount SET balance = balance WHERE accountNumber = ?")) {
+                ps.setString(1, acc);
+                ps.executeUpdate();
+            }
+            AsyncBankAccountDAO accounts = new AsyncBankAccountDAO(new BankAccountDaoJdbc(), executor);
+            long t0 = System.nanoTime();
+            // la llamada se traga la interrupción, como un driver bloqueado en el socket: sólo el
+            // plazo que TimedJdbc lleva a la sentencia impide que espere el LOCK_TIMEOUT entero
+            CompletableFuture<BigDecimal> blocked = executor.submit(() -> {
+                long until = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(400);
+                while (System.nanoTime() < until) Thread.interrupted();
+                return new BankAccountDaoJdbc().deposit(acc, BigDecimal.ONE);
+            }, Duration.ofMillis(200));
+            ExecutionException e = assertThrows(ExecutionException.class, () -> blocked.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(TimeoutException.class, e.getCause());
+
+            // la sentencia se cancela en la BD: el hilo queda libre mucho antes del LOCK_TIMEOUT
+            for (int i = 0; i < 300 && executor.getRunning() > 0; i++) Thread.sleep(10);
+            assertEquals(0, executor.getRunning());
+            assertTrue(System.nanoTime() - t0 < TimeUnit.SECONDS.toNanos(3));
+            holder.rollback();
+            assertEquals(new BigDecimal("0.00"), accounts.getBalance(acc).get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void testAsyncFacadeOverJdbc() throws Exception {
+        try (DaoExecutor executor = new DaoExecutor()) {
+            AsyncClientDAO clients = new AsyncClientDAO(new ClientDaoJdbc(), executor);
+            AsyncBankAccountDAO accounts = new AsyncBankAccountDAO(new BankAccountDaoJdbc(), executor);
+
+            Client c = clients.save(new Client("5" + System.nanoTime() % 10_000_000, "Luz", "Paredes",
+                    null, null, LocalDate.of(1990, 1, 5), null)).get(5, TimeUnit.SECONDS);
+            BankAccount a = new BankAccount();
+            a.setAccountType(AccountType.AHORRO);
+            a.setCurrency(Currency.PEN);
+            a.setClientId(c.getId());
+            String acc = accounts.openAccount(a).get(5, TimeUnit.SECONDS).getAccountNumber();
+
+            List<CompletableFuture<BigDecimal>> deposits = new ArrayList<>();
+            for (int i = 0; i < 200; i++) deposits.add(accounts.deposit(acc, new BigDecimal("1.00")));
+            CompletableFuture.allOf(deposits.toArray(new CompletableFuture[0])).get(30, TimeUnit.SECONDS);
+            assertEquals(new BigDecimal("200.00"), accounts.getBalance(acc).get(5, TimeUnit.SECONDS));
+
+            ExecutionException e = assertThrows(ExecutionException.class,
+                    () -> accounts.getBalance("no-existe").get(5, TimeUnit.SECONDS));
+            assertInstanceOf(AccountNotFoundException.class, e.getCause());
+        }
+    }
+}
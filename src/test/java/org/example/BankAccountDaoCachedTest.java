@@ -0,0 +1,133 @@
+package org.example;
+
+import org.example.dao.BankAccountDaoCached;
+import org.example.dao.BankAccountDaoJdbc;
+import org.example.dao.ClientDaoJdbc;
+import org.example.db.DB;
+import org.example.db.EmbeddedDatabase;
+import org.example.db.PoolProfile;
+import org.example.model.AccountType;
+import org.example.model.BankAccount;
+import org.example.model.Client;
+import org.example.model.Currency;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BankAccountDaoCachedTest {
+
+    private static final AtomicInteger DNI = new AtomicInteger(48_000_000);
+
+    @BeforeAll
+    static void startDb() {
+        EmbeddedDatabase.start("cached", PoolProfile.OLTP);
+    }
+
+    @AfterAll
+    static void stopDb() {
+        DB.shutdown();
+    }
+
+    private static String open(String balance) {
+        Client c = new ClientDaoJdbc().save(new Client(String.valueOf(DNI.incrementAndGet()), "Ana", "Ruiz",
+                null, null, LocalDate.of(1991, 7, 2), null));
+        BankAccount a = new BankAccount();
+        a.setAccountType(AccountType.AHORRO);
+        a.setCurrency(Currency.PEN);
+        a.setBalance(new BigDecimal(balance));
+        a.setClientId(c.getId());
+        return new BankAccountDaoJdbc().openAccount(a).getAccountNumber();
+    }
+
+    // Delegado que se detiene después de leer/escribir en la BD hasta que el test lo suelte
+    private static final class Paused extends BankAccountDaoJdbc {
+        final CountDownLatch reached = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        volatile boolean pauseRead;
+        volatile boolean pauseWrite;
+
+        @Override
+        public BigDecimal getBalance(String accountNumber) {
+            BigDecimal b = super.getBalance(accountNumber);
+            if (pauseRead) pause();
+            return b;
+        }
+
+        @Override
+        public BigDecimal deposit(String accountNumber, BigDecimal amount) {
+            BigDecimal b = super.deposit(accountNumber, amount);
+            if (pauseWrite) pause();
+            return b;
+        }
+
+        private void pause() {
+            pauseRead = pauseWrite = false;
+            reached.countDown();
+            try {
+                assertTrue(release.await(5, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    @Test
+    void testSlowReadDoesNotOverwriteNewerWrite() throws Exception {
+        String acc = open("100.00");
+        Paused db = new Paused();
+        BankAccountDaoCached cached = new BankAccountDaoCached(db);
+
+        db.pauseRead = true;
+        CompletableFuture<BigDecimal> read = CompletableFuture.supplyAsync(() -> cached.getBalance(acc));
+        assertTrue(db.reached.await(5, TimeUnit.SECONDS));   // ya leyó 100.00 de la BD
+        assertEquals(new BigDecimal("150.00"), cached.deposit(acc, new BigDecimal("50.00")));
+        db.release.countDown();
+        assertEquals(new BigDecimal("100.00"), read.get(5, TimeUnit.SECONDS));
+
+        assertEquals(new BigDecimal("150.00"), cached.getBalance(acc));
+    }
+
+    @Test
+    void testWritesLandingOutOfOrderDoNotLeaveOlderBalance() throws Exception {
+        String acc = open("100.00");
+        Paused db = new Paused();
+        BankAccountDaoCached cached = new BankAccountDaoCached(db);
+
+        db.pauseWrite = true;
+        CompletableFuture<BigDecimal> first = CompletableFuture.supplyAsync(() -> cached.deposit(acc, new BigDecimal("10.00")));
+        assertTrue(db.reached.await(5, TimeUnit.SECONDS));   // 110.00 ya en la BD, aún no en la cache
+        assertEquals(new BigDecimal("130.00"), cached.deposit(acc, new BigDecimal("20.00")));
+        db.release.countDown();
+        assertEquals(new BigDecimal("110.00"), first.get(5, TimeUnit.SECONDS));
+
+        assertEquals(new BigDecimal("130.00"), cached.getBalance(acc));
+        assertEquals(new BigDecimal("130.00"), cached.findByAccountNumber(acc).orElseThrow().getBalance());
+    }
+
+    @Test
+    void testCachedAccountKeepsRowVersion() {
+        String acc = open("100.00");
+        BankAccountDaoJdbc db = new BankAccountDaoJdbc();
+        BankAccountDaoCached cached = new BankAccountDaoCached(db);
+
+        BankAccount first = cached.findByAccountNumber(acc).orElseThrow();
+        assertEquals(0L, first.getVersion());
+        assertEquals(0L, cached.findByAccountNumber(acc).orElseThrow().getVersion());   // de la cache
+
+        // tras una escritura la versión cacheada ya no sirve: se vuelve a leer la fila
+        cached.deposit(acc, new BigDecimal("5.00"));
+        BankAccount current = cached.findByAccountNumber(acc).orElseThrow();
+        assertEquals(1L, current.getVersion());
+        assertTrue(db.isCurrent(current));
+        assertTrue(db.compareAndSetBalance(current, new BigDecimal("90.00")));
+    }
+}
@@ -0,0 +1,94 @@
+package org.example;
+
+import org.example.dao.AccountNotFoundException;
+import org.example.dao.BankAccountDaoCombining;
+import org.example.dao.BankAccountDaoJdbc;
+import org.example.dao.ClientDaoJdbc;
+import org.example.dao.InsufficientFundsException;
+import org.example.db.DB;
+import org.example.db.EmbeddedDatabase;
+import org.example.db.PoolProfile;
+import org.example.model.AccountType;
+import org.example.model.BankAccount;
+import org.example.model.Client;
+import org.example.model.Currency;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BankAccountDaoCombiningTest {
+
+    @BeforeAll
+    static void startDb() {
+        EmbeddedDatabase.start("combining", PoolProfile.OLTP);
+    }
+
+    @AfterAll
+    static void stopDb() {
+        DB.shutdown();
+    }
+
+    private static String openSavings() {
+        Client c = new ClientDaoJdbc().save(new Client("9" + System.nanoTime() % 10_000_000, "Raúl", "Vega",
+                null, null, LocalDate.of(1980, 2, 2), null));
+        BankAccount a = new BankAccount();
+        a.setAccountType(AccountType.AHORRO);
+        a.setCurrency(Currency.PEN);
+        a.setClientId(c.getId());
+        return new BankAccountDaoJdbc(true).openAccount(a).getAccountNumber();
+    }
+
+    @Test
+    void testConcurrentDepositsEachGetTheirOwnBalance() throws Exception {
+        BankAccountDaoJdbc jdbc = new BankAccountDaoJdbc(true);
+        BankAccountDaoCombining dao = new BankAccountDaoCombining(jdbc);
+        String acc = openSavings();
+        int threads = 16, perThread = 50;
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<List<BigDecimal>>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(pool.submit(() -> {
+                List<BigDecimal> seen = new ArrayList<>();
+                for (int i = 0; i < perThread; i++) seen.add(dao.deposit(acc, new BigDecimal("1.00")));
+                return seen;
+            }));
+        }
+        Set<BigDecimal> balances = new TreeSet<>();
+        for (Future<List<BigDecimal>> f : futures) balances.addAll(f.get());
+        pool.shutdown();
+
+        int total = threads * perThread;
+        // cada depósito vio un saldo distinto: 1.00, 2.00, ..., total
+        assertEquals(total, balances.size());
+        assertEquals(new BigDecimal(total + ".00"), ((TreeSet<BigDecimal>) balances).last());
+        assertEquals(new BigDecimal(total + ".00"), jdbc.getBalance(acc));
+        assertEquals(total, dao.getDeposits());
+        assertEquals(total, jdbc.findMovements(acc, 0, total + 1).size());
+        assertTrue(dao.getBatches() <= total);
+    }
+
+    @Test
+    void testWithdrawKeepsRulesAndErrorsReachTheirCaller() {
+        BankAccountDaoCombining dao = new BankAccountDaoCombining(new BankAccountDaoJdbc());
+        String acc = openSavings();
+        assertEquals(new BigDecimal("10.00"), dao.deposit(acc, new BigDecimal("10.00")));
+        assertThrows(InsufficientFundsException.class, () -> dao.withdraw(acc, new BigDecimal("10.01")));
+        assertEquals(new BigDecimal("0.00"), dao.withdraw(acc, new BigDecimal("10.00")));
+        assertThrows(AccountNotFoundException.class, () -> dao.deposit("NO-EXISTE", BigDecimal.ONE));
+        assertThrows(IllegalArgumentException.class, () -> dao.deposit(acc, new BigDecimal("0.001")));
+        assertThrows(IllegalArgumentException.class, () -> dao.deposit(acc, BigDecimal.ZERO));
+    }
+}
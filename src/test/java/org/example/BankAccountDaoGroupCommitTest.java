@@ -0,0 +1,138 @@
+package org.example;
+
+import org.example.dao.BankAccountDaoGroupCommit;
+import org.example.dao.BankAccountDaoJdbc;
+import org.example.dao.ClientDaoJdbc;
+import org.example.dao.InsufficientFundsException;
+import org.example.dao.PostingResult;
+import org.example.db.DB;
+import org.example.db.EmbeddedDatabase;
+import org.example.db.PoolProfile;
+import org.example.model.AccountMovement;
+import org.example.model.AccountType;
+import org.example.model.BankAccount;
+import org.example.model.Client;
+import org.example.model.Currency;
+import org.example.model.Movement;
+import org.example.model.MovementType;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BankAccountDaoGroupCommitTest {
+
+    private final BankAccountDaoJdbc journaled = new BankAccountDaoJdbc(true);
+
+    @BeforeAll
+    static void startDb() {
+        EmbeddedDatabase.start("journal", PoolProfile.OLTP);
+    }
+
+    @AfterAll
+    static void stopDb() {
+        DB.shutdown();
+    }
+
+    private String openAhorro() {
+        Client c = new ClientDaoJdbc().save(new Client("8" + System.nanoTime() % 10_000_000, "Rosa", "Santos",
+                null, null, LocalDate.of(1998, 3, 21), null));
+        BankAccount a = new BankAccount();
+        a.setAccountType(AccountType.AHORRO);
+        a.setCurrency(Currency.PEN);
+        a.setClientId(c.getId());
+        return journaled.openAccount(a).getAccountNumber();
+    }
+
+    @Test
+    void testJournalRecordsEveryMovement() {
+        String acc = openAhorro();
+        journaled.deposit(acc, new BigDecimal("50.00"));
+        journaled.withdraw(acc, new BigDecimal("20.00"));
+
+        List<AccountMovement> history = journaled.findMovements(acc, 0, 10);
+        assertEquals(2, history.size());
+        assertEquals(MovementType.DEPOSITO, history.get(0).getType());
+        assertEquals(new BigDecimal("30.00"), history.get(1).getBalanceAfter());
+    }
+
+    @Test
+    void testConcurrentMovementsShareCommits() throws Exception {
+        String acc = openAhorro();
+        int threads = 8, perThread = 25;
+        try (BankAccountDaoGroupCommit dao = new BankAccountDaoGroupCommit(journaled, Duration.ofMillis(5), 64)) {
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < perThread; i++) dao.deposit(acc, BigDecimal.ONE);
+                }));
+            }
+            for (Future<?> f : futures) f.get();
+            pool.shutdown();
+
+            assertEquals(new BigDecimal("200.00"), dao.getBalance(acc));
+            assertEquals(threads * perThread, dao.getMovements());
+            assertTrue(dao.getGroups() < threads * perThread);
+            assertThrows(InsufficientFundsException.class, () -> dao.withdraw(acc, new BigDecimal("1000.00")));
+        }
+        assertEquals(200, journaled.findMovements(acc, 0, 1000).size());
+    }
+
+    @Test
+    void testCountersIncludeGroupBeforeCallerReturns() {
+        String acc = openAhorro();
+        try (BankAccountDaoGroupCommit dao = new BankAccountDaoGroupCommit(journaled, Duration.ofMillis(1), 64)) {
+            for (int i = 1; i <= 50; i++) {
+                dao.deposit(acc, BigDecimal.ONE);
+                // sin hilos concurrentes cada depósito es su propio grupo, ya contado al volver
+                assertEquals(i, dao.getMovements());
+                assertEquals(i, dao.getGroups());
+            }
+        }
+    }
+
+    @Test
+    void testCloseRacingSubmitCompletesEveryAcceptedMovement() throws Exception {
+        String acc = openAhorro();
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            for (int round = 0; round < 20; round++) {
+                BankAccountDaoGroupCommit dao = new BankAccountDaoGroupCommit(journaled, Duration.ofMillis(1), 64);
+                List<Future<List<CompletableFuture<PostingResult>>>> submitters = new ArrayList<>();
+                for (int t = 0; t < 4; t++) {
+                    submitters.add(pool.submit(() -> {
+                        List<CompletableFuture<PostingResult>> accepted = new ArrayList<>();
+                        try {
+                            for (int i = 0; i < 200; i++) accepted.add(dao.submit(Movement.deposit(acc, BigDecimal.ONE)));
+                        } catch (IllegalStateException closed) {
+                            // cerrado mientras se encolaba: lo ya aceptado debe completarse igual
+                        }
+                        return accepted;
+                    }));
+                }
+                dao.close();
+                for (Future<List<CompletableFuture<PostingResult>>> s : submitters) {
+                    for (CompletableFuture<PostingResult> f : s.get()) {
+                        assertTrue(f.get(5, TimeUnit.SECONDS).isAccepted());
+                    }
+                }
+                assertThrows(IllegalStateException.class, () -> dao.submit(Movement.deposit(acc, BigDecimal.ONE)));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
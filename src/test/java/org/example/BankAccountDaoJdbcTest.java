@@ -0,0 +1,157 @@
+package org.example;
+
+import org.example.dao.AccountNotFoundException;
+import org.example.dao.BankAccountDAO;
+import org.example.dao.BankAccountDaoJdbc;
+import org.example.dao.ClientDAO;
+import org.example.dao.ClientDaoJdbc;
+import org.example.dao.InsufficientFundsException;
+import org.example.dao.PostingResult;
+import org.example.db.DB;
+import org.example.db.EmbeddedDatabase;
+import org.example.db.PoolProfile;
+import org.example.model.*;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BankAccountDaoJdbcTest {
+
+    private static final AtomicInteger DNI = new AtomicInteger(40_000_000);
+
+    private final ClientDAO clientDao = new ClientDaoJdbc();
+    private final BankAccountDAO accDao = new BankAccountDaoJdbc();
+
+    @BeforeAll
+    static void startDb() {
+        EmbeddedDatabase.start("accounts", PoolProfile.OLTP);
+    }
+
+    @AfterAll
+    static void stopDb() {
+        DB.shutdown();
+    }
+
+    private BankAccount open(AccountType type, Currency currency, String balance, String overdraft) {
+        Client c = clientDao.save(new Client(String.valueOf(DNI.incrementAndGet()), "Rosa", "Santos",
+                "rosa@mail.com", "987654321", LocalDate.of(1998, 3, 21), "Av. Primavera 123"));
+        BankAccount a = new BankAccount();
+        a.setAccountType(type);
+        a.setCurrency(currency);
+        a.setBalance(new BigDecimal(balance));
+        a.setOverdraftLimit(new BigDecimal(overdraft));
+        a.setClientId(c.getId());
+        return accDao.openAccount(a);
+    }
+
+    @Test
+    void testOpenAccountReturnsGeneratedNumber() {
+        BankAccount a = open(AccountType.AHORRO, Currency.PEN, "0.00", "0.00");
+        assertNotNull(a.getId());
+        assertNotNull(a.getAccountNumber());
+        assertEquals(a.getAccountNumber(), accDao.findByAccountNumber(a.getAccountNumber()).orElseThrow().getAccountNumber());
+    }
+
+    @Test
+    void testDepositAndWithdrawReturnNewBalance() {
+        BankAccount a = open(AccountType.AHORRO, Currency.PEN, "0.00", "0.00");
+        assertEquals(new BigDecimal("300.00"), accDao.deposit(a.getAccountNumber(), new BigDecimal("300.00")));
+        assertEquals(new BigDecimal("250.00"), accDao.withdraw(a.getAccountNumber(), new BigDecimal("50.00")));
+        assertThrows(InsufficientFundsException.class,
+                () -> accDao.withdraw(a.getAccountNumber(), new BigDecimal("300.00")));
+        assertEquals(new BigDecimal("250.00"), accDao.getBalance(a.getAccountNumber()));
+    }
+
+    @Test
+    void testCorrienteRespectsOverdraft() {
+        BankAccount a = open(AccountType.CORRIENTE, Currency.USD, "200.00", "500.00");
+        assertEquals(new BigDecimal("-400.00"), accDao.withdraw(a.getAccountNumber(), new BigDecimal("600.00")));
+        assertThrows(InsufficientFundsException.class,
+                () -> accDao.withdraw(a.getAccountNumber(), new BigDecimal("100.01")));
+    }
+
+    @Test
+    void testMissingAccount() {
+        assertThrows(AccountNotFoundException.class, () -> accDao.deposit("no-existe", BigDecimal.TEN));
+        assertThrows(AccountNotFoundException.class, () -> accDao.withdraw("no-existe", BigDecimal.TEN));
+    }
+
+    @Test
+    void testTransferMovesMoneyAndChecksRules() {
+        BankAccount from = open(AccountType.AHORRO, Currency.PEN, "100.00", "0.00");
+        BankAccount to = open(AccountType.AHORRO, Currency.PEN, "0.00", "0.00");
+        accDao.transfer(from.getAccountNumber(), to.getAccountNumber(), new BigDecimal("60.00"));
+        assertEquals(new BigDecimal("40.00"), accDao.getBalance(from.getAccountNumber()));
+        assertEquals(new BigDecimal("60.00"), accDao.getBalance(to.getAccountNumber()));
+
+        assertThrows(InsufficientFundsException.class,
+                () -> accDao.transfer(from.getAccountNumber(), to.getAccountNumber(), new BigDecimal("41.00")));
+        BankAccount usd = open(AccountType.AHORRO, Currency.USD, "0.00", "0.00");
+        assertThrows(IllegalArgumentException.class,
+                () -> accDao.transfer(from.getAccountNumber(), usd.getAccountNumber(), BigDecimal.ONE));
+    }
+
+    @Test
+    void testPostAppliesRulesPerMovement() {
+        BankAccount a = open(AccountType.AHORRO, Currency.PEN, "10.00", "0.00");
+        List<PostingResult> results = accDao.post(List.of(
+                Movement.withdraw(a.getAccountNumber(), new BigDecimal("20.00")),   // rechazado
+                Movement.deposit(a.getAccountNumber(), new BigDecimal("15.00")),
+                Movement.withdraw(a.getAccountNumber(), new BigDecimal("20.00")),
+                Movement.deposit("no-existe", BigDecimal.ONE)));
+
+        assertFalse(results.get(0).isAccepted());
+        assertEquals(new BigDecimal("25.00"), results.get(1).getBalanceAfter());
+        assertEquals(new BigDecimal("5.00"), results.get(2).getBalanceAfter());
+        assertFalse(results.get(3).isAccepted());
+        assertEquals(new BigDecimal("5.00"), accDao.getBalance(a.getAccountNumber()));
+    }
+
+    @Test
+    void testPostRejectsOverflowWithoutThrowingAfterCommit() {
+        String x = open(AccountType.AHORRO, Currency.PEN, "0.00", "0.00").getAccountNumber();
+        String y = open(AccountType.AHORRO, Currency.PEN, "0.00", "0.00").getAccountNumber();
+        String first = x.compareTo(y) < 0 ? x : y;   // los bloques van en orden de cuenta
+        String second = first.equals(x) ? y : x;
+        BigDecimal max = BigDecimal.valueOf(Long.MAX_VALUE, 2);
+
+        List<PostingResult> results = new BankAccountDaoJdbc().post(List.of(
+                Movement.deposit(first, new BigDecimal("10.00")),
+                Movement.deposit(second, new BigDecimal("1E+30")),
+                Movement.deposit(second, max),
+                Movement.deposit(second, max)), 1);
+
+        assertTrue(results.get(0).isAccepted());
+        assertEquals(PostingResult.Status.INVALID, results.get(1).getStatus());
+        assertFalse(results.get(2).isAccepted());
+        assertFalse(results.get(3).isAccepted());
+        assertEquals(new BigDecimal("10.00"), accDao.getBalance(first));
+        assertEquals(new BigDecimal("0.00"), accDao.getBalance(second));
+    }
+
+    @Test
+    void testPagingAndStreamingByClient() {
+        BankAccount first = open(AccountType.AHORRO, Currency.PEN, "0.00", "0.00");
+        for (int i = 0; i < 4; i++) {
+            BankAccount a = new BankAccount();
+            a.setAccountType(AccountType.AHORRO);
+            a.setCurrency(Currency.PEN);
+            a.setClientId(first.getClientId());
+            accDao.openAccount(a);
+        }
+        List<BankAccount> page1 = accDao.findByClientPage(first.getClientId(), 0, 3);
+        List<BankAccount> page2 = accDao.findByClientPage(first.getClientId(), page1.get(2).getId(), 3);
+        assertEquals(3, page1.size());
+        assertEquals(2, page2.size());
+        try (var s = accDao.streamByClient(first.getClientId())) {
+            assertEquals(5, s.count());
+        }
+    }
+}
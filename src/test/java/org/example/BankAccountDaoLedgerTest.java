@@ -0,0 +1,178 @@
+package org.example;
+
+import org.example.dao.BankAccountDaoJdbc;
+import org.example.dao.ClientDaoJdbc;
+import org.example.dao.InsufficientFundsException;
+import org.example.db.DB;
+import org.example.db.EmbeddedDatabase;
+import org.example.db.PoolProfile;
+import org.example.ledger.BankAccountDaoLedger;
+import org.example.model.AccountType;
+import org.example.model.BankAccount;
+import org.example.model.Client;
+import org.example.model.Currency;
+import org.example.model.Movement;
+import org.example.model.MovementType;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.sql.DataSource;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BankAccountDaoLedgerTest {
+
+    private final BankAccountDaoJdbc jdbc = new BankAccountDaoJdbc();
+
+    @BeforeAll
+    static void startDb() {
+        EmbeddedDatabase.start("ledger", PoolProfile.OLTP);
+    }
+
+    @AfterAll
+    static void stopDb() {
+        DB.shutdown();
+    }
+
+    private BankAccount open(AccountType type) {
+        Client c = new ClientDaoJdbc().save(new Client("7" + System.nanoTime() % 10_000_000, "Rosa", "Santos",
+                null, null, LocalDate.of(1998, 3, 21), null));
+        BankAccount a = new BankAccount();
+        a.setAccountType(type);
+        a.setCurrency(Currency.PEN);
+        a.setOverdraftLimit(new BigDecimal("500.00"));
+        a.setClientId(c.getId());
+        return jdbc.openAccount(a);
+    }
+
+    @Test
+    void testAcknowledgedMovementsSurviveRestart(@TempDir Path dir) {
+        String acc = open(AccountType.AHORRO).getAccountNumber();
+
+        // sin flush periódico: la BD no se entera hasta reiniciar
+        BankAccountDaoLedger ledger = new BankAccountDaoLedger(jdbc, dir, Duration.ofHours(1));
+        assertEquals(new BigDecimal("100.00"), ledger.deposit(acc, new BigDecimal("100.00")));
+        assertEquals(new BigDecimal("70.00"), ledger.withdraw(acc, new BigDecimal("30.00")));
+        assertThrows(InsufficientFundsException.class, () -> ledger.withdraw(acc, new BigDecimal("70.01")));
+        assertEquals(new BigDecimal("0.00"), jdbc.getBalance(acc));
+
+        // "caída": otra instancia sobre el mismo directorio reaplica el log en la BD
+        BankAccountDaoLedger restarted = new BankAccountDaoLedger(jdbc, dir, Duration.ofHours(1));
+        assertEquals(new BigDecimal("70.00"), jdbc.getBalance(acc));
+        assertEquals(new BigDecimal("70.00"), restarted.getBalance(acc));
+        restarted.close();
+    }
+
+    @Test
+    void testFlushWritesBalancesBehind(@TempDir Path dir) {
+        String from = open(AccountType.CORRIENTE).getAccountNumber();
+        String to = open(AccountType.AHORRO).getAccountNumber();
+        try (BankAccountDaoLedger ledger = new BankAccountDaoLedger(jdbc, dir, Duration.ofHours(1))) {
+            ledger.transfer(from, to, new BigDecimal("200.00"));   // usa el sobregiro
+            assertEquals(new BigDecimal("-200.00"), ledger.getBalance(from));
+            ledger.flush();
+            assertEquals(0, ledger.getPendingAccounts());
+            assertEquals(new BigDecimal("-200.00"), jdbc.getBalance(from));
+            assertEquals(new BigDecimal("200.00"), jdbc.getBalance(to));
+        }
+    }
+
+    @Test
+    void testTransferLegsRecoverTogether(@TempDir Path dir) throws IOException {
+        String from = open(AccountType.CORRIENTE).getAccountNumber();
+        String to = open(AccountType.AHORRO).getAccountNumber();
+        BankAccountDaoLedger ledger = new BankAccountDaoLedger(jdbc, dir, Duration.ofHours(1));
+        ledger.deposit(from, new BigDecimal("50.00"));
+        ledger.transfer(from, to, new BigDecimal("20.00"));
+
+        // escritura cortada a mitad del registro de la transferencia: no se aplica ninguna pata
+        Path last;
+        try (Stream<Path> files = Files.list(dir)) {
+            last = files.filter(p -> p.getFileName().toString().endsWith(".log"))
+                    .max(Comparator.naturalOrder()).orElseThrow();
+        }
+        try (FileChannel ch = FileChannel.open(last, StandardOpenOption.WRITE)) {
+            ch.truncate(ch.size() - 10);
+        }
+        new BankAccountDaoLedger(jdbc, dir, Duration.ofHours(1)).close();
+        assertEquals(new BigDecimal("50.00"), jdbc.getBalance(from));
+        assertEquals(new BigDecimal("0.00"), jdbc.getBalance(to));
+    }
+
+    @Test
+    void testCutBetweenStripesLeavesSeqPrefix(@TempDir Path dir) throws IOException {
+        // dos cuentas en franjas distintas; 'later' va en la franja de menor índice
+        String first = open(AccountType.CORRIENTE).getAccountNumber();
+        String later = open(AccountType.CORRIENTE).getAccountNumber();
+        while (stripeOf(later) == stripeOf(first)) later = open(AccountType.CORRIENTE).getAccountNumber();
+        if (stripeOf(later) > stripeOf(first)) {
+            String t = first;
+            first = later;
+            later = t;
+        }
+        BankAccountDaoLedger ledger = new BankAccountDaoLedger(jdbc, dir, Duration.ofHours(1));
+        ledger.transfer(later, first, new BigDecimal("20.00"));   // usa el sobregiro
+        Path last;
+        try (Stream<Path> files = Files.list(dir)) {
+            last = files.filter(p -> p.getFileName().toString().endsWith(".log"))
+                    .max(Comparator.naturalOrder()).orElseThrow();
+        }
+        long before = Files.size(last);
+        // un solo volcado con registros de dos franjas
+        ledger.post(List.of(new Movement(first, MovementType.DEPOSITO, new BigDecimal("5.00")),
+                new Movement(later, MovementType.DEPOSITO, new BigDecimal("7.00"))));
+
+        // corte justo tras el primer registro escrito: debe ser el de menor seq
+        int firstRecord = 4 + 8 + 2 + 2 + first.length() + 8 + 1 + 4;
+        try (FileChannel ch = FileChannel.open(last, StandardOpenOption.WRITE)) {
+            ch.truncate(before + firstRecord);
+        }
+        new BankAccountDaoLedger(jdbc, dir, Duration.ofHours(1)).close();
+        assertEquals(new BigDecimal("25.00"), jdbc.getBalance(first));
+        assertEquals(new BigDecimal("-20.00"), jdbc.getBalance(later));
+    }
+
+    private static int stripeOf(String accountNumber) {
+        return (accountNumber.hashCode() & 0x7fffffff) % 16;
+    }
+
+    @Test
+    void testFlushWritesThroughDelegateDataSource(@TempDir Path dir) {
+        String acc = open(AccountType.AHORRO).getAccountNumber();
+        AtomicInteger connections = new AtomicInteger();
+        DataSource counting = (DataSource) Proxy.newProxyInstance(DataSource.class.getClassLoader(),
+                new Class<?>[]{DataSource.class}, (p, m, args) -> {
+                    if (m.getName().equals("getConnection")) connections.incrementAndGet();
+                    try {
+                        return m.invoke(DB.dataSource(), args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+        try (BankAccountDaoLedger ledger = new BankAccountDaoLedger(new BankAccountDaoJdbc(false, counting),
+                dir, Duration.ofHours(1))) {
+            ledger.deposit(acc, new BigDecimal("40.00"));
+            int before = connections.get();
+            ledger.flush();
+            assertEquals(before + 1, connections.get());
+            assertEquals(new BigDecimal("40.00"), jdbc.getBalance(acc));
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package org.example;
+
+import org.example.dao.InsufficientFundsException;
+import org.example.ledger.BankAccountDaoMapped;
+import org.example.model.AccountType;
+import org.example.model.BankAccount;
+import org.example.model.Currency;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BankAccountDaoMappedTest {
+
+    private static BankAccount account(AccountType type, int clientId) {
+        BankAccount a = new BankAccount();
+        a.setAccountType(type);
+        a.setCurrency(Currency.PEN);
+        a.setClientId(clientId);
+        return a;
+    }
+
+    @Test
+    void testBalancesSurviveRestartWithoutClose(@TempDir Path dir) {
+        BankAccountDaoMapped dao = new BankAccountDaoMapped(dir, 1024);
+        String ahorro = dao.openAccount(account(AccountType.AHORRO, 1)).getAccountNumber();
+        String corriente = dao.openAccount(account(AccountType.CORRIENTE, 1)).getAccountNumber();
+
+        assertEquals(new BigDecimal("100.00"), dao.deposit(ahorro, new BigDecimal("100.00")));
+        assertThrows(InsufficientFundsException.class, () -> dao.withdraw(ahorro, new BigDecimal("100.01")));
+        dao.transfer(corriente, ahorro, new BigDecimal("450.50"));   // sobregiro por defecto 500.00
+        assertThrows(InsufficientFundsException.class, () -> dao.withdraw(corriente, new BigDecimal("50.00")));
+
+        // "caída": no se cierra; otra instancia lee snapshot + WAL
+        BankAccountDaoMapped restarted = new BankAccountDaoMapped(dir, 1024);
+        assertEquals(new BigDecimal("550.50"), restarted.getBalance(ahorro));
+        assertEquals(new BigDecimal("-450.50"), restarted.getBalance(corriente));
+        assertEquals(2, restarted.findByClient(1).size());
+        String next = restarted.openAccount(account(AccountType.AHORRO, 2)).getAccountNumber();
+        assertNotEquals(ahorro, next);
+        assertNotEquals(corriente, next);
+        restarted.close();
+    }
+
+    @Test
+    void testWalRotatesIntoSnapshotWhenFull(@TempDir Path dir) {
+        String acc;
+        try (BankAccountDaoMapped dao = new BankAccountDaoMapped(dir, 8)) {
+            acc = dao.openAccount(account(AccountType.AHORRO, 3)).getAccountNumber();
+            for (int i = 0; i < 50; i++) dao.deposit(acc, new BigDecimal("0.01"));
+            assertEquals(new BigDecimal("0.50"), dao.getBalance(acc));
+        }
+        try (BankAccountDaoMapped dao = new BankAccountDaoMapped(dir, 8)) {
+            assertEquals(50, dao.getBalanceCents(acc));
+            assertThrows(IllegalArgumentException.class, () -> dao.deposit(acc, new BigDecimal("0.001")));
+        }
+    }
+
+    @Test
+    void testTornTransferRecordAppliesNeitherLeg(@TempDir Path dir) throws IOException {
+        BankAccountDaoMapped dao = new BankAccountDaoMapped(dir, 1024);
+        String from = dao.openAccount(account(AccountType.AHORRO, 4)).getAccountNumber();
+        String to = dao.openAccount(account(AccountType.AHORRO, 4)).getAccountNumber();
+        dao.deposit(from, new BigDecimal("80.00"));
+        dao.transfer(from, to, new BigDecimal("30.00"));
+
+        // la transferencia es el 4.º hueco del WAL; se corrompe un byte de la pata de destino
+        Path wal;
+        try (Stream<Path> files = Files.list(dir)) {
+            wal = files.filter(p -> p.getFileName().toString().startsWith("wal-"))
+                    .max(Comparator.naturalOrder()).orElseThrow();
+        }
+        try (FileChannel ch = FileChannel.open(wal, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer b = ByteBuffer.allocate(1);
+            ch.read(b, 3 * 64 + 24);
+            b.put(0, (byte) (b.get(0) ^ 0x5A)).rewind();
+            ch.write(b, 3 * 64 + 24);
+        }
+
+        BankAccountDaoMapped restarted = new BankAccountDaoMapped(dir, 1024);
+        assertEquals(new BigDecimal("80.00"), restarted.getBalance(from));
+        assertEquals(new BigDecimal("0.00"), restarted.getBalance(to));
+        restarted.close();
+    }
+}
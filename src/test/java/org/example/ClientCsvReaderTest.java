@@ -0,0 +1,42 @@
+package org.example;
+
+import org.example.importer.ClientCsvReader;
+import org.example.model.Client;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClientCsvReaderTest {
+
+    @Test
+    void testReadClientsSkippingInvalidLines(@TempDir Path dir) throws Exception {
+        Path csv = dir.resolve("clientes.csv");
+        Files.writeString(csv,
+                "dni,firstName,lastName,email,phoneNumber,birthDate,address\n" +
+                "11223344,Rosa,Santos,rosa@mail.com,987654321,1998-03-21,\"Av. Primavera 123, Lima\"\n" +
+                ",Sin,Dni,,,,\n" +
+                "\n" +
+                "55667788,Luis,\"Pérez \"\"Lucho\"\"\",,,,\n");
+
+        try (ClientCsvReader reader = new ClientCsvReader(csv)) {
+            assertTrue(reader.hasNext());
+            Client rosa = reader.next();
+            assertEquals("11223344", rosa.getDni());
+            assertEquals(LocalDate.of(1998, 3, 21), rosa.getBirthDate());
+            assertEquals("Av. Primavera 123, Lima", rosa.getAddress());
+
+            Client luis = reader.next();
+            assertEquals("55667788", luis.getDni());
+            assertEquals("Pérez \"Lucho\"", luis.getLastName());
+            assertNull(luis.getEmail());
+
+            assertFalse(reader.hasNext());
+            assertEquals(1, reader.getSkipped());
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package org.example;
+
+import org.example.dao.ClientDaoCached;
+import org.example.dao.ClientDaoJdbc;
+import org.example.db.DB;
+import org.example.db.EmbeddedDatabase;
+import org.example.db.PoolProfile;
+import org.example.model.Client;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClientDaoCachedTest {
+
+    private static final AtomicInteger DNI = new AtomicInteger(52_000_000);
+
+    @BeforeAll
+    static void startDb() {
+        EmbeddedDatabase.start("clientcache", PoolProfile.OLTP);
+    }
+
+    @AfterAll
+    static void stopDb() {
+        DB.shutdown();
+    }
+
+    private static Client save() {
+        return new ClientDaoJdbc().save(new Client(String.valueOf(DNI.incrementAndGet()), "Ana", "Ruiz",
+                null, null, LocalDate.of(1991, 7, 2), null));
+    }
+
+    // Delegado que se detiene después de leer de la BD hasta que el test lo suelte
+    private static final class Paused extends ClientDaoJdbc {
+        final CountDownLatch reached = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        volatile boolean pauseRead;
+
+        @Override
+        public Optional<Client> findById(int id) {
+            Optional<Client> c = super.findById(id);
+            if (pauseRead) {
+                pauseRead = false;
+                reached.countDown();
+                try {
+                    assertTrue(release.await(5, TimeUnit.SECONDS));
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+            return c;
+        }
+    }
+
+    @Test
+    void testSlowReadDoesNotOverwriteUpdate() throws Exception {
+        Client c = save();
+        Paused db = new Paused();
+        ClientDaoCached cached = new ClientDaoCached(db);
+
+        db.pauseRead = true;
+        CompletableFuture<Optional<Client>> read = CompletableFuture.supplyAsync(() -> cached.findById(c.getId()));
+        assertTrue(db.reached.await(5, TimeUnit.SECONDS));   // ya leyó "Ana" de la BD
+        Client renamed = c.copy();
+        renamed.setFirstName("Inés");
+        cached.update(renamed);
+        db.release.countDown();
+        assertEquals("Ana", read.get(5, TimeUnit.SECONDS).orElseThrow().getFirstName());
+
+        assertEquals("Inés", cached.findById(c.getId()).orElseThrow().getFirstName());
+    }
+
+    @Test
+    void testUpdateDoesNotCacheCallerObject() {
+        Client c = save();
+        ClientDaoCached cached = new ClientDaoCached(new ClientDaoJdbc());
+        assertEquals(c.getDni(), cached.findByDni(c.getDni()).orElseThrow().getDni());
+
+        // el UPDATE no toca el DNI: el que trae el llamador no debe llegar a la cache
+        String otherDni = String.valueOf(DNI.incrementAndGet());
+        Client forged = new Client(c.getId(), otherDni, "Eva", "Ruiz", null, null, LocalDate.of(1991, 7, 2), null);
+        cached.update(forged);
+        forged.setFirstName("Mutada");
+
+        assertTrue(cached.findByDni(otherDni).isEmpty());
+        Client current = cached.findById(c.getId()).orElseThrow();
+        assertEquals(c.getDni(), current.getDni());
+        assertEquals("Eva", current.getFirstName());
+        assertEquals("Eva", cached.findByDni(c.getDni()).orElseThrow().getFirstName());
+    }
+
+    @Test
+    void testDeleteInvalidatesDni() {
+        Client c = save();
+        ClientDaoCached cached = new ClientDaoCached(new ClientDaoJdbc());
+        cached.findById(c.getId());
+        assertTrue(cached.findByDni(c.getDni()).isPresent());   // de la cache
+
+        assertTrue(cached.deleteById(c.getId()));
+        assertTrue(cached.findById(c.getId()).isEmpty());
+        assertTrue(cached.findByDni(c.getDni()).isEmpty());
+    }
+}
@@ -0,0 +1,127 @@
+package org.example;
+
+import org.example.dao.ClientDaoJdbc;
+import org.example.dao.ImportResult;
+import org.example.db.DB;
+import org.example.db.EmbeddedDatabase;
+import org.example.db.PoolProfile;
+import org.example.model.Client;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClientDaoJdbcTest {
+
+    private final ClientDaoJdbc clientDao = new ClientDaoJdbc();
+
+    @BeforeAll
+    static void startDb() {
+        EmbeddedDatabase.start("clients", PoolProfile.BATCH);
+    }
+
+    @AfterAll
+    static void stopDb() {
+        DB.shutdown();
+    }
+
+    private static Client client(String dni) {
+        return new Client(dni, "Rosa", "Santos", "rosa@mail.com", "987654321",
+                LocalDate.of(1998, 3, 21), "Av. Primavera 123");
+    }
+
+    @Test
+    void testSaveAllReportsDuplicatesWithoutAbortingChunk() {
+        clientDao.save(client("10000001"));
+
+        List<Client> input = new ArrayList<>();
+        for (int i = 0; i < 25; i++) input.add(client(String.valueOf(20_000_000 + i)));
+        input.add(client("10000001"));              // ya registrado
+        input.add(client("20000003"));              // repetido en el archivo
+
+        ImportResult result = clientDao.saveAll(input.iterator(), 10);
+        assertEquals(27, result.getRead());
+        assertEquals(25, result.getInserted());
+        assertEquals(2, result.getDuplicates());
+        assertTrue(input.subList(0, 25).stream().allMatch(c -> c.getId() != null));
+        assertEquals("Santos", clientDao.findByDni("20000024").orElseThrow().getLastName());
+    }
+
+    @Test
+    void testSaveAllRethrowsNonConstraintErrorsWithoutPartialInsert() {
+        List<Client> input = new ArrayList<>();
+        for (int i = 0; i < 5; i++) input.add(client(String.valueOf(60_000_000 + i)));
+        // el lote falla por la conexión, no por un duplicado: no se reintenta fila a fila
+        ClientDaoJdbc dao = new ClientDaoJdbc(failingBatches(DB.dataSource()));
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> dao.saveAll(input.iterator(), 10));
+        assertInstanceOf(BatchUpdateException.class, e.getCause());
+        for (Client c : input) {
+            assertNull(c.getId());
+            assertTrue(clientDao.findByDni(c.getDni()).isEmpty());
+        }
+    }
+
+    // DataSource cuyas sentencias fallan en executeBatch como si se cayera la conexión (SQLState 08S01)
+    private static DataSource failingBatches(DataSource ds) {
+        return proxy(DataSource.class, ds, (m, args) -> {
+            Object r = m.invoke(ds, args);
+            if (!(r instanceof Connection)) return r;
+            Connection con = (Connection) r;
+            return proxy(Connection.class, con, (cm, cargs) -> {
+                Object cr = cm.invoke(con, cargs);
+                if (!(cr instanceof PreparedStatement)) return cr;
+                PreparedStatement ps = (PreparedStatement) cr;
+                return proxy(PreparedStatement.class, ps, (pm, pargs) -> {
+                    if (pm.getName().equals("executeBatch"))
+                        throw new BatchUpdateException("conexión perdida", "08S01", 0, new int[0]);
+                    return pm.invoke(ps, pargs);
+                });
+            });
+        });
+    }
+
+    private interface Call {
+        Object invoke(Method m, Object[] args) throws Throwable;
+    }
+
+    private static <T> T proxy(Class<T> type, T target, Call call) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (p, m, args) -> {
+            try {
+                return call.invoke(m, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }));
+    }
+
+    @Test
+    void testKeysetPagesAndStreamSeeAllRows() {
+        for (int i = 0; i < 7; i++) clientDao.save(client(String.valueOf(30_000_000 + i)));
+
+        int total = 0;
+        int afterId = 0;
+        List<Client> page;
+        while (!(page = clientDao.findPage(afterId, 3)).isEmpty()) {
+            total += page.size();
+            afterId = page.get(page.size() - 1).getId();
+        }
+        try (Stream<Client> all = clientDao.streamAll()) {
+            assertEquals(total, all.count());
+        }
+        assertEquals(total, clientDao.findAll().size());
+    }
+}
@@ -0,0 +1,78 @@
+package org.example;
+
+import org.example.cache.FxRateCache;
+import org.example.dao.BankAccountDaoJdbc;
+import org.example.dao.ClientDaoJdbc;
+import org.example.dao.FxRateDaoJdbc;
+import org.example.db.DB;
+import org.example.db.EmbeddedDatabase;
+import org.example.db.PoolProfile;
+import org.example.model.*;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClientPositionTest {
+
+    private final BankAccountDaoJdbc jdbc = new BankAccountDaoJdbc();
+
+    @BeforeAll
+    static void startDb() {
+        EmbeddedDatabase.start("position", PoolProfile.OLTP);
+    }
+
+    @AfterAll
+    static void stopDb() {
+        DB.shutdown();
+    }
+
+    private void open(int clientId, Currency currency, String balance) {
+        BankAccount a = new BankAccount();
+        a.setAccountType(AccountType.CORRIENTE);
+        a.setCurrency(currency);
+        a.setBalance(new BigDecimal(balance));
+        a.setClientId(clientId);
+        jdbc.openAccount(a);
+    }
+
+    @Test
+    void testPositionByCurrencyAndConverted() {
+        Client c = new ClientDaoJdbc().save(new Client("7" + System.nanoTime() % 10_000_000, "Luz", "Paredes",
+                null, null, LocalDate.of(1985, 1, 9), null));
+        open(c.getId(), Currency.PEN, "100.50");
+        open(c.getId(), Currency.PEN, "-20.25");
+        open(c.getId(), Currency.USD, "10.00");
+
+        FxRateDaoJdbc fxDao = new FxRateDaoJdbc();
+        fxDao.save(Currency.USD, Currency.PEN, new BigDecimal("3.75"));
+
+        ClientPosition p = jdbc.findPosition(c.getId());
+        assertEquals(3, p.getAccounts());
+        assertEquals(Money.parse("80.25", Currency.PEN), p.getTotal(Currency.PEN));
+        assertEquals(Money.parse("10.00", Currency.USD), p.getTotal(Currency.USD));
+
+        try (FxRateCache rates = new FxRateCache(fxDao, Duration.ofHours(1))) {
+            assertEquals(Money.parse("117.75", Currency.PEN), p.totalIn(Currency.PEN, rates));
+            // 80.25 / 3.75 = 21.40
+            assertEquals(Money.parse("31.40", Currency.USD), p.totalIn(Currency.USD, rates));
+
+            fxDao.save(Currency.USD, Currency.PEN, new BigDecimal("4.00"));
+            assertEquals(new BigDecimal("3.75"), rates.rate(Currency.USD, Currency.PEN).stripTrailingZeros());
+            rates.refresh();
+            assertEquals(Money.parse("120.25", Currency.PEN), p.totalIn(Currency.PEN, rates));
+        }
+    }
+
+    @Test
+    void testClientWithoutAccounts() {
+        ClientPosition p = jdbc.findPosition(-1);
+        assertEquals(0, p.getAccounts());
+        assertEquals(Money.zero(Currency.USD), p.getTotal(Currency.USD));
+    }
+}
@@ -0,0 +1,108 @@
+package org.example;
+
+import org.example.cache.ClientSearchIndex;
+import org.example.dao.ClientDaoIndexed;
+import org.example.dao.ClientDaoJdbc;
+import org.example.db.DB;
+import org.example.db.EmbeddedDatabase;
+import org.example.db.PoolProfile;
+import org.example.model.Client;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClientSearchTest {
+
+    @BeforeAll
+    static void startDb() {
+        EmbeddedDatabase.start("search", PoolProfile.OLTP);
+    }
+
+    @AfterAll
+    static void stopDb() {
+        DB.shutdown();
+    }
+
+    private static Client client(int id, String first, String last, String email, String phone) {
+        return new Client(id, String.valueOf(10_000_000 + id), first, last, email, phone, LocalDate.of(1990, 1, 1), null);
+    }
+
+    @Test
+    void testSearchByPrefixIgnoresCaseAndAccents() {
+        ClientSearchIndex index = new ClientSearchIndex();
+        index.load(List.of(
+                client(1, "María José", "Pérez", "mjose@mail.com", "987-654-321"),
+                client(2, "Mario", "Santos", "mario@correo.pe", "912345678"),
+                client(3, "Rosa", "Pereda", "rosa@mail.com", null)).stream());
+
+        assertArrayEquals(new int[]{1, 2}, index.search("mar", 0, 10));
+        assertArrayEquals(new int[]{1}, index.search("JOSE", 0, 10));
+        assertArrayEquals(new int[]{1, 3}, index.search("pere", 0, 10));
+        assertArrayEquals(new int[]{1}, index.search("maria per", 0, 10));
+        assertArrayEquals(new int[]{3}, index.search("rosa@", 0, 10));
+        assertArrayEquals(new int[]{1}, index.search("987-65", 0, 10));
+        assertArrayEquals(new int[0], index.search("zz", 0, 10));
+
+        // página siguiente por keyset
+        assertArrayEquals(new int[]{1}, index.search("mar", 0, 1));
+        assertArrayEquals(new int[]{2}, index.search("mar", 1, 1));
+    }
+
+    @Test
+    void testUpdatesAndDeletesAcrossCompaction() {
+        ClientSearchIndex index = new ClientSearchIndex();
+        index.load(IntStream.rangeClosed(1, 20_000)
+                .mapToObj(i -> client(i, "Nombre" + i, "Apellido", "c" + i + "@mail.com", null)));
+        assertEquals(20_000, index.search("apellido", 0, 100_000).length);
+
+        // suficientes cambios para fusionar el delta en el arreglo varias veces
+        for (int i = 1; i <= 10_000; i++) index.put(client(i, "Cambiado", "Otro", null, null));
+        for (int i = 10_001; i <= 12_000; i++) index.remove(i);
+        index.put(client(30_000, "Nuevo", "Apellido", null, null));
+
+        assertEquals(8_001, index.search("apellido", 0, 100_000).length);
+        assertEquals(10_000, index.search("cambiado otro", 0, 100_000).length);
+        assertEquals(12_001, index.search("nombre1", 0, 10)[0]);   // de 1 a 12000 ya cambiaron o se borraron
+        assertArrayEquals(new int[]{12_001}, index.search("nombre12001", 0, 10));
+        assertArrayEquals(new int[]{30_000}, index.search("nuevo", 0, 10));
+        assertTrue(index.estimatedBytes() > 0);
+    }
+
+    @Test
+    void testDaoKeepsIndexCurrent() {
+        ClientDaoJdbc jdbc = new ClientDaoJdbc();
+        Client before = jdbc.save(new Client("71000001", "Lucía", "Quispe", "lucia@mail.com", "955111222",
+                LocalDate.of(1995, 5, 5), null));
+        ClientDaoIndexed dao = new ClientDaoIndexed(jdbc);
+        assertEquals(List.of(before.getId()), ids(dao.search("luc", 0, 10)));
+
+        Client after = dao.save(new Client("71000002", "Luciano", "Quispe", null, null, LocalDate.of(1990, 1, 1), null));
+        assertEquals(List.of(before.getId(), after.getId()), ids(dao.search("quispe luc", 0, 10)));
+
+        dao.saveAll(Arrays.asList(
+                new Client("71000003", "Lucas", "Ramos", null, null, LocalDate.of(1990, 1, 1), null),
+                new Client("71000001", "Duplicado", "Quispe", null, null, LocalDate.of(1990, 1, 1), null)).iterator());
+        assertEquals(3, dao.search("luc", 0, 10).size());
+        assertTrue(dao.search("duplicado", 0, 10).isEmpty());
+
+        after.setFirstName("Andrés");
+        dao.update(after);
+        assertEquals(List.of(after.getId()), ids(dao.search("andres", 0, 10)));
+        assertEquals(2, dao.search("luc", 0, 10).size());
+
+        assertTrue(dao.deleteById(before.getId()));
+        assertEquals(List.of(after.getId()), ids(dao.search("quispe", 0, 10)));
+    }
+
+    private static List<Integer> ids(List<Client> clients) {
+        return clients.stream().map(Client::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,102 @@
+package org.example;
+
+import org.example.dao.BankAccountDAO;
+import org.example.dao.BankAccountDaoJdbc;
+import org.example.dao.BankAccountDaoMetered;
+import org.example.dao.ClientDAO;
+import org.example.dao.ClientDaoJdbc;
+import org.example.dao.ClientDaoMetered;
+import org.example.dao.InsufficientFundsException;
+import org.example.db.DB;
+import org.example.db.EmbeddedDatabase;
+import org.example.db.PoolProfile;
+import org.example.metrics.DaoMetrics;
+import org.example.metrics.LatencyHistogram;
+import org.example.metrics.MetricsHttpServer;
+import org.example.metrics.OpMetrics;
+import org.example.model.AccountType;
+import org.example.model.BankAccount;
+import org.example.model.Client;
+import org.example.model.Currency;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import javax.management.ObjectName;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DaoMetricsTest {
+
+    @BeforeAll
+    static void startDb() {
+        EmbeddedDatabase.start("metrics", PoolProfile.OLTP);
+    }
+
+    @AfterAll
+    static void stopDb() {
+        DaoMetrics.setEnabled(false);
+        DB.shutdown();
+    }
+
+    @Test
+    void testHistogramPercentiles() {
+        LatencyHistogram h = new LatencyHistogram();
+        for (long v = 1; v <= 100_000; v++) h.record(v * 1000);   // 1 µs .. 100 ms
+        assertEquals(100_000, h.getCount());
+        assertEquals(50_000_000, h.percentile(0.5), 50_000_000 * 0.035);
+        assertEquals(99_000_000, h.percentile(0.99), 99_000_000 * 0.035);
+        assertEquals(99_900_000, h.percentile(0.999), 99_900_000 * 0.035);
+        assertEquals(100_000_000, h.getMaxNanos());
+    }
+
+    @Test
+    void testMeteredDaosCountRejectionsAndViolations() throws Exception {
+        ClientDAO clients = new ClientDaoMetered(new ClientDaoJdbc());
+        BankAccountDAO accounts = new BankAccountDaoMetered(new BankAccountDaoJdbc());
+        OpMetrics withdraw = DaoMetrics.op("account.withdraw");
+        OpMetrics save = DaoMetrics.op("client.save");
+
+        // apagado: no se mide nada
+        DaoMetrics.setEnabled(false);
+        Client c = clients.save(new Client("3" + System.nanoTime() % 10_000_000, "Ana", "Ruiz",
+                null, null, LocalDate.of(1985, 6, 1), null));
+        long savesBefore = save.getCount();
+        long withdrawsBefore = withdraw.getCount();
+
+        DaoMetrics.setEnabled(true);
+        BankAccount a = new BankAccount();
+        a.setAccountType(AccountType.AHORRO);
+        a.setCurrency(Currency.PEN);
+        a.setClientId(c.getId());
+        String acc = accounts.openAccount(a).getAccountNumber();
+        accounts.deposit(acc, new BigDecimal("10.00"));
+        assertThrows(InsufficientFundsException.class, () -> accounts.withdraw(acc, new BigDecimal("10.01")));
+        assertThrows(RuntimeException.class, () -> clients.save(new Client(c.getDni(), "Otra", "Persona",
+                null, null, LocalDate.of(1990, 1, 1), null)));
+
+        assertEquals(withdrawsBefore + 1, withdraw.getCount());
+        assertTrue(withdraw.getRuleRejections() >= 1);
+        assertEquals(savesBefore + 1, save.getCount());
+        assertTrue(save.getConstraintViolations() >= 1);
+        assertTrue(DaoMetrics.EXECUTE.getCount() > 0);
+        assertTrue(DaoMetrics.ACQUIRE.getCount() > 0);
+
+        Object count = ManagementFactory.getPlatformMBeanServer().getAttribute(
+                new ObjectName("org.example:type=DaoMetrics,name=" + ObjectName.quote("account.withdraw")), "Count");
+        assertEquals(withdraw.getCount(), count);
+
+        try (MetricsHttpServer http = new MetricsHttpServer(0);
+             InputStream in = new URL("http://localhost:" + http.getPort() + "/metrics").openStream()) {
+            String text = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            assertTrue(text.contains("dao_latency_seconds{op=\"account.deposit\",quantile=\"0.99\"}"));
+            assertTrue(text.contains("dao_rule_rejections_total{op=\"account.withdraw\"}"));
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package org.example;
+
+import org.example.batch.ChunkReport;
+import org.example.batch.EndOfDayJob;
+import org.example.batch.EndOfDayResult;
+import org.example.dao.BankAccountDaoJdbc;
+import org.example.dao.ClientDaoJdbc;
+import org.example.db.DB;
+import org.example.db.EmbeddedDatabase;
+import org.example.db.PoolProfile;
+import org.example.model.AccountType;
+import org.example.model.BankAccount;
+import org.example.model.Client;
+import org.example.model.Currency;
+import org.example.model.Money;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EndOfDayJobTest {
+
+    private static final BankAccountDaoJdbc accounts = new BankAccountDaoJdbc();
+
+    @BeforeAll
+    static void startDb() {
+        EmbeddedDatabase.start("eod", PoolProfile.BATCH);
+    }
+
+    @AfterAll
+    static void stopDb() {
+        DB.shutdown();
+    }
+
+    private static String open(int clientId, AccountType type, String balance) {
+        BankAccount a = new BankAccount();
+        a.setAccountType(type);
+        a.setCurrency(Currency.PEN);
+        a.setBalance(new BigDecimal(balance));
+        a.setOverdraftLimit(new BigDecimal("1000.00"));
+        a.setClientId(clientId);
+        return accounts.openAccount(a).getAccountNumber();
+    }
+
+    @Test
+    void testAccruesInParallelAndResumesWithoutDoubleApplying() {
+        Client c = new ClientDaoJdbc().save(new Client("4" + System.nanoTime() % 10_000_000, "Eva", "Cruz",
+                null, null, LocalDate.of(1980, 2, 2), null));
+        List<String> savings = new ArrayList<>();
+        List<String> overdrawn = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            savings.add(open(c.getId(), AccountType.AHORRO, "365.00"));
+            overdrawn.add(open(c.getId(), AccountType.CORRIENTE, "-730.00"));
+        }
+        String untouched = open(c.getId(), AccountType.CORRIENTE, "50.00");
+
+        // 10% anual sobre 365.00 = 0.10 al día; 36.5% sobre -730.00 = -0.73 al día
+        EndOfDayJob job = new EndOfDayJob(new BigDecimal("0.10"), new BigDecimal("0.365"), 7, 4);
+        LocalDate day = LocalDate.of(2024, 5, 31);
+        ConcurrentLinkedQueue<ChunkReport> reports = new ConcurrentLinkedQueue<>();
+        EndOfDayResult first = job.run(day, reports::add);
+
+        assertEquals(0, first.getFailed());
+        assertEquals(60, first.getAccounts());
+        assertEquals(first.getChunks().size(), reports.size());
+        assertEquals(Money.parse("3.00", Currency.PEN), first.getInterestPaid(Currency.PEN));
+        assertEquals(Money.parse("21.90", Currency.PEN), first.getOverdraftCharged(Currency.PEN));
+        for (String acc : savings) assertEquals(new BigDecimal("365.10"), accounts.getBalance(acc));
+        for (String acc : overdrawn) assertEquals(new BigDecimal("-730.73"), accounts.getBalance(acc));
+        assertEquals(new BigDecimal("50.00"), accounts.getBalance(untouched));
+
+        // "reanudar" la misma fecha: todo tiene checkpoint, nada se vuelve a aplicar
+        EndOfDayResult again = job.run(day);
+        assertEquals(0, again.getAccounts());
+        assertEquals(first.getChunks().size(), again.getSkipped());
+        assertEquals(new BigDecimal("365.10"), accounts.getBalance(savings.get(0)));
+
+        // otro día sí acumula
+        job.run(day.plusDays(1));
+        assertEquals(new BigDecimal("365.20"), accounts.getBalance(savings.get(0)));
+    }
+}
@@ -0,0 +1,78 @@
+package org.example;
+
+import org.example.dao.BankAccountDaoJdbc;
+import org.example.dao.ClientDaoJdbc;
+import org.example.dao.IdempotentPostingDaoCached;
+import org.example.db.DB;
+import org.example.db.EmbeddedDatabase;
+import org.example.db.PoolProfile;
+import org.example.model.AccountType;
+import org.example.model.BankAccount;
+import org.example.model.Client;
+import org.example.model.Currency;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotentPostingTest {
+
+    private final BankAccountDaoJdbc jdbc = new BankAccountDaoJdbc();
+
+    @BeforeAll
+    static void startDb() {
+        EmbeddedDatabase.start("idempotent", PoolProfile.OLTP);
+    }
+
+    @AfterAll
+    static void stopDb() {
+        DB.shutdown();
+    }
+
+    private String openSavings() {
+        Client c = new ClientDaoJdbc().save(new Client("6" + System.nanoTime() % 10_000_000, "Iris", "Mora",
+                null, null, LocalDate.of(1992, 7, 7), null));
+        BankAccount a = new BankAccount();
+        a.setAccountType(AccountType.AHORRO);
+        a.setCurrency(Currency.PEN);
+        a.setClientId(c.getId());
+        return jdbc.openAccount(a).getAccountNumber();
+    }
+
+    @Test
+    void testRetriesDoNotMoveMoneyTwice() {
+        String acc = openSavings();
+        assertEquals(new BigDecimal("100.00"), jdbc.deposit("dep-1", acc, new BigDecimal("100.00")));
+        assertEquals(new BigDecimal("100.00"), jdbc.deposit("dep-1", acc, new BigDecimal("100.00")));
+        assertEquals(new BigDecimal("0.00"), jdbc.withdraw("wd-1", acc, new BigDecimal("100.00")));
+        // el reintento del retiro no falla por fondos: devuelve el saldo original
+        assertEquals(new BigDecimal("0.00"), jdbc.withdraw("wd-1", acc, new BigDecimal("100.00")));
+        assertEquals(new BigDecimal("0.00"), jdbc.getBalance(acc));
+
+        assertThrows(IllegalArgumentException.class, () -> jdbc.deposit("dep-1", acc, new BigDecimal("5.00")));
+        assertTrue(jdbc.purgePostingKeys(LocalDateTime.now().plusMinutes(1)) >= 2);
+        assertEquals(new BigDecimal("5.00"), jdbc.deposit("dep-1", acc, new BigDecimal("5.00")));   // clave ya purgada
+    }
+
+    @Test
+    void testCacheAbsorbsRetryStorm() {
+        String acc = openSavings();
+        IdempotentPostingDaoCached cached = new IdempotentPostingDaoCached(jdbc, 1000, Duration.ofMinutes(5));
+        for (int i = 0; i < 50; i++) {
+            assertEquals(new BigDecimal("10.00"), cached.deposit("storm-" + acc, acc, new BigDecimal("10.00")));
+        }
+        assertEquals(new BigDecimal("10.00"), jdbc.getBalance(acc));
+        assertEquals(49, cached.getStats().getHits());
+
+        // fuera de la cache (otra instancia) lo resuelve la tabla
+        IdempotentPostingDaoCached cold = new IdempotentPostingDaoCached(jdbc);
+        assertEquals(new BigDecimal("10.00"), cold.deposit("storm-" + acc, acc, new BigDecimal("10.00")));
+        assertEquals(new BigDecimal("10.00"), jdbc.getBalance(acc));
+    }
+}
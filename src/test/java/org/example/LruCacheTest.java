@@ -0,0 +1,43 @@
+package org.example;
+
+import org.example.cache.CacheStats;
+import org.example.cache.LruCache;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LruCacheTest {
+
+    @Test
+    void testHitsMissesAndInvalidate() {
+        LruCache<String, Integer> cache = new LruCache<>(100, Duration.ofMinutes(1));
+        assertNull(cache.get("a"));
+        cache.put("a", 1);
+        assertEquals(1, cache.get("a"));
+        cache.invalidate("a");
+        assertNull(cache.get("a"));
+
+        CacheStats stats = cache.stats();
+        assertEquals(1, stats.getHits());
+        assertEquals(2, stats.getMisses());
+    }
+
+    @Test
+    void testSizeIsBounded() {
+        LruCache<Integer, Integer> cache = new LruCache<>(64, Duration.ofMinutes(1));
+        for (int i = 0; i < 10_000; i++) cache.put(i, i);
+        assertTrue(cache.size() <= 64);
+        assertTrue(cache.stats().getEvictions() > 0);
+    }
+
+    @Test
+    void testEntriesExpire() throws InterruptedException {
+        LruCache<String, Integer> cache = new LruCache<>(10, Duration.ofMillis(5));
+        cache.put("a", 1);
+        Thread.sleep(20);
+        assertNull(cache.get("a"));
+        assertEquals(1, cache.stats().getExpirations());
+    }
+}
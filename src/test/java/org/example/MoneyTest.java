@@ -0,0 +1,36 @@
+package org.example;
+
+import org.example.model.Currency;
+import org.example.model.CurrencyMismatchException;
+import org.example.model.Money;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    @Test
+    void testExactArithmeticAndDecimalMapping() {
+        Money a = Money.parse("100.10", Currency.PEN);
+        Money b = Money.of(new BigDecimal("0.9"), Currency.PEN);
+        assertEquals(10_010, a.getMinorUnits());
+        assertEquals(new BigDecimal("101.00"), a.plus(b).toBigDecimal());
+        assertEquals(new BigDecimal("-0.90"), Money.zero(Currency.PEN).minus(b).toBigDecimal());
+        assertTrue(b.isLessThan(a));
+        assertEquals(Money.ofMinor(90, Currency.PEN), b);
+        assertEquals("PEN 100.10", a.toString());
+    }
+
+    @Test
+    void testRejectsMixedCurrenciesExtraDecimalsAndOverflow() {
+        Money pen = Money.parse("1.00", Currency.PEN);
+        Money usd = Money.parse("1.00", Currency.USD);
+        assertThrows(CurrencyMismatchException.class, () -> pen.plus(usd));
+        assertThrows(CurrencyMismatchException.class, () -> pen.compareTo(usd));
+        assertThrows(IllegalArgumentException.class, () -> Money.parse("1.005", Currency.PEN));
+        assertThrows(ArithmeticException.class,
+                () -> Money.ofMinor(Long.MAX_VALUE, Currency.PEN).plus(Money.ofMinor(1, Currency.PEN)));
+    }
+}
@@ -0,0 +1,154 @@
+package org.example;
+
+import org.example.dao.BankAccountDaoJdbc;
+import org.example.dao.ClientDaoJdbc;
+import org.example.dao.InsufficientFundsException;
+import org.example.dao.OptimisticLockException;
+import org.example.dao.RetryPolicy;
+import org.example.db.DB;
+import org.example.db.EmbeddedDatabase;
+import org.example.db.PoolProfile;
+import org.example.model.*;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OptimisticConcurrencyTest {
+
+    private static final AtomicInteger DNI = new AtomicInteger(47_000_000);
+
+    private final BankAccountDaoJdbc accDao = new BankAccountDaoJdbc(false, null,
+            new RetryPolicy(50, Duration.ofMillis(1), Duration.ofMillis(20)));
+
+    @BeforeAll
+    static void startDb() {
+        EmbeddedDatabase.start("optimistic", PoolProfile.OLTP);
+    }
+
+    @AfterAll
+    static void stopDb() {
+        DB.shutdown();
+    }
+
+    private BankAccount open(String balance) {
+        Client c = new ClientDaoJdbc().save(new Client(String.valueOf(DNI.incrementAndGet()), "Ana", "Ruiz",
+                null, null, LocalDate.of(1991, 7, 2), null));
+        BankAccount a = new BankAccount();
+        a.setAccountType(AccountType.AHORRO);
+        a.setCurrency(Currency.PEN);
+        a.setBalance(new BigDecimal(balance));
+        a.setClientId(c.getId());
+        return accDao.openAccount(a);
+    }
+
+    @Test
+    void testVersionGoesUpWithEveryBalanceChange() {
+        BankAccount a = open("100.00");
+        assertEquals(0L, a.getVersion());
+        assertTrue(accDao.isCurrent(a));
+
+        accDao.deposit(a.getAccountNumber(), new BigDecimal("5.00"));
+        assertFalse(accDao.isCurrent(a));
+        BankAccount read = accDao.findByAccountNumber(a.getAccountNumber()).orElseThrow();
+        assertEquals(1L, read.getVersion());
+
+        // la copia vieja ya no puede escribir; la recién leída sí
+        assertFalse(accDao.compareAndSetBalance(a, new BigDecimal("1.00")));
+        assertTrue(accDao.compareAndSetBalance(read, new BigDecimal("1.00")));
+        assertEquals(0, new BigDecimal("1.00").compareTo(accDao.getBalance(a.getAccountNumber())));
+        assertEquals(1, accDao.getBalanceUpdateStats().getConflicts());
+    }
+
+    @Test
+    void testUpdateBalanceChecksRules() {
+        BankAccount a = open("10.00");
+        BankAccount after = accDao.updateBalance(a.getAccountNumber(), m -> m.minus(Money.parse("4.00", Currency.PEN)));
+        assertEquals(0, new BigDecimal("6.00").compareTo(after.getBalance()));
+        assertEquals(1L, after.getVersion());
+        assertTrue(accDao.isCurrent(after));
+        assertThrows(InsufficientFundsException.class,
+                () -> accDao.updateBalance(a.getAccountNumber(), m -> m.minus(Money.parse("7.00", Currency.PEN))));
+    }
+
+    @Test
+    void testConcurrentUpdatesDoNotLoseWrites() throws Exception {
+        BankAccount a = open("0.00");
+        Money one = Money.parse("1.00", Currency.PEN);
+        int threads = 4, perThread = 25;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < perThread; i++) accDao.updateBalance(a.getAccountNumber(), m -> m.plus(one));
+                }));
+            }
+            for (Future<?> f : futures) f.get();
+        } finally {
+            pool.shutdown();
+        }
+        BankAccount end = accDao.findByAccountNumber(a.getAccountNumber()).orElseThrow();
+        assertEquals(0, new BigDecimal(threads * perThread).compareTo(end.getBalance()));
+        assertEquals(threads * perThread, end.getVersion());
+        assertEquals(accDao.getBalanceUpdateStats().getConflicts(), accDao.getBalanceUpdateStats().getRetried());
+    }
+
+    @Test
+    void testRetriesAreBounded() {
+        BankAccount a = open("0.00");
+        BankAccountDaoJdbc once = new BankAccountDaoJdbc(false, null, new RetryPolicy(1, Duration.ZERO, Duration.ZERO));
+        // cada cálculo cambia la cuenta por detrás, así que la versión leída nunca es la vigente
+        OptimisticLockException e = assertThrows(OptimisticLockException.class,
+                () -> once.updateBalance(a.getAccountNumber(), m -> {
+                    accDao.deposit(a.getAccountNumber(), BigDecimal.ONE);
+                    return m;
+                }));
+        assertEquals(a.getAccountNumber(), e.getAccountNumber());
+        assertEquals(1, once.getBalanceUpdateStats().getExhausted());
+    }
+
+    @Test
+    void testTransferBumpsBothVersions() {
+        BankAccount from = open("50.00");
+        BankAccount to = open("0.00");
+        accDao.transfer(from.getAccountNumber(), to.getAccountNumber(), new BigDecimal("20.00"));
+        assertEquals(1L, accDao.findByAccountNumber(from.getAccountNumber()).orElseThrow().getVersion());
+        assertEquals(1L, accDao.findByAccountNumber(to.getAccountNumber()).orElseThrow().getVersion());
+        assertEquals(0, new BigDecimal("30.00").compareTo(accDao.getBalance(from.getAccountNumber())));
+    }
+
+    // transfer lee sin bloquear y escribe ambas patas con CAS por versión (ya no SELECT ... FOR UPDATE
+    // en orden fijo): transferencias cruzadas no se bloquean entre sí, el perdedor reintenta
+    @Test
+    void testOppositeTransfersConserveTotal() throws Exception {
+        BankAccount a = open("1000.00");
+        BankAccount b = open("1000.00");
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            boolean ab = i % 2 == 0;
+            String from = (ab ? a : b).getAccountNumber();
+            String to = (ab ? b : a).getAccountNumber();
+            futures.add(pool.submit(() -> accDao.transfer(from, to, new BigDecimal("1.00"))));
+        }
+        for (Future<?> f : futures) f.get(30, TimeUnit.SECONDS);
+        pool.shutdown();
+
+        assertEquals(0, new BigDecimal("1000.00").compareTo(accDao.getBalance(a.getAccountNumber())));
+        assertEquals(0, new BigDecimal("1000.00").compareTo(accDao.getBalance(b.getAccountNumber())));
+        assertEquals(40L, accDao.findByAccountNumber(a.getAccountNumber()).orElseThrow().getVersion());
+    }
+}
@@ -0,0 +1,151 @@
+package org.example;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.example.dao.BankAccountDaoReplicated;
+import org.example.dao.ClientDaoReplicated;
+import org.example.db.EmbeddedDatabase;
+import org.example.db.PoolProfile;
+import org.example.db.ReplicaSession;
+import org.example.db.ReplicaSet;
+import org.example.model.AccountType;
+import org.example.model.BankAccount;
+import org.example.model.Client;
+import org.example.model.Currency;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Sin replicación real: la réplica "al día" es otra conexión a la misma base y la "atrasada" una base aparte.
+class ReplicaRoutingTest {
+
+    private static HikariDataSource primary;
+    private static HikariDataSource inSync;
+    private static HikariDataSource stale;
+
+    @BeforeAll
+    static void startDbs() {
+        primary = new HikariDataSource(EmbeddedDatabase.config("replica-primary", PoolProfile.OLTP));
+        inSync = new HikariDataSource(EmbeddedDatabase.config("replica-primary", PoolProfile.OLTP));
+        stale = new HikariDataSource(EmbeddedDatabase.config("replica-stale", PoolProfile.OLTP));
+    }
+
+    @AfterAll
+    static void stopDbs() {
+        primary.close();
+        inSync.close();
+        stale.close();
+    }
+
+    private static String openAccount(ReplicaSet rs) {
+        Client c = new ClientDaoReplicated(rs).save(new Client("8" + System.nanoTime() % 10_000_000, "Eva", "Lara",
+                null, null, LocalDate.of(1993, 4, 4), null));
+        BankAccount a = new BankAccount();
+        a.setAccountType(AccountType.AHORRO);
+        a.setCurrency(Currency.PEN);
+        a.setClientId(c.getId());
+        return new BankAccountDaoReplicated(rs).openAccount(a).getAccountNumber();
+    }
+
+    @Test
+    void testReadsAfterOwnWritesAvoidStaleReplicas() {
+        try (ReplicaSet rs = new ReplicaSet(primary, List.of(inSync, stale),
+                Duration.ofHours(1), Duration.ofMillis(200), Duration.ZERO)) {
+            assertTrue(rs.isRouted(0));
+            assertFalse(rs.isRouted(1));   // nunca vio un latido
+
+            String acc = openAccount(rs);
+            BankAccountDaoReplicated dao = new BankAccountDaoReplicated(rs);
+            assertEquals(new BigDecimal("0.00"), dao.getBalance(acc));
+            assertEquals(1, rs.getReplicaReads());
+
+            BankAccountDaoReplicated mine = dao.withSession(new ReplicaSession());
+            mine.deposit(acc, new BigDecimal("25.00"));
+            assertEquals(new BigDecimal("25.00"), mine.getBalance(acc));   // réplica sin el latido nuevo: primario
+            assertEquals(1, rs.getStaleFallbacks());
+
+            rs.heartbeat();
+            assertEquals(new BigDecimal("25.00"), mine.getBalance(acc));
+            assertEquals(2, rs.getReplicaReads());
+            assertEquals(1, rs.getStaleFallbacks());
+        }
+    }
+
+    @Test
+    void testSessionReadWaitsForCatchUp() {
+        try (ReplicaSet rs = new ReplicaSet(primary, List.of(inSync),
+                Duration.ofMillis(20), Duration.ofSeconds(5), Duration.ofSeconds(2))) {
+            String acc = openAccount(rs);
+            BankAccountDaoReplicated mine = new BankAccountDaoReplicated(rs).withSession(new ReplicaSession());
+            mine.deposit(acc, new BigDecimal("7.00"));
+            assertEquals(new BigDecimal("7.00"), mine.getBalance(acc));
+            assertEquals(0, rs.getStaleFallbacks());
+            assertTrue(rs.getReplicaReads() >= 1);
+        }
+    }
+
+    @Test
+    void testLaggingReplicaIsDropped() throws Exception {
+        try (ReplicaSet rs = new ReplicaSet(primary, List.of(stale),
+                Duration.ofHours(1), Duration.ofSeconds(1), Duration.ZERO)) {
+            copyHeartbeat(primary, stale);
+            rs.heartbeat();
+            assertTrue(rs.isRouted(0), rs.describe().toString());
+            assertTrue(rs.getLagMillis(0) <= 500);
+
+            Thread.sleep(1100);   // la "replicación" se detuvo
+            rs.heartbeat();
+            assertFalse(rs.isRouted(0));
+            assertTrue(rs.getLagMillis(0) > 1000);
+            assertEquals(ReplicaSet.PRIMARY, rs.route(0));
+        }
+    }
+
+    @Test
+    void testBeatNumbersComeFromPrimary() throws Exception {
+        try (ReplicaSet a = new ReplicaSet(primary, List.of(inSync), Duration.ofHours(1), Duration.ofSeconds(1), Duration.ZERO);
+             ReplicaSet b = new ReplicaSet(primary, List.of(inSync), Duration.ofHours(1), Duration.ofSeconds(1), Duration.ZERO)) {
+            b.heartbeat();
+            b.heartbeat();
+            // 'a' no vio los latidos de 'b', pero su token tiene que ser posterior a ellos
+            long token = a.writeToken();
+            assertEquals(primarySeq() + 1, token);
+            assertEquals(ReplicaSet.PRIMARY, a.route(token));
+            a.heartbeat();
+            assertEquals(0, a.route(token));
+        }
+    }
+
+    private static long primarySeq() throws Exception {
+        try (Connection con = primary.getConnection();
+             PreparedStatement ps = con.prepareStatement("SELECT seq FROM ReplicaHeartbeat WHERE id = 1");
+             ResultSet rs = ps.executeQuery()) {
+            assertTrue(rs.next());
+            return rs.getLong(1);
+        }
+    }
+
+    private static void copyHeartbeat(HikariDataSource from, HikariDataSource to) throws Exception {
+        try (Connection src = from.getConnection();
+             PreparedStatement sel = src.prepareStatement("SELECT seq, beatMillis FROM ReplicaHeartbeat WHERE id = 1");
+             ResultSet rs = sel.executeQuery();
+             Connection dst = to.getConnection();
+             PreparedStatement del = dst.prepareStatement("DELETE FROM ReplicaHeartbeat");
+             PreparedStatement ins = dst.prepareStatement("INSERT INTO ReplicaHeartbeat(id, seq, beatMillis) VALUES (1,?,?)")) {
+            assertTrue(rs.next());
+            del.executeUpdate();
+            ins.setLong(1, rs.getLong(1));
+            ins.setLong(2, rs.getLong(2));
+            ins.executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package org.example;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.example.dao.BankAccountDaoSharded;
+import org.example.dao.ClientDaoSharded;
+import org.example.dao.ImportResult;
+import org.example.db.EmbeddedDatabase;
+import org.example.db.PoolProfile;
+import org.example.model.AccountType;
+import org.example.model.BankAccount;
+import org.example.model.Client;
+import org.example.model.Currency;
+import org.example.shard.Resharder;
+import org.example.shard.ShardMap;
+import org.example.shard.Shards;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardingTest {
+
+    private static List<HikariDataSource> nodes;
+    private static Shards shards;
+    private static ClientDaoSharded clients;
+    private static BankAccountDaoSharded accounts;
+
+    @BeforeAll
+    static void startShards() {
+        nodes = EmbeddedDatabase.shards("sharding", 3, PoolProfile.OLTP);
+        shards = new Shards(nodes);
+        clients = new ClientDaoSharded(shards);
+        accounts = new BankAccountDaoSharded(shards);
+    }
+
+    @AfterAll
+    static void stopShards() {
+        shards.close();
+        nodes.forEach(HikariDataSource::close);
+    }
+
+    private static Client client(String dni) {
+        return new Client(dni, "Ana", "Ríos", null, null, LocalDate.of(1990, 1, 1), null);
+    }
+
+    private static BankAccount open(int clientId, String balance) {
+        BankAccount a = new BankAccount();
+        a.setAccountType(AccountType.CORRIENTE);
+        a.setCurrency(Currency.PEN);
+        a.setBalance(new BigDecimal(balance));
+        a.setClientId(clientId);
+        return accounts.openAccount(a);
+    }
+
+    @Test
+    void testRoutesByClientAndMergesInOrder() {
+        ImportResult r = clients.saveAll(IntStream.range(0, 60).mapToObj(i -> client("3" + (1000 + i))).iterator(), 7);
+        assertEquals(60, r.getInserted());
+        assertEquals(1, clients.saveAll(List.of(client("31000")).iterator()).getDuplicates());
+
+        List<Client> all = clients.findAll().stream().filter(c -> c.getDni().startsWith("3")).collect(Collectors.toList());
+        assertEquals(60, all.size());
+        assertEquals(3, all.stream().map(c -> shards.getMap().shardOf(c.getId())).distinct().count());
+        List<Integer> ids = clients.findAll().stream().map(Client::getId).collect(Collectors.toList());
+        assertEquals(ids.stream().sorted().collect(Collectors.toList()), ids);
+
+        List<Integer> paged = new ArrayList<>();
+        int after = 0;
+        for (List<Client> page; !(page = clients.findPage(after, 9)).isEmpty(); after = page.get(page.size() - 1).getId()) {
+            page.forEach(c -> paged.add(c.getId()));
+        }
+        assertEquals(ids, paged);
+        try (Stream<Client> s = clients.streamAll()) {
+            assertEquals(ids, s.map(Client::getId).collect(Collectors.toList()));
+        }
+
+        Client c = all.get(5);
+        assertEquals(c.getDni(), clients.findById(c.getId()).orElseThrow().getDni());
+        assertEquals(c.getId(), clients.findByDni(c.getDni()).orElseThrow().getId());
+        assertTrue(clients.findById(ShardMap.firstClientId(3)).isEmpty());
+
+        // de varios shards a la vez, en orden de id; los que no existen se omiten
+        int[] some = {ids.get(40), ids.get(3), ShardMap.firstClientId(3), ids.get(20)};
+        assertEquals(List.of(ids.get(3), ids.get(20), ids.get(40)),
+                clients.findByIds(some).stream().map(Client::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    void testAccountNumbersCarryTheirShard() {
+        Client c = clients.save(client("41001"));
+        BankAccount a1 = open(c.getId(), "10.00");
+        BankAccount a2 = open(c.getId(), "0.00");
+        assertEquals(ShardMap.accountNumber(c.getId(), 1), a1.getAccountNumber());
+        assertEquals(ShardMap.accountNumber(c.getId(), 2), a2.getAccountNumber());
+        assertEquals(shards.getMap().shardOf(c.getId()), shards.getMap().shardOfAccount(a1.getAccountNumber()));
+
+        assertEquals(new BigDecimal("15.00"), accounts.deposit(a1.getAccountNumber(), new BigDecimal("5.00")));
+        accounts.transfer(a1.getAccountNumber(), a2.getAccountNumber(), new BigDecimal("15.00"));
+        assertEquals(new BigDecimal("15.00"), accounts.getBalance(a2.getAccountNumber()));
+        assertEquals(2, accounts.findByClient(c.getId()).size());
+    }
+
+    @Test
+    void testResharderMovesClientWithAccounts() {
+        Client c = clients.save(client("51001"));
+        BankAccount a = open(c.getId(), "100.00");
+        accounts.withdraw("wd-shard-1", a.getAccountNumber(), new BigDecimal("40.00"));
+        int from = shards.getMap().shardOf(c.getId());
+        int to = (from + 1) % shards.size();
+
+        assertEquals(1, new Resharder(shards).move(c.getId(), to));
+        assertEquals(to, shards.getMap().shardOf(c.getId()));
+        assertEquals(new BigDecimal("60.00"), accounts.getBalance(a.getAccountNumber()));
+        // la clave de idempotencia viajó con la cuenta
+        assertEquals(new BigDecimal("60.00"), accounts.withdraw("wd-shard-1", a.getAccountNumber(), new BigDecimal("40.00")));
+        assertEquals(c.getDni(), clients.findByDni(c.getDni()).orElseThrow().getDni());
+        assertThrows(RuntimeException.class, () -> clients.save(client("51001")));
+        assertEquals(1, clients.findAll().stream().filter(x -> x.getId().equals(c.getId())).count());
+
+        // otro proceso ve el movimiento al cargar el mapa de los nodos
+        assertEquals(to, ShardMap.load(nodes).shardOf(c.getId()));
+
+        new Resharder(shards).move(c.getId(), from);
+        assertEquals(from, shards.getMap().shardOf(c.getId()));
+        assertFalse(ShardMap.load(nodes).getMoved().containsKey(c.getId()));
+        assertEquals(new BigDecimal("60.00"), accounts.getBalance(a.getAccountNumber()));
+    }
+
+    @Test
+    void testShardKeepsItsIdRangeAfterReceivingAMovedClient() {
+        ShardMap map = shards.getMap();
+        int last = shards.size() - 1;
+        Client moved = clients.save(client(dniFor(map, last, "6")));
+        assertEquals(last, map.homeOf(moved.getId()));
+        new Resharder(shards).move(moved.getId(), 0);
+
+        // el shard 0 tiene ahora un id del rango del último; sus altas siguen en su propio rango
+        Client fresh = clients.save(client(dniFor(map, 0, "6")));
+        assertEquals(0, map.homeOf(fresh.getId()));
+        assertEquals(fresh.getDni(), clients.findById(fresh.getId()).orElseThrow().getDni());
+        ImportResult r = clients.saveAll(List.of(client(dniFor(map, 0, "7")), client(dniFor(map, 0, "8"))).iterator());
+        assertEquals(2, r.getInserted());
+        assertTrue(clients.findAll().stream().filter(c -> c.getId() != moved.getId().intValue())
+                .allMatch(c -> map.shardOf(c.getId()) == map.homeOf(c.getId())));
+    }
+
+    // un DNI nuevo que ShardMap manda al shard pedido
+    private static String dniFor(ShardMap map, int shard, String prefix) {
+        for (int i = 0; ; i++) {
+            String dni = prefix + (1000 + i);
+            if (map.shardForDni(dni) == shard && clients.findByDni(dni).isEmpty()) return dni;
+        }
+    }
+}